@@ -19,6 +19,7 @@ package de.gerdiproject.harvest.setup;
 import java.util.List;
 
 import com.atlassian.bamboo.specs.api.builders.BambooKey;
+import com.atlassian.bamboo.specs.api.builders.Variable;
 import com.atlassian.bamboo.specs.api.builders.permission.PermissionType;
 import com.atlassian.bamboo.specs.api.builders.permission.Permissions;
 import com.atlassian.bamboo.specs.api.builders.permission.PlanPermissions;
@@ -27,9 +28,12 @@ import com.atlassian.bamboo.specs.api.builders.plan.Plan;
 import com.atlassian.bamboo.specs.api.builders.plan.PlanIdentifier;
 import com.atlassian.bamboo.specs.api.builders.plan.Stage;
 import com.atlassian.bamboo.specs.api.builders.plan.configuration.ConcurrentBuilds;
+import com.atlassian.bamboo.specs.api.builders.task.Task;
 import com.atlassian.bamboo.specs.api.builders.trigger.RepositoryBasedTrigger.TriggeringRepositoriesType;
 import com.atlassian.bamboo.specs.builders.repository.bitbucket.server.BitbucketServerRepository;
+import com.atlassian.bamboo.specs.builders.task.ScriptTask;
 import com.atlassian.bamboo.specs.builders.trigger.BitbucketServerTrigger;
+import com.atlassian.bamboo.specs.model.task.ScriptTaskProperties;
 import com.atlassian.bamboo.specs.util.BambooServer;
 
 import de.gerdiproject.harvest.setup.constants.ArtifactConstants;
@@ -90,14 +94,69 @@ public class HarvesterPlan extends Plan
             ArtifactConstants.SCRIPT_ARTIFACTS
         );
 
-        // add job to plan
-        stages(new Stage(BambooConstants.DEFAULT_JOB_STAGE).jobs(defaultJob));
+        // set up benchmark job
+        final Job benchmarkJob = new Job(
+            BambooConstants.BENCHMARK_JOB,
+            BambooConstants.BENCHMARK_JOB_KEY);
+
+        benchmarkJob.tasks(
+            RepositoryConstants.CHECKOUT_HARVESTER_REPO_TASK,
+            BambooConstants.MAVEN_BENCHMARK_TASK,
+            createBenchmarkRegressionTask(bambooKey));
+
+        benchmarkJob.artifacts(ArtifactConstants.BENCHMARK_ARTIFACT);
+
+        // the tolerated slowdown in percent, which can be overridden per plan branch
+        variables(new Variable(
+                      BambooConstants.BENCHMARK_THRESHOLD_VARIABLE,
+                      BambooConstants.BENCHMARK_THRESHOLD_DEFAULT));
+
+        // add jobs to plan
+        stages(
+            new Stage(BambooConstants.DEFAULT_JOB_STAGE).jobs(defaultJob),
+            new Stage(BambooConstants.BENCHMARK_JOB_STAGE).jobs(benchmarkJob));
 
         // auto-create plan branches, delete them after 1 day when the branch is removed in the repository
         planBranchManagement(BambooConstants.REMOVE_PLAN_BRANCH_AFTER_ONE_DAY);
     }
 
 
+    /**
+     * Creates a task that fails if the benchmarks of the harvester are slower than
+     * in the latest successful build of the master branch.
+     *
+     * @param bambooKey the bamboo key of the plan
+     *
+     * @return a task that compares the benchmark results with those of the master branch
+     */
+    private static Task<?, ?> createBenchmarkRegressionTask(BambooKey bambooKey)
+    {
+        final String resultFile = String.format(
+                                      "%s/target/%s",
+                                      RepositoryConstants.HARVESTER_WORKING_DIR,
+                                      ArtifactConstants.BENCHMARK_RESULT_FILE);
+
+        final String baselineUrl = String.format(
+                                       BambooConstants.BENCHMARK_BASELINE_URL,
+                                       BambooConstants.ANALYSIS_PROJECT_KEY,
+                                       bambooKey.getKey(),
+                                       BambooConstants.BENCHMARK_JOB_KEY.getKey(),
+                                       ArtifactConstants.BENCHMARK_ARTIFACT_NAME,
+                                       ArtifactConstants.BENCHMARK_RESULT_FILE);
+
+        return new ScriptTask()
+               .description("Check Benchmark Regression")
+               .location(ScriptTaskProperties.Location.INLINE)
+               .inlineBody(BambooConstants.CHECK_BENCHMARK_REGRESSION_SCRIPT)
+               .environmentVariables(BambooConstants.BENCHMARK_BASELINE_CREDENTIALS)
+               .argument(String.format("\"%s/scripts/checkBenchmarkRegression.sh\" \"%s\" \"%s\" \"${bamboo.%s}\"",
+                                       RepositoryConstants.HARVESTER_WORKING_DIR,
+                                       resultFile,
+                                       baselineUrl,
+                                       BambooConstants.BENCHMARK_THRESHOLD_VARIABLE));
+    }
+
+
     /**
      * Publishes the plan on a specified Bamboo server.
      *
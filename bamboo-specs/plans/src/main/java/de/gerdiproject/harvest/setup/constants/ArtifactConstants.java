@@ -44,6 +44,14 @@ public class ArtifactConstants
     .name("scripts")
     .copyPattern(SCRIPTS_PATTERN)
     .shared(true);
+
+    public static final String BENCHMARK_RESULT_FILE = "jmh-result.csv";
+    public static final String BENCHMARK_ARTIFACT_NAME = "benchmarkResults";
+    public static final Artifact BENCHMARK_ARTIFACT = new Artifact()
+    .name(BENCHMARK_ARTIFACT_NAME)
+    .copyPattern("target/" + BENCHMARK_RESULT_FILE)
+    .location(RepositoryConstants.HARVESTER_WORKING_DIR)
+    .shared(false);
     
 
     /**
@@ -53,11 +53,28 @@ public class BambooConstants
     public static final String DEFAULT_JOB_STAGE = "Default Stage";
     public static final String LOWER_CASE_REGEX = "[a-z]";
 
+    public static final String BENCHMARK_JOB = "Benchmark Job";
+    public static final BambooKey BENCHMARK_JOB_KEY = new BambooKey("JOB2");
+    public static final String BENCHMARK_JOB_STAGE = "Benchmark Stage";
+
     public static final String ANALYSIS_PLAN_NAME = "%s-Harvester Static Analysis";
     public static final String ANALYSIS_PLAN_DESCRIPTION = "Static Analysis of the %s-Harvester.";
 
+    // Benchmarks
+    public static final String BENCHMARK_THRESHOLD_VARIABLE = "benchmarkRegressionThreshold";
+    public static final String BENCHMARK_THRESHOLD_DEFAULT = "10";
+
+    // results of the latest successful build of the master branch, e.g. /browse/CA-FOO/latestSuccessful/artifact/JOB2/benchmarkResults/jmh-result.csv
+    public static final String BENCHMARK_BASELINE_URL = BAMBOO_SERVER + "/browse/%s-%s/latestSuccessful/artifact/%s/%s/%s";
+
+    // global Bamboo variables of a user that may view the analysis plans, passed to the regression check script
+    public static final String BENCHMARK_BASELINE_CREDENTIALS =
+        "BENCHMARK_BASELINE_USER=\"${bamboo.benchmarkBaselineUser}\" "
+        + "BENCHMARK_BASELINE_PASSWORD=\"${bamboo.benchmarkBaselinePassword}\"";
+
     // Projects
-    public static final Project ANALYSIS_PROJECT = new Project().key(new BambooKey("CA"));
+    public static final String ANALYSIS_PROJECT_KEY = "CA";
+    public static final Project ANALYSIS_PROJECT = new Project().key(new BambooKey(ANALYSIS_PROJECT_KEY));
 
     // Tasks
     public static final Task<?, ?> PREPARE_VERSION_VARIABLES_TASK = new ScriptTask()
@@ -84,6 +101,25 @@ public class BambooConstants
     .workingSubdirectory(RepositoryConstants.HARVESTER_WORKING_DIR)
     .useMavenReturnCode(true);
 
+    public static final Task<?, ?> MAVEN_BENCHMARK_TASK = new MavenTask()
+    .description("Run Benchmarks")
+    .goal("clean verify -Pbenchmark -DskipTests")
+    .jdk("JDK 1.8")
+    .executableLabel("Maven 3")
+    .hasTests(false)
+    .workingSubdirectory(RepositoryConstants.HARVESTER_WORKING_DIR)
+    .useMavenReturnCode(true);
+
+    // arguments: 1 - the regression check script of the harvester, 2..n - the arguments of the script
+    public static final String CHECK_BENCHMARK_REGRESSION_SCRIPT =
+        "#!/bin/bash\n"
+        + "# skip harvesters that were set up before benchmarks were introduced\n"
+        + "if [ -f \"$1\" ]; then\n"
+        + "  bash \"$@\"\n"
+        + "else\n"
+        + "  echo \"Cannot find $1, skipping the benchmark comparison.\"\n"
+        + "fi\n";
+
     public static final Task<?, ?> CHECK_MAVEN_SNAPSHOTS_TASK = new ScriptTask()
     .description("Check Snapshot Versions")
     .location(ScriptTaskProperties.Location.FILE)
@@ -0,0 +1,158 @@
+#!/bin/bash
+
+# Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#   http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+
+# Description:
+# This script compares the JMH benchmark results of the current build with those of a
+# previous build, and fails if any benchmark became slower than a specified threshold.
+# The results must be CSV files as generated by: mvn -Pbenchmark verify
+#
+# Arguments:
+#  1 the CSV file with the benchmark results of the current build
+#  2 the URL or path of the CSV file with the benchmark results of the previous build
+#  3 the maximum tolerated slowdown in percent (default: 10)
+#
+# Environment Variables:
+#  BENCHMARK_BASELINE_USER     the user name with which the previous results are downloaded (optional)
+#  BENCHMARK_BASELINE_PASSWORD the password with which the previous results are downloaded (optional)
+
+# treat unset variables as an error when substituting
+set -u
+
+#########################
+#  FUNCTION DEFINITIONS #
+#########################
+
+# Retrieves the benchmark results of the previous build and writes them to a file.
+# URLs are downloaded with the credentials of the environment variables, if they are set.
+# They are passed to curl via stdin, so that they do not show up in the process list.
+#  Arguments:
+#  1 - the URL or path of the benchmark results
+#  2 - the file to which the results are written
+#
+GetBaselineResults () {
+  if [ -f "$1" ]; then
+    cp -f "$1" "$2"
+  elif [ -n "${BENCHMARK_BASELINE_USER-}" ]; then
+    printf 'user = "%s:%s"\n' "$BENCHMARK_BASELINE_USER" "${BENCHMARK_BASELINE_PASSWORD-}" \
+      | curl -sfL -K - -o "$2" "$1"
+  else
+    curl -sfL -o "$2" "$1"
+  fi
+}
+
+
+# Checks if a file has the header of a CSV file as generated by JMH, which is
+# not the case if, for instance, a login page was downloaded instead of the results.
+#  Arguments:
+#  1 - the CSV file with benchmark results
+#
+IsBenchmarkResultFile () {
+  head -n 1 "$1" | tr -d '"\r' | grep -q '^Benchmark,Mode,Threads,Samples,Score,'
+}
+
+
+# Prints the score of every benchmark of the current results next to the score of the
+# previous results, and returns 1 if any benchmark is slower than the threshold allows,
+# or 2 if none of the benchmarks has a previous result to be compared with.
+# Throughput scores are better if they are higher, all other scores if they are lower.
+#  Arguments:
+#  1 - the CSV file with the current benchmark results
+#  2 - the CSV file with the previous benchmark results
+#  3 - the maximum tolerated slowdown in percent
+#
+CompareResults () {
+  awk -F',' -v threshold="$3" '
+    function unquote(s) { gsub(/"/, "", s); return s }
+    FNR == 1 { next }
+    FNR == NR { baseline[unquote($1)] = unquote($5); next }
+    {
+      name = unquote($1)
+      mode = unquote($2)
+      score = unquote($5)
+      if (!(name in baseline) || baseline[name] == 0) {
+        printf "%s: %s (no previous result)\n", name, score
+        next
+      }
+      compared++
+      change = (score - baseline[name]) / baseline[name] * 100
+      slowdown = (mode == "thrpt") ? -change : change
+      printf "%s: %s -> %s (%+.1f%%)\n", name, baseline[name], score, change
+      if (slowdown > threshold) {
+        printf "  slower than the tolerated %s%%!\n", threshold
+        failed = 1
+      }
+    }
+    END {
+      if (failed) exit 1
+      if (!compared) exit 2
+    }
+  ' "$2" "$1"
+}
+
+
+Main() {
+  local resultFile="$1"
+  local baselineLocation="$2"
+  local threshold="${3:-10}"
+
+  if [ ! -f "$resultFile" ]; then
+    echo "Cannot find benchmark results: $resultFile" >&2
+    exit 1
+  fi
+
+  local baselineFile
+  baselineFile=$(mktemp)
+
+  if ! IsBenchmarkResultFile "$resultFile"; then
+    echo "The benchmark results are not a JMH CSV file: $resultFile" >&2
+    exit 1
+  fi
+
+  local baselineFile
+  baselineFile=$(mktemp)
+
+  if ! GetBaselineResults "$baselineLocation" "$baselineFile"; then
+    echo "Cannot retrieve previous benchmark results from $baselineLocation!" >&2
+    rm -f "$baselineFile"
+    exit 1
+  fi
+
+  if ! IsBenchmarkResultFile "$baselineFile"; then
+    echo "The previous benchmark results from $baselineLocation are not a JMH CSV file! Are the credentials missing?" >&2
+    rm -f "$baselineFile"
+    exit 1
+  fi
+
+  CompareResults "$resultFile" "$baselineFile" "$threshold"
+  local exitCode=$?
+  rm -f "$baselineFile"
+
+  if [ $exitCode -eq 1 ]; then
+    echo "The performance regressed by more than $threshold%!" >&2
+  elif [ $exitCode -ne 0 ]; then
+    echo "None of the benchmarks has a previous result, the performance could not be compared!" >&2
+  fi
+
+  exit $exitCode
+}
+
+
+###########################
+#  BEGINNING OF EXECUTION #
+###########################
+
+Main "$@"
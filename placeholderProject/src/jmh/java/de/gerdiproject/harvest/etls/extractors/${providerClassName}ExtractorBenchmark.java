@@ -0,0 +1,162 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.etls.extractors;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.gerdiproject.harvest.etls.AbstractIteratorETL;
+import de.gerdiproject.harvest.etls.${providerClassName}ETL;
+import de.gerdiproject.harvest.etls.transformers.${providerClassName}Transformer;
+import de.gerdiproject.harvest.etls.transformers.TransformerException;
+import de.gerdiproject.json.datacite.DataCiteJson;
+
+/**
+ * This class provides JMH benchmarks for the {@linkplain ${providerClassName}Extractor}
+ * and for the extraction and transformation of all records of the {@linkplain ${providerClassName}ETL}.
+ * The benchmarks re-use the configuration and the recorded HTTP fixtures or mocked HTTP responses
+ * of the {@linkplain ${providerClassName}ExtractorTest}, so they do not depend on the internet connection.
+ *
+ * @author ${authorFullName}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ${providerClassName}ExtractorBenchmark extends ${providerClassName}ExtractorTest
+{
+    private ${providerClassName}ETL etl;
+    private AbstractIteratorExtractor<${providerClassName}VO> extractor;
+    private ${providerClassName}Transformer transformer;
+
+
+    /**
+     * Initializes the extractor and transformer once per benchmark.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        this.extractor = setUpTestObjects();
+        this.transformer = new ${providerClassName}Transformer();
+        transformer.init(etl);
+    }
+
+
+    /**
+     * Releases all resources of the extractor and transformer.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        extractor.clear();
+        transformer.clear();
+    }
+
+
+    @Override
+    protected AbstractIteratorETL<${providerClassName}VO, DataCiteJson> getEtl()
+    {
+        // keep a reference to the ETL, in order to initialize the transformer with it
+        this.etl = (${providerClassName}ETL) super.getEtl();
+        return etl;
+    }
+
+
+    /**
+     * Extracts all records.
+     *
+     * @param counter counts the extracted records, reported as records per second
+     * @param blackhole prevents the extracted records from being optimized away
+     *
+     * @throws ExtractorException thrown if the extraction fails
+     */
+    @Benchmark
+    public void extract(final RecordCounter counter, final Blackhole blackhole) throws ExtractorException
+    {
+        final Iterator<${providerClassName}VO> records = extractor.extract();
+
+        while (records.hasNext()) {
+            blackhole.consume(records.next());
+            counter.records++;
+        }
+
+        extractor.clear();
+    }
+
+
+    /**
+     * Extracts and transforms all records, as the ETL does before passing them to the loaders.
+     *
+     * @param counter counts the transformed documents, reported as records per second
+     * @param blackhole prevents the transformed documents from being optimized away
+     *
+     * @throws ExtractorException thrown if the extraction fails
+     * @throws TransformerException thrown if the transformation fails
+     */
+    @Benchmark
+    public void extractAndTransform(final RecordCounter counter, final Blackhole blackhole)
+    throws ExtractorException, TransformerException
+    {
+        final Iterator<DataCiteJson> documents = transformer.transform(extractor.extract());
+
+        while (documents.hasNext()) {
+            blackhole.consume(documents.next());
+            counter.records++;
+        }
+
+        transformer.clear();
+        extractor.clear();
+    }
+
+
+    /**
+     * Counts processed records, in order to report the throughput in records per second,
+     * rather than in complete harvests per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RecordCounter
+    {
+        public long records;
+
+
+        /**
+         * Resets the counter before each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            records = 0;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.etls.transformers;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.gerdiproject.harvest.etls.extractors.${providerClassName}VO;
+import de.gerdiproject.json.datacite.DataCiteJson;
+
+/**
+ * This class provides JMH benchmarks for the {@linkplain ${providerClassName}Transformer}.
+ * The benchmarks re-use the mocked input of the {@linkplain ${providerClassName}TransformerTest}.
+ *
+ * @author ${authorFullName}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ${providerClassName}TransformerBenchmark extends ${providerClassName}TransformerTest
+{
+    private AbstractIteratorTransformer<${providerClassName}VO, DataCiteJson> transformer;
+    private ${providerClassName}VO input;
+
+
+    /**
+     * Initializes the transformer and reads the mocked input once per benchmark.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        this.transformer = setUpTestObjects();
+        this.input = getMockedInput();
+    }
+
+
+    /**
+     * Releases all resources of the transformer.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        transformer.clear();
+    }
+
+
+    /**
+     * Transforms a single record, reported as records per second.
+     *
+     * @return the transformed document, which is consumed by JMH in order
+     *         to prevent it from being optimized away
+     */
+    @Benchmark
+    public DataCiteJson transformElement()
+    {
+        return transformer.transformElement(input);
+    }
+}
@@ -21,6 +21,10 @@ import java.util.List;
 import de.gerdiproject.harvest.application.ContextListener;
 import de.gerdiproject.harvest.etls.AbstractETL;
 import de.gerdiproject.harvest.etls.${providerClassName}ETL;
+import de.gerdiproject.harvest.etls.loaders.ILoader;
+import de.gerdiproject.harvest.etls.loaders.${providerClassName}BulkLoader;
+import de.gerdiproject.harvest.etls.loaders.${providerClassName}DumpLoader;
+import de.gerdiproject.harvest.etls.loaders.${providerClassName}FanOutLoader;
 
 import javax.servlet.annotation.WebListener;
 
@@ -37,4 +41,22 @@ public class ${providerClassName}ContextListener extends ContextListener
     {
         return Arrays.asList(new ${providerClassName}ETL());
     }
+
+
+    @Override
+    protected List<Class<? extends ILoader<?>>> getLoaderClasses()
+    {
+        final List<Class<? extends ILoader<?>>> loaderClasses = super.getLoaderClasses();
+
+        // allows documents to be loaded into multiple targets from a single harvest
+        loaderClasses.add(${providerClassName}FanOutLoader.class);
+
+        // submits documents in batches of adaptive size to a search index
+        loaderClasses.add(${providerClassName}BulkLoader.class);
+
+        // writes documents to a compact binary dump in the cache directory
+        loaderClasses.add(${providerClassName}DumpLoader.class);
+
+        return loaderClasses;
+    }
 }
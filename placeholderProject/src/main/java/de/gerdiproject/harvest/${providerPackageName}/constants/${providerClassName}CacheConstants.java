@@ -0,0 +1,44 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.constants;
+
+/**
+ * A static collection of constants that define the names of files which are
+ * stored in the cache directory of the ${providerClassName}ETL in between harvests.
+ *
+ * @author ${authorFullName}
+ */
+public class ${providerClassName}CacheConstants
+{
+    public static final String HIGH_WATER_MARK_FILE = "highWaterMark.txt";
+    public static final String CHECKPOINT_FILE = "checkpoint.json";
+    public static final String HTTP_RESPONSE_CACHE_FOLDER = "httpResponses";
+    public static final String HTTP_FIXTURE_FOLDER = "httpFixtures";
+    public static final String DOCUMENT_HASH_FILE = "documentHashes.bin";
+    public static final String TRACE_FILE = "traces.folded";
+    public static final String DOCUMENT_DUMP_FILE = "documents.dump";
+    public static final String REPLAY_OFFSET_FILE = "replayOffset.txt";
+    public static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private ${providerClassName}CacheConstants()
+    {
+
+    }
+}
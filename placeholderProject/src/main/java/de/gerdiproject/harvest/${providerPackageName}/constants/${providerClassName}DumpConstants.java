@@ -0,0 +1,49 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.constants;
+
+/**
+ * A static collection of constants that define the binary format of document dumps.
+ *
+ * @author ${authorFullName}
+ */
+public class ${providerClassName}DumpConstants
+{
+    // File Format
+    public static final int MAGIC_NUMBER = 0x47444D50; // "GDMP"
+    public static final int FORMAT_VERSION = 1;
+    public static final int FILE_HEADER_SIZE = 8;
+    public static final int BLOCK_HEADER_SIZE = 16;
+    public static final int INDEX_ENTRY_SIZE = 16;
+    public static final String INDEX_FILE_SUFFIX = ".idx";
+
+    // Reading
+    public static final int MAPPED_SEGMENT_SIZE = 1 << 30;
+
+    // Errors
+    public static final String INVALID_HEADER_ERROR = "%s is not a document dump of version " + FORMAT_VERSION + "!";
+    public static final String INDEX_MISMATCH_ERROR = "The index of %s does not match the dump! The dump may be incomplete.";
+    public static final String CORRUPT_BLOCK_ERROR = "The block at offset %d of %s is corrupt!";
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private ${providerClassName}DumpConstants()
+    {
+
+    }
+}
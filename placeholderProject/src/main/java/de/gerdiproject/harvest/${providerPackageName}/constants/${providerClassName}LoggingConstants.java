@@ -0,0 +1,44 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.constants;
+
+/**
+ * A static collection of constants for logging purposes.
+ *
+ * @author ${authorFullName}
+ */
+public class ${providerClassName}LoggingConstants
+{
+    public static final String DUPLICATES_DROPPED = "Dropped %d duplicate documents, %d distinct documents were transformed.";
+    public static final String UNCHANGED_DOCUMENTS_SKIPPED = "Skipped %d documents that did not change since the last harvest.";
+    public static final String DOCUMENTS_REMOVED = "%d documents were removed from ${providerName} since the last harvest.";
+    public static final String TRACES_WRITTEN = "Wrote traced harvesting stages to: %s";
+    public static final String DOCUMENTS_DUMPED = "Wrote %d documents to: %s";
+    public static final String REPLAY_STARTED = "Replaying documents %d to %d from: %s";
+    public static final String DOCUMENTS_UNACKNOWLEDGED = "%d documents were not acknowledged by the loader, so the progress of this harvest "
+                                                          + "was not committed.";
+    public static final String VIRTUAL_THREADS_UNSUPPORTED = "Virtual threads require Java 21 or later, so the tasks of %s run on platform threads.";
+    public static final String VIRTUAL_THREADS_FAILED = "Could not create virtual threads, so the tasks of %s run on platform threads.";
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private ${providerClassName}LoggingConstants()
+    {
+
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.constants;
+
+/**
+ * A static collection of constants that define the names and descriptions of
+ * metrics that are published by the harvester service.
+ *
+ * @author ${authorFullName}
+ */
+public class ${providerClassName}MetricConstants
+{
+    // Servlet
+    public static final String SERVLET_PATH = "/metrics";
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // Records
+    public static final String RECORDS_EXTRACTED = "harvester_records_extracted_total";
+    public static final String RECORDS_EXTRACTED_HELP = "Number of records that were extracted from ${providerName}.";
+    public static final String RECORDS_TRANSFORMED = "harvester_records_transformed_total";
+    public static final String RECORDS_TRANSFORMED_HELP = "Number of documents that were transformed and passed to the loaders.";
+    public static final String RECORDS_REPLAYED = "harvester_records_replayed_total";
+    public static final String RECORDS_REPLAYED_HELP = "Number of documents that were read from a dump and passed to the loaders.";
+    public static final String RECORDS_LOADED = "harvester_records_loaded_total";
+    public static final String RECORDS_LOADED_HELP = "Number of documents that were accepted by the search index of the bulk loader.";
+    public static final String DUPLICATE_RECORDS = "harvester_duplicate_records_total";
+    public static final String DUPLICATE_RECORDS_HELP = "Number of duplicate records that were skipped since the service was started.";
+
+    // Queues
+    public static final String PREFETCHED_PAGES = "harvester_prefetched_pages";
+    public static final String PREFETCHED_PAGES_HELP = "Number of pages that were retrieved, but not yet processed.";
+    public static final String PENDING_DETAIL_PAGES = "harvester_pending_detail_pages";
+    public static final String PENDING_DETAIL_PAGES_HELP = "Number of detail pages that are being retrieved or wait to be processed.";
+    public static final String MEMORY_BUDGET_USED = "harvester_memory_budget_used_bytes";
+    public static final String MEMORY_BUDGET_USED_HELP = "Estimated size of pages that were fetched in advance, but not yet passed on completely.";
+    public static final String BULK_BATCH_SIZE = "harvester_bulk_batch_size_bytes";
+    public static final String BULK_BATCH_SIZE_HELP = "Current maximum size of bulk requests that are sent by the bulk loader.";
+    public static final String REQUEST_CONCURRENCY_LIMIT = "harvester_request_concurrency_limit";
+    public static final String REQUEST_CONCURRENCY_LIMIT_HELP = "Current number of requests that may be sent to ${providerName} concurrently.";
+
+    // HTTP
+    public static final String ENDPOINT_LABEL = "endpoint";
+    public static final String HTTP_REQUEST_DURATION = "harvester_http_request_duration_seconds";
+    public static final String HTTP_REQUEST_DURATION_HELP = "Duration of HTTP requests to ${providerName}.";
+    public static final String HTTP_DOWNLOADED_BYTES = "harvester_http_downloaded_bytes_total";
+    public static final String HTTP_DOWNLOADED_BYTES_HELP = "Number of bytes that were downloaded from ${providerName}, before decompression.";
+    public static final String HTTP_RESPONSE_BYTES = "harvester_http_response_bytes_total";
+    public static final String HTTP_RESPONSE_BYTES_HELP = "Number of response body bytes that were received from ${providerName}, after decompression.";
+    public static final double[] HTTP_REQUEST_DURATION_BUCKETS = {0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+
+    // JVM
+    public static final String HEAP_USED = "harvester_jvm_heap_used_bytes";
+    public static final String HEAP_USED_HELP = "Number of bytes that are used on the heap.";
+    public static final String GC_COLLECTIONS = "harvester_jvm_gc_collections_total";
+    public static final String GC_COLLECTIONS_HELP = "Number of garbage collections since the service was started.";
+    public static final String GC_TIME = "harvester_jvm_gc_time_seconds_total";
+    public static final String GC_TIME_HELP = "Time spent on garbage collections since the service was started.";
+    public static final String ALLOCATED_BYTES = "harvester_jvm_allocated_bytes_total";
+    public static final String ALLOCATED_BYTES_HELP = "Number of bytes that were allocated since the service was started, "
+                                                      + "excluding allocations of terminated threads since the previous scrape.";
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private ${providerClassName}MetricConstants()
+    {
+
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.constants;
+
+/**
+ * A static collection of constants that define the keys and default values
+ * of ETL parameters that are registered by the ${providerClassName}ETL.
+ *
+ * @author ${authorFullName}
+ */
+public class ${providerClassName}ParameterConstants
+{
+    // Prefetching
+    public static final String PREFETCH_QUEUE_SIZE_KEY = "prefetchQueueSize";
+    public static final int PREFETCH_QUEUE_SIZE_DEFAULT = 2;
+    public static final String MEMORY_BUDGET_KEY = "memoryBudgetMB";
+    public static final int MEMORY_BUDGET_DEFAULT = 64;
+
+    // Transformation
+    public static final String TRANSFORMER_PARALLELISM_KEY = "transformerParallelism";
+    public static final int TRANSFORMER_PARALLELISM_DEFAULT = 1;
+
+    // Incremental Harvesting
+    public static final String INCREMENTAL_HARVEST_KEY = "incrementalHarvest";
+    public static final boolean INCREMENTAL_HARVEST_DEFAULT = false;
+
+    // Checkpoints
+    public static final String CHECKPOINT_INTERVAL_KEY = "checkpointInterval";
+    public static final int CHECKPOINT_INTERVAL_DEFAULT = 10;
+
+    // HTTP Cache
+    public static final String HTTP_CACHE_SIZE_KEY = "httpCacheSizeMB";
+    public static final int HTTP_CACHE_SIZE_DEFAULT = 100;
+
+    // Request Throttling
+    public static final String MAX_REQUESTS_PER_SECOND_KEY = "maxRequestsPerSecond";
+    public static final int MAX_REQUESTS_PER_SECOND_DEFAULT = 10;
+    public static final String MAX_CONCURRENT_REQUESTS_KEY = "maxConcurrentRequests";
+    public static final int MAX_CONCURRENT_REQUESTS_DEFAULT = 4;
+    public static final String TARGET_LATENCY_KEY = "targetLatencyMs";
+    public static final int TARGET_LATENCY_DEFAULT = 1000;
+
+    // Request Timeouts
+    public static final String CONNECT_TIMEOUT_KEY = "connectTimeoutMs";
+    public static final int CONNECT_TIMEOUT_DEFAULT = 10000;
+    public static final String READ_TIMEOUT_KEY = "readTimeoutMs";
+    public static final int READ_TIMEOUT_DEFAULT = 60000;
+
+    // HTTP Fixtures
+    public static final String HTTP_FIXTURE_MODE_KEY = "httpFixtureMode";
+    public static final String HTTP_FIXTURE_MODE_DEFAULT = "live";
+    public static final String HTTP_FIXTURE_FOLDER_KEY = "httpFixtureFolder";
+    public static final String HTTP_FIXTURE_FOLDER_DEFAULT = "";
+    public static final String HTTP_FIXTURE_LATENCY_KEY = "httpFixtureLatencyPercent";
+    public static final int HTTP_FIXTURE_LATENCY_DEFAULT = 100;
+
+    // Detail Pages
+    public static final String DETAIL_BATCH_SIZE_KEY = "detailBatchSize";
+    public static final int DETAIL_BATCH_SIZE_DEFAULT = 8;
+    public static final String VIRTUAL_THREADS_KEY = "virtualThreads";
+    public static final boolean VIRTUAL_THREADS_DEFAULT = false;
+
+    // Change Detection
+    public static final String SKIP_UNCHANGED_DOCUMENTS_KEY = "skipUnchangedDocuments";
+    public static final boolean SKIP_UNCHANGED_DOCUMENTS_DEFAULT = false;
+
+    // Loading
+    public static final String LOADER_QUEUE_SIZE_KEY = "loaderQueueSize";
+    public static final int LOADER_QUEUE_SIZE_DEFAULT = 100;
+    public static final String FAN_OUT_LOADERS_KEY = "fanOutLoaders";
+    public static final String FAN_OUT_LOADERS_DEFAULT = "ElasticSearchLoader,DiskLoader";
+    public static final String BULK_LOADER_URL_KEY = "bulkLoaderUrl";
+    public static final String BULK_LOADER_URL_DEFAULT = "";
+    public static final String MAX_BULK_SIZE_KEY = "maxBulkSizeKB";
+    public static final int MAX_BULK_SIZE_DEFAULT = 10240;
+    public static final String BULK_TARGET_LATENCY_KEY = "bulkTargetLatencyMs";
+    public static final int BULK_TARGET_LATENCY_DEFAULT = 2000;
+    public static final String DUMP_BLOCK_SIZE_KEY = "dumpBlockSizeKB";
+    public static final int DUMP_BLOCK_SIZE_DEFAULT = 1024;
+    public static final String REPLAY_DUMP_KEY = "replayDump";
+    public static final boolean REPLAY_DUMP_DEFAULT = false;
+
+    // Tracing
+    public static final String TRACE_SAMPLE_INTERVAL_KEY = "traceSampleInterval";
+    public static final int TRACE_SAMPLE_INTERVAL_DEFAULT = 0;
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private ${providerClassName}ParameterConstants()
+    {
+
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.constants;
+
+/**
+ * A static collection of constants that are used for tracing the stages of a harvest.
+ *
+ * @author ${authorFullName}
+ */
+public class ${providerClassName}TracingConstants
+{
+    public static final int BUFFER_CAPACITY = 8192;
+
+    // Servlet
+    public static final String SERVLET_PATH = "/traces";
+    public static final String CONTENT_TYPE = "text/plain; charset=utf-8";
+    public static final String FORMAT_PARAM = "format";
+    public static final String SPANS_FORMAT = "spans";
+    public static final String TRACING_DISABLED_ERROR = "Tracing is disabled! Set the ETL parameter 'traceSampleInterval' to enable it.";
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private ${providerClassName}TracingConstants()
+    {
+
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.dump;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}DumpConstants;
+
+/**
+ * This class represents the sidecar index of a document dump, which maps each block
+ * of the dump to its file offset and to the index of its first record.
+ * It allows a dump to be read from any record without decompressing the preceding blocks.
+ * <br>
+ * The index file starts with the magic number and the format version, followed by
+ * one entry per block and a final entry that points to the end of the dump.
+ * Each entry consists of the block offset and the index of the first record of the block.
+ *
+ * @author ${authorFullName}
+ */
+public class DumpIndex
+{
+    private final long[] blockOffsets;
+    private final long[] firstRecordIndices;
+
+
+    /**
+     * Constructor.
+     *
+     * @param blockOffsets the file offsets of all blocks, followed by the size of the dump
+     * @param firstRecordIndices the indices of the first records of all blocks,
+     *         followed by the total number of records
+     */
+    private DumpIndex(final long[] blockOffsets, final long[] firstRecordIndices)
+    {
+        this.blockOffsets = blockOffsets;
+        this.firstRecordIndices = firstRecordIndices;
+    }
+
+
+    /**
+     * Reads the index of a document dump.
+     *
+     * @param dumpPath the path of the dump, not of its index
+     *
+     * @return the index of the dump
+     *
+     * @throws IOException thrown if the index could not be read or is not a valid index
+     */
+    public static DumpIndex load(final Path dumpPath) throws IOException
+    {
+        final Path indexPath = getIndexPath(dumpPath);
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+
+        final int entryCount = (buffer.remaining() - ${providerClassName}DumpConstants.FILE_HEADER_SIZE)
+                               / ${providerClassName}DumpConstants.INDEX_ENTRY_SIZE;
+
+        if (entryCount < 1
+            || buffer.getInt() != ${providerClassName}DumpConstants.MAGIC_NUMBER
+            || buffer.getInt() != ${providerClassName}DumpConstants.FORMAT_VERSION)
+            throw new IOException(String.format(${providerClassName}DumpConstants.INVALID_HEADER_ERROR, indexPath));
+
+        final long[] blockOffsets = new long[entryCount];
+        final long[] firstRecordIndices = new long[entryCount];
+
+        for (int i = 0; i < entryCount; i++) {
+            blockOffsets[i] = buffer.getLong();
+            firstRecordIndices[i] = buffer.getLong();
+        }
+
+        return new DumpIndex(blockOffsets, firstRecordIndices);
+    }
+
+
+    /**
+     * Returns the path of the index file of a document dump.
+     *
+     * @param dumpPath the path of the dump
+     *
+     * @return the path of the index of the dump
+     */
+    public static Path getIndexPath(final Path dumpPath)
+    {
+        return dumpPath.resolveSibling(dumpPath.getFileName() + ${providerClassName}DumpConstants.INDEX_FILE_SUFFIX);
+    }
+
+
+    /**
+     * Returns the number of blocks of the dump.
+     *
+     * @return the number of blocks
+     */
+    public int getBlockCount()
+    {
+        return blockOffsets.length - 1;
+    }
+
+
+    /**
+     * Returns the number of records of the dump.
+     *
+     * @return the number of records
+     */
+    public long getRecordCount()
+    {
+        return firstRecordIndices[getBlockCount()];
+    }
+
+
+    /**
+     * Returns the expected size of the dump file.
+     *
+     * @return the size of the dump in bytes
+     */
+    public long getDumpSize()
+    {
+        return blockOffsets[getBlockCount()];
+    }
+
+
+    /**
+     * Returns the file offset of a block.
+     *
+     * @param blockIndex the index of the block
+     *
+     * @return the offset of the block header within the dump
+     */
+    public long getBlockOffset(final int blockIndex)
+    {
+        return blockOffsets[blockIndex];
+    }
+
+
+    /**
+     * Returns the index of the first record of a block.
+     *
+     * @param blockIndex the index of the block
+     *
+     * @return the index of the first record of the block
+     */
+    public long getFirstRecordIndex(final int blockIndex)
+    {
+        return firstRecordIndices[blockIndex];
+    }
+
+
+    /**
+     * Returns the index of the block that contains a specified record.
+     *
+     * @param recordIndex the index of the record
+     *
+     * @return the index of the block that contains the record, or the number of blocks
+     *         if the record index is out of bounds
+     */
+    public int findBlock(final long recordIndex)
+    {
+        if (recordIndex >= getRecordCount())
+            return getBlockCount();
+
+        final int searchResult = Arrays.binarySearch(firstRecordIndices, 0, getBlockCount(), Math.max(0, recordIndex));
+
+        // blocks are never empty, so a record that does not start a block is part of the preceding block
+        return searchResult >= 0 ? searchResult : -searchResult - 2;
+    }
+}
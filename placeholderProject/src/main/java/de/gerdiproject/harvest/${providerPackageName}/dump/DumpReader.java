@@ -0,0 +1,325 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.dump;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}DumpConstants;
+
+/**
+ * This iterator reads the records of a dump that was written by a {@linkplain DumpWriter}.
+ * The dump is memory-mapped in segments of whole blocks, so that blocks are read
+ * via the page cache of the operating system without copying them through stream buffers.
+ * Only the decompressed block that contains the current record is kept on the heap.
+ * The iteration can start at any record, because the block that contains it is
+ * looked up in the {@linkplain DumpIndex}.
+ * This class is not thread-safe.
+ *
+ * @author ${authorFullName}
+ */
+public class DumpReader implements Iterator<byte[]>, AutoCloseable
+{
+    private static final ByteBuffer EMPTY_BLOCK = ByteBuffer.allocate(0);
+
+    private final Path dumpPath;
+    private final DumpIndex index;
+    private final FileChannel channel;
+    private final int segmentSize;
+    private final Inflater inflater;
+    private final CRC32 checksum;
+
+    private MappedByteBuffer segment;
+    private long segmentOffset;
+    private byte[] compressedRecords;
+    private byte[] records;
+    private ByteBuffer currentBlock;
+    private int nextBlockIndex;
+    private long nextRecordIndex;
+
+
+    /**
+     * Constructor that starts the iteration at the first record.
+     *
+     * @param dumpPath the path of the dump
+     *
+     * @throws IOException thrown if the dump or its index could not be read
+     */
+    public DumpReader(final Path dumpPath) throws IOException
+    {
+        this(dumpPath, 0);
+    }
+
+
+    /**
+     * Constructor that starts the iteration at a specified record.
+     *
+     * @param dumpPath the path of the dump
+     * @param firstRecordIndex the index of the first record that is to be read
+     *
+     * @throws IOException thrown if the dump or its index could not be read
+     */
+    public DumpReader(final Path dumpPath, final long firstRecordIndex) throws IOException
+    {
+        this(dumpPath, firstRecordIndex, ${providerClassName}DumpConstants.MAPPED_SEGMENT_SIZE);
+    }
+
+
+    /**
+     * Constructor that starts the iteration at a specified record.
+     *
+     * @param dumpPath the path of the dump
+     * @param firstRecordIndex the index of the first record that is to be read
+     * @param segmentSize the maximum number of bytes that are mapped into memory at once,
+     *         unless a single block is larger
+     *
+     * @throws IOException thrown if the dump or its index could not be read
+     */
+    public DumpReader(final Path dumpPath, final long firstRecordIndex, final int segmentSize) throws IOException
+    {
+        this.dumpPath = dumpPath;
+        this.index = DumpIndex.load(dumpPath);
+        this.channel = FileChannel.open(dumpPath, StandardOpenOption.READ);
+        this.segmentSize = segmentSize;
+        this.inflater = new Inflater();
+        this.checksum = new CRC32();
+        this.compressedRecords = new byte[0];
+        this.records = new byte[0];
+        this.currentBlock = EMPTY_BLOCK;
+
+        try {
+            verifyFileHeader();
+            skipTo(firstRecordIndex);
+        } catch (final IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        return nextRecordIndex < index.getRecordCount();
+    }
+
+
+    @Override
+    public byte[] next()
+    {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        try {
+            if (!currentBlock.hasRemaining())
+                readBlock(nextBlockIndex++);
+
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final byte[] record = new byte[currentBlock.getInt()];
+        currentBlock.get(record);
+        nextRecordIndex++;
+        return record;
+    }
+
+
+    /**
+     * Returns the index of the record that is returned by the next call of {@linkplain #next()}.
+     * Passing this index to the constructor resumes the iteration from this point.
+     *
+     * @return the index of the next record
+     */
+    public long getNextRecordIndex()
+    {
+        return nextRecordIndex;
+    }
+
+
+    /**
+     * Returns the total number of records of the dump.
+     *
+     * @return the number of records
+     */
+    public long getRecordCount()
+    {
+        return index.getRecordCount();
+    }
+
+
+    /**
+     * Closes the dump file. The mapped segment is released by the garbage collector.
+     *
+     * @throws IOException thrown if the dump could not be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        segment = null;
+        currentBlock = EMPTY_BLOCK;
+        inflater.end();
+        channel.close();
+    }
+
+
+    /**
+     * Checks if the dump file was written completely and in the expected format.
+     *
+     * @throws IOException thrown if the file is not a complete dump
+     */
+    private void verifyFileHeader() throws IOException
+    {
+        if (channel.size() != index.getDumpSize())
+            throw new IOException(String.format(${providerClassName}DumpConstants.INDEX_MISMATCH_ERROR, dumpPath));
+
+        final ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, ${providerClassName}DumpConstants.FILE_HEADER_SIZE);
+
+        if (header.getInt() != ${providerClassName}DumpConstants.MAGIC_NUMBER
+            || header.getInt() != ${providerClassName}DumpConstants.FORMAT_VERSION)
+            throw new IOException(String.format(${providerClassName}DumpConstants.INVALID_HEADER_ERROR, dumpPath));
+    }
+
+
+    /**
+     * Moves the iteration to a specified record, decompressing only the block that contains it.
+     *
+     * @param recordIndex the index of the record that is to be read next
+     *
+     * @throws IOException thrown if the block could not be read
+     */
+    private void skipTo(final long recordIndex) throws IOException
+    {
+        final int blockIndex = index.findBlock(recordIndex);
+
+        this.nextBlockIndex = blockIndex;
+        this.nextRecordIndex = index.getFirstRecordIndex(blockIndex);
+        this.currentBlock = EMPTY_BLOCK;
+
+        if (blockIndex == index.getBlockCount())
+            return;
+
+        readBlock(nextBlockIndex++);
+
+        for (; nextRecordIndex < recordIndex; nextRecordIndex++) {
+            final int recordLength = currentBlock.getInt();
+            currentBlock.position(currentBlock.position() + recordLength);
+        }
+    }
+
+
+    /**
+     * Reads and decompresses a block of records.
+     *
+     * @param blockIndex the index of the block
+     *
+     * @throws IOException thrown if the block could not be read or is corrupt
+     */
+    private void readBlock(final int blockIndex) throws IOException
+    {
+        final long blockOffset = index.getBlockOffset(blockIndex);
+        final ByteBuffer block = mapBlock(blockIndex);
+        final int recordCount = block.getInt();
+        final int recordsSize = block.getInt();
+        final int compressedSize = block.getInt();
+        final int expectedChecksum = block.getInt();
+
+        if (compressedSize != block.remaining() || recordsSize < 0)
+            throw new IOException(String.format(${providerClassName}DumpConstants.CORRUPT_BLOCK_ERROR, blockOffset, dumpPath));
+
+        // the buffers are re-used, because all blocks have roughly the same size
+        if (compressedRecords.length < compressedSize)
+            compressedRecords = new byte[compressedSize];
+
+        if (records.length < recordsSize)
+            records = new byte[recordsSize];
+
+        block.get(compressedRecords, 0, compressedSize);
+        inflater.reset();
+        inflater.setInput(compressedRecords, 0, compressedSize);
+        int inflatedSize = 0;
+
+        try {
+            while (inflatedSize < recordsSize) {
+                final int inflatedBytes = inflater.inflate(records, inflatedSize, recordsSize - inflatedSize);
+
+                if (inflatedBytes == 0 && (inflater.needsInput() || inflater.needsDictionary() || inflater.finished()))
+                    break;
+
+                inflatedSize += inflatedBytes;
+            }
+        } catch (final DataFormatException e) {
+            throw new IOException(String.format(${providerClassName}DumpConstants.CORRUPT_BLOCK_ERROR, blockOffset, dumpPath), e);
+        }
+
+        checksum.reset();
+        checksum.update(records, 0, inflatedSize);
+
+        if (inflatedSize != recordsSize
+            || (int) checksum.getValue() != expectedChecksum
+            || recordCount != index.getFirstRecordIndex(blockIndex + 1) - index.getFirstRecordIndex(blockIndex))
+            throw new IOException(String.format(${providerClassName}DumpConstants.CORRUPT_BLOCK_ERROR, blockOffset, dumpPath));
+
+        this.currentBlock = ByteBuffer.wrap(records, 0, recordsSize);
+    }
+
+
+    /**
+     * Returns a view of a block within the mapped segment of the dump.
+     * If the block lies outside of the segment, a new segment is mapped that starts
+     * with the block and contains as many following blocks as fit into the segment size.
+     *
+     * @param blockIndex the index of the block
+     *
+     * @return a buffer that contains the block header and the compressed records
+     *
+     * @throws IOException thrown if the dump could not be mapped
+     */
+    private ByteBuffer mapBlock(final int blockIndex) throws IOException
+    {
+        final long blockOffset = index.getBlockOffset(blockIndex);
+        final long blockEnd = index.getBlockOffset(blockIndex + 1);
+
+        if (segment == null || blockOffset < segmentOffset || blockEnd > segmentOffset + segment.capacity()) {
+            int segmentEndBlock = blockIndex + 1;
+
+            while (segmentEndBlock < index.getBlockCount()
+                   && index.getBlockOffset(segmentEndBlock + 1) - blockOffset <= segmentSize)
+                segmentEndBlock++;
+
+            this.segmentOffset = blockOffset;
+            this.segment = channel.map(
+                               FileChannel.MapMode.READ_ONLY,
+                               blockOffset,
+                               index.getBlockOffset(segmentEndBlock) - blockOffset);
+        }
+
+        final ByteBuffer block = segment.duplicate();
+        block.limit((int)(blockEnd - segmentOffset));
+        block.position((int)(blockOffset - segmentOffset));
+        return block;
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.dump;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.function.Function;
+
+import de.gerdiproject.harvest.${providerPackageName}.utils.PersistedValueStore;
+
+/**
+ * This iterator replays the documents of a dump, e.g. in order to pass them to a loader
+ * again after the loader failed, without harvesting them again.
+ * The progress of the replay is saved whenever the loaders acknowledged more documents,
+ * so that an interrupted replay can be resumed by creating a new iterator.
+ * Documents which a loader buffered, but did not acknowledge before the interruption,
+ * are therefore replayed again.
+ * The saved offset is removed after the loaders acknowledged all documents.
+ *
+ * @param <T> the type of the replayed documents
+ *
+ * @author ${authorFullName}
+ */
+public class DumpReplayIterator<T> implements Iterator<T>, AutoCloseable
+{
+    private final DumpReader reader;
+    private final PersistedValueStore offsetStore;
+    private final Function<byte[], T> parser;
+    private final long firstRecordIndex;
+    private long savedRecordIndex;
+    private boolean isCompleted;
+
+
+    /**
+     * Constructor that starts the replay at the saved offset of an interrupted replay,
+     * or at the first document.
+     *
+     * @param dumpPath the path of the dump
+     * @param offsetStore the store in which the offset of the replay is saved
+     * @param parser a function that parses a document from a record of the dump
+     *
+     * @throws IOException thrown if the dump could not be read
+     */
+    public DumpReplayIterator(
+        final Path dumpPath,
+        final PersistedValueStore offsetStore,
+        final Function<byte[], T> parser) throws IOException
+    {
+        final String savedOffset = offsetStore.load();
+
+        this.offsetStore = offsetStore;
+        this.parser = parser;
+        this.firstRecordIndex = savedOffset == null ? 0 : Long.parseLong(savedOffset.trim());
+        this.savedRecordIndex = firstRecordIndex;
+        this.reader = new DumpReader(dumpPath, firstRecordIndex);
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        return reader.hasNext();
+    }
+
+
+    @Override
+    public T next()
+    {
+        return parser.apply(reader.next());
+    }
+
+
+    /**
+     * Returns the index of the first document of the replay.
+     *
+     * @return the index of the document at which the replay was started
+     */
+    public long getFirstRecordIndex()
+    {
+        return firstRecordIndex;
+    }
+
+
+    /**
+     * Returns the total number of documents of the dump.
+     *
+     * @return the number of documents in the dump
+     */
+    public long getRecordCount()
+    {
+        return reader.getRecordCount();
+    }
+
+
+    /**
+     * Closes the dump.
+     *
+     * @throws IOException thrown if the dump could not be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        reader.close();
+    }
+
+
+    /**
+     * Saves the offset from which the replay is resumed if it is interrupted.
+     * This method is called whenever the loaders acknowledged more of the replayed documents.
+     *
+     * @param loadedDocumentCount the number of documents that were replayed by this iterator
+     *         and acknowledged by the loaders
+     */
+    public synchronized void onDocumentsLoaded(final long loadedDocumentCount)
+    {
+        final long loadedRecordIndex = firstRecordIndex + loadedDocumentCount;
+
+        if (isCompleted || loadedRecordIndex <= savedRecordIndex)
+            return;
+
+        offsetStore.save(Long.toString(loadedRecordIndex));
+        savedRecordIndex = loadedRecordIndex;
+    }
+
+
+    /**
+     * Removes the saved offset, so that the next replay starts at the first document.
+     * This method is called after the loaders acknowledged all replayed documents.
+     */
+    public synchronized void onLoadingCompleted()
+    {
+        isCompleted = true;
+        offsetStore.delete();
+    }
+}
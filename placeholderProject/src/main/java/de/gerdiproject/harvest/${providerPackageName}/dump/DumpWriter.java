@@ -0,0 +1,222 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.dump;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}DumpConstants;
+
+/**
+ * This class writes records, such as serialized documents, to a compact binary dump.
+ * <br>
+ * The dump starts with the magic number and the format version, followed by blocks of
+ * records. Each block consists of a header and the compressed records, each of which is
+ * prefixed by its length. The block header contains the number of records, the
+ * uncompressed and compressed sizes, and a checksum of the uncompressed records.
+ * The offset of each block is written to a sidecar {@linkplain DumpIndex}.
+ * This class is not thread-safe.
+ *
+ * @author ${authorFullName}
+ */
+public class DumpWriter implements AutoCloseable
+{
+    private final int blockSize;
+    private final DataOutputStream dumpStream;
+    private final DataOutputStream indexStream;
+    private final ByteArrayOutputStream blockBuffer;
+    private final DataOutputStream blockStream;
+    private final ByteArrayOutputStream compressedBuffer;
+    private final Deflater deflater;
+    private final CRC32 checksum;
+
+    private long dumpOffset;
+    private long recordCount;
+    private int blockRecordCount;
+    private boolean isClosed;
+
+
+    /**
+     * Constructor that creates the dump and its index, replacing existing files.
+     *
+     * @param dumpPath the path of the dump
+     * @param blockSize the number of uncompressed bytes after which a block is compressed
+     *         and written to the dump
+     *
+     * @throws IOException thrown if the files could not be created
+     */
+    public DumpWriter(final Path dumpPath, final int blockSize) throws IOException
+    {
+        Files.createDirectories(dumpPath.toAbsolutePath().getParent());
+
+        this.blockSize = blockSize;
+        this.dumpStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(dumpPath)));
+
+        try {
+            this.indexStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(DumpIndex.getIndexPath(dumpPath))));
+        } catch (final IOException e) {
+            dumpStream.close();
+            throw e;
+        }
+
+        this.blockBuffer = new ByteArrayOutputStream(blockSize);
+        this.blockStream = new DataOutputStream(blockBuffer);
+        this.compressedBuffer = new ByteArrayOutputStream(blockSize);
+        this.deflater = new Deflater(Deflater.BEST_SPEED);
+        this.checksum = new CRC32();
+
+        writeFileHeader(dumpStream);
+        writeFileHeader(indexStream);
+        this.dumpOffset = ${providerClassName}DumpConstants.FILE_HEADER_SIZE;
+    }
+
+
+    /**
+     * Appends a record to the dump.
+     *
+     * @param record the bytes of the record
+     *
+     * @throws IOException thrown if a block could not be written
+     */
+    public void write(final byte[] record) throws IOException
+    {
+        blockStream.writeInt(record.length);
+        blockStream.write(record);
+        blockRecordCount++;
+        recordCount++;
+
+        if (blockBuffer.size() >= blockSize)
+            writeBlock();
+    }
+
+
+    /**
+     * Returns the number of records that were written so far.
+     *
+     * @return the number of written records
+     */
+    public long getRecordCount()
+    {
+        return recordCount;
+    }
+
+
+    /**
+     * Writes the remaining records and completes the index.
+     *
+     * @throws IOException thrown if the remaining records or the index could not be written
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (isClosed)
+            return;
+
+        isClosed = true;
+
+        try {
+            if (blockRecordCount > 0)
+                writeBlock();
+
+            // the final entry marks the end of the dump
+            writeIndexEntry(dumpOffset, recordCount);
+        } finally {
+            deflater.end();
+            closeStreams();
+        }
+    }
+
+
+    /**
+     * Closes the dump and the index file.
+     *
+     * @throws IOException thrown if a file could not be closed
+     */
+    private void closeStreams() throws IOException
+    {
+        try {
+            dumpStream.close();
+        } finally {
+            indexStream.close();
+        }
+    }
+
+
+    /**
+     * Compresses all buffered records and writes them as a block to the dump.
+     *
+     * @throws IOException thrown if the block could not be written
+     */
+    private void writeBlock() throws IOException
+    {
+        writeIndexEntry(dumpOffset, recordCount - blockRecordCount);
+
+        checksum.reset();
+        deflater.reset();
+        compressedBuffer.reset();
+
+        final DeflaterOutputStream compressingStream = new DeflaterOutputStream(compressedBuffer, deflater);
+        blockBuffer.writeTo(new CheckedOutputStream(compressingStream, checksum));
+        compressingStream.finish();
+
+        dumpStream.writeInt(blockRecordCount);
+        dumpStream.writeInt(blockBuffer.size());
+        dumpStream.writeInt(compressedBuffer.size());
+        dumpStream.writeInt((int) checksum.getValue());
+        compressedBuffer.writeTo(dumpStream);
+
+        dumpOffset += ${providerClassName}DumpConstants.BLOCK_HEADER_SIZE + compressedBuffer.size();
+        blockBuffer.reset();
+        blockRecordCount = 0;
+    }
+
+
+    /**
+     * Adds a block to the index.
+     *
+     * @param blockOffset the offset of the block header within the dump
+     * @param firstRecordIndex the index of the first record of the block
+     *
+     * @throws IOException thrown if the index could not be written
+     */
+    private void writeIndexEntry(final long blockOffset, final long firstRecordIndex) throws IOException
+    {
+        indexStream.writeLong(blockOffset);
+        indexStream.writeLong(firstRecordIndex);
+    }
+
+
+    /**
+     * Writes the magic number and the format version to the beginning of a file.
+     *
+     * @param stream the stream of the file
+     *
+     * @throws IOException thrown if the header could not be written
+     */
+    private static void writeFileHeader(final DataOutputStream stream) throws IOException
+    {
+        stream.writeInt(${providerClassName}DumpConstants.MAGIC_NUMBER);
+        stream.writeInt(${providerClassName}DumpConstants.FORMAT_VERSION);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.fixtures;
+
+import java.util.Arrays;
+
+/**
+ * The modes in which the {@linkplain HttpFixtureStore} opens HTTP connections.
+ *
+ * @author ${authorFullName}
+ */
+public enum HttpFixtureMode
+{
+    /**
+     * Requests are sent to the server, without recording the responses.
+     */
+    LIVE,
+
+    /**
+     * Requests are sent to the server, and the responses are recorded.
+     */
+    RECORD,
+
+    /**
+     * Responses are read from recordings, without sending requests to the server.
+     */
+    REPLAY;
+
+    private static final String UNKNOWN_MODE_ERROR = "Unknown HTTP fixture mode '%s'! Valid modes are: %s";
+
+
+    /**
+     * Returns the name of the mode as it is configured via ETL parameters.
+     *
+     * @return the lower case name of the mode
+     */
+    public String getName()
+    {
+        return name().toLowerCase();
+    }
+
+
+    /**
+     * Returns the mode with a specified name.
+     *
+     * @param name the case-insensitive name of the mode, or an empty string for the live mode
+     *
+     * @throws IllegalArgumentException if no mode has the specified name
+     *
+     * @return the mode with the specified name
+     */
+    public static HttpFixtureMode fromName(final String name)
+    {
+        if (name == null || name.isEmpty())
+            return LIVE;
+
+        for (final HttpFixtureMode mode : values()) {
+            if (mode.getName().equalsIgnoreCase(name))
+                return mode;
+        }
+
+        throw new IllegalArgumentException(String.format(UNKNOWN_MODE_ERROR, name, Arrays.toString(values())));
+    }
+}
@@ -0,0 +1,333 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.fixtures;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import de.gerdiproject.harvest.${providerPackageName}.utils.CacheFileUtils;
+import de.gerdiproject.harvest.${providerPackageName}.utils.HashUtils;
+
+/**
+ * This class opens HTTP connections that either send requests to the server, record
+ * the responses of the server, or replay recorded responses without network access.
+ * <br>
+ * Each response is recorded as two files that are named after a hash of the URL:
+ * a body file with the response body exactly as it was received, i.e. before it was
+ * decompressed, and a properties file with the URL, the status code, the response headers,
+ * and the time it took until the response headers were received.
+ * When a response is replayed, this time is waited before the status code is returned,
+ * multiplied by a configurable percentage, so that the throughput of a harvest can be
+ * measured realistically.
+ * <br>
+ * A request is identified by its URL, so the latest response of a URL is replayed.
+ * This class is thread-safe.
+ *
+ * @author ${authorFullName}
+ */
+public class HttpFixtureStore
+{
+    private static final String BODY_FILE_SUFFIX = ".body";
+    private static final String PROPERTIES_FILE_SUFFIX = ".properties";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String URL_PROPERTY = "url";
+    private static final String STATUS_PROPERTY = "status";
+    private static final String LATENCY_PROPERTY = "latencyMillis";
+    private static final String HEADER_PROPERTY_PREFIX = "header.";
+    private static final String MISSING_FIXTURE_ERROR = "No recorded response exists for: %s";
+    private static final int PERCENT = 100;
+
+    private final Path folder;
+    private final HttpFixtureMode mode;
+    private final int latencyPercent;
+
+
+    /**
+     * Constructor.
+     *
+     * @param folder the folder in which the responses are recorded
+     * @param mode the mode that determines if responses are recorded or replayed
+     * @param latencyPercent the percentage of the recorded latency that is waited
+     *         before a response is replayed, or 0 if responses are replayed immediately
+     */
+    public HttpFixtureStore(final File folder, final HttpFixtureMode mode, final int latencyPercent)
+    {
+        this.folder = folder.toPath();
+        this.mode = mode;
+        this.latencyPercent = latencyPercent;
+    }
+
+
+    /**
+     * Returns the mode that determines if responses are recorded or replayed.
+     *
+     * @return the mode of this store
+     */
+    public HttpFixtureMode getMode()
+    {
+        return mode;
+    }
+
+
+    /**
+     * Opens an HTTP connection, depending on the mode of this store.
+     *
+     * @param url the URL of the request
+     *
+     * @throws IOException if the connection could not be opened
+     *
+     * @return an HTTP connection that was not yet connected
+     */
+    public HttpURLConnection openConnection(final String url) throws IOException
+    {
+        final URL requestUrl = new URL(url);
+
+        switch (mode) {
+            case RECORD:
+                return new RecordingHttpURLConnection(requestUrl, this);
+
+            case REPLAY:
+                return new ReplayedHttpURLConnection(requestUrl, this);
+
+            default:
+                return (HttpURLConnection) requestUrl.openConnection();
+        }
+    }
+
+
+    /**
+     * Records a response. The body is written to disk while it is read from the
+     * returned stream, and the response is only stored when the stream is closed.
+     *
+     * @param url the URL of the request
+     * @param statusCode the HTTP status code of the response
+     * @param headers the response headers
+     * @param latencyMillis the time it took until the response headers were received
+     * @param body a stream of the response body exactly as it was received
+     *
+     * @throws IOException if the response could not be written to disk
+     *
+     * @return a stream that passes on the body while recording it
+     */
+    InputStream record(
+        final URL url,
+        final int statusCode,
+        final Map<String, List<String>> headers,
+        final long latencyMillis,
+        final InputStream body) throws IOException
+    {
+        final Properties properties = new Properties();
+        properties.setProperty(URL_PROPERTY, url.toString());
+        properties.setProperty(STATUS_PROPERTY, Integer.toString(statusCode));
+        properties.setProperty(LATENCY_PROPERTY, Long.toString(latencyMillis));
+
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            // the status line is listed under a null key
+            if (header.getKey() != null && !header.getValue().isEmpty())
+                properties.setProperty(HEADER_PROPERTY_PREFIX + header.getKey().toLowerCase(Locale.ROOT), header.getValue().get(0));
+        }
+
+        Files.createDirectories(folder);
+        final String key = getKey(url);
+        final Path tempBodyPath = Files.createTempFile(folder, key, TEMP_FILE_SUFFIX);
+
+        return new RecordingInputStream(body, tempBodyPath, (final Path recordedBodyPath) -> store(key, recordedBodyPath, properties));
+    }
+
+
+    /**
+     * Reads the properties of a recorded response.
+     *
+     * @param url the URL of the request
+     *
+     * @throws IOException if no response was recorded for the URL
+     *
+     * @return the URL, status code, headers, and latency of the response
+     */
+    Properties loadProperties(final URL url) throws IOException
+    {
+        final Path propertiesPath = getPropertiesPath(getKey(url));
+        final Properties properties = new Properties();
+
+        if (Files.isRegularFile(propertiesPath)) {
+            try
+                (InputStream propertiesStream = Files.newInputStream(propertiesPath)) {
+                properties.load(propertiesStream);
+            }
+        }
+
+        // the URL is compared, because distinct URLs may share a hash
+        if (!url.toString().equals(properties.getProperty(URL_PROPERTY)))
+            throw new FileNotFoundException(String.format(MISSING_FIXTURE_ERROR, url));
+
+        return properties;
+    }
+
+
+    /**
+     * Opens the recorded body of a response.
+     *
+     * @param url the URL of the request
+     *
+     * @throws IOException if the body could not be opened
+     *
+     * @return a stream of the response body exactly as it was received
+     */
+    InputStream openBody(final URL url) throws IOException
+    {
+        return Files.newInputStream(getBodyPath(getKey(url)));
+    }
+
+
+    /**
+     * Waits for the latency of a recorded response, multiplied by the configured percentage.
+     *
+     * @param properties the properties of the recorded response
+     *
+     * @throws InterruptedIOException if the thread was interrupted while waiting
+     */
+    void waitForLatency(final Properties properties) throws InterruptedIOException
+    {
+        final long latencyMillis = getLatency(properties) * latencyPercent / PERCENT;
+
+        if (latencyMillis <= 0)
+            return;
+
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+
+    /**
+     * Returns the HTTP status code of a recorded response.
+     *
+     * @param properties the properties of the recorded response
+     *
+     * @return the HTTP status code
+     */
+    static int getStatusCode(final Properties properties)
+    {
+        return Integer.parseInt(properties.getProperty(STATUS_PROPERTY));
+    }
+
+
+    /**
+     * Returns a header of a recorded response.
+     *
+     * @param properties the properties of the recorded response
+     * @param name the case-insensitive name of the header
+     *
+     * @return the value of the header, or null if the response has no such header
+     */
+    static String getHeader(final Properties properties, final String name)
+    {
+        return name == null ? null : properties.getProperty(HEADER_PROPERTY_PREFIX + name.toLowerCase(Locale.ROOT));
+    }
+
+
+    /**
+     * Returns the time it took until the headers of a recorded response were received.
+     *
+     * @param properties the properties of the recorded response
+     *
+     * @return the latency of the response in milliseconds
+     */
+    private static long getLatency(final Properties properties)
+    {
+        return Long.parseLong(properties.getProperty(LATENCY_PROPERTY, "0"));
+    }
+
+
+    /**
+     * Moves a recorded body to its final location and writes the properties of the response,
+     * replacing any previous recording of the same URL.
+     *
+     * @param key the key of the response
+     * @param tempBodyPath the temporary file to which the body was written
+     * @param properties the URL, status code, headers, and latency of the response
+     *
+     * @throws IOException if the response could not be stored
+     */
+    private void store(final String key, final Path tempBodyPath, final Properties properties) throws IOException
+    {
+        CacheFileUtils.replaceAtomically(tempBodyPath, getBodyPath(key));
+
+        final Path propertiesPath = getPropertiesPath(key);
+        final Path tempPropertiesPath = Files.createTempFile(folder, key, TEMP_FILE_SUFFIX);
+
+        try
+            (OutputStream propertiesStream = Files.newOutputStream(tempPropertiesPath)) {
+            properties.store(propertiesStream, null);
+        }
+
+        CacheFileUtils.replaceAtomically(tempPropertiesPath, propertiesPath);
+    }
+
+
+    /**
+     * Returns the path of a recorded response body.
+     *
+     * @param key the key of the response
+     *
+     * @return the path of the body file
+     */
+    private Path getBodyPath(final String key)
+    {
+        return folder.resolve(key + BODY_FILE_SUFFIX);
+    }
+
+
+    /**
+     * Returns the path of the properties of a recorded response.
+     *
+     * @param key the key of the response
+     *
+     * @return the path of the properties file
+     */
+    private Path getPropertiesPath(final String key)
+    {
+        return folder.resolve(key + PROPERTIES_FILE_SUFFIX);
+    }
+
+
+    /**
+     * Creates the key under which the response of a URL is recorded.
+     *
+     * @param url the URL of the request
+     *
+     * @return a hexadecimal hash of the URL
+     */
+    private static String getKey(final URL url)
+    {
+        return Long.toHexString(HashUtils.fingerprint(url.toString()));
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.fixtures;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This connection sends a request to the server and records the response
+ * via a {@linkplain HttpFixtureStore}. Responses with a body are recorded while
+ * the body is read, responses without a body are recorded when the connection is closed.
+ *
+ * @author ${authorFullName}
+ */
+class RecordingHttpURLConnection extends HttpURLConnection
+{
+    private final HttpURLConnection connection;
+    private final HttpFixtureStore store;
+    private long startNanos;
+    private long latencyMillis = -1;
+    private boolean isRecorded;
+
+
+    /**
+     * Constructor.
+     *
+     * @param url the URL of the request
+     * @param store the store in which the response is recorded
+     *
+     * @throws IOException if the connection could not be opened
+     */
+    RecordingHttpURLConnection(final URL url, final HttpFixtureStore store) throws IOException
+    {
+        super(url);
+        this.connection = (HttpURLConnection) url.openConnection();
+        this.store = store;
+    }
+
+
+    @Override
+    public void setRequestMethod(final String method) throws ProtocolException
+    {
+        connection.setRequestMethod(method);
+    }
+
+
+    @Override
+    public String getRequestMethod()
+    {
+        return connection.getRequestMethod();
+    }
+
+
+    @Override
+    public void setRequestProperty(final String key, final String value)
+    {
+        connection.setRequestProperty(key, value);
+    }
+
+
+    @Override
+    public void addRequestProperty(final String key, final String value)
+    {
+        connection.addRequestProperty(key, value);
+    }
+
+
+    @Override
+    public String getRequestProperty(final String key)
+    {
+        return connection.getRequestProperty(key);
+    }
+
+
+    @Override
+    public void setConnectTimeout(final int timeout)
+    {
+        connection.setConnectTimeout(timeout);
+    }
+
+
+    @Override
+    public int getConnectTimeout()
+    {
+        return connection.getConnectTimeout();
+    }
+
+
+    @Override
+    public void setReadTimeout(final int timeout)
+    {
+        connection.setReadTimeout(timeout);
+    }
+
+
+    @Override
+    public int getReadTimeout()
+    {
+        return connection.getReadTimeout();
+    }
+
+
+    @Override
+    public void connect() throws IOException
+    {
+        if (connected)
+            return;
+
+        startNanos = System.nanoTime();
+        connection.connect();
+        connected = true;
+    }
+
+
+    @Override
+    public int getResponseCode() throws IOException
+    {
+        connect();
+        final int statusCode = connection.getResponseCode();
+
+        if (latencyMillis < 0)
+            latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        return statusCode;
+    }
+
+
+    @Override
+    public String getHeaderField(final String name)
+    {
+        return connection.getHeaderField(name);
+    }
+
+
+    @Override
+    public String getHeaderField(final int n)
+    {
+        return connection.getHeaderField(n);
+    }
+
+
+    @Override
+    public String getHeaderFieldKey(final int n)
+    {
+        return connection.getHeaderFieldKey(n);
+    }
+
+
+    @Override
+    public Map<String, List<String>> getHeaderFields()
+    {
+        return connection.getHeaderFields();
+    }
+
+
+    @Override
+    public InputStream getInputStream() throws IOException
+    {
+        final int statusCode = getResponseCode();
+        final InputStream body = connection.getInputStream();
+        isRecorded = true;
+
+        return store.record(url, statusCode, connection.getHeaderFields(), latencyMillis, body);
+    }
+
+
+    @Override
+    public InputStream getErrorStream()
+    {
+        return connection.getErrorStream();
+    }
+
+
+    @Override
+    public void disconnect()
+    {
+        try {
+            if (!isRecorded && latencyMillis >= 0) {
+                isRecorded = true;
+                store.record(
+                    url,
+                    connection.getResponseCode(),
+                    connection.getHeaderFields(),
+                    latencyMillis,
+                    new ByteArrayInputStream(new byte[0])).close();
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+
+    @Override
+    public boolean usingProxy()
+    {
+        return connection.usingProxy();
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.fixtures;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This stream passes on a response body, while writing each byte that is read
+ * to a file. When the stream is closed, the rest of the body is written to the file
+ * as well, and the recording is completed.
+ *
+ * @author ${authorFullName}
+ */
+class RecordingInputStream extends FilterInputStream
+{
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path recordingPath;
+    private final OutputStream recordingStream;
+    private final RecordingListener completionListener;
+    private boolean isClosed;
+
+
+    /**
+     * Constructor.
+     *
+     * @param body the stream of the response body
+     * @param recordingPath the file to which the body is written
+     * @param completionListener a function that is called with the file when the body was recorded
+     *
+     * @throws IOException if the file could not be opened
+     */
+    RecordingInputStream(final InputStream body, final Path recordingPath, final RecordingListener completionListener)
+    throws IOException
+    {
+        super(body);
+        this.recordingPath = recordingPath;
+        this.recordingStream = Files.newOutputStream(recordingPath);
+        this.completionListener = completionListener;
+    }
+
+
+    @Override
+    public int read() throws IOException
+    {
+        final int b = super.read();
+
+        if (b != -1)
+            recordingStream.write(b);
+
+        return b;
+    }
+
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException
+    {
+        final int readBytes = super.read(buffer, offset, length);
+
+        if (readBytes > 0)
+            recordingStream.write(buffer, offset, readBytes);
+
+        return readBytes;
+    }
+
+
+    @Override
+    public long skip(final long n) throws IOException
+    {
+        // skipped bytes must be recorded, too
+        final byte[] buffer = new byte[(int) Math.min(n, BUFFER_SIZE)];
+        final int readBytes = read(buffer, 0, buffer.length);
+        return Math.max(0, readBytes);
+    }
+
+
+    @Override
+    public boolean markSupported()
+    {
+        return false;
+    }
+
+
+    /**
+     * Records the rest of the body, closes the response stream, and completes the recording.
+     *
+     * @throws IOException if the body could not be read or recorded
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (isClosed)
+            return;
+
+        isClosed = true;
+
+        boolean isRecorded = false;
+
+        try {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+
+            while (read(buffer, 0, buffer.length) != -1) {
+                // the remaining bytes are recorded while they are read
+            }
+
+            isRecorded = true;
+        } finally {
+            super.close();
+            recordingStream.close();
+
+            if (!isRecorded)
+                Files.deleteIfExists(recordingPath);
+        }
+
+        completionListener.onRecorded(recordingPath);
+    }
+
+
+    /**
+     * A function that is called when a response body was recorded completely.
+     */
+    @FunctionalInterface
+    interface RecordingListener
+    {
+        /**
+         * Completes the recording of a response.
+         *
+         * @param recordingPath the file to which the body was written
+         *
+         * @throws IOException if the recording could not be completed
+         */
+        void onRecorded(Path recordingPath) throws IOException;
+    }
+}
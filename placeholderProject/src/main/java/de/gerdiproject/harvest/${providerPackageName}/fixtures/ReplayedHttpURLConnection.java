@@ -0,0 +1,114 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.fixtures;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Properties;
+
+/**
+ * This connection replays a response that was recorded by a {@linkplain HttpFixtureStore},
+ * without sending a request. Connecting takes as long as the recorded latency of the
+ * response, multiplied by the percentage that is configured in the store.
+ *
+ * @author ${authorFullName}
+ */
+class ReplayedHttpURLConnection extends HttpURLConnection
+{
+    private final HttpFixtureStore store;
+    private Properties response;
+
+
+    /**
+     * Constructor.
+     *
+     * @param url the URL of the request
+     * @param store the store from which the response is replayed
+     */
+    ReplayedHttpURLConnection(final URL url, final HttpFixtureStore store)
+    {
+        super(url);
+        this.store = store;
+    }
+
+
+    @Override
+    public void connect() throws IOException
+    {
+        if (connected)
+            return;
+
+        response = store.loadProperties(url);
+        store.waitForLatency(response);
+        connected = true;
+    }
+
+
+    @Override
+    public int getResponseCode() throws IOException
+    {
+        connect();
+        return HttpFixtureStore.getStatusCode(response);
+    }
+
+
+    @Override
+    public String getHeaderField(final String name)
+    {
+        try {
+            connect();
+        } catch (final IOException e) {
+            return null;
+        }
+
+        return HttpFixtureStore.getHeader(response, name);
+    }
+
+
+    @Override
+    public InputStream getInputStream() throws IOException
+    {
+        connect();
+        return store.openBody(url);
+    }
+
+
+    @Override
+    public InputStream getErrorStream()
+    {
+        try {
+            return connected && getResponseCode() >= HTTP_BAD_REQUEST ? store.openBody(url) : null;
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+
+    @Override
+    public void disconnect()
+    {
+        // nothing to close, because the body streams are closed by the caller
+    }
+
+
+    @Override
+    public boolean usingProxy()
+    {
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A metric that counts events, such as harvested records or downloaded bytes.
+ * This class is thread-safe and cheap to update from multiple threads.
+ *
+ * @author ${authorFullName}
+ */
+public class Counter
+{
+    private final LongAdder count = new LongAdder();
+
+
+    /**
+     * Increments the counter by one.
+     */
+    public void increment()
+    {
+        count.increment();
+    }
+
+
+    /**
+     * Increments the counter by a specified amount.
+     *
+     * @param amount the amount that is to be added
+     */
+    public void add(final long amount)
+    {
+        count.add(amount);
+    }
+
+
+    /**
+     * Returns the current value of the counter.
+     *
+     * @return the number of counted events
+     */
+    public long get()
+    {
+        return count.sum();
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This stream counts the bytes that are read from another stream.
+ *
+ * @author ${authorFullName}
+ */
+public class CountingInputStream extends FilterInputStream
+{
+    private final Counter counter;
+
+
+    /**
+     * Constructor.
+     *
+     * @param sourceStream the stream of which the bytes are counted
+     * @param counter the counter that is incremented for every read byte
+     */
+    public CountingInputStream(final InputStream sourceStream, final Counter counter)
+    {
+        super(sourceStream);
+        this.counter = counter;
+    }
+
+
+    @Override
+    public int read() throws IOException
+    {
+        final int readByte = super.read();
+
+        if (readByte != -1)
+            counter.increment();
+
+        return readByte;
+    }
+
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException
+    {
+        final int readBytes = super.read(buffer, offset, length);
+
+        if (readBytes > 0)
+            counter.add(readBytes);
+
+        return readBytes;
+    }
+
+
+    @Override
+    public long skip(final long length) throws IOException
+    {
+        final long skippedBytes = super.skip(length);
+        counter.add(skippedBytes);
+        return skippedBytes;
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.metrics;
+
+import java.util.Iterator;
+
+/**
+ * This iterator counts the elements that are retrieved from a source iterator.
+ *
+ * @param <T> the type of the elements
+ *
+ * @author ${authorFullName}
+ */
+public class CountingIterator<T> implements Iterator<T>
+{
+    private final Iterator<T> sourceIterator;
+    private final Counter counter;
+
+
+    /**
+     * Constructor.
+     *
+     * @param sourceIterator the iterator of which the elements are counted
+     * @param counter the counter that is incremented for every retrieved element
+     */
+    public CountingIterator(final Iterator<T> sourceIterator, final Counter counter)
+    {
+        this.sourceIterator = sourceIterator;
+        this.counter = counter;
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        return sourceIterator.hasNext();
+    }
+
+
+    @Override
+    public T next()
+    {
+        final T element = sourceIterator.next();
+        counter.increment();
+        return element;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A metric that counts observed values, such as request durations, in buckets
+ * with fixed upper bounds. This class is thread-safe.
+ *
+ * @author ${authorFullName}
+ */
+public class Histogram
+{
+    private final double[] upperBounds;
+    private final LongAdder[] bucketCounts;
+    private final LongAdder count;
+    private final DoubleAdder sum;
+
+
+    /**
+     * Constructor.
+     *
+     * @param upperBounds the ascending upper bounds of all buckets, except for the
+     *         last bucket, which has no upper bound
+     */
+    public Histogram(final double... upperBounds)
+    {
+        this.upperBounds = upperBounds.clone();
+        this.bucketCounts = new LongAdder[upperBounds.length];
+        this.count = new LongAdder();
+        this.sum = new DoubleAdder();
+
+        for (int i = 0; i < bucketCounts.length; i++)
+            bucketCounts[i] = new LongAdder();
+    }
+
+
+    /**
+     * Adds a value to the first bucket whose upper bound is not lower than the value.
+     *
+     * @param value the observed value
+     */
+    public void observe(final double value)
+    {
+        for (int i = 0; i < upperBounds.length; i++) {
+            if (value <= upperBounds[i]) {
+                bucketCounts[i].increment();
+                break;
+            }
+        }
+
+        count.increment();
+        sum.add(value);
+    }
+
+
+    /**
+     * Returns the upper bounds of all buckets, except for the last one.
+     *
+     * @return the ascending upper bounds of the buckets
+     */
+    public double[] getUpperBounds()
+    {
+        return upperBounds.clone();
+    }
+
+
+    /**
+     * Returns the number of observed values that are lower than or equal to
+     * the upper bound of a bucket.
+     *
+     * @param bucketIndex the index of the bucket
+     *
+     * @return the number of observed values up to the upper bound of the bucket
+     */
+    public long getCumulativeCount(final int bucketIndex)
+    {
+        long cumulativeCount = 0;
+
+        for (int i = 0; i <= bucketIndex; i++)
+            cumulativeCount += bucketCounts[i].sum();
+
+        return cumulativeCount;
+    }
+
+
+    /**
+     * Returns the number of all observed values.
+     *
+     * @return the number of observed values
+     */
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+
+    /**
+     * Returns the sum of all observed values.
+     *
+     * @return the sum of observed values
+     */
+    public double getSum()
+    {
+        return sum.sum();
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.metrics;
+
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}MetricConstants;
+
+/**
+ * This static class records metrics of HTTP requests that are sent to ${providerName}.
+ * Requests are grouped by endpoints, which consist of the host and the path of the URL,
+ * where path segments that contain digits, such as record IDs, are replaced with a
+ * placeholder. This keeps the number of distinct endpoints small.
+ *
+ * @author ${authorFullName}
+ */
+public class HttpMetrics
+{
+    private static final Pattern ID_SEGMENT = Pattern.compile("/[^/]*\\d[^/]*");
+    private static final String ID_PLACEHOLDER = "/{id}";
+    private static final double NANOSECONDS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private HttpMetrics()
+    {
+
+    }
+
+
+    /**
+     * Records the duration of a finished HTTP request.
+     *
+     * @param url the URL of the request
+     * @param durationNanos the time it took to retrieve the response, in nanoseconds
+     */
+    public static void observeRequest(final String url, final long durationNanos)
+    {
+        MetricRegistry.getInstance().getHistogram(
+            ${providerClassName}MetricConstants.HTTP_REQUEST_DURATION,
+            ${providerClassName}MetricConstants.HTTP_REQUEST_DURATION_HELP,
+            ${providerClassName}MetricConstants.HTTP_REQUEST_DURATION_BUCKETS,
+            ${providerClassName}MetricConstants.ENDPOINT_LABEL,
+            getEndpoint(url))
+        .observe(durationNanos / NANOSECONDS_PER_SECOND);
+    }
+
+
+    /**
+     * Wraps a response body in a stream that records the number of downloaded bytes.
+     * If the response is compressed, the stream must be wrapped before it is decompressed,
+     * so that the compressed bytes are counted.
+     *
+     * @param responseStream the response body as it is sent by the server
+     *
+     * @return a stream that counts the downloaded bytes
+     */
+    public static InputStream countDownloadedBytes(final InputStream responseStream)
+    {
+        return new CountingInputStream(responseStream, MetricRegistry.getInstance().getCounter(
+                                           ${providerClassName}MetricConstants.HTTP_DOWNLOADED_BYTES,
+                                           ${providerClassName}MetricConstants.HTTP_DOWNLOADED_BYTES_HELP));
+    }
+
+
+    /**
+     * Wraps a response body in a stream that records the number of response bytes.
+     * If the response is compressed, the stream must be wrapped after it is decompressed,
+     * so that the decompressed bytes are counted.
+     *
+     * @param responseStream the decompressed response body
+     *
+     * @return a stream that counts the response bytes
+     */
+    public static InputStream countResponseBytes(final InputStream responseStream)
+    {
+        return new CountingInputStream(responseStream, MetricRegistry.getInstance().getCounter(
+                                           ${providerClassName}MetricConstants.HTTP_RESPONSE_BYTES,
+                                           ${providerClassName}MetricConstants.HTTP_RESPONSE_BYTES_HELP));
+    }
+
+
+    /**
+     * Returns the endpoint of a URL, which consists of its host and its path,
+     * without query parameters and with placeholders for ID-like path segments.
+     *
+     * @param url the URL of a request
+     *
+     * @return the endpoint of the URL
+     */
+    public static String getEndpoint(final String url)
+    {
+        try {
+            final URL parsedUrl = new URL(url);
+            return parsedUrl.getHost() + ID_SEGMENT.matcher(parsedUrl.getPath()).replaceAll(ID_PLACEHOLDER);
+        } catch (final MalformedURLException e) {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}MetricConstants;
+
+/**
+ * This static class registers metrics of the Java virtual machine that help to
+ * assess how much time is spent on memory management.
+ *
+ * @author ${authorFullName}
+ */
+public class JvmMetrics
+{
+    private static final double MILLISECONDS_PER_SECOND = 1000.0;
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private JvmMetrics()
+    {
+
+    }
+
+
+    /**
+     * Registers a gauge for the heap usage, and counters for garbage collections and,
+     * if supported by the Java runtime, allocated bytes.
+     *
+     * @param registry the registry to which the metrics are added
+     */
+    public static void register(final MetricRegistry registry)
+    {
+        registry.registerGauge(
+            ${providerClassName}MetricConstants.HEAP_USED,
+            ${providerClassName}MetricConstants.HEAP_USED_HELP,
+            () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+
+        registry.registerCounter(
+            ${providerClassName}MetricConstants.GC_COLLECTIONS,
+            ${providerClassName}MetricConstants.GC_COLLECTIONS_HELP,
+            () -> ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+            .filter((final long count) -> count > 0)
+            .sum());
+
+        registry.registerCounter(
+            ${providerClassName}MetricConstants.GC_TIME,
+            ${providerClassName}MetricConstants.GC_TIME_HELP,
+            () -> ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+            .filter((final long time) -> time > 0)
+            .sum() / MILLISECONDS_PER_SECOND);
+
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+
+            if (allocationBean.isThreadAllocatedMemorySupported()) {
+                registry.registerCounter(
+                    ${providerClassName}MetricConstants.ALLOCATED_BYTES,
+                    ${providerClassName}MetricConstants.ALLOCATED_BYTES_HELP,
+                    new AllocatedBytesCounter(allocationBean));
+            }
+        }
+    }
+
+
+    /**
+     * This class sums up the bytes that were allocated by all threads. The JVM only measures
+     * the allocations of live threads, so the last measured allocations of each thread are
+     * kept after it terminated. Allocations of a thread between the previous measurement and
+     * its termination are not counted.
+     */
+    static class AllocatedBytesCounter implements DoubleSupplier
+    {
+        private final com.sun.management.ThreadMXBean allocationBean;
+        private Map<Long, Long> liveThreadBytes;
+        private long terminatedThreadBytes;
+
+
+        /**
+         * Constructor.
+         *
+         * @param allocationBean a bean that measures allocations per thread
+         */
+        AllocatedBytesCounter(final com.sun.management.ThreadMXBean allocationBean)
+        {
+            this.allocationBean = allocationBean;
+            this.liveThreadBytes = new HashMap<>();
+        }
+
+
+        @Override
+        public synchronized double getAsDouble()
+        {
+            final long[] threadIds = allocationBean.getAllThreadIds();
+            final long[] threadBytes = allocationBean.getThreadAllocatedBytes(threadIds);
+            final Map<Long, Long> measuredThreadBytes = new HashMap<>();
+
+            for (int i = 0; i < threadIds.length; i++) {
+                if (threadBytes[i] > 0)
+                    measuredThreadBytes.put(threadIds[i], threadBytes[i]);
+            }
+
+            // threads that were not measured again have terminated
+            for (final Map.Entry<Long, Long> previous : liveThreadBytes.entrySet()) {
+                if (!measuredThreadBytes.containsKey(previous.getKey()))
+                    terminatedThreadBytes += previous.getValue();
+            }
+
+            this.liveThreadBytes = measuredThreadBytes;
+
+            long allocatedBytes = terminatedThreadBytes;
+
+            for (final long bytes : measuredThreadBytes.values())
+                allocatedBytes += bytes;
+
+            return allocatedBytes;
+        }
+    }
+}
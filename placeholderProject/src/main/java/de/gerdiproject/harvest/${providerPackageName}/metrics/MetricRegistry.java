@@ -0,0 +1,354 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * This class holds all metrics of the harvester service and writes them in the
+ * Prometheus text exposition format. Metrics are identified by their name and an
+ * optional label, and are created when they are retrieved for the first time.
+ * This class is thread-safe.
+ *
+ * @author ${authorFullName}
+ */
+public class MetricRegistry
+{
+    private static final String INVALID_TYPE_ERROR = "The metric '%s' is a %s, not a %s!";
+    private static final String UNLABELED = "";
+    private static final MetricRegistry INSTANCE = new MetricRegistry();
+
+    private final Map<String, MetricFamily> families;
+
+
+    /**
+     * Constructor that creates an empty registry.
+     * Most classes should use the shared registry of {@linkplain #getInstance()}.
+     */
+    public MetricRegistry()
+    {
+        this.families = new ConcurrentSkipListMap<>();
+    }
+
+
+    /**
+     * Returns the registry that is published by the {@linkplain MetricsServlet}.
+     *
+     * @return the shared registry of the harvester service
+     */
+    public static MetricRegistry getInstance()
+    {
+        return INSTANCE;
+    }
+
+
+    /**
+     * Retrieves an unlabeled counter, creating it if it does not exist yet.
+     *
+     * @param name the name of the metric
+     * @param help a description of the metric
+     *
+     * @return the counter
+     */
+    public Counter getCounter(final String name, final String help)
+    {
+        return getCounter(name, help, null, UNLABELED);
+    }
+
+
+    /**
+     * Retrieves a labeled counter, creating it if it does not exist yet.
+     *
+     * @param name the name of the metric
+     * @param help a description of the metric
+     * @param labelName the name of the label that distinguishes counters of the same metric
+     * @param labelValue the label value of the counter
+     *
+     * @return the counter
+     */
+    public Counter getCounter(final String name, final String help, final String labelName, final String labelValue)
+    {
+        return getFamily(name, help, MetricType.COUNTER, labelName)
+               .getChild(labelValue, Counter::new);
+    }
+
+
+    /**
+     * Retrieves a labeled histogram, creating it if it does not exist yet.
+     *
+     * @param name the name of the metric
+     * @param help a description of the metric
+     * @param upperBounds the ascending upper bounds of the histogram buckets
+     * @param labelName the name of the label that distinguishes histograms of the same metric
+     * @param labelValue the label value of the histogram
+     *
+     * @return the histogram
+     */
+    public Histogram getHistogram(
+        final String name,
+        final String help,
+        final double[] upperBounds,
+        final String labelName,
+        final String labelValue)
+    {
+        return getFamily(name, help, MetricType.HISTOGRAM, labelName)
+               .getChild(labelValue, () -> new Histogram(upperBounds));
+    }
+
+
+    /**
+     * Registers an unlabeled gauge, replacing any gauge of the same name.
+     *
+     * @param name the name of the metric
+     * @param help a description of the metric
+     * @param valueSupplier a function that returns the current value of the gauge
+     */
+    public void registerGauge(final String name, final String help, final DoubleSupplier valueSupplier)
+    {
+        getFamily(name, help, MetricType.GAUGE, null)
+        .children.put(UNLABELED, valueSupplier);
+    }
+
+
+    /**
+     * Registers an unlabeled counter whose value is retrieved from a function,
+     * replacing any counter of the same name. The function must never return a
+     * smaller value than before, because a decrease is interpreted as a restart.
+     *
+     * @param name the name of the metric
+     * @param help a description of the metric
+     * @param valueSupplier a function that returns the current value of the counter
+     */
+    public void registerCounter(final String name, final String help, final DoubleSupplier valueSupplier)
+    {
+        getFamily(name, help, MetricType.COUNTER, null)
+        .children.put(UNLABELED, valueSupplier);
+    }
+
+
+    /**
+     * Writes all metrics in the Prometheus text exposition format.
+     *
+     * @param writer the writer to which the metrics are written
+     *
+     * @throws IOException thrown if the metrics could not be written
+     */
+    public void write(final Writer writer) throws IOException
+    {
+        for (final MetricFamily family : families.values())
+            family.write(writer);
+    }
+
+
+    /**
+     * Retrieves a group of metrics with the same name, creating it if it does not exist yet.
+     *
+     * @param name the name of the metrics
+     * @param help a description of the metrics
+     * @param type the type of the metrics
+     * @param labelName the name of the label that distinguishes the metrics, or null if they are unlabeled
+     *
+     * @return the group of metrics
+     */
+    private MetricFamily getFamily(final String name, final String help, final MetricType type, final String labelName)
+    {
+        final MetricFamily family = families.computeIfAbsent(name, (final String n) -> new MetricFamily(n, help, type, labelName));
+
+        if (family.type != type)
+            throw new IllegalStateException(String.format(INVALID_TYPE_ERROR, name, family.type.getName(), type.getName()));
+
+        return family;
+    }
+
+
+    /**
+     * The metric types of the Prometheus text exposition format.
+     */
+    private enum MetricType
+    {
+        COUNTER,
+        GAUGE,
+        HISTOGRAM;
+
+
+        /**
+         * Returns the name of the type as it appears in the exposition format.
+         *
+         * @return the lower case name of the type
+         */
+        public String getName()
+        {
+            return name().toLowerCase();
+        }
+    }
+
+
+    /**
+     * A group of metrics that share a name and a type, but differ in their label values.
+     */
+    private static class MetricFamily
+    {
+        private final String name;
+        private final String help;
+        private final MetricType type;
+        private final String labelName;
+        private final Map<String, Object> children;
+
+
+        /**
+         * Constructor.
+         *
+         * @param name the name of the metrics
+         * @param help a description of the metrics
+         * @param type the type of the metrics
+         * @param labelName the name of the label that distinguishes the metrics, or null if they are unlabeled
+         */
+        MetricFamily(final String name, final String help, final MetricType type, final String labelName)
+        {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.labelName = labelName;
+            this.children = new ConcurrentHashMap<>();
+        }
+
+
+        /**
+         * Retrieves the metric of a specified label value, creating it if it does not exist yet.
+         *
+         * @param labelValue the label value of the metric
+         * @param metricFactory a function that creates the metric
+         * @param <T> the class of the metric
+         *
+         * @return the metric of the label value
+         */
+        @SuppressWarnings("unchecked")
+        <T> T getChild(final String labelValue, final Supplier<T> metricFactory)
+        {
+            return (T) children.computeIfAbsent(labelValue, (final String v) -> metricFactory.get());
+        }
+
+
+        /**
+         * Writes the description, type, and values of all metrics of this group.
+         *
+         * @param writer the writer to which the metrics are written
+         *
+         * @throws IOException thrown if the metrics could not be written
+         */
+        void write(final Writer writer) throws IOException
+        {
+            writer.write("# HELP " + name + ' ' + help + '\n');
+            writer.write("# TYPE " + name + ' ' + type.getName() + '\n');
+
+            for (final Map.Entry<String, Object> child : children.entrySet()) {
+                final String labels = labelName == null ? "" : labelName + "=\"" + escape(child.getKey()) + '"';
+                final Object metric = child.getValue();
+
+                if (metric instanceof Counter)
+                    writeSample(writer, name, labels, ((Counter) metric).get());
+
+                else if (metric instanceof DoubleSupplier)
+                    writeSample(writer, name, labels, ((DoubleSupplier) metric).getAsDouble());
+
+                else if (metric instanceof Histogram)
+                    writeHistogram(writer, labels, (Histogram) metric);
+            }
+        }
+
+
+        /**
+         * Writes the buckets, sum, and count of a histogram.
+         *
+         * @param writer the writer to which the histogram is written
+         * @param labels the labels of the histogram, separated by commas
+         * @param histogram the histogram that is to be written
+         *
+         * @throws IOException thrown if the histogram could not be written
+         */
+        private void writeHistogram(final Writer writer, final String labels, final Histogram histogram) throws IOException
+        {
+            final String labelPrefix = labels.isEmpty() ? "" : labels + ',';
+            final double[] upperBounds = histogram.getUpperBounds();
+
+            for (int i = 0; i < upperBounds.length; i++)
+                writeSample(writer, name + "_bucket", labelPrefix + "le=\"" + formatValue(upperBounds[i]) + '"', histogram.getCumulativeCount(i));
+
+            writeSample(writer, name + "_bucket", labelPrefix + "le=\"+Inf\"", histogram.getCount());
+            writeSample(writer, name + "_sum", labels, histogram.getSum());
+            writeSample(writer, name + "_count", labels, histogram.getCount());
+        }
+
+
+        /**
+         * Writes a single line that consists of a metric name, labels, and a value.
+         *
+         * @param writer the writer to which the line is written
+         * @param sampleName the name of the metric
+         * @param labels the labels of the metric, separated by commas
+         * @param value the value of the metric
+         *
+         * @throws IOException thrown if the line could not be written
+         */
+        private static void writeSample(final Writer writer, final String sampleName, final String labels, final double value)
+        throws IOException
+        {
+            writer.write(sampleName);
+
+            if (!labels.isEmpty())
+                writer.write('{' + labels + '}');
+
+            writer.write(' ');
+            writer.write(formatValue(value));
+            writer.write('\n');
+        }
+
+
+        /**
+         * Converts a metric value to a string, omitting the decimal places of integers.
+         *
+         * @param value the value of a metric
+         *
+         * @return the value as it appears in the exposition format
+         */
+        private static String formatValue(final double value)
+        {
+            if (Double.isInfinite(value))
+                return value > 0 ? "+Inf" : "-Inf";
+
+            return value == (long) value ? Long.toString((long) value) : Double.toString(value);
+        }
+
+
+        /**
+         * Escapes backslashes, quotes, and line breaks of a label value.
+         *
+         * @param labelValue the label value that is to be escaped
+         *
+         * @return the escaped label value
+         */
+        private static String escape(final String labelValue)
+        {
+            return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+}
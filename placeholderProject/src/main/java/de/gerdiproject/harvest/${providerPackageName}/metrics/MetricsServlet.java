@@ -0,0 +1,58 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}MetricConstants;
+
+/**
+ * This servlet publishes the metrics of the {@linkplain MetricRegistry} in the
+ * Prometheus text exposition format, so they can be scraped by a Prometheus server.
+ *
+ * @author ${authorFullName}
+ */
+@WebServlet(urlPatterns = ${providerClassName}MetricConstants.SERVLET_PATH)
+public class MetricsServlet extends HttpServlet
+{
+    private static final long serialVersionUID = 1L;
+
+
+    @Override
+    public void init()
+    {
+        JvmMetrics.register(MetricRegistry.getInstance());
+    }
+
+
+    @Override
+    protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws IOException
+    {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(${providerClassName}MetricConstants.CONTENT_TYPE);
+
+        try
+            (Writer writer = response.getWriter()) {
+            MetricRegistry.getInstance().write(writer);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.tracing;
+
+/**
+ * A single traced execution of a harvesting stage.
+ *
+ * @author ${authorFullName}
+ */
+public class Span
+{
+    private final TraceStage stage;
+    private final String label;
+    private final String threadName;
+    private final long durationNanos;
+
+
+    /**
+     * Constructor.
+     *
+     * @param stage the stage that was executed
+     * @param label a description of what was processed, such as a record identifier
+     * @param threadName the name of the thread that executed the stage
+     * @param durationNanos the duration of the execution in nanoseconds
+     */
+    public Span(final TraceStage stage, final String label, final String threadName, final long durationNanos)
+    {
+        this.stage = stage;
+        this.label = label;
+        this.threadName = threadName;
+        this.durationNanos = durationNanos;
+    }
+
+
+    /**
+     * Returns the stage that was executed.
+     *
+     * @return the traced stage
+     */
+    public TraceStage getStage()
+    {
+        return stage;
+    }
+
+
+    /**
+     * Returns a description of what was processed, such as a record identifier.
+     *
+     * @return the label of the span
+     */
+    public String getLabel()
+    {
+        return label;
+    }
+
+
+    /**
+     * Returns the name of the thread that executed the stage.
+     *
+     * @return the thread name
+     */
+    public String getThreadName()
+    {
+        return threadName;
+    }
+
+
+    /**
+     * Returns the duration of the execution.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getDurationNanos()
+    {
+        return durationNanos;
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.tracing;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}TracingConstants;
+
+/**
+ * This class records a random sample of harvesting stage executions in a lock-free
+ * ring buffer, overwriting the oldest spans when the buffer is full.
+ * A stage is traced by calling {@linkplain #start()} before and
+ * {@linkplain #end(TraceStage, long, Object)} after its execution.
+ * While tracing is disabled, both calls return immediately without allocating memory.
+ * This class is thread-safe.
+ *
+ * @author ${authorFullName}
+ */
+public class StageTracer
+{
+    /**
+     * The value that is returned by {@linkplain #start()} if an execution is not traced.
+     */
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private static final StageTracer INSTANCE = new StageTracer(${providerClassName}TracingConstants.BUFFER_CAPACITY);
+
+    private final AtomicReferenceArray<Span> spans;
+    private final int indexMask;
+    private final AtomicLong writeIndex;
+    private volatile int sampleInterval;
+
+
+    /**
+     * Constructor that creates a disabled tracer.
+     * Most classes should use the shared tracer of {@linkplain #getInstance()}.
+     *
+     * @param capacity the maximum number of spans that are kept, which is rounded
+     *         up to the next power of two
+     */
+    public StageTracer(final int capacity)
+    {
+        final int bufferSize = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+        this.spans = new AtomicReferenceArray<>(bufferSize);
+        this.indexMask = bufferSize - 1;
+        this.writeIndex = new AtomicLong();
+    }
+
+
+    /**
+     * Returns the tracer that is published by the {@linkplain TraceServlet}.
+     *
+     * @return the shared tracer of the harvester service
+     */
+    public static StageTracer getInstance()
+    {
+        return INSTANCE;
+    }
+
+
+    /**
+     * Removes all recorded spans and changes how many executions are traced.
+     *
+     * @param sampleInterval on average, one of this many executions is traced,
+     *         or none if the interval is 0
+     */
+    public void reset(final int sampleInterval)
+    {
+        this.sampleInterval = Math.max(0, sampleInterval);
+
+        for (int i = 0; i < spans.length(); i++)
+            spans.set(i, null);
+    }
+
+
+    /**
+     * Returns true if any executions are traced.
+     *
+     * @return true if tracing is enabled
+     */
+    public boolean isEnabled()
+    {
+        return sampleInterval > 0;
+    }
+
+
+    /**
+     * Decides whether an execution is traced and marks its beginning.
+     *
+     * @return the start time of the execution in nanoseconds, or {@linkplain #NOT_SAMPLED}
+     *          if the execution is not traced
+     */
+    public long start()
+    {
+        final int interval = sampleInterval;
+
+        if (interval == 0 || ThreadLocalRandom.current().nextInt(interval) != 0)
+            return NOT_SAMPLED;
+
+        return System.nanoTime();
+    }
+
+
+    /**
+     * Marks the end of an execution and records it, if it is traced.
+     *
+     * @param stage the stage that was executed
+     * @param startNanos the value that was returned by {@linkplain #start()}
+     * @param label a description of what was processed, which is only converted
+     *         to a string if the execution is traced
+     */
+    public void end(final TraceStage stage, final long startNanos, final Object label)
+    {
+        if (startNanos == NOT_SAMPLED)
+            return;
+
+        final long durationNanos = System.nanoTime() - startNanos;
+        final Span span = new Span(stage, String.valueOf(label), Thread.currentThread().getName(), durationNanos);
+        spans.lazySet((int)(writeIndex.getAndIncrement() & indexMask), span);
+    }
+
+
+    /**
+     * Returns a copy of all recorded spans.
+     *
+     * @return the spans that are currently in the ring buffer
+     */
+    public List<Span> getSpans()
+    {
+        final List<Span> recordedSpans = new ArrayList<>();
+
+        for (int i = 0; i < spans.length(); i++) {
+            final Span span = spans.get(i);
+
+            if (span != null)
+                recordedSpans.add(span);
+        }
+
+        return recordedSpans;
+    }
+
+
+    /**
+     * Writes the summed up durations of all recorded spans, grouped by stage and label,
+     * in the collapsed stack format that is read by flame graph tools.
+     * Each line consists of the stage, a semicolon, the label, a space and the
+     * duration in microseconds.
+     *
+     * @param writer the writer to which the spans are written
+     *
+     * @throws IOException thrown if the spans could not be written
+     */
+    public void writeCollapsed(final Writer writer) throws IOException
+    {
+        final Map<String, Long> durationsPerStack = new TreeMap<>();
+
+        for (final Span span : getSpans())
+            durationsPerStack.merge(
+                span.getStage().getName() + ';' + escape(span.getLabel()),
+                toMicros(span.getDurationNanos()),
+                Long::sum);
+
+        for (final Map.Entry<String, Long> stack : durationsPerStack.entrySet())
+            writer.write(stack.getKey() + ' ' + stack.getValue() + '\n');
+    }
+
+
+    /**
+     * Writes all recorded spans, starting with the longest one.
+     * Each line consists of the duration in microseconds, the stage, the label,
+     * and the name of the executing thread, separated by tabs.
+     *
+     * @param writer the writer to which the spans are written
+     *
+     * @throws IOException thrown if the spans could not be written
+     */
+    public void writeSpans(final Writer writer) throws IOException
+    {
+        final List<Span> recordedSpans = getSpans();
+        recordedSpans.sort(Comparator.comparingLong(Span::getDurationNanos).reversed());
+
+        for (final Span span : recordedSpans)
+            writer.write(
+                toMicros(span.getDurationNanos()) + "\t"
+                + span.getStage().getName() + '\t'
+                + escape(span.getLabel()) + '\t'
+                + span.getThreadName() + '\n');
+    }
+
+
+    /**
+     * Converts a duration to microseconds, rounding up so that no span is omitted
+     * from flame graphs.
+     *
+     * @param durationNanos a duration in nanoseconds
+     *
+     * @return the duration in microseconds
+     */
+    private static long toMicros(final long durationNanos)
+    {
+        return Math.max(1L, TimeUnit.NANOSECONDS.toMicros(durationNanos));
+    }
+
+
+    /**
+     * Replaces characters of a label that separate the fields of the dump formats.
+     *
+     * @param label the label of a span
+     *
+     * @return the label without semicolons and whitespace
+     */
+    private static String escape(final String label)
+    {
+        return label.replaceAll("[;\\s]", "_");
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.tracing;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}TracingConstants;
+
+/**
+ * This servlet publishes the spans that were recorded by the {@linkplain StageTracer}.
+ * By default, the spans are written in the collapsed stack format of flame graph tools.
+ * If the query parameter "format=spans" is set, all spans are listed, starting with the longest one.
+ *
+ * @author ${authorFullName}
+ */
+@WebServlet(urlPatterns = ${providerClassName}TracingConstants.SERVLET_PATH)
+public class TraceServlet extends HttpServlet
+{
+    private static final long serialVersionUID = 1L;
+
+
+    @Override
+    protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws IOException
+    {
+        final StageTracer tracer = StageTracer.getInstance();
+
+        if (!tracer.isEnabled()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, ${providerClassName}TracingConstants.TRACING_DISABLED_ERROR);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(${providerClassName}TracingConstants.CONTENT_TYPE);
+
+        try
+            (Writer writer = response.getWriter()) {
+            if (${providerClassName}TracingConstants.SPANS_FORMAT.equals(request.getParameter(${providerClassName}TracingConstants.FORMAT_PARAM)))
+                tracer.writeSpans(writer);
+            else
+                tracer.writeCollapsed(writer);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.tracing;
+
+/**
+ * The stages of a harvest that can be traced by the {@linkplain StageTracer}.
+ *
+ * @author ${authorFullName}
+ */
+public enum TraceStage
+{
+    /**
+     * The retrieval of a page or record from the provider.
+     */
+    FETCH,
+
+    /**
+     * The parsing of a record from a response that is being downloaded.
+     */
+    PARSE,
+
+    /**
+     * The transformation of a record to a document.
+     */
+    TRANSFORM,
+
+    /**
+     * The time the loaders spend on a document before requesting the next one.
+     */
+    LOAD;
+
+
+    /**
+     * Returns the name of the stage as it appears in trace dumps.
+     *
+     * @return the lower case name of the stage
+     */
+    public String getName()
+    {
+        return name().toLowerCase();
+    }
+}
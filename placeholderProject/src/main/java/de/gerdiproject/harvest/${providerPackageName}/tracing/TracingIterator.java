@@ -0,0 +1,152 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.tracing;
+
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * This iterator traces a harvesting stage for the elements of a source iterator.
+ * It either traces how long it takes to retrieve an element from the source iterator,
+ * or how long the consumer of this iterator processes an element before it requests the next one.
+ *
+ * @param <T> the type of the elements
+ *
+ * @author ${authorFullName}
+ */
+public class TracingIterator<T> implements Iterator<T>
+{
+    private final Iterator<T> sourceIterator;
+    private final TraceStage stage;
+    private final Function<T, ?> labelFunction;
+    private final boolean isTracingConsumer;
+    private final StageTracer tracer;
+
+    private long consumerStartNanos = StageTracer.NOT_SAMPLED;
+    private T consumedElement;
+
+
+    /**
+     * Constructor.
+     *
+     * @param sourceIterator the iterator of which the elements are traced
+     * @param stage the stage that is traced
+     * @param labelFunction a function that describes a traced element
+     * @param isTracingConsumer if true, the time in between two retrievals is traced,
+     *         otherwise the time of retrieving an element is traced
+     * @param tracer the tracer that records the spans
+     */
+    private TracingIterator(
+        final Iterator<T> sourceIterator,
+        final TraceStage stage,
+        final Function<T, ?> labelFunction,
+        final boolean isTracingConsumer,
+        final StageTracer tracer)
+    {
+        this.sourceIterator = sourceIterator;
+        this.stage = stage;
+        this.labelFunction = labelFunction;
+        this.isTracingConsumer = isTracingConsumer;
+        this.tracer = tracer;
+    }
+
+
+    /**
+     * Creates an iterator that traces how long it takes to retrieve each element
+     * from the source iterator.
+     *
+     * @param sourceIterator the iterator of which the elements are traced
+     * @param stage the stage that is executed when an element is retrieved
+     * @param labelFunction a function that describes a retrieved element
+     * @param <T> the type of the elements
+     *
+     * @return an iterator that traces the retrieval of elements
+     */
+    public static <T> Iterator<T> traceProduction(
+        final Iterator<T> sourceIterator,
+        final TraceStage stage,
+        final Function<T, ?> labelFunction)
+    {
+        return new TracingIterator<>(sourceIterator, stage, labelFunction, false, StageTracer.getInstance());
+    }
+
+
+    /**
+     * Creates an iterator that traces how long the consumer processes each element,
+     * measured from the retrieval of the element until the next element is requested.
+     *
+     * @param sourceIterator the iterator of which the elements are traced
+     * @param stage the stage that is executed by the consumer
+     * @param labelFunction a function that describes a consumed element
+     * @param <T> the type of the elements
+     *
+     * @return an iterator that traces the consumption of elements
+     */
+    public static <T> Iterator<T> traceConsumption(
+        final Iterator<T> sourceIterator,
+        final TraceStage stage,
+        final Function<T, ?> labelFunction)
+    {
+        return new TracingIterator<>(sourceIterator, stage, labelFunction, true, StageTracer.getInstance());
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        endConsumerSpan();
+        return sourceIterator.hasNext();
+    }
+
+
+    @Override
+    public T next()
+    {
+        endConsumerSpan();
+
+        if (isTracingConsumer) {
+            final T element = sourceIterator.next();
+            consumerStartNanos = tracer.start();
+
+            if (consumerStartNanos != StageTracer.NOT_SAMPLED)
+                consumedElement = element;
+
+            return element;
+        }
+
+        final long startNanos = tracer.start();
+        final T element = sourceIterator.next();
+
+        if (startNanos != StageTracer.NOT_SAMPLED)
+            tracer.end(stage, startNanos, labelFunction.apply(element));
+
+        return element;
+    }
+
+
+    /**
+     * Records the processing of the previously consumed element, if it is traced.
+     */
+    private void endConsumerSpan()
+    {
+        if (consumerStartNanos == StageTracer.NOT_SAMPLED)
+            return;
+
+        tracer.end(stage, consumerStartNanos, labelFunction.apply(consumedElement));
+        consumerStartNanos = StageTracer.NOT_SAMPLED;
+        consumedElement = null;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+/**
+ * This class determines the size of bulk submissions to a sink, such as a search index.
+ * The batch size is increased additively while the sink responds faster than a target
+ * latency, and it is halved when the sink responds slowly or rejects a submission.
+ * The batch size is measured in bytes, so that batches of large documents do not
+ * exceed the request size limits of the sink.
+ *
+ * @author ${authorFullName}
+ */
+public class AdaptiveBatchSizer
+{
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final int INCREASE_STEPS = 10;
+
+    private final long minBatchBytes;
+    private final long maxBatchBytes;
+    private final long targetLatencyMillis;
+    private final long increaseStepBytes;
+
+    private long batchBytes;
+
+
+    /**
+     * Constructor that starts with the minimum batch size.
+     *
+     * @param minBatchBytes the minimum size of a batch in bytes
+     * @param maxBatchBytes the maximum size of a batch in bytes
+     * @param targetLatencyMillis the response time in milliseconds below which
+     *         the batch size is increased
+     */
+    public AdaptiveBatchSizer(final long minBatchBytes, final long maxBatchBytes, final long targetLatencyMillis)
+    {
+        this.minBatchBytes = Math.max(1, minBatchBytes);
+        this.maxBatchBytes = Math.max(this.minBatchBytes, maxBatchBytes);
+        this.targetLatencyMillis = targetLatencyMillis;
+        this.increaseStepBytes = Math.max(1, (this.maxBatchBytes - this.minBatchBytes) / INCREASE_STEPS);
+        this.batchBytes = this.minBatchBytes;
+    }
+
+
+    /**
+     * Returns the number of bytes that the next batch may contain.
+     *
+     * @return the current batch size in bytes
+     */
+    public synchronized long getBatchBytes()
+    {
+        return batchBytes;
+    }
+
+
+    /**
+     * Adapts the batch size to the response time of a successful submission.
+     *
+     * @param latencyMillis the response time of the submission in milliseconds
+     */
+    public synchronized void onSuccess(final long latencyMillis)
+    {
+        if (latencyMillis <= targetLatencyMillis)
+            batchBytes = Math.min(maxBatchBytes, batchBytes + increaseStepBytes);
+        else
+            decrease();
+    }
+
+
+    /**
+     * Halves the batch size after the sink rejected a submission, because it is overloaded.
+     */
+    public synchronized void onRejection()
+    {
+        decrease();
+    }
+
+
+    /**
+     * Halves the batch size, without falling below the minimum size.
+     */
+    private void decrease()
+    {
+        batchBytes = Math.max(minBatchBytes, (long)(batchBytes * DECREASE_FACTOR));
+    }
+}
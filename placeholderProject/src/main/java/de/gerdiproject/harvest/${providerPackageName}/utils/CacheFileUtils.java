@@ -0,0 +1,129 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * This static class offers methods for reading and writing small state files
+ * that are kept in the cache directory in between harvests.
+ *
+ * @author ${authorFullName}
+ */
+public class CacheFileUtils
+{
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private CacheFileUtils()
+    {
+
+    }
+
+
+    /**
+     * Reads the content of a file.
+     *
+     * @param filePath the path of the file
+     * @param charset the charset of the file content
+     *
+     * @return the file content or null, if the file does not exist
+     */
+    public static String readString(final Path filePath, final Charset charset)
+    {
+        if (!Files.isRegularFile(filePath))
+            return null;
+
+        try {
+            return new String(Files.readAllBytes(filePath), charset);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Replaces the content of a file. The content is written to a temporary
+     * file first, which is then moved to the target path, so that the file is never
+     * left half-written if the service is stopped.
+     *
+     * @param filePath the path of the file
+     * @param content the new file content
+     * @param charset the charset of the file content
+     */
+    public static void writeStringAtomically(final Path filePath, final String content, final Charset charset)
+    {
+        try {
+            final Path tempPath = getTemporaryPath(filePath);
+            Files.write(tempPath, content.getBytes(charset));
+            replaceAtomically(tempPath, filePath);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Returns the path of a temporary file to which the new content of a file
+     * can be written before it is moved via {@linkplain #replaceAtomically(Path, Path)}.
+     * Missing parent directories are created.
+     *
+     * @param filePath the path of the file that is to be replaced
+     *
+     * @return the path of the temporary file
+     *
+     * @throws IOException thrown if the parent directories could not be created
+     */
+    public static Path getTemporaryPath(final Path filePath) throws IOException
+    {
+        Files.createDirectories(filePath.toAbsolutePath().getParent());
+        return filePath.resolveSibling(filePath.getFileName() + ".tmp");
+    }
+
+
+    /**
+     * Replaces a file with a temporary file in a single step.
+     *
+     * @param tempPath the path of the temporary file
+     * @param filePath the path of the file that is to be replaced
+     *
+     * @throws IOException thrown if the file could not be moved
+     */
+    public static void replaceAtomically(final Path tempPath, final Path filePath) throws IOException
+    {
+        Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    /**
+     * Deletes a file if it exists.
+     *
+     * @param filePath the path of the file
+     */
+    public static void delete(final Path filePath)
+    {
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
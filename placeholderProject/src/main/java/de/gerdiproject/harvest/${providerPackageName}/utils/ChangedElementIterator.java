@@ -0,0 +1,116 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * This iterator skips all elements of a source iterator that did not change since
+ * the last harvest, by comparing hashes of their content with a {@linkplain DocumentHashStore}.
+ * This class is not thread-safe.
+ *
+ * @param <T> the type of the elements
+ *
+ * @author ${authorFullName}
+ */
+public class ChangedElementIterator<T> implements Iterator<T>
+{
+    private final Iterator<T> sourceIterator;
+    private final Function<T, String> identifierFunction;
+    private final Function<T, String> contentFunction;
+    private final DocumentHashStore hashStore;
+    private T nextElement;
+    private int unchangedCount;
+    private boolean isExhausted;
+
+
+    /**
+     * Constructor.
+     *
+     * @param sourceIterator the iterator of which unchanged elements are to be skipped
+     * @param identifierFunction a function that retrieves the identifier of an element
+     * @param contentFunction a function that converts an element to a string that
+     *         is stable for as long as the element does not change
+     * @param hashStore the store that holds the content hashes of the last harvest
+     */
+    public ChangedElementIterator(
+        final Iterator<T> sourceIterator,
+        final Function<T, String> identifierFunction,
+        final Function<T, String> contentFunction,
+        final DocumentHashStore hashStore)
+    {
+        this.sourceIterator = sourceIterator;
+        this.identifierFunction = identifierFunction;
+        this.contentFunction = contentFunction;
+        this.hashStore = hashStore;
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        while (nextElement == null && sourceIterator.hasNext()) {
+            final T element = sourceIterator.next();
+            final long contentHash = HashUtils.fingerprint(contentFunction.apply(element));
+
+            if (hashStore.update(identifierFunction.apply(element), contentHash))
+                nextElement = element;
+            else
+                unchangedCount++;
+        }
+
+        if (nextElement == null)
+            isExhausted = true;
+
+        return nextElement != null;
+    }
+
+
+    @Override
+    public T next()
+    {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        final T element = nextElement;
+        nextElement = null;
+        return element;
+    }
+
+
+    /**
+     * Returns the number of elements that were skipped, because they did not change.
+     *
+     * @return the number of unchanged elements
+     */
+    public int getUnchangedCount()
+    {
+        return unchangedCount;
+    }
+
+
+    /**
+     * Checks if all elements of the source iterator were processed.
+     *
+     * @return true if the source iterator has no more elements
+     */
+    public boolean isExhausted()
+    {
+        return isExhausted;
+    }
+}
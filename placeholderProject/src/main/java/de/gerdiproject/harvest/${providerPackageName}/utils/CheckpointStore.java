@@ -0,0 +1,82 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+
+import com.google.gson.Gson;
+
+/**
+ * This class persists {@linkplain HarvestCheckpoint}s as JSON files, allowing
+ * harvests to be resumed after the service was restarted.
+ *
+ * @author ${authorFullName}
+ */
+public class CheckpointStore
+{
+    private final Path storePath;
+    private final Gson gson;
+    private final Charset charset;
+
+
+    /**
+     * Constructor.
+     *
+     * @param storeFile the file in which the checkpoint is stored
+     * @param gson the Gson instance that is used to (de-)serialize the checkpoint
+     * @param charset the charset of the checkpoint file
+     */
+    public CheckpointStore(final File storeFile, final Gson gson, final Charset charset)
+    {
+        this.storePath = storeFile.toPath();
+        this.gson = gson;
+        this.charset = charset;
+    }
+
+
+    /**
+     * Reads the last saved checkpoint.
+     *
+     * @return the last saved checkpoint or null, if no checkpoint exists
+     */
+    public HarvestCheckpoint load()
+    {
+        final String checkpointJson = CacheFileUtils.readString(storePath, charset);
+        return checkpointJson == null ? null : gson.fromJson(checkpointJson, HarvestCheckpoint.class);
+    }
+
+
+    /**
+     * Saves a checkpoint, replacing the previous one.
+     *
+     * @param checkpoint the checkpoint that is to be saved
+     */
+    public void save(final HarvestCheckpoint checkpoint)
+    {
+        CacheFileUtils.writeStringAtomically(storePath, gson.toJson(checkpoint), charset);
+    }
+
+
+    /**
+     * Removes the saved checkpoint, causing the next harvest to start from the beginning.
+     */
+    public void delete()
+    {
+        CacheFileUtils.delete(storePath);
+    }
+}
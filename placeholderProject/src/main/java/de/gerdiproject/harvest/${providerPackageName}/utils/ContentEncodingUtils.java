@@ -0,0 +1,166 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.URLConnection;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * This static class offers helper functions for requesting compressed HTTP responses
+ * and decompressing them while they are being read, so that neither the compressed nor
+ * the decompressed response needs to be held in memory as a whole.
+ * Brotli is not requested, because it cannot be decompressed by the Java runtime.
+ *
+ * @author ${authorFullName}
+ */
+public class ContentEncodingUtils
+{
+    private static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    private static final String SUPPORTED_ENCODINGS = "gzip, deflate";
+    private static final String GZIP_ENCODING = "gzip";
+    private static final String X_GZIP_ENCODING = "x-gzip";
+    private static final String DEFLATE_ENCODING = "deflate";
+    private static final String IDENTITY_ENCODING = "identity";
+    private static final String UNSUPPORTED_ENCODING_ERROR = "Unsupported content encoding: %s";
+    private static final int BUFFER_SIZE = 8192;
+    private static final int ZLIB_HEADER_LENGTH = 2;
+    private static final int ZLIB_DEFLATE_METHOD = 8;
+    private static final int ZLIB_HEADER_CHECKSUM_DIVISOR = 31;
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private ContentEncodingUtils()
+    {
+
+    }
+
+
+    /**
+     * Adds a header to a request that allows the server to send a compressed response.
+     *
+     * @param connection a connection that was not yet connected
+     */
+    public static void requestCompression(final URLConnection connection)
+    {
+        connection.setRequestProperty(ACCEPT_ENCODING_HEADER, SUPPORTED_ENCODINGS);
+    }
+
+
+    /**
+     * Wraps the body of a response in a stream that decompresses it while it is read.
+     *
+     * @param encodedStream the response body as it was sent by the server
+     * @param contentEncoding the value of the Content-Encoding header of the response, or null
+     *
+     * @throws IOException if the encoding is not supported or the stream could not be read
+     *
+     * @return a stream of the decompressed response body
+     */
+    public static InputStream decode(final InputStream encodedStream, final String contentEncoding) throws IOException
+    {
+        if (contentEncoding == null)
+            return encodedStream;
+
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "":
+            case IDENTITY_ENCODING:
+                return encodedStream;
+
+            case GZIP_ENCODING:
+            case X_GZIP_ENCODING:
+                return new GZIPInputStream(encodedStream, BUFFER_SIZE);
+
+            case DEFLATE_ENCODING:
+                return inflate(encodedStream);
+
+            default:
+                throw new IOException(String.format(UNSUPPORTED_ENCODING_ERROR, contentEncoding));
+        }
+    }
+
+
+    /**
+     * Wraps a deflate-encoded stream in a stream that decompresses it. Some servers
+     * send raw deflate data instead of the zlib format that is required by the HTTP
+     * specification, so the format is determined by the first two bytes.
+     *
+     * @param encodedStream a stream of deflate-encoded data
+     *
+     * @throws IOException if the stream could not be read
+     *
+     * @return a stream of the decompressed data
+     */
+    private static InputStream inflate(final InputStream encodedStream) throws IOException
+    {
+        final PushbackInputStream pushbackStream = new PushbackInputStream(encodedStream, ZLIB_HEADER_LENGTH);
+        final byte[] header = new byte[ZLIB_HEADER_LENGTH];
+        int headerLength = 0;
+
+        while (headerLength < ZLIB_HEADER_LENGTH) {
+            final int readBytes = pushbackStream.read(header, headerLength, ZLIB_HEADER_LENGTH - headerLength);
+
+            if (readBytes == -1)
+                break;
+
+            headerLength += readBytes;
+        }
+
+        pushbackStream.unread(header, 0, headerLength);
+
+        final Inflater inflater = new Inflater(!isZlibHeader(header, headerLength));
+
+        // the inflater must be released explicitly, because it is not created by the stream
+        return new InflaterInputStream(pushbackStream, inflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException
+            {
+                try {
+                    super.close();
+                } finally {
+                    inflater.end();
+                }
+            }
+        };
+    }
+
+
+    /**
+     * Checks if two bytes are a valid zlib header of deflate-encoded data.
+     *
+     * @param header the first bytes of a stream
+     * @param headerLength the number of bytes that could be read
+     *
+     * @return true if the bytes are a zlib header
+     */
+    private static boolean isZlibHeader(final byte[] header, final int headerLength)
+    {
+        if (headerLength < ZLIB_HEADER_LENGTH)
+            return false;
+
+        final int compressionMethodAndFlags = (header[0] & 0xFF) << 8 | header[1] & 0xFF;
+
+        return (header[0] & 0x0F) == ZLIB_DEFLATE_METHOD
+               && compressionMethodAndFlags % ZLIB_HEADER_CHECKSUM_DIVISOR == 0;
+    }
+}
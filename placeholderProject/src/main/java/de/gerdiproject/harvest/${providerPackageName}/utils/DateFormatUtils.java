@@ -0,0 +1,112 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalQuery;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This static class converts dates of ${providerName} to the formats that are
+ * required by DataCite. The date formatters are created once per pattern and
+ * shared by all threads, instead of being created for every record.
+ *
+ * @author ${authorFullName}
+ */
+public class DateFormatUtils
+{
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private DateFormatUtils()
+    {
+
+    }
+
+
+    /**
+     * Returns a shared formatter for a date pattern.
+     *
+     * @param pattern a pattern as described by {@linkplain DateTimeFormatter}
+     *
+     * @return a thread-safe formatter for the pattern
+     */
+    public static DateTimeFormatter getFormatter(final String pattern)
+    {
+        return FORMATTERS.computeIfAbsent(pattern, (final String p) -> DateTimeFormatter.ofPattern(p, Locale.ENGLISH));
+    }
+
+
+    /**
+     * Converts a date to the ISO-8601 format (yyyy-MM-dd).
+     *
+     * @param date the date that is to be converted
+     * @param pattern the pattern of the date
+     *
+     * @return the ISO-8601 date or null, if the date does not match the pattern
+     */
+    public static String toIsoDate(final String date, final String pattern)
+    {
+        final LocalDate parsedDate = parse(date, pattern, LocalDate::from);
+        return parsedDate == null ? null : DateTimeFormatter.ISO_LOCAL_DATE.format(parsedDate);
+    }
+
+
+    /**
+     * Retrieves the year of a date.
+     *
+     * @param date the date of which the year is retrieved
+     * @param pattern the pattern of the date
+     *
+     * @return the year or null, if the date does not match the pattern
+     */
+    public static Integer toYear(final String date, final String pattern)
+    {
+        final Year parsedYear = parse(date, pattern, Year::from);
+        return parsedYear == null ? null : parsedYear.getValue();
+    }
+
+
+    /**
+     * Parses a date using a shared formatter.
+     *
+     * @param date the date that is to be parsed
+     * @param pattern the pattern of the date
+     * @param query a query that creates the parsed object, e.g. LocalDate::from
+     * @param <T> the type of the parsed object
+     *
+     * @return the parsed object or null, if the date is null or does not match the pattern
+     */
+    private static <T> T parse(final String date, final String pattern, final TemporalQuery<T> query)
+    {
+        if (date == null)
+            return null;
+
+        try {
+            return getFormatter(pattern).parse(date, query);
+        } catch (final DateTimeException e) {
+            return null;
+        }
+    }
+}
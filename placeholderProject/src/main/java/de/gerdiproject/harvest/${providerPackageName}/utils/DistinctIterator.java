@@ -0,0 +1,104 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * This iterator skips all elements of a source iterator whose identifier was already
+ * returned before. Instead of the identifiers themselves, only 64-bit fingerprints
+ * of them are kept in memory (see {@linkplain HashUtils#fingerprint(CharSequence)}).
+ * This class is not thread-safe.
+ *
+ * @param <T> the type of the elements
+ *
+ * @author ${authorFullName}
+ */
+public class DistinctIterator<T> implements Iterator<T>
+{
+    private final Iterator<T> sourceIterator;
+    private final Function<T, String> identifierFunction;
+    private final LongHashSet seenFingerprints;
+    private T nextElement;
+    private int duplicateCount;
+
+
+    /**
+     * Constructor.
+     *
+     * @param sourceIterator the iterator of which duplicates are to be skipped
+     * @param identifierFunction a function that retrieves the identifier of an element
+     */
+    public DistinctIterator(final Iterator<T> sourceIterator, final Function<T, String> identifierFunction)
+    {
+        this.sourceIterator = sourceIterator;
+        this.identifierFunction = identifierFunction;
+        this.seenFingerprints = new LongHashSet();
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        while (nextElement == null && sourceIterator.hasNext()) {
+            final T element = sourceIterator.next();
+
+            if (seenFingerprints.add(HashUtils.fingerprint(identifierFunction.apply(element))))
+                nextElement = element;
+            else
+                duplicateCount++;
+        }
+
+        return nextElement != null;
+    }
+
+
+    @Override
+    public T next()
+    {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        final T element = nextElement;
+        nextElement = null;
+        return element;
+    }
+
+
+    /**
+     * Returns the number of elements that were skipped, because their
+     * identifier was returned before.
+     *
+     * @return the number of skipped duplicates
+     */
+    public int getDuplicateCount()
+    {
+        return duplicateCount;
+    }
+
+
+    /**
+     * Returns the number of distinct identifiers that were returned so far.
+     *
+     * @return the number of distinct identifiers
+     */
+    public int getDistinctCount()
+    {
+        return seenFingerprints.size();
+    }
+}
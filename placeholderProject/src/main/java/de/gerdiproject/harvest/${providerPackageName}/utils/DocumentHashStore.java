@@ -0,0 +1,438 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * This class persists content hashes of harvested documents, mapped by document identifiers,
+ * in order to detect which documents were added, changed, or removed since the last harvest.
+ * The hashes of the last committed harvest are stored in a hash table file with open addressing,
+ * which is memory-mapped and searched in place, so that only the fingerprints of the documents
+ * of the current harvest are kept on the heap. The documents of the current harvest are appended
+ * to a journal file, from which a new hash table file is built when the harvest is committed.
+ * Documents are identified by the 64-bit fingerprints of their identifiers.
+ * This class is not thread-safe.
+ *
+ * @author ${authorFullName}
+ */
+public class DocumentHashStore implements AutoCloseable
+{
+    private static final int MAGIC_NUMBER = 0x44485354;
+    private static final int MIN_SLOT_COUNT = 16;
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    // the header consists of the magic number, the number of slots, and the number of entries
+    private static final int SLOT_COUNT_POSITION = 4;
+    private static final int ENTRY_COUNT_POSITION = 8;
+    private static final int HEADER_SIZE = 12;
+
+    // each slot consists of an identifier fingerprint, a content hash, and the position of the identifier
+    private static final int CONTENT_HASH_OFFSET = 8;
+    private static final int IDENTIFIER_POSITION_OFFSET = 16;
+    private static final int SLOT_SIZE = 20;
+    private static final int EMPTY_SLOT = 0;
+
+    private final Path storePath;
+    private final Path journalPath;
+    private final LongHashSet seenFingerprints;
+
+    // the hash table of the last committed harvest, or null if there is none
+    private ByteBuffer storedTable;
+    private int storedSlotCount;
+    private int storedEntryCount;
+
+    private DataOutputStream journal;
+    private int journalEntryCount;
+
+
+    /**
+     * Constructor.
+     *
+     * @param storeFile the file in which the document hashes are stored
+     */
+    public DocumentHashStore(final File storeFile)
+    {
+        this.storePath = storeFile.toPath();
+        this.journalPath = storePath.resolveSibling(storePath.getFileName() + JOURNAL_SUFFIX);
+        this.seenFingerprints = new LongHashSet();
+    }
+
+
+    /**
+     * Maps the document hashes of the last committed harvest into memory and
+     * forgets all documents that were seen since then.
+     * Files that were written by previous versions of this class are ignored.
+     */
+    public void load()
+    {
+        close();
+        CacheFileUtils.delete(journalPath);
+        journalEntryCount = 0;
+        seenFingerprints.clear();
+        storedTable = null;
+        storedSlotCount = 0;
+        storedEntryCount = 0;
+
+        if (!Files.isRegularFile(storePath))
+            return;
+
+        try
+            (FileChannel channel = FileChannel.open(storePath, StandardOpenOption.READ)) {
+            final MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (table.limit() >= HEADER_SIZE && table.getInt(0) == MAGIC_NUMBER) {
+                storedTable = table;
+                storedSlotCount = table.getInt(SLOT_COUNT_POSITION);
+                storedEntryCount = table.getInt(ENTRY_COUNT_POSITION);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Marks a document as seen in the current harvest and updates its hash.
+     * If a document is updated more than once per harvest, its last hash is committed,
+     * but each update is compared to the hash of the last committed harvest.
+     *
+     * @param identifier the unique identifier of the document
+     * @param contentHash a hash of the document content
+     *
+     * @return true if the document is new or changed since the last harvest
+     */
+    public boolean update(final String identifier, final long contentHash)
+    {
+        final long fingerprint = HashUtils.fingerprint(identifier);
+        seenFingerprints.add(fingerprint);
+        appendToJournal(fingerprint, contentHash, identifier);
+
+        if (storedTable == null)
+            return true;
+
+        final int slotPosition = findSlot(storedTable, storedSlotCount, fingerprint);
+        return isEmptySlot(storedTable, slotPosition)
+               || storedTable.getLong(slotPosition + CONTENT_HASH_OFFSET) != contentHash;
+    }
+
+
+    /**
+     * Returns the identifiers of all documents that were stored, but not seen
+     * in the current harvest. This is only meaningful if the current harvest
+     * covered all documents of the provider.
+     *
+     * @return the identifiers of documents that were removed since the last harvest
+     */
+    public Set<String> getUnseenIdentifiers()
+    {
+        final Set<String> unseenIdentifiers = new HashSet<>();
+
+        for (int i = 0; i < storedSlotCount; i++) {
+            final int slotPosition = HEADER_SIZE + i * SLOT_SIZE;
+
+            if (!isEmptySlot(storedTable, slotPosition) && !seenFingerprints.contains(storedTable.getLong(slotPosition)))
+                unseenIdentifiers.add(new String(readIdentifier(storedTable, slotPosition), StandardCharsets.UTF_8));
+        }
+
+        return Collections.unmodifiableSet(unseenIdentifiers);
+    }
+
+
+    /**
+     * Writes the document hashes to disk, replacing the previous ones, and maps them
+     * into memory for the next harvest.
+     *
+     * @param removeUnseen if true, the hashes of documents that were not seen in the
+     *         current harvest are removed
+     */
+    public void commit(final boolean removeUnseen)
+    {
+        close();
+
+        try {
+            final Path tempPath = CacheFileUtils.getTemporaryPath(storePath);
+            writeTable(tempPath, removeUnseen);
+
+            storedTable = null;
+            CacheFileUtils.replaceAtomically(tempPath, storePath);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        load();
+    }
+
+
+    /**
+     * Removes all stored hashes, causing all documents of the next harvest to be treated as new.
+     */
+    public void reset()
+    {
+        close();
+        CacheFileUtils.delete(journalPath);
+        CacheFileUtils.delete(storePath);
+        journalEntryCount = 0;
+        seenFingerprints.clear();
+        storedTable = null;
+        storedSlotCount = 0;
+        storedEntryCount = 0;
+    }
+
+
+    /**
+     * Closes the journal of the current harvest, without committing it.
+     */
+    @Override
+    public void close()
+    {
+        if (journal == null)
+            return;
+
+        try {
+            journal.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            journal = null;
+        }
+    }
+
+
+    /**
+     * Appends a document of the current harvest to the journal.
+     *
+     * @param fingerprint the fingerprint of the document identifier
+     * @param contentHash a hash of the document content
+     * @param identifier the unique identifier of the document
+     */
+    private void appendToJournal(final long fingerprint, final long contentHash, final String identifier)
+    {
+        try {
+            if (journal == null) {
+                Files.createDirectories(journalPath.toAbsolutePath().getParent());
+                journal = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(journalPath)));
+            }
+
+            final byte[] identifierBytes = identifier.getBytes(StandardCharsets.UTF_8);
+            journal.writeLong(fingerprint);
+            journal.writeLong(contentHash);
+            journal.writeInt(identifierBytes.length);
+            journal.write(identifierBytes);
+            journalEntryCount++;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Builds a hash table file from the journal of the current harvest and,
+     * optionally, from the unseen documents of the last committed harvest.
+     * The slots are written to a memory-mapped region at the start of the file,
+     * followed by the identifiers.
+     *
+     * @param tablePath the path of the hash table file
+     * @param removeUnseen if true, documents that were not seen in the current harvest are omitted
+     *
+     * @throws IOException if the journal could not be read or the file could not be written
+     */
+    private void writeTable(final Path tablePath, final boolean removeUnseen) throws IOException
+    {
+        final int slotCount = getSlotCount(journalEntryCount + (removeUnseen ? 0 : storedEntryCount));
+        final int identifiersPosition = HEADER_SIZE + slotCount * SLOT_SIZE;
+        int entryCount = 0;
+
+        try
+            (FileChannel channel = FileChannel.open(
+                                       tablePath,
+                                       StandardOpenOption.CREATE,
+                                       StandardOpenOption.TRUNCATE_EXISTING,
+                                       StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE)) {
+            final MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, 0, identifiersPosition);
+            channel.position(identifiersPosition);
+            final DataOutputStream identifierStream = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+            if (journalEntryCount > 0) {
+                try
+                    (DataInputStream journalStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalPath)))) {
+                    for (int i = 0; i < journalEntryCount; i++) {
+                        final long fingerprint = journalStream.readLong();
+                        final long contentHash = journalStream.readLong();
+                        final byte[] identifier = new byte[journalStream.readInt()];
+                        journalStream.readFully(identifier);
+
+                        if (insert(table, slotCount, fingerprint, contentHash, identifier, identifierStream, identifiersPosition))
+                            entryCount++;
+                    }
+                }
+            }
+
+            for (int i = 0; i < storedSlotCount && !removeUnseen; i++) {
+                final int slotPosition = HEADER_SIZE + i * SLOT_SIZE;
+
+                if (isEmptySlot(storedTable, slotPosition) || seenFingerprints.contains(storedTable.getLong(slotPosition)))
+                    continue;
+
+                if (insert(table,
+                           slotCount,
+                           storedTable.getLong(slotPosition),
+                           storedTable.getLong(slotPosition + CONTENT_HASH_OFFSET),
+                           readIdentifier(storedTable, slotPosition),
+                           identifierStream,
+                           identifiersPosition))
+                    entryCount++;
+            }
+
+            table.putInt(0, MAGIC_NUMBER);
+            table.putInt(SLOT_COUNT_POSITION, slotCount);
+            table.putInt(ENTRY_COUNT_POSITION, entryCount);
+            table.force();
+            identifierStream.flush();
+        }
+    }
+
+
+    /**
+     * Inserts a document into a hash table that is being written. If the document
+     * is already part of the table, only its content hash is replaced.
+     *
+     * @param table the slots of the hash table
+     * @param slotCount the number of slots
+     * @param fingerprint the fingerprint of the document identifier
+     * @param contentHash a hash of the document content
+     * @param identifier the UTF-8 bytes of the document identifier
+     * @param identifierStream the stream to which identifiers are appended
+     * @param identifiersPosition the position in the file at which the identifiers start
+     *
+     * @throws IOException if the identifier could not be written
+     *
+     * @return true if the document was not part of the table before
+     */
+    private static boolean insert(
+        final ByteBuffer table,
+        final int slotCount,
+        final long fingerprint,
+        final long contentHash,
+        final byte[] identifier,
+        final DataOutputStream identifierStream,
+        final int identifiersPosition) throws IOException
+    {
+        final int slotPosition = findSlot(table, slotCount, fingerprint);
+        table.putLong(slotPosition + CONTENT_HASH_OFFSET, contentHash);
+
+        if (!isEmptySlot(table, slotPosition))
+            return false;
+
+        table.putLong(slotPosition, fingerprint);
+        table.putInt(slotPosition + IDENTIFIER_POSITION_OFFSET, identifiersPosition + identifierStream.size());
+        identifierStream.writeInt(identifier.length);
+        identifierStream.write(identifier);
+        return true;
+    }
+
+
+    /**
+     * Searches a hash table for the slot of a document via linear probing.
+     *
+     * @param table the hash table
+     * @param slotCount the number of slots, which must be a power of two
+     * @param fingerprint the fingerprint of the document identifier
+     *
+     * @return the position of the slot that contains the document, or of the
+     *         empty slot at which the document would be inserted
+     */
+    private static int findSlot(final ByteBuffer table, final int slotCount, final long fingerprint)
+    {
+        final int mask = slotCount - 1;
+        int index = HashUtils.spread(fingerprint) & mask;
+
+        while (true) {
+            final int slotPosition = HEADER_SIZE + index * SLOT_SIZE;
+
+            if (isEmptySlot(table, slotPosition) || table.getLong(slotPosition) == fingerprint)
+                return slotPosition;
+
+            index = (index + 1) & mask;
+        }
+    }
+
+
+    /**
+     * Checks if a slot of a hash table does not contain a document.
+     *
+     * @param table the hash table
+     * @param slotPosition the position of the slot
+     *
+     * @return true if the slot is empty
+     */
+    private static boolean isEmptySlot(final ByteBuffer table, final int slotPosition)
+    {
+        return table.getInt(slotPosition + IDENTIFIER_POSITION_OFFSET) == EMPTY_SLOT;
+    }
+
+
+    /**
+     * Reads the identifier of a document from a hash table file.
+     *
+     * @param table the hash table
+     * @param slotPosition the position of the slot of the document
+     *
+     * @return the UTF-8 bytes of the identifier
+     */
+    private static byte[] readIdentifier(final ByteBuffer table, final int slotPosition)
+    {
+        final int identifierPosition = table.getInt(slotPosition + IDENTIFIER_POSITION_OFFSET);
+        final byte[] identifier = new byte[table.getInt(identifierPosition)];
+
+        final ByteBuffer identifierBuffer = table.duplicate();
+        identifierBuffer.position(identifierPosition + Integer.BYTES);
+        identifierBuffer.get(identifier);
+        return identifier;
+    }
+
+
+    /**
+     * Calculates the number of slots of a hash table, which is at most half full.
+     *
+     * @param entryCount the maximum number of entries of the hash table
+     *
+     * @return a power of two that is at least twice the number of entries
+     */
+    private static int getSlotCount(final int entryCount)
+    {
+        final int minSlotCount = Math.max(MIN_SLOT_COUNT, 2 * entryCount);
+        return Integer.highestOneBit(minSlotCount - 1) << 1;
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}LoggingConstants;
+
+/**
+ * This static class creates executors for background tasks of the harvester.
+ * If the harvester runs on Java 21 or later, executors may run each task on its
+ * own virtual thread, which is significantly cheaper than a platform thread when
+ * most of the time is spent waiting for HTTP responses.
+ *
+ * @author ${authorFullName}
+ */
+public class ExecutorUtils
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorUtils.class);
+    private static final String VIRTUAL_THREAD_EXECUTOR_METHOD = "newVirtualThreadPerTaskExecutor";
+    private static final Method VIRTUAL_THREAD_EXECUTOR_FACTORY = getVirtualThreadExecutorFactory();
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private ExecutorUtils()
+    {
+
+    }
+
+
+    /**
+     * Checks if the Java runtime supports virtual threads.
+     *
+     * @return true if virtual threads are supported
+     */
+    public static boolean isVirtualThreadSupported()
+    {
+        return VIRTUAL_THREAD_EXECUTOR_FACTORY != null;
+    }
+
+
+    /**
+     * Creates an executor that runs tasks on daemon threads.
+     *
+     * @param threadCount the number of platform threads that execute tasks
+     * @param threadName the name of the platform threads
+     * @param useVirtualThreads if true and if virtual threads are supported, each task is executed
+     *         on its own virtual thread instead of a fixed number of platform threads,
+     *         otherwise a warning is logged
+     *
+     * @return a new executor
+     */
+    public static ExecutorService createExecutor(final int threadCount, final String threadName, final boolean useVirtualThreads)
+    {
+        if (useVirtualThreads && !isVirtualThreadSupported())
+            LOGGER.warn(String.format(${providerClassName}LoggingConstants.VIRTUAL_THREADS_UNSUPPORTED, threadName));
+
+        else if (useVirtualThreads) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR_FACTORY.invoke(null);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                LOGGER.warn(String.format(${providerClassName}LoggingConstants.VIRTUAL_THREADS_FAILED, threadName), e);
+            }
+        }
+
+        return Executors.newFixedThreadPool(Math.max(1, threadCount), createDaemonThreadFactory(threadName));
+    }
+
+
+    /**
+     * Creates a factory for daemon threads, which do not prevent the service from shutting down.
+     *
+     * @param threadName the name of the created threads
+     *
+     * @return a factory for daemon threads
+     */
+    public static ThreadFactory createDaemonThreadFactory(final String threadName)
+    {
+        return (final Runnable task) -> {
+            final Thread thread = new Thread(task, threadName);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+
+    /**
+     * Looks up the factory method for virtual thread executors, which only exists
+     * since Java 21.
+     *
+     * @return the factory method or null, if virtual threads are not supported
+     */
+    private static Method getVirtualThreadExecutorFactory()
+    {
+        try {
+            return Executors.class.getMethod(VIRTUAL_THREAD_EXECUTOR_METHOD);
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
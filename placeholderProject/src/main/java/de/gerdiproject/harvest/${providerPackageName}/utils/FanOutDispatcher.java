@@ -0,0 +1,376 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+/**
+ * This class passes the elements of a single source iterator to multiple sinks,
+ * each of which consumes the elements on its own thread. Every sink reads from
+ * its own bounded queue, so a slow sink only delays the others once its queue is full.
+ * A sink that stops consuming early is no longer fed, while the remaining sinks
+ * continue to receive all elements. If a sink fails, no further elements are read
+ * from the source and all other sinks are cancelled.
+ * Optionally, the size of each queued element is reserved in a {@linkplain MemoryBudget}
+ * until every sink has taken it from its queue. The reservation does not wait for the
+ * budget, but it slows down the threads that retrieve the elements.
+ *
+ * @param <T> the type of the dispatched elements
+ *
+ * @author ${authorFullName}
+ */
+public class FanOutDispatcher<T>
+{
+    private static final Object END_OF_ELEMENTS = new Object();
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final int queueSize;
+    private final MemoryBudget memoryBudget;
+    private final ToLongFunction<T> sizeEstimator;
+
+
+    /**
+     * Constructor.
+     *
+     * @param queueSize the maximum number of elements that are kept for each sink
+     *         while it is busy
+     */
+    public FanOutDispatcher(final int queueSize)
+    {
+        this(queueSize, new MemoryBudget(0), (final T element) -> 0L);
+    }
+
+
+    /**
+     * Constructor that reserves the size of queued elements in a memory budget.
+     *
+     * @param queueSize the maximum number of elements that are kept for each sink
+     *         while it is busy
+     * @param memoryBudget the budget in which the size of queued elements is reserved
+     * @param sizeEstimator a function that estimates the size of an element in bytes
+     */
+    public FanOutDispatcher(final int queueSize, final MemoryBudget memoryBudget, final ToLongFunction<T> sizeEstimator)
+    {
+        this.queueSize = Math.max(1, queueSize);
+        this.memoryBudget = memoryBudget;
+        this.sizeEstimator = sizeEstimator;
+    }
+
+
+    /**
+     * Passes all elements of a source iterator to all sinks and waits until every
+     * sink has finished.
+     *
+     * @param sourceIterator the elements that are to be dispatched
+     * @param sinks the consumers of the elements
+     *
+     * @throws ExecutionException if a sink failed, thrown after all other sinks were cancelled
+     * @throws InterruptedException if the thread was interrupted while waiting for the sinks
+     */
+    public void dispatch(final Iterator<T> sourceIterator, final List<Sink<T>> sinks) throws ExecutionException, InterruptedException
+    {
+        if (sinks.isEmpty())
+            return;
+
+        final List<BlockingQueue<Object>> queues = new ArrayList<>(sinks.size());
+        final List<Future<?>> sinkResults = new ArrayList<>(sinks.size());
+        final ExecutorService sinkExecutor =
+            Executors.newFixedThreadPool(sinks.size(), ExecutorUtils.createDaemonThreadFactory(getClass().getSimpleName()));
+
+        try {
+            for (final Sink<T> sink : sinks) {
+                final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueSize);
+                queues.add(queue);
+                sinkResults.add(sinkExecutor.submit(() -> {
+                    sink.consume(new QueueIterator<>(queue));
+                    return null;
+                }));
+            }
+
+            while (!isDone(sinkResults) && !hasFailed(sinkResults) && sourceIterator.hasNext()) {
+                final T element = sourceIterator.next();
+                final QueuedElement<T> queuedElement = new QueuedElement<>(element, sizeEstimator.applyAsLong(element), queues.size(), memoryBudget);
+
+                for (int i = 0; i < queues.size(); i++) {
+                    if (!offer(queues.get(i), queuedElement, sinkResults.get(i), sinkResults))
+                        queuedElement.onTaken();
+                }
+            }
+
+            // the remaining sinks must not mistake a failed dispatch for a complete one
+            if (hasFailed(sinkResults)) {
+                for (final Future<?> sinkResult : sinkResults)
+                    sinkResult.cancel(true);
+            } else {
+                for (int i = 0; i < queues.size(); i++)
+                    offer(queues.get(i), END_OF_ELEMENTS, sinkResults.get(i), sinkResults);
+            }
+
+            awaitSinks(sinkResults);
+
+        } finally {
+            sinkExecutor.shutdownNow();
+
+            // sinks that stopped early or were cancelled left elements in their queues
+            for (final BlockingQueue<Object> queue : queues)
+                discardQueuedElements(queue);
+        }
+    }
+
+
+    /**
+     * Removes all elements from the queue of a sink, as if the sink had taken them.
+     *
+     * @param queue the queue of the sink
+     */
+    private static void discardQueuedElements(final BlockingQueue<Object> queue)
+    {
+        Object discardedElement;
+
+        while ((discardedElement = queue.poll()) != null) {
+            if (discardedElement != END_OF_ELEMENTS)
+                ((QueuedElement<?>) discardedElement).onTaken();
+        }
+    }
+
+
+    /**
+     * Waits until all sinks have finished or were cancelled, and passes on the first failure,
+     * if there is one.
+     *
+     * @param sinkResults the results of all sinks
+     *
+     * @throws ExecutionException if a sink failed
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    private static void awaitSinks(final List<Future<?>> sinkResults) throws ExecutionException, InterruptedException
+    {
+        ExecutionException firstFailure = null;
+
+        for (final Future<?> sinkResult : sinkResults) {
+            try {
+                sinkResult.get();
+            } catch (final ExecutionException e) {
+                if (firstFailure == null)
+                    firstFailure = e;
+            } catch (final CancellationException e) {
+                // sinks are only cancelled after another sink failed
+            }
+        }
+
+        if (firstFailure != null)
+            throw firstFailure;
+    }
+
+
+    /**
+     * Waits until an element fits into the queue of a sink, unless the sink has
+     * stopped consuming elements or any sink has failed.
+     *
+     * @param queue the queue of the sink
+     * @param element the element that is to be added
+     * @param sinkResult the result of the sink
+     * @param sinkResults the results of all sinks
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting
+     *
+     * @return true if the element was added to the queue
+     */
+    private static boolean offer(final BlockingQueue<Object> queue, final Object element, final Future<?> sinkResult, final List<Future<?>> sinkResults)
+    throws InterruptedException
+    {
+        while (!sinkResult.isDone() && !hasFailed(sinkResults)) {
+            if (queue.offer(element, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+                return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Checks if all sinks have stopped consuming elements.
+     *
+     * @param sinkResults the results of all sinks
+     *
+     * @return true if no sink consumes elements anymore
+     */
+    private static boolean isDone(final List<Future<?>> sinkResults)
+    {
+        for (final Future<?> sinkResult : sinkResults) {
+            if (!sinkResult.isDone())
+                return false;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Checks if a sink has failed.
+     *
+     * @param sinkResults the results of all sinks
+     *
+     * @throws InterruptedException if the thread was interrupted while retrieving a result
+     *
+     * @return true if a sink threw an exception
+     */
+    private static boolean hasFailed(final List<Future<?>> sinkResults) throws InterruptedException
+    {
+        for (final Future<?> sinkResult : sinkResults) {
+            if (sinkResult.isDone() && !sinkResult.isCancelled()) {
+                try {
+                    sinkResult.get();
+                } catch (final ExecutionException e) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * A consumer of all dispatched elements.
+     *
+     * @param <T> the type of the consumed elements
+     */
+    @FunctionalInterface
+    public interface Sink<T>
+    {
+        /**
+         * Consumes the dispatched elements. This method is called on a dedicated thread.
+         *
+         * @param elements an iterator that blocks until the next element was dispatched
+         *
+         * @throws Exception if the elements could not be consumed
+         */
+        void consume(Iterator<T> elements) throws Exception;
+    }
+
+
+    /**
+     * An element that was passed to the queues of the sinks, along with its estimated size,
+     * which is released once all sinks took the element from their queues.
+     *
+     * @param <T> the type of the element
+     */
+    private static class QueuedElement<T>
+    {
+        private final T element;
+        private final long bytes;
+        private final AtomicInteger pendingSinkCount;
+        private final MemoryBudget memoryBudget;
+
+
+        /**
+         * Constructor that reserves the size of the element.
+         *
+         * @param element the dispatched element
+         * @param bytes the estimated size of the element
+         * @param sinkCount the number of sinks to which the element is passed
+         * @param memoryBudget the budget in which the size of the element is reserved
+         */
+        QueuedElement(final T element, final long bytes, final int sinkCount, final MemoryBudget memoryBudget)
+        {
+            this.element = element;
+            this.bytes = bytes;
+            this.pendingSinkCount = new AtomicInteger(sinkCount);
+            this.memoryBudget = memoryBudget;
+            memoryBudget.reserve(bytes);
+        }
+
+
+        /**
+         * Marks the element as taken by a sink, and releases its size once all sinks took it.
+         *
+         * @return the dispatched element
+         */
+        T onTaken()
+        {
+            if (pendingSinkCount.decrementAndGet() == 0)
+                memoryBudget.releaseReserved(bytes);
+
+            return element;
+        }
+    }
+
+
+    /**
+     * An iterator over the elements of the queue of a sink.
+     *
+     * @param <T> the type of the elements
+     */
+    private static class QueueIterator<T> implements Iterator<T>
+    {
+        private final BlockingQueue<Object> queue;
+        private Object nextElement;
+
+
+        /**
+         * Constructor.
+         *
+         * @param queue the queue from which the elements are taken
+         */
+        QueueIterator(final BlockingQueue<Object> queue)
+        {
+            this.queue = queue;
+        }
+
+
+        @Override
+        public boolean hasNext()
+        {
+            if (nextElement == null) {
+                try {
+                    nextElement = queue.take();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            return nextElement != END_OF_ELEMENTS;
+        }
+
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next()
+        {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            final T element = ((QueuedElement<T>) nextElement).onTaken();
+            nextElement = null;
+            return element;
+        }
+    }
+}
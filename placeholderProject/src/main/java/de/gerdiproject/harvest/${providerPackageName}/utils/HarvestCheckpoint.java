@@ -0,0 +1,49 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import lombok.Value;
+
+/**
+ * This class is a value object that represents the progress of an unfinished harvest,
+ * from which the harvest can be resumed after a restart of the service.
+ *
+ * @author ${authorFullName}
+ */
+@Value
+public class HarvestCheckpoint
+{
+    /**
+     * The version string of the harvested source at the time the checkpoint was created.
+     */
+    private final String versionString;
+
+    /**
+     * The zero-based index of the next page that is to be extracted.
+     */
+    private final int nextPageIndex;
+
+    /**
+     * A cursor, such as a resumption token, that leads to the next page, or null if pages are
+     * only identified by their index.
+     */
+    private final String nextPageCursor;
+
+    /**
+     * The number of records that were extracted and processed before the next page.
+     */
+    private final int extractedCount;
+}
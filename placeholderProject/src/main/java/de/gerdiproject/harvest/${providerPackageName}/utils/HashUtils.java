@@ -0,0 +1,77 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+/**
+ * This static class offers methods for calculating non-cryptographic hashes,
+ * which are used to compare identifiers and documents without keeping them in memory.
+ *
+ * @author ${authorFullName}
+ */
+public class HashUtils
+{
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+
+    /**
+     * Private Constructor, because this is a static class.
+     */
+    private HashUtils()
+    {
+
+    }
+
+
+    /**
+     * Calculates a 64-bit FNV-1a hash of a text. Two distinct texts share a hash
+     * with a probability of roughly n² / 2^65, which is below one in a million for
+     * five million texts.
+     *
+     * @param text the text that is to be hashed
+     *
+     * @return a 64-bit hash of the text
+     */
+    public static long fingerprint(final CharSequence text)
+    {
+        long hash = FNV_OFFSET_BASIS;
+        final int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+
+    /**
+     * Mixes the bits of a hash in order to distribute similar hashes evenly
+     * across the slots of a hash table.
+     *
+     * @param hash the hash that is to be mixed
+     *
+     * @return the slot index before it is masked
+     */
+    public static int spread(final long hash)
+    {
+        final long mixed = hash * GOLDEN_RATIO;
+        return (int)(mixed ^ (mixed >>> 32));
+    }
+}
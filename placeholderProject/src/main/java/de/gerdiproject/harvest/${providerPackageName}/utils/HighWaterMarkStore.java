@@ -0,0 +1,91 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.io.File;
+import java.nio.charset.Charset;
+
+/**
+ * This class persists a high-water mark, such as a modification date or a cursor,
+ * that marks the newest record that was harvested successfully.
+ * A new high-water mark is staged at the beginning of a harvest and only written
+ * to disk when the harvest was completed, so that failed harvests are repeated.
+ *
+ * @author ${authorFullName}
+ */
+public class HighWaterMarkStore
+{
+    private final PersistedValueStore store;
+    private String stagedMark;
+
+
+    /**
+     * Constructor.
+     *
+     * @param storeFile the file in which the high-water mark is stored
+     * @param charset the charset of the stored high-water mark
+     */
+    public HighWaterMarkStore(final File storeFile, final Charset charset)
+    {
+        this.store = new PersistedValueStore(storeFile, charset);
+    }
+
+
+    /**
+     * Reads the high-water mark of the last completed harvest.
+     *
+     * @return the high-water mark or null, if no harvest was completed yet
+     */
+    public String load()
+    {
+        return store.load();
+    }
+
+
+    /**
+     * Sets the high-water mark that is to be written to disk by {@linkplain #commit()}.
+     *
+     * @param mark the high-water mark of the current harvest
+     */
+    public void stage(final String mark)
+    {
+        this.stagedMark = mark;
+    }
+
+
+    /**
+     * Writes the staged high-water mark to disk, replacing the previous one.
+     * If no high-water mark was staged, nothing happens.
+     */
+    public void commit()
+    {
+        if (stagedMark == null)
+            return;
+
+        store.save(stagedMark);
+        stagedMark = null;
+    }
+
+
+    /**
+     * Removes the stored high-water mark, causing the next harvest to be a full harvest.
+     */
+    public void reset()
+    {
+        stagedMark = null;
+        store.delete();
+    }
+}
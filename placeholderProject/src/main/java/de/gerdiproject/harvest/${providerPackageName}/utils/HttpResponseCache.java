@@ -0,0 +1,866 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import de.gerdiproject.harvest.${providerPackageName}.fixtures.HttpFixtureMode;
+import de.gerdiproject.harvest.${providerPackageName}.fixtures.HttpFixtureStore;
+import de.gerdiproject.harvest.${providerPackageName}.metrics.HttpMetrics;
+
+/**
+ * This class retrieves HTTP responses and stores their bodies on disk, if the server
+ * provides an ETag or a Last-Modified header. When the same URL is requested again,
+ * a conditional request is sent and unchanged responses are read from disk.
+ * If the total size of all stored bodies exceeds a limit, the least recently used
+ * responses are removed. If the server responds that it is overloaded, or if it does
+ * not respond within a timeout, the request is repeated after the server-specified delay.
+ * Responses are requested with gzip or deflate compression and decompressed while they are downloaded.
+ * Large responses can also be streamed, in which case they are throttled and measured
+ * like all other requests, but never stored.
+ * Unlike the HttpRequester, this cache does not support reading mocked responses from disk,
+ * but it can record and replay responses via a {@linkplain HttpFixtureStore}.
+ *
+ * @author ${authorFullName}
+ */
+public class HttpResponseCache
+{
+    private static final String BODY_FILE_SUFFIX = ".body";
+    private static final String VALIDATOR_FILE_SUFFIX = ".properties";
+    private static final String ETAG_HEADER = "ETag";
+    private static final String LAST_MODIFIED_HEADER = "Last-Modified";
+    private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+    private static final String HTTP_ERROR = "Received HTTP status %d from: %s";
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int MAX_RETRIES = 5;
+    private static final long DEFAULT_RETRY_AFTER_MILLIS = 1000;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path cacheDirectory;
+    private final long maxCacheSize;
+    private final Charset charset;
+
+    // the sizes of all stored bodies, ordered from least to most recently used
+    private final Map<String, Long> entrySizes;
+    private long cacheSize;
+    private RequestThrottle throttle;
+    private HttpFixtureStore fixtureStore;
+    private int connectTimeoutMillis;
+    private int readTimeoutMillis;
+
+
+    /**
+     * Constructor that registers all responses that were stored by previous harvests.
+     *
+     * @param cacheDirectory the directory in which responses are stored
+     * @param maxCacheSize the maximum number of bytes of all stored bodies,
+     *         or 0 if no responses are to be stored
+     * @param charset the charset of the response bodies
+     */
+    public HttpResponseCache(final File cacheDirectory, final long maxCacheSize, final Charset charset)
+    {
+        this.cacheDirectory = cacheDirectory.toPath();
+        this.maxCacheSize = maxCacheSize;
+        this.charset = charset;
+        this.entrySizes = new LinkedHashMap<>(16, 0.75f, true);
+
+        if (maxCacheSize > 0)
+            registerStoredEntries();
+    }
+
+
+    /**
+     * Retrieves the body of an HTTP GET response. If the response was stored before,
+     * it is only downloaded again if it changed.
+     *
+     * @param url the URL of the request
+     *
+     * @throws UncheckedIOException if the response could not be retrieved
+     *
+     * @return the response body
+     */
+    public String getResponse(final String url)
+    {
+        final String key = getKey(url);
+        final Properties validators = maxCacheSize > 0 && !isUsingFixtures() ? readValidators(key) : null;
+
+        try {
+            final byte[] body = fetch(url, key, validators);
+            return new String(body, charset);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Sends an HTTP GET request and returns a stream that decompresses the response body
+     * while it is downloaded, without storing it on disk. The request occupies a slot of
+     * the throttle until the stream is closed, and it only counts as successful if the
+     * stream was read to its end.
+     *
+     * @param url the URL of the request
+     *
+     * @throws IOException if the request failed or the response is erroneous
+     *
+     * @return a stream of the decompressed response body, which must be closed
+     */
+    public InputStream getResponseStream(final String url) throws IOException
+    {
+        final SentRequest request = sendRequest(url, null);
+
+        try {
+            if (request.statusCode != HttpURLConnection.HTTP_OK) {
+                request.connection.disconnect();
+                throw new IOException(String.format(HTTP_ERROR, request.statusCode, url));
+            }
+
+            return new StreamedResponse(openBody(request.connection), url, request.startNanos);
+        } catch (final IOException | RuntimeException e) {
+            failRequest(url, request.startNanos, e);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Sets the maximum durations of establishing a connection and of waiting for data
+     * from the server. Requests that exceed them fail, and count as a sign that the
+     * server is overloaded, so that a server that stops responding cannot occupy the
+     * slots of the throttle forever.
+     *
+     * @param connectTimeoutMillis the connect timeout in milliseconds, or 0 if it is unlimited
+     * @param readTimeoutMillis the read timeout in milliseconds, or 0 if it is unlimited
+     */
+    public void setTimeouts(final int connectTimeoutMillis, final int readTimeoutMillis)
+    {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+
+    /**
+     * Sets a throttle that limits the rate and concurrency of requests.
+     * If the server responds that it is overloaded, the throttle also delays
+     * all other requests.
+     *
+     * @param throttle a throttle for all requests, or null if requests are not to be throttled
+     */
+    public void setThrottle(final RequestThrottle throttle)
+    {
+        this.throttle = throttle;
+    }
+
+
+    /**
+     * Sets a store that records the responses of the server, or replays recorded responses
+     * instead of sending requests. While responses are recorded or replayed, requests are
+     * never conditional, so that each recording contains a complete response body.
+     *
+     * @param fixtureStore a store of recorded responses, or null if requests are always sent to the server
+     */
+    public void setFixtureStore(final HttpFixtureStore fixtureStore)
+    {
+        this.fixtureStore = fixtureStore;
+    }
+
+
+    /**
+     * Sends an HTTP GET request and returns the response body, reading it from disk
+     * if the server reports that it did not change.
+     *
+     * @param url the URL of the request
+     * @param key the key under which the response is stored
+     * @param storedValidators the ETag and Last-Modified values of the stored response,
+     *         or null if no response was stored
+     *
+     * @throws IOException if the response could not be retrieved
+     *
+     * @return the response body
+     */
+    private byte[] fetch(final String url, final String key, final Properties storedValidators) throws IOException
+    {
+        Properties validators = storedValidators;
+
+        while (true) {
+            final SentRequest request = sendRequest(url, validators);
+            final byte[] body;
+
+            try {
+                body = readResponse(request.connection, request.statusCode, url, key, validators != null);
+            } catch (final IOException | RuntimeException e) {
+                failRequest(url, request.startNanos, e);
+                throw e;
+            }
+
+            finishRequest(url, request.startNanos, true);
+
+            // if the stored response was removed in the meantime, request it unconditionally
+            if (body != null)
+                return body;
+
+            validators = null;
+        }
+    }
+
+
+    /**
+     * Sends an HTTP GET request as soon as the throttle allows it, and waits for the status
+     * code of the response. If the server is overloaded or does not respond in time, the
+     * request is repeated after the server-specified delay. Each returned request must be finished via
+     * {@linkplain #finishRequest(String, long, boolean)}.
+     *
+     * @param url the URL of the request
+     * @param validators the ETag and Last-Modified values of the stored response,
+     *         or null if no response was stored
+     *
+     * @throws IOException if no response was received
+     *
+     * @return the connection and status code of the response
+     */
+    private SentRequest sendRequest(final String url, final Properties validators) throws IOException
+    {
+        int retries = 0;
+
+        while (true) {
+            if (throttle != null)
+                throttle.acquire();
+
+            final long startNanos = System.nanoTime();
+            final HttpURLConnection connection;
+            final int statusCode;
+
+            try {
+                connection = openConnection(url, validators);
+                statusCode = connection.getResponseCode();
+            } catch (final SocketTimeoutException e) {
+                if (retries < MAX_RETRIES) {
+                    waitForRetry(DEFAULT_RETRY_AFTER_MILLIS);
+                    retries++;
+                    continue;
+                }
+
+                failRequest(url, startNanos, e);
+                throw e;
+
+            } catch (final IOException | RuntimeException e) {
+                // the server did not respond, so its latency is unknown
+                if (throttle != null)
+                    throttle.releaseFailed();
+
+                throw e;
+            }
+
+            if (isOverloaded(statusCode) && retries < MAX_RETRIES) {
+                final long retryAfterMillis = getRetryAfterMillis(connection.getHeaderField(RETRY_AFTER_HEADER));
+                connection.disconnect();
+                waitForRetry(retryAfterMillis);
+                retries++;
+                continue;
+            }
+
+            return new SentRequest(connection, statusCode, startNanos);
+        }
+    }
+
+
+    /**
+     * Opens an HTTP GET connection, adding conditional headers if a response was stored before.
+     *
+     * @param url the URL of the request
+     * @param validators the ETag and Last-Modified values of the stored response,
+     *         or null if no response was stored
+     *
+     * @throws IOException if the connection could not be opened
+     *
+     * @return an HTTP connection that was not yet connected
+     */
+    private HttpURLConnection openConnection(final String url, final Properties validators) throws IOException
+    {
+        final HttpURLConnection connection = fixtureStore == null
+                                             ? (HttpURLConnection) new URL(url).openConnection()
+                                             : fixtureStore.openConnection(url);
+        connection.setConnectTimeout(connectTimeoutMillis);
+        connection.setReadTimeout(readTimeoutMillis);
+        ContentEncodingUtils.requestCompression(connection);
+
+        if (validators != null) {
+            if (validators.containsKey(ETAG_HEADER))
+                connection.setRequestProperty(IF_NONE_MATCH_HEADER, validators.getProperty(ETAG_HEADER));
+
+            if (validators.containsKey(LAST_MODIFIED_HEADER))
+                connection.setRequestProperty(IF_MODIFIED_SINCE_HEADER, validators.getProperty(LAST_MODIFIED_HEADER));
+        }
+
+        return connection;
+    }
+
+
+    /**
+     * Reads the body of a response, or reads it from disk if the server reports that
+     * it did not change. New responses are stored if they contain validators.
+     *
+     * @param connection the connection of which the response is read
+     * @param statusCode the HTTP status code of the response
+     * @param url the URL of the request
+     * @param key the key under which the response is stored
+     * @param isConditional true if the request contained conditional headers
+     *
+     * @throws IOException if the response could not be read or is erroneous
+     *
+     * @return the response body or null, if the stored response no longer exists
+     */
+    private byte[] readResponse(final HttpURLConnection connection, final int statusCode, final String url, final String key, final boolean isConditional)
+    throws IOException
+    {
+        if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED && isConditional) {
+            connection.disconnect();
+            return readStoredBody(key);
+        }
+
+        if (statusCode != HttpURLConnection.HTTP_OK)
+            throw new IOException(String.format(HTTP_ERROR, statusCode, url));
+
+        final byte[] body;
+
+        try
+            (InputStream responseStream = openBody(connection)) {
+            body = readAllBytes(responseStream);
+        }
+
+        final String eTag = connection.getHeaderField(ETAG_HEADER);
+        final String lastModified = connection.getHeaderField(LAST_MODIFIED_HEADER);
+
+        if (maxCacheSize > 0 && (eTag != null || lastModified != null))
+            storeResponse(key, body, eTag, lastModified);
+
+        return body;
+    }
+
+
+    /**
+     * Opens the body of a response as a stream that decompresses it while it is downloaded.
+     * The bytes are counted once as they are downloaded and once after decompression.
+     *
+     * @param connection the connection of which the response is read
+     *
+     * @throws IOException if the body could not be opened
+     *
+     * @return a stream of the decompressed response body
+     */
+    private static InputStream openBody(final HttpURLConnection connection) throws IOException
+    {
+        return HttpMetrics.countResponseBytes(
+                   ContentEncodingUtils.decode(
+                       HttpMetrics.countDownloadedBytes(connection.getInputStream()),
+                       connection.getContentEncoding()));
+    }
+
+
+    /**
+     * Returns true if responses are recorded or replayed.
+     *
+     * @return true if a fixture store is set that does not only send live requests
+     */
+    private boolean isUsingFixtures()
+    {
+        return fixtureStore != null && fixtureStore.getMode() != HttpFixtureMode.LIVE;
+    }
+
+
+    /**
+     * Records the duration of a finished request and unregisters it from the throttle,
+     * if there is one. Only the latency of successful requests affects the concurrency
+     * of following requests.
+     *
+     * @param url the URL of the request
+     * @param startNanos the value of {@linkplain System#nanoTime()} when the request was sent
+     * @param isSuccessful true if the response body was read completely
+     */
+    private void finishRequest(final String url, final long startNanos, final boolean isSuccessful)
+    {
+        final long durationNanos = System.nanoTime() - startNanos;
+        HttpMetrics.observeRequest(url, durationNanos);
+
+        if (throttle == null)
+            return;
+
+        if (isSuccessful)
+            throttle.release(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        else
+            throttle.releaseFailed();
+    }
+
+
+    /**
+     * Records the duration of a failed request and unregisters it from the throttle,
+     * if there is one. A timeout counts as a sign that the server is overloaded,
+     * which reduces the concurrency of following requests.
+     *
+     * @param url the URL of the request
+     * @param startNanos the value of {@linkplain System#nanoTime()} when the request was sent
+     * @param error the cause of the failure
+     */
+    private void failRequest(final String url, final long startNanos, final Exception error)
+    {
+        if (throttle == null || !(error instanceof SocketTimeoutException)) {
+            finishRequest(url, startNanos, false);
+            return;
+        }
+
+        HttpMetrics.observeRequest(url, System.nanoTime() - startNanos);
+        throttle.releaseOverloaded(0);
+    }
+
+
+    /**
+     * Waits before an overloaded server is requested again. If there is a throttle,
+     * it delays all requests instead.
+     *
+     * @param retryAfterMillis the number of milliseconds to wait before the next request
+     *
+     * @throws IllegalStateException if the thread was interrupted while waiting
+     */
+    private void waitForRetry(final long retryAfterMillis)
+    {
+        if (throttle != null) {
+            throttle.releaseOverloaded(retryAfterMillis);
+            return;
+        }
+
+        try {
+            Thread.sleep(retryAfterMillis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Reads the ETag and Last-Modified values of a stored response.
+     *
+     * @param key the key of the stored response
+     *
+     * @return the ETag and Last-Modified values or null, if the response is not stored
+     */
+    private synchronized Properties readValidators(final String key)
+    {
+        if (!entrySizes.containsKey(key))
+            return null;
+
+        final Properties validators = new Properties();
+
+        try
+            (InputStream validatorStream = Files.newInputStream(getValidatorPath(key))) {
+            validators.load(validatorStream);
+        } catch (final IOException e) {
+            return null;
+        }
+
+        return validators;
+    }
+
+
+    /**
+     * Reads the body of a stored response and marks it as the most recently used.
+     *
+     * @param key the key of the stored response
+     *
+     * @return the stored body or null, if the response is not stored
+     */
+    private synchronized byte[] readStoredBody(final String key)
+    {
+        if (entrySizes.get(key) == null)
+            return null;
+
+        final Path bodyPath = getBodyPath(key);
+
+        try {
+            Files.setLastModifiedTime(bodyPath, FileTime.fromMillis(System.currentTimeMillis()));
+            return Files.readAllBytes(bodyPath);
+        } catch (final IOException e) {
+            removeEntry(key);
+            return null;
+        }
+    }
+
+
+    /**
+     * Stores the body and the validators of a response on disk and removes the least
+     * recently used responses if the maximum cache size is exceeded.
+     *
+     * @param key the key under which the response is stored
+     * @param body the response body
+     * @param eTag the ETag header value or null
+     * @param lastModified the Last-Modified header value or null
+     *
+     * @throws IOException if the response could not be written to disk
+     */
+    private synchronized void storeResponse(final String key, final byte[] body, final String eTag, final String lastModified)
+    throws IOException
+    {
+        if (body.length > maxCacheSize)
+            return;
+
+        final Properties validators = new Properties();
+
+        if (eTag != null)
+            validators.setProperty(ETAG_HEADER, eTag);
+
+        if (lastModified != null)
+            validators.setProperty(LAST_MODIFIED_HEADER, lastModified);
+
+        removeEntry(key);
+        Files.createDirectories(cacheDirectory);
+        Files.write(getBodyPath(key), body);
+
+        try
+            (OutputStream validatorStream = Files.newOutputStream(getValidatorPath(key))) {
+            validators.store(validatorStream, null);
+        }
+
+        entrySizes.put(key, (long) body.length);
+        cacheSize += body.length;
+
+        evictLeastRecentlyUsedEntries();
+    }
+
+
+    /**
+     * Removes the least recently used responses until the maximum cache size is no longer exceeded.
+     */
+    private void evictLeastRecentlyUsedEntries()
+    {
+        final Iterator<Map.Entry<String, Long>> leastRecentlyUsedEntries = entrySizes.entrySet().iterator();
+
+        while (cacheSize > maxCacheSize && leastRecentlyUsedEntries.hasNext()) {
+            final Map.Entry<String, Long> evictedEntry = leastRecentlyUsedEntries.next();
+            cacheSize -= evictedEntry.getValue();
+            leastRecentlyUsedEntries.remove();
+            deleteEntryFiles(evictedEntry.getKey());
+        }
+    }
+
+
+    /**
+     * Removes a stored response from disk.
+     *
+     * @param key the key of the stored response
+     */
+    private void removeEntry(final String key)
+    {
+        final Long removedSize = entrySizes.remove(key);
+
+        if (removedSize != null) {
+            cacheSize -= removedSize;
+            deleteEntryFiles(key);
+        }
+    }
+
+
+    /**
+     * Deletes the body and validator files of a stored response.
+     *
+     * @param key the key of the stored response
+     */
+    private void deleteEntryFiles(final String key)
+    {
+        CacheFileUtils.delete(getBodyPath(key));
+        CacheFileUtils.delete(getValidatorPath(key));
+    }
+
+
+    /**
+     * Registers all responses that are stored in the cache directory, ordered by the
+     * time of their last usage.
+     */
+    private void registerStoredEntries()
+    {
+        if (!Files.isDirectory(cacheDirectory))
+            return;
+
+        try
+            (Stream<Path> cachedFiles = Files.list(cacheDirectory)) {
+            cachedFiles
+            .filter((final Path path) -> path.toString().endsWith(BODY_FILE_SUFFIX))
+            .sorted(Comparator.comparing((final Path path) -> path.toFile().lastModified()))
+            .forEachOrdered((final Path path) -> {
+                final String fileName = path.getFileName().toString();
+                final long size = path.toFile().length();
+                entrySizes.put(fileName.substring(0, fileName.length() - BODY_FILE_SUFFIX.length()), size);
+                cacheSize += size;
+            });
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        evictLeastRecentlyUsedEntries();
+    }
+
+
+    /**
+     * Returns the path of the file that stores the body of a response.
+     *
+     * @param key the key of the response
+     *
+     * @return the path of the body file
+     */
+    private Path getBodyPath(final String key)
+    {
+        return cacheDirectory.resolve(key + BODY_FILE_SUFFIX);
+    }
+
+
+    /**
+     * Returns the path of the file that stores the ETag and Last-Modified values of a response.
+     *
+     * @param key the key of the response
+     *
+     * @return the path of the validator file
+     */
+    private Path getValidatorPath(final String key)
+    {
+        return cacheDirectory.resolve(key + VALIDATOR_FILE_SUFFIX);
+    }
+
+
+    /**
+     * Checks if an HTTP status code signals that the server is overloaded.
+     *
+     * @param statusCode an HTTP status code
+     *
+     * @return true if the status code is 429 or 503
+     */
+    private static boolean isOverloaded(final int statusCode)
+    {
+        return statusCode == HTTP_TOO_MANY_REQUESTS || statusCode == HttpURLConnection.HTTP_UNAVAILABLE;
+    }
+
+
+    /**
+     * Parses the value of a Retry-After header, which is either a number of
+     * seconds or an HTTP date.
+     *
+     * @param retryAfter the value of a Retry-After header, or null
+     *
+     * @return the number of milliseconds to wait before the next request
+     */
+    private static long getRetryAfterMillis(final String retryAfter)
+    {
+        if (retryAfter == null)
+            return DEFAULT_RETRY_AFTER_MILLIS;
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (final NumberFormatException e) {
+            // the value may be a date instead of a number
+        }
+
+        try {
+            final Instant retryDate = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return Math.max(0, retryDate.toEpochMilli() - System.currentTimeMillis());
+        } catch (final DateTimeParseException e) {
+            return DEFAULT_RETRY_AFTER_MILLIS;
+        }
+    }
+
+
+    /**
+     * Converts a URL to a key that can be used as a file name.
+     *
+     * @param url the URL of a request
+     *
+     * @return the hexadecimal SHA-256 hash of the URL
+     */
+    private static String getKey(final String url)
+    {
+        try {
+            final byte[] hash = MessageDigest.getInstance(HASH_ALGORITHM).digest(url.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder keyBuilder = new StringBuilder(hash.length * 2);
+
+            for (final byte b : hash)
+                keyBuilder.append(String.format("%02x", b));
+
+            return keyBuilder.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Reads all bytes of a stream.
+     *
+     * @param inputStream the stream that is to be read
+     *
+     * @throws IOException if the stream could not be read
+     *
+     * @return all bytes of the stream
+     */
+    private static byte[] readAllBytes(final InputStream inputStream) throws IOException
+    {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int readBytes;
+
+        while ((readBytes = inputStream.read(buffer)) != -1)
+            outputStream.write(buffer, 0, readBytes);
+
+        return outputStream.toByteArray();
+    }
+
+
+    /**
+     * A request that was sent and answered with a status code.
+     */
+    private static class SentRequest
+    {
+        private final HttpURLConnection connection;
+        private final int statusCode;
+        private final long startNanos;
+
+
+        /**
+         * Constructor.
+         *
+         * @param connection the connection of the request
+         * @param statusCode the HTTP status code of the response
+         * @param startNanos the value of {@linkplain System#nanoTime()} when the request was sent
+         */
+        SentRequest(final HttpURLConnection connection, final int statusCode, final long startNanos)
+        {
+            this.connection = connection;
+            this.statusCode = statusCode;
+            this.startNanos = startNanos;
+        }
+    }
+
+
+    /**
+     * A streamed response body that finishes its request when it is closed.
+     */
+    private class StreamedResponse extends FilterInputStream
+    {
+        private final String url;
+        private final long startNanos;
+        private boolean isExhausted;
+        private boolean isFinished;
+
+
+        /**
+         * Constructor.
+         *
+         * @param bodyStream the decompressed response body
+         * @param url the URL of the request
+         * @param startNanos the value of {@linkplain System#nanoTime()} when the request was sent
+         */
+        StreamedResponse(final InputStream bodyStream, final String url, final long startNanos)
+        {
+            super(bodyStream);
+            this.url = url;
+            this.startNanos = startNanos;
+        }
+
+
+        @Override
+        public int read() throws IOException
+        {
+            try {
+                final int readByte = super.read();
+                isExhausted = readByte == -1;
+                return readByte;
+            } catch (final IOException | RuntimeException e) {
+                finish(e);
+                throw e;
+            }
+        }
+
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException
+        {
+            try {
+                final int readBytes = super.read(buffer, offset, length);
+                isExhausted = readBytes == -1;
+                return readBytes;
+            } catch (final IOException | RuntimeException e) {
+                finish(e);
+                throw e;
+            }
+        }
+
+
+        @Override
+        public void close() throws IOException
+        {
+            try {
+                super.close();
+            } finally {
+                finish(null);
+            }
+        }
+
+
+        /**
+         * Finishes the request once, counting it as successful if the body was read to its end.
+         *
+         * @param error the exception that was thrown while reading the body, or null if it was closed
+         */
+        private void finish(final Exception error)
+        {
+            if (isFinished)
+                return;
+
+            isFinished = true;
+
+            if (error == null)
+                finishRequest(url, startNanos, isExhausted);
+            else
+                failRequest(url, startNanos, error);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * This cache shares instances of immutable objects that recur in many records,
+ * such as subjects, rights, resource types, or controlled vocabulary strings, so
+ * that they are created only once instead of once per record.
+ * If the maximum number of cached instances is reached, new instances are created
+ * without being cached, preventing the cache from growing without bounds if
+ * a value turns out not to be a controlled vocabulary after all.
+ * This class is thread-safe.
+ *
+ * @param <K> the type of the values from which instances are created
+ * @param <V> the type of the shared instances
+ *
+ * @author ${authorFullName}
+ */
+public class InstanceCache<K, V>
+{
+    /**
+     * The default maximum number of instances that are cached.
+     */
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    private final Function<K, V> instanceFactory;
+    private final Map<K, V> instances;
+    private final int maxSize;
+
+
+    /**
+     * Constructor that caches up to {@value #DEFAULT_MAX_SIZE} instances.
+     *
+     * @param instanceFactory a function that creates an instance from a value
+     */
+    public InstanceCache(final Function<K, V> instanceFactory)
+    {
+        this(instanceFactory, DEFAULT_MAX_SIZE);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param instanceFactory a function that creates an instance from a value
+     * @param maxSize the maximum number of cached instances
+     */
+    public InstanceCache(final Function<K, V> instanceFactory, final int maxSize)
+    {
+        this.instanceFactory = instanceFactory;
+        this.instances = new ConcurrentHashMap<>();
+        this.maxSize = maxSize;
+    }
+
+
+    /**
+     * Returns the shared instance for a value, creating it if it does not exist yet.
+     *
+     * @param value the value from which the instance is created
+     *
+     * @return the shared instance or null, if the value is null
+     */
+    public V get(final K value)
+    {
+        if (value == null)
+            return null;
+
+        final V cachedInstance = instances.get(value);
+
+        if (cachedInstance != null)
+            return cachedInstance;
+
+        final V newInstance = instanceFactory.apply(value);
+
+        if (instances.size() >= maxSize)
+            return newInstance;
+
+        final V concurrentInstance = instances.putIfAbsent(value, newInstance);
+        return concurrentInstance == null ? newInstance : concurrentInstance;
+    }
+
+
+    /**
+     * Returns the number of cached instances.
+     *
+     * @return the number of cached instances
+     */
+    public int size()
+    {
+        return instances.size();
+    }
+
+
+    /**
+     * Removes all cached instances.
+     */
+    public void clear()
+    {
+        instances.clear();
+    }
+}
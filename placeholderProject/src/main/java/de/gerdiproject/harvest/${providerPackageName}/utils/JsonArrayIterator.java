@@ -0,0 +1,146 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * This iterator parses the elements of a JSON array one by one from a stream,
+ * without reading the whole JSON document into memory.
+ * Only the element that is currently being parsed is kept in memory.
+ *
+ * @param <T> the type to which the array elements are parsed
+ *
+ * @author ${authorFullName}
+ */
+public class JsonArrayIterator<T> implements Iterator<T>, AutoCloseable
+{
+    private final JsonReader jsonReader;
+    private final Gson gson;
+    private final Type elementType;
+    private boolean isClosed;
+
+
+    /**
+     * Constructor that moves the stream to the first element of the array.
+     *
+     * @param reader a reader of the JSON document
+     * @param gson the Gson instance that is used to parse array elements
+     * @param elementType the type to which the array elements are parsed
+     * @param arrayPath the names of nested JSON object fields that lead to the array,
+     *         or nothing if the JSON document itself is the array
+     */
+    public JsonArrayIterator(final Reader reader, final Gson gson, final Type elementType, final String... arrayPath)
+    {
+        this.jsonReader = new JsonReader(reader);
+        this.gson = gson;
+        this.elementType = elementType;
+
+        try {
+            for (final String fieldName : arrayPath)
+                moveToField(fieldName);
+
+            jsonReader.beginArray();
+        } catch (final IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        } catch (final NoSuchElementException e) {
+            close();
+            throw e;
+        }
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        if (isClosed)
+            return false;
+
+        try {
+            if (jsonReader.hasNext())
+                return true;
+
+        } catch (final IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+
+        close();
+        return false;
+    }
+
+
+    @Override
+    public T next()
+    {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        return gson.fromJson(jsonReader, elementType);
+    }
+
+
+    /**
+     * Closes the underlying stream.
+     */
+    @Override
+    public void close()
+    {
+        if (isClosed)
+            return;
+
+        isClosed = true;
+
+        try {
+            jsonReader.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Enters the current JSON object and skips all fields until a field
+     * with a specified name is reached.
+     *
+     * @param fieldName the name of the field that is to be reached
+     *
+     * @throws IOException if the stream could not be read
+     * @throws NoSuchElementException if the current object has no field with the specified name
+     */
+    private void moveToField(final String fieldName) throws IOException
+    {
+        jsonReader.beginObject();
+
+        while (jsonReader.hasNext()) {
+            if (jsonReader.nextName().equals(fieldName))
+                return;
+
+            jsonReader.skipValue();
+        }
+
+        throw new NoSuchElementException(fieldName);
+    }
+}
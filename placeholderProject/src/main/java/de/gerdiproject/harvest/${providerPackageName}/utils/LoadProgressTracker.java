@@ -0,0 +1,314 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * This class tracks which documents of a harvest were passed to the loaders and which
+ * of them the loaders acknowledged as loaded. The harvest is complete only when all
+ * documents were passed on and acknowledged, which is when progress that must not
+ * survive a failed harvest, such as a high-water mark, may be committed.
+ * Before that, it reports how many records of the extractor were loaded completely,
+ * which is when checkpoints that cover these records may be saved.
+ * Loaders that do not acknowledge documents themselves have loaded all documents
+ * they retrieved once they return, which is reported via {@linkplain #acknowledgeAll()}.
+ * This class is thread-safe. Listeners are not called while the state of the tracker is
+ * locked, so slow listeners do not block the documents that are passed to the loaders.
+ * They are called one at a time, and the progress listener never receives a number that is
+ * smaller than the one it received before.
+ *
+ * @author ${authorFullName}
+ */
+public class LoadProgressTracker
+{
+    private final Queue<Long> unacknowledgedSourcePositions;
+    private final Object listenerLock;
+    private long emittedCount;
+    private long acknowledgedCount;
+    private long loadedSourcePosition;
+    private boolean isSourceExhausted;
+    private boolean isCompleted;
+    private volatile Runnable completionListener;
+    private volatile LongConsumer progressListener;
+
+    // the loaded source position that was last passed to the progress listener, guarded by the listener lock
+    private long notifiedSourcePosition;
+
+
+    /**
+     * Constructor.
+     */
+    public LoadProgressTracker()
+    {
+        this.unacknowledgedSourcePositions = new ArrayDeque<>();
+        this.listenerLock = new Object();
+    }
+
+
+    /**
+     * Sets a function that is called once all documents of a harvest were acknowledged.
+     * The function is called by the thread that acknowledged the last document.
+     *
+     * @param completionListener a function that is called when the harvest is complete
+     */
+    public void setCompletionListener(final Runnable completionListener)
+    {
+        this.completionListener = completionListener;
+    }
+
+
+    /**
+     * Sets a function that is called whenever the acknowledged documents cover more records
+     * of the extractor. The function accepts the number of records that were retrieved from
+     * the extractor during this harvest, and of which all documents were acknowledged.
+     * The function is called by the thread that acknowledged the documents.
+     *
+     * @param progressListener a function that accepts the number of loaded records
+     */
+    public void setProgressListener(final LongConsumer progressListener)
+    {
+        this.progressListener = progressListener;
+    }
+
+
+    /**
+     * Starts tracking the documents of a new harvest.
+     *
+     * @param documents the documents that are passed to the loaders
+     * @param sourcePosition a function that returns the number of records that were retrieved
+     *         from the extractor, up to and including the record of the document that was just
+     *         retrieved, and which all passed the transformation
+     * @param <T> the type of the documents
+     *
+     * @return an iterator that reports which documents were passed to the loaders
+     */
+    public <T> Iterator<T> track(final Iterator<T> documents, final LongSupplier sourcePosition)
+    {
+        synchronized (this) {
+            unacknowledgedSourcePositions.clear();
+            emittedCount = 0;
+            acknowledgedCount = 0;
+            loadedSourcePosition = 0;
+            isSourceExhausted = false;
+            isCompleted = false;
+        }
+
+        synchronized (listenerLock) {
+            notifiedSourcePosition = 0;
+        }
+
+        return new TrackingIterator<>(documents, sourcePosition);
+    }
+
+
+    /**
+     * Marks a number of documents as loaded. Loaders must acknowledge documents in the
+     * order in which they received them, and only once they can no longer be lost.
+     *
+     * @param documentCount the number of documents that were loaded since the last acknowledgement
+     */
+    public void acknowledge(final long documentCount)
+    {
+        final long currentLoadedSourcePosition;
+        final boolean hasCompleted;
+
+        synchronized (this) {
+            final long newAcknowledgedCount = Math.min(emittedCount, acknowledgedCount + documentCount);
+
+            for (long i = acknowledgedCount; i < newAcknowledgedCount; i++)
+                loadedSourcePosition = Math.max(loadedSourcePosition, unacknowledgedSourcePositions.poll());
+
+            acknowledgedCount = newAcknowledgedCount;
+            currentLoadedSourcePosition = loadedSourcePosition;
+            hasCompleted = checkCompletion();
+        }
+
+        notifyListeners(currentLoadedSourcePosition, hasCompleted);
+    }
+
+
+    /**
+     * Marks all documents that were passed to the loaders as loaded. This method is
+     * called once the loader returned without an error, because loaders that do not
+     * acknowledge documents themselves have loaded all documents they retrieved by then.
+     */
+    public void acknowledgeAll()
+    {
+        acknowledge(getUnacknowledgedCount());
+    }
+
+
+    /**
+     * Returns the number of documents that were passed to the loaders,
+     * but not acknowledged as loaded.
+     *
+     * @return the number of unacknowledged documents
+     */
+    public synchronized long getUnacknowledgedCount()
+    {
+        return emittedCount - acknowledgedCount;
+    }
+
+
+    /**
+     * Checks if all documents were passed to the loaders.
+     *
+     * @return true if there are no more documents
+     */
+    public synchronized boolean isSourceExhausted()
+    {
+        return isSourceExhausted;
+    }
+
+
+    /**
+     * Checks if all documents were passed to the loaders and acknowledged.
+     *
+     * @return true if the harvest is complete
+     */
+    public synchronized boolean isCompleted()
+    {
+        return isCompleted;
+    }
+
+
+    /**
+     * Counts a document that is passed to the loaders.
+     *
+     * @param sourcePosition the number of records of the extractor that were processed,
+     *         up to and including the record of the document
+     */
+    private synchronized void onDocumentEmitted(final long sourcePosition)
+    {
+        unacknowledgedSourcePositions.add(sourcePosition);
+        emittedCount++;
+    }
+
+
+    /**
+     * Marks the documents as exhausted and completes the harvest if all
+     * documents were already acknowledged.
+     */
+    private void onSourceExhausted()
+    {
+        final long currentLoadedSourcePosition;
+        final boolean hasCompleted;
+
+        synchronized (this) {
+            isSourceExhausted = true;
+            currentLoadedSourcePosition = loadedSourcePosition;
+            hasCompleted = checkCompletion();
+        }
+
+        notifyListeners(currentLoadedSourcePosition, hasCompleted);
+    }
+
+
+    /**
+     * Marks the harvest as complete once, if all documents were passed to
+     * the loaders and acknowledged. Must be called while holding the lock.
+     *
+     * @return true if the harvest was completed by this call
+     */
+    private boolean checkCompletion()
+    {
+        if (isCompleted || !isSourceExhausted || acknowledgedCount < emittedCount)
+            return false;
+
+        isCompleted = true;
+        return true;
+    }
+
+
+    /**
+     * Notifies the progress listener if more records were loaded than it was notified of,
+     * and the completion listener if the harvest was just completed. Must be called
+     * without holding the lock of the tracker.
+     *
+     * @param currentLoadedSourcePosition the number of loaded records
+     * @param hasCompleted true if the harvest was just completed
+     */
+    private void notifyListeners(final long currentLoadedSourcePosition, final boolean hasCompleted)
+    {
+        synchronized (listenerLock) {
+            if (currentLoadedSourcePosition > notifiedSourcePosition) {
+                notifiedSourcePosition = currentLoadedSourcePosition;
+
+                if (progressListener != null)
+                    progressListener.accept(currentLoadedSourcePosition);
+            }
+
+            if (hasCompleted && completionListener != null)
+                completionListener.run();
+        }
+    }
+
+
+    /**
+     * An iterator that reports the documents that are retrieved from it.
+     *
+     * @param <T> the type of the documents
+     */
+    private class TrackingIterator<T> implements Iterator<T>
+    {
+        private final Iterator<T> sourceIterator;
+        private final LongSupplier sourcePosition;
+
+
+        /**
+         * Constructor.
+         *
+         * @param sourceIterator the documents that are passed to the loaders
+         * @param sourcePosition a function that returns the position of the
+         *         record of the document that was just retrieved
+         */
+        TrackingIterator(final Iterator<T> sourceIterator, final LongSupplier sourcePosition)
+        {
+            this.sourceIterator = sourceIterator;
+            this.sourcePosition = sourcePosition;
+        }
+
+
+        @Override
+        public boolean hasNext()
+        {
+            final boolean hasNext = sourceIterator.hasNext();
+
+            if (!hasNext)
+                onSourceExhausted();
+
+            return hasNext;
+        }
+
+
+        @Override
+        public T next()
+        {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            final T document = sourceIterator.next();
+            onDocumentEmitted(sourcePosition.getAsLong());
+            return document;
+        }
+    }
+}
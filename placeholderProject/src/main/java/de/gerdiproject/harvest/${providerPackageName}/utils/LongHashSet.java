@@ -0,0 +1,149 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+/**
+ * A set of primitive long values, which uses open addressing with linear probing.
+ * In contrast to a HashSet of Longs, no objects are allocated per value. Each slot occupies
+ * 8 bytes and the table is kept between 30% and 60% full, so that each value occupies
+ * about 13 to 27 bytes, compared to more than 50 bytes in a HashSet of Longs.
+ * This class is not thread-safe.
+ *
+ * @author ${authorFullName}
+ */
+public class LongHashSet
+{
+    private static final long EMPTY_SLOT = 0L;
+    private static final long ZERO_REPLACEMENT = 0x9E3779B97F4A7C15L;
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final double MAX_LOAD_FACTOR = 0.6;
+
+    private long[] slots;
+    private int size;
+    private int resizeThreshold;
+
+
+    /**
+     * Constructor that creates an empty set.
+     */
+    public LongHashSet()
+    {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value the value that is to be added
+     *
+     * @return true if the value was not part of the set before
+     */
+    public boolean add(final long value)
+    {
+        final long key = value == EMPTY_SLOT ? ZERO_REPLACEMENT : value;
+        final int mask = slots.length - 1;
+        int index = HashUtils.spread(key) & mask;
+
+        while (slots[index] != EMPTY_SLOT) {
+            if (slots[index] == key)
+                return false;
+
+            index = (index + 1) & mask;
+        }
+
+        slots[index] = key;
+
+        if (++size > resizeThreshold)
+            rehash(slots.length * 2);
+
+        return true;
+    }
+
+
+    /**
+     * Checks if a value is part of the set.
+     *
+     * @param value the value that is to be looked up
+     *
+     * @return true if the value was added before
+     */
+    public boolean contains(final long value)
+    {
+        final long key = value == EMPTY_SLOT ? ZERO_REPLACEMENT : value;
+        final int mask = slots.length - 1;
+        int index = HashUtils.spread(key) & mask;
+
+        while (slots[index] != EMPTY_SLOT) {
+            if (slots[index] == key)
+                return true;
+
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Returns the number of values in the set.
+     *
+     * @return the number of values in the set
+     */
+    public int size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Removes all values from the set and frees the allocated memory.
+     */
+    public void clear()
+    {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+
+    /**
+     * Allocates an empty array of slots.
+     *
+     * @param capacity the number of slots, which must be a power of two
+     */
+    private void allocate(final int capacity)
+    {
+        this.slots = new long[capacity];
+        this.size = 0;
+        this.resizeThreshold = (int)(capacity * MAX_LOAD_FACTOR);
+    }
+
+
+    /**
+     * Copies all values to a larger array of slots.
+     *
+     * @param capacity the new number of slots, which must be a power of two
+     */
+    private void rehash(final int capacity)
+    {
+        final long[] oldSlots = slots;
+        allocate(capacity);
+
+        for (final long key : oldSlots) {
+            if (key != EMPTY_SLOT)
+                add(key);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.util.Collection;
+import java.util.function.ToLongFunction;
+
+import com.google.gson.Gson;
+
+/**
+ * This class limits the estimated number of bytes that are occupied by data that was
+ * retrieved, but not yet completely processed. The thread that retrieves data must
+ * {@linkplain #acquire(long)} its size before retrieving it, and waits while the budget
+ * is exhausted, which slows down the retrieval until the data is processed.
+ * Components that buffer the data further down the line, such as loader queues and batches,
+ * {@linkplain #reserve(long)} its size without waiting, because they would otherwise block
+ * the very threads that free the budget. Their reservations still slow down the retrieval.
+ * A waiting reservation is granted if no other waiting reservation is held, even if it exceeds
+ * the budget, so that oversized data or full buffers cannot block the harvest forever.
+ *
+ * @author ${authorFullName}
+ */
+public class MemoryBudget
+{
+    // parsed records occupy about three bytes per JSON character, because strings take one or two
+    // bytes per character and object headers and references add to that
+    private static final int HEAP_BYTES_PER_JSON_CHAR = 3;
+    private static final int SAMPLE_SIZE = 16;
+
+    private long maxBytes;
+    private long usedBytes;
+
+    // the part of the used bytes that was reserved by waiting threads
+    private long acquiredBytes;
+
+
+    /**
+     * Constructor.
+     *
+     * @param maxBytes the maximum number of bytes that may be reserved at the same time,
+     *         or 0 if the number of bytes is not limited
+     */
+    public MemoryBudget(final long maxBytes)
+    {
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+
+    /**
+     * Changes the maximum number of bytes that may be reserved at the same time.
+     *
+     * @param maxBytes the maximum number of bytes, or 0 if the number of bytes is not limited
+     */
+    public synchronized void setMaxBytes(final long maxBytes)
+    {
+        this.maxBytes = Math.max(0, maxBytes);
+        notifyAll();
+    }
+
+
+    /**
+     * Waits until a number of bytes fits into the budget and reserves them.
+     * Each call must be followed by a call of {@linkplain #release(long)}
+     * with the same number of bytes.
+     *
+     * @param bytes the number of bytes that are to be reserved
+     *
+     * @throws InterruptedException thrown if the thread was interrupted while waiting
+     */
+    public synchronized void acquire(final long bytes) throws InterruptedException
+    {
+        while (maxBytes > 0 && acquiredBytes > 0 && usedBytes + bytes > maxBytes)
+            wait();
+
+        usedBytes += bytes;
+        acquiredBytes += bytes;
+    }
+
+
+    /**
+     * Changes the number of bytes of a reservation that was acquired before, without waiting.
+     * This is used to replace an estimate by the actual size, once the data was retrieved.
+     *
+     * @param estimatedBytes the number of bytes that were acquired
+     * @param bytes the number of bytes that are to be reserved instead
+     */
+    public synchronized void adjust(final long estimatedBytes, final long bytes)
+    {
+        release(estimatedBytes);
+        usedBytes += bytes;
+        acquiredBytes += bytes;
+    }
+
+
+    /**
+     * Frees a number of bytes that were acquired before, allowing waiting threads to continue.
+     *
+     * @param bytes the number of bytes that were acquired
+     */
+    public synchronized void release(final long bytes)
+    {
+        usedBytes = Math.max(0, usedBytes - bytes);
+        acquiredBytes = Math.max(0, acquiredBytes - bytes);
+        notifyAll();
+    }
+
+
+    /**
+     * Reserves a number of bytes without waiting, even if the budget is exhausted.
+     * Each call must be followed by a call of {@linkplain #releaseReserved(long)}
+     * with the same number of bytes.
+     *
+     * @param bytes the number of bytes that are to be reserved
+     */
+    public synchronized void reserve(final long bytes)
+    {
+        usedBytes += bytes;
+    }
+
+
+    /**
+     * Frees a number of bytes that were reserved without waiting, allowing waiting threads to continue.
+     *
+     * @param bytes the number of bytes that were reserved
+     */
+    public synchronized void releaseReserved(final long bytes)
+    {
+        usedBytes = Math.max(0, usedBytes - bytes);
+        notifyAll();
+    }
+
+
+    /**
+     * Returns the number of bytes that are currently reserved.
+     *
+     * @return the number of reserved bytes
+     */
+    public synchronized long getUsedBytes()
+    {
+        return usedBytes;
+    }
+
+
+    /**
+     * Returns the maximum number of bytes that may be reserved at the same time.
+     *
+     * @return the maximum number of bytes, or 0 if the number of bytes is not limited
+     */
+    public synchronized long getMaxBytes()
+    {
+        return maxBytes;
+    }
+
+
+    /**
+     * Estimates the number of bytes that a collection of similar objects occupies on the heap,
+     * by measuring the JSON representation of a few elements that are spread evenly across
+     * the collection.
+     *
+     * @param elements the objects of which the size is to be estimated
+     * @param gson the Gson instance that is used to convert the objects to JSON
+     *
+     * @return the estimated size of all elements in bytes
+     */
+    public static long estimateSize(final Collection<?> elements, final Gson gson)
+    {
+        final int elementCount = elements.size();
+        final int sampleLimit = Math.min(SAMPLE_SIZE, elementCount);
+        long sampleChars = 0;
+        int sampleCount = 0;
+        long nextSampleIndex = 0;
+        long index = 0;
+
+        for (final Object element : elements) {
+            if (sampleCount == sampleLimit)
+                break;
+
+            if (index++ == nextSampleIndex) {
+                sampleChars += gson.toJson(element).length();
+                sampleCount++;
+                nextSampleIndex = (long) sampleCount * elementCount / sampleLimit;
+            }
+        }
+
+        if (sampleCount == 0)
+            return 0;
+
+        return sampleChars * HEAP_BYTES_PER_JSON_CHAR * elementCount / sampleCount;
+    }
+
+
+    /**
+     * Creates a function that estimates the number of bytes that a single object occupies on the heap.
+     * Since many objects pass through it, only every {@value #SAMPLE_SIZE}th object is measured by
+     * its JSON representation, and all others are estimated by the average size of the measured ones.
+     *
+     * @param gson the Gson instance that is used to convert the objects to JSON
+     * @param <T> the type of the objects
+     *
+     * @return a function that estimates the size of an object in bytes
+     */
+    public static <T> ToLongFunction<T> createSizeEstimator(final Gson gson)
+    {
+        return new SampledSizeEstimator<>(gson);
+    }
+
+
+    /**
+     * A function that estimates the size of objects by measuring some of them.
+     * This class is thread-safe.
+     *
+     * @param <T> the type of the objects
+     */
+    private static class SampledSizeEstimator<T> implements ToLongFunction<T>
+    {
+        private final Gson gson;
+        private long estimatedCount;
+        private long sampleCount;
+        private long sampleBytes;
+
+
+        /**
+         * Constructor.
+         *
+         * @param gson the Gson instance that is used to convert the objects to JSON
+         */
+        SampledSizeEstimator(final Gson gson)
+        {
+            this.gson = gson;
+        }
+
+
+        @Override
+        public long applyAsLong(final T element)
+        {
+            synchronized (this) {
+                if (estimatedCount++ % SAMPLE_SIZE != 0 && sampleCount > 0)
+                    return sampleBytes / sampleCount;
+            }
+
+            // measured outside of the lock, because the conversion may be slow
+            final long bytes = (long) gson.toJson(element).length() * HEAP_BYTES_PER_JSON_CHAR;
+
+            synchronized (this) {
+                sampleBytes += bytes;
+                sampleCount++;
+            }
+
+            return bytes;
+        }
+    }
+}
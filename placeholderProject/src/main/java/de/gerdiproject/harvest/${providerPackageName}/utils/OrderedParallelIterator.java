@@ -0,0 +1,183 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * This iterator maps the elements of a source iterator concurrently, using a fixed
+ * number of worker threads. The mapped elements are returned in the same order as
+ * their source elements.
+ * The source iterator is only ever accessed by the thread that consumes this iterator,
+ * whereas the mapping function must be safe to be called by multiple threads at once.
+ *
+ * @param <T> the type of the source elements
+ * @param <R> the type of the mapped elements
+ *
+ * @author ${authorFullName}
+ */
+public class OrderedParallelIterator<T, R> implements Iterator<R>, AutoCloseable
+{
+    private static final int PENDING_ELEMENTS_PER_THREAD = 2;
+
+    private final Iterator<T> sourceIterator;
+    private final Function<T, R> mappingFunction;
+    private final ExecutorService mappingExecutor;
+    private final Queue<Future<R>> pendingElements;
+    private final int maxPendingElements;
+
+
+    /**
+     * Constructor that immediately starts mapping the first elements of the source iterator
+     * using a fixed number of platform threads.
+     *
+     * @param sourceIterator the iterator of which the elements are to be mapped
+     * @param mappingFunction a thread-safe function that maps a single source element
+     * @param parallelism the number of threads that map elements concurrently
+     */
+    public OrderedParallelIterator(final Iterator<T> sourceIterator, final Function<T, R> mappingFunction, final int parallelism)
+    {
+        this(sourceIterator, mappingFunction, parallelism, false);
+    }
+
+
+    /**
+     * Constructor that immediately starts mapping the first elements of the source iterator.
+     *
+     * @param sourceIterator the iterator of which the elements are to be mapped
+     * @param mappingFunction a thread-safe function that maps a single source element
+     * @param parallelism the number of threads that map elements concurrently
+     * @param useVirtualThreads if true and if supported by the Java runtime, each element is
+     *         mapped on its own virtual thread, while the number of concurrently mapped elements
+     *         is still limited by the parallelism
+     */
+    public OrderedParallelIterator(
+        final Iterator<T> sourceIterator,
+        final Function<T, R> mappingFunction,
+        final int parallelism,
+        final boolean useVirtualThreads)
+    {
+        final int threadCount = Math.max(1, parallelism);
+
+        this.sourceIterator = sourceIterator;
+        this.mappingFunction = mappingFunction;
+        this.maxPendingElements = threadCount * PENDING_ELEMENTS_PER_THREAD;
+        this.pendingElements = new ArrayDeque<>(maxPendingElements);
+        this.mappingExecutor = ExecutorUtils.createExecutor(threadCount, getClass().getSimpleName(), useVirtualThreads);
+
+        submitPendingElements();
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        return !pendingElements.isEmpty();
+    }
+
+
+    @Override
+    public R next()
+    {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        final R mappedElement = getResult(pendingElements.poll());
+        submitPendingElements();
+
+        return mappedElement;
+    }
+
+
+    /**
+     * Returns the number of elements that are being mapped or wait to be retrieved.
+     * This method may be called by any thread, but its result is only an estimate.
+     *
+     * @return the number of pending elements
+     */
+    public int getPendingElementCount()
+    {
+        return pendingElements.size();
+    }
+
+
+    /**
+     * Stops all worker threads and discards all elements that are still being mapped.
+     */
+    @Override
+    public void close()
+    {
+        mappingExecutor.shutdownNow();
+        pendingElements.clear();
+    }
+
+
+    /**
+     * Retrieves source elements and submits them to the worker threads until the
+     * maximum number of pending elements is reached. If there are no elements left,
+     * the worker threads are stopped.
+     */
+    private void submitPendingElements()
+    {
+        while (pendingElements.size() < maxPendingElements && sourceIterator.hasNext()) {
+            final T sourceElement = sourceIterator.next();
+            pendingElements.add(mappingExecutor.submit(() -> mappingFunction.apply(sourceElement)));
+        }
+
+        if (pendingElements.isEmpty())
+            mappingExecutor.shutdown();
+    }
+
+
+    /**
+     * Waits for an element to be mapped and returns the result.
+     * Exceptions that were thrown by the mapping function are re-thrown.
+     *
+     * @param pendingElement the element that is being mapped
+     *
+     * @return the mapped element
+     */
+    private R getResult(final Future<R> pendingElement)
+    {
+        try {
+            return pendingElement.get();
+
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException(e);
+
+        } catch (final ExecutionException e) {
+            close();
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+
+            if (cause instanceof Error)
+                throw (Error) cause;
+
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+
+/**
+ * This class persists a single string value, such as an offset, in a file of the
+ * cache directory. The value is replaced atomically, so that it survives a restart
+ * of the service, even if the service stops while the value is saved.
+ *
+ * @author ${authorFullName}
+ */
+public class PersistedValueStore
+{
+    private final Path storePath;
+    private final Charset charset;
+
+
+    /**
+     * Constructor.
+     *
+     * @param storeFile the file in which the value is stored
+     * @param charset the charset of the stored value
+     */
+    public PersistedValueStore(final File storeFile, final Charset charset)
+    {
+        this.storePath = storeFile.toPath();
+        this.charset = charset;
+    }
+
+
+    /**
+     * Reads the saved value.
+     *
+     * @return the saved value or null, if no value was saved
+     */
+    public String load()
+    {
+        return CacheFileUtils.readString(storePath, charset);
+    }
+
+
+    /**
+     * Saves a value, replacing the previous one.
+     *
+     * @param value the value that is to be saved
+     */
+    public void save(final String value)
+    {
+        CacheFileUtils.writeStringAtomically(storePath, value, charset);
+    }
+
+
+    /**
+     * Removes the saved value.
+     */
+    public void delete()
+    {
+        CacheFileUtils.delete(storePath);
+    }
+}
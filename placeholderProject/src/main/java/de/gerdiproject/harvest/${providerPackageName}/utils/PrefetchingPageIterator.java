@@ -0,0 +1,357 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * This iterator retrieves elements page by page. While the elements of one page
+ * are being processed, the following pages are already fetched by a background thread.
+ * The number of pages that are fetched in advance is limited by a queue size and,
+ * optionally, by a {@linkplain MemoryBudget} that is reserved for each fetched page
+ * until the iteration moves on to the next page. Since the size of a page is only known
+ * once it was fetched, the size of the previous page is reserved before each fetch, and
+ * corrected afterwards. Elements that were returned by
+ * {@linkplain #next()} are no longer covered by the budget once their page is left,
+ * even if they are still being processed.
+ *
+ * @param <T> the type of the elements that are iterated
+ *
+ * @author ${authorFullName}
+ */
+public class PrefetchingPageIterator<T> implements Iterator<T>, AutoCloseable
+{
+    private final IntFunction<Collection<T>> pageFetcher;
+    private final BlockingQueue<FetchedPage<T>> pageQueue;
+    private final ExecutorService fetchExecutor;
+    private final int firstPageIndex;
+    private final MemoryBudget memoryBudget;
+    private final ToLongFunction<Collection<T>> pageSizeEstimator;
+
+    private Iterator<T> currentPage;
+    private int currentPageIndex;
+    private int currentPageSize;
+    private long currentPageBytes;
+    private int completedElementCount;
+    private volatile boolean isFinished;
+    private volatile RuntimeException fetchError;
+    private IntConsumer pageCompletionListener;
+
+
+    /**
+     * Constructor that immediately starts fetching pages in the background,
+     * beginning with the first page.
+     *
+     * @param pageFetcher a function that retrieves a page by its zero-based index
+     *         and returns null or an empty collection if there are no more pages
+     * @param queueSize the maximum number of pages that are fetched in advance
+     */
+    public PrefetchingPageIterator(final IntFunction<Collection<T>> pageFetcher, final int queueSize)
+    {
+        this(pageFetcher, queueSize, 0);
+    }
+
+
+    /**
+     * Constructor that immediately starts fetching pages in the background,
+     * beginning with a specified page.
+     *
+     * @param pageFetcher a function that retrieves a page by its zero-based index
+     *         and returns null or an empty collection if there are no more pages
+     * @param queueSize the maximum number of pages that are fetched in advance
+     * @param firstPageIndex the zero-based index of the first page that is fetched
+     */
+    public PrefetchingPageIterator(final IntFunction<Collection<T>> pageFetcher, final int queueSize, final int firstPageIndex)
+    {
+        this(pageFetcher, queueSize, firstPageIndex, new MemoryBudget(0), (final Collection<T> page) -> 0L);
+    }
+
+
+    /**
+     * Constructor that immediately starts fetching pages in the background,
+     * beginning with a specified page. Fetching pauses while the estimated size of
+     * fetched pages that were not completely iterated exceeds a memory budget.
+     *
+     * @param pageFetcher a function that retrieves a page by its zero-based index
+     *         and returns null or an empty collection if there are no more pages
+     * @param queueSize the maximum number of pages that are fetched in advance
+     * @param firstPageIndex the zero-based index of the first page that is fetched
+     * @param memoryBudget the budget that limits the size of fetched pages
+     * @param pageSizeEstimator a function that estimates the size of a page in bytes
+     */
+    public PrefetchingPageIterator(
+        final IntFunction<Collection<T>> pageFetcher,
+        final int queueSize,
+        final int firstPageIndex,
+        final MemoryBudget memoryBudget,
+        final ToLongFunction<Collection<T>> pageSizeEstimator)
+    {
+        this.pageFetcher = pageFetcher;
+        this.pageQueue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.firstPageIndex = firstPageIndex;
+        this.memoryBudget = memoryBudget;
+        this.pageSizeEstimator = pageSizeEstimator;
+        this.currentPageIndex = firstPageIndex - 1;
+        this.currentPage = Collections.emptyIterator();
+        this.fetchExecutor = Executors.newSingleThreadExecutor(ExecutorUtils.createDaemonThreadFactory(getClass().getSimpleName()));
+
+        fetchExecutor.execute(this::fetchPages);
+    }
+
+
+    @Override
+    public boolean hasNext()
+    {
+        while (!currentPage.hasNext() && !isFinished) {
+            notifyPageCompletion();
+            final FetchedPage<T> nextPage = takePage();
+
+            if (nextPage.elements.isEmpty()) {
+                close();
+
+                if (fetchError != null)
+                    throw fetchError;
+            } else {
+                currentPage = nextPage.elements.iterator();
+                currentPageSize = nextPage.elements.size();
+                currentPageBytes = nextPage.bytes;
+                currentPageIndex++;
+            }
+        }
+
+        return currentPage.hasNext();
+    }
+
+
+    @Override
+    public T next()
+    {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        return currentPage.next();
+    }
+
+
+    /**
+     * Sets a function that is called with the index of a page, after all of its
+     * elements were iterated.
+     *
+     * @param pageCompletionListener a function that accepts the index of a completely iterated page
+     */
+    public void setPageCompletionListener(final IntConsumer pageCompletionListener)
+    {
+        this.pageCompletionListener = pageCompletionListener;
+    }
+
+
+    /**
+     * Returns the number of elements of all pages that were completely iterated.
+     *
+     * @return the number of elements of all completely iterated pages
+     */
+    public int getCompletedElementCount()
+    {
+        return completedElementCount;
+    }
+
+
+    /**
+     * Returns the number of pages that were fetched, but not yet iterated.
+     *
+     * @return the number of prefetched pages
+     */
+    public int getQueuedPageCount()
+    {
+        return pageQueue.size();
+    }
+
+
+    /**
+     * Stops fetching pages and discards all pages that were fetched in advance,
+     * freeing their share of the memory budget.
+     */
+    @Override
+    public void close()
+    {
+        isFinished = true;
+        fetchExecutor.shutdownNow();
+        discardQueuedPages();
+
+        memoryBudget.release(currentPageBytes);
+        currentPageBytes = 0;
+    }
+
+
+    /**
+     * Removes all pages from the queue and frees their share of the memory budget.
+     */
+    private void discardQueuedPages()
+    {
+        FetchedPage<T> discardedPage;
+
+        while ((discardedPage = pageQueue.poll()) != null)
+            memoryBudget.release(discardedPage.bytes);
+    }
+
+
+    /**
+     * Marks the current page as completely iterated, frees its share of the memory budget,
+     * and notifies the page completion listener.
+     * If there is no current page, or if it was already marked, nothing happens.
+     */
+    private void notifyPageCompletion()
+    {
+        if (currentPageSize == 0)
+            return;
+
+        completedElementCount += currentPageSize;
+        currentPageSize = 0;
+        memoryBudget.release(currentPageBytes);
+        currentPageBytes = 0;
+
+        if (pageCompletionListener != null)
+            pageCompletionListener.accept(currentPageIndex);
+    }
+
+
+    /**
+     * Retrieves the next page from the queue, waiting for it to be fetched if necessary.
+     * An interruption aborts the iteration with an exception, because ending it normally
+     * would pass off the pages that were fetched so far as all pages.
+     *
+     * @throws IllegalStateException if the thread was interrupted while waiting
+     *
+     * @return the next page or an empty collection, if there are no more pages
+     */
+    private FetchedPage<T> takePage()
+    {
+        try {
+            return pageQueue.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Fetches pages until an empty page is retrieved or the iterator is closed,
+     * and adds them to the queue. A page is only fetched once the size of the
+     * previous page fits into the memory budget.
+     * This method is executed in the background.
+     */
+    private void fetchPages()
+    {
+        long pageBytes = 0;
+
+        try {
+            for (int pageIndex = firstPageIndex; !isFinished && !Thread.currentThread().isInterrupted(); pageIndex++) {
+                final long estimatedPageBytes = pageBytes;
+                memoryBudget.acquire(estimatedPageBytes);
+
+                final Collection<T> page;
+
+                try {
+                    page = pageFetcher.apply(pageIndex);
+                } catch (final RuntimeException e) {
+                    memoryBudget.release(estimatedPageBytes);
+                    throw e;
+                }
+
+                if (page == null || page.isEmpty()) {
+                    memoryBudget.release(estimatedPageBytes);
+                    break;
+                }
+
+                pageBytes = pageSizeEstimator.applyAsLong(page);
+                memoryBudget.adjust(estimatedPageBytes, pageBytes);
+
+                try {
+                    pageQueue.put(new FetchedPage<>(page, pageBytes));
+                } catch (final InterruptedException e) {
+                    memoryBudget.release(pageBytes);
+                    throw e;
+                }
+
+                // the page fetcher may have cleared the interrupt of close(), after the queue was emptied
+                if (isFinished)
+                    discardQueuedPages();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            // only close() may end the iteration by interrupting the fetch
+            if (!isFinished)
+                fetchError = new IllegalStateException(e);
+
+        } catch (final RuntimeException e) {
+            // re-thrown by hasNext() in the consuming thread
+            fetchError = e;
+        } finally {
+            signalEndOfPages();
+        }
+    }
+
+
+    /**
+     * Adds an empty page to the queue, marking the end of the iteration.
+     */
+    private void signalEndOfPages()
+    {
+        try {
+            pageQueue.put(new FetchedPage<>(Collections.emptyList(), 0));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * A page that was fetched in advance, along with its estimated size.
+     *
+     * @param <T> the type of the page elements
+     */
+    private static class FetchedPage<T>
+    {
+        private final Collection<T> elements;
+        private final long bytes;
+
+
+        /**
+         * Constructor.
+         *
+         * @param elements the elements of the page
+         * @param bytes the estimated size of the page in bytes
+         */
+        FetchedPage(final Collection<T> elements, final long bytes)
+        {
+            this.elements = elements;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class limits the rate and the number of concurrent requests to a host.
+ * The request rate is limited by a token bucket. The number of concurrent requests
+ * is adapted to the host: it is increased additively while responses arrive faster
+ * than a target latency, and it is halved when the host reports to be overloaded,
+ * in which case all requests are paused for the duration that was requested by the host.
+ *
+ * @author ${authorFullName}
+ */
+public class RequestThrottle
+{
+    private static final double CONCURRENCY_DECREASE_FACTOR = 0.5;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double maxRequestsPerSecond;
+    private final int maxConcurrency;
+    private final long targetLatencyMillis;
+
+    private double availableTokens;
+    private long lastRefillNanos;
+    private double concurrencyLimit;
+    private int activeRequests;
+    private long pausedUntilNanos;
+
+
+    /**
+     * Constructor.
+     *
+     * @param maxRequestsPerSecond the maximum number of requests that may be started per second,
+     *         or 0 if the request rate is not limited
+     * @param maxConcurrency the maximum number of requests that may be active at the same time
+     * @param targetLatencyMillis the response time in milliseconds below which the number of
+     *         concurrent requests is increased
+     */
+    public RequestThrottle(final double maxRequestsPerSecond, final int maxConcurrency, final long targetLatencyMillis)
+    {
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.targetLatencyMillis = targetLatencyMillis;
+
+        this.availableTokens = Math.max(1, maxRequestsPerSecond);
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+        this.concurrencyLimit = 1;
+    }
+
+
+    /**
+     * Waits until a request may be started and registers it as active.
+     * Each call must be followed by a call of either {@linkplain #release(long)},
+     * {@linkplain #releaseOverloaded(long)}, or {@linkplain #releaseFailed()}.
+     *
+     * @throws IllegalStateException if the thread was interrupted while waiting
+     */
+    public synchronized void acquire()
+    {
+        try {
+            while (true) {
+                final long now = System.nanoTime();
+                refillTokens(now);
+
+                if (now - pausedUntilNanos < 0)
+                    TimeUnit.NANOSECONDS.timedWait(this, pausedUntilNanos - now);
+
+                else if (activeRequests >= (int) concurrencyLimit)
+                    wait();
+
+                else if (maxRequestsPerSecond > 0 && availableTokens < 1)
+                    TimeUnit.NANOSECONDS.timedWait(this, (long)((1 - availableTokens) * NANOS_PER_SECOND / maxRequestsPerSecond));
+
+                else {
+                    if (maxRequestsPerSecond > 0)
+                        availableTokens--;
+
+                    activeRequests++;
+                    return;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Unregisters an active request that was answered by the host. If the response
+     * arrived faster than the target latency, the number of concurrent requests is increased.
+     *
+     * @param latencyMillis the response time of the request in milliseconds
+     */
+    public synchronized void release(final long latencyMillis)
+    {
+        activeRequests--;
+
+        if (latencyMillis <= targetLatencyMillis)
+            concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+
+        notifyAll();
+    }
+
+
+    /**
+     * Unregisters an active request that was rejected, because the host is overloaded.
+     * The number of concurrent requests is halved and all requests are paused.
+     *
+     * @param retryAfterMillis the number of milliseconds to wait before sending the next request
+     */
+    public synchronized void releaseOverloaded(final long retryAfterMillis)
+    {
+        activeRequests--;
+        concurrencyLimit = Math.max(1, concurrencyLimit * CONCURRENCY_DECREASE_FACTOR);
+
+        final long retryAfterNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryAfterMillis);
+
+        if (retryAfterNanos - pausedUntilNanos > 0)
+            pausedUntilNanos = retryAfterNanos;
+
+        notifyAll();
+    }
+
+
+    /**
+     * Unregisters an active request that failed without a usable response, for instance
+     * because the connection could not be established or was interrupted.
+     * Since the response time of the host is unknown, the number of concurrent requests is not changed.
+     */
+    public synchronized void releaseFailed()
+    {
+        activeRequests--;
+        notifyAll();
+    }
+
+
+    /**
+     * Returns the number of requests that may currently be active at the same time.
+     *
+     * @return the current concurrency limit
+     */
+    public synchronized int getConcurrencyLimit()
+    {
+        return (int) concurrencyLimit;
+    }
+
+
+    /**
+     * Adds tokens to the bucket according to the time that passed since the last refill.
+     * The bucket holds at most the tokens of one second.
+     *
+     * @param now the current value of {@linkplain System#nanoTime()}
+     */
+    private void refillTokens(final long now)
+    {
+        if (maxRequestsPerSecond > 0) {
+            final double addedTokens = (now - lastRefillNanos) * maxRequestsPerSecond / NANOS_PER_SECOND;
+            availableTokens = Math.min(Math.max(1, maxRequestsPerSecond), availableTokens + addedTokens);
+        }
+
+        lastRefillNanos = now;
+    }
+}
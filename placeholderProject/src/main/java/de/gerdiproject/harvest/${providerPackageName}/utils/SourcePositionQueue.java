@@ -0,0 +1,128 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.function.LongSupplier;
+
+/**
+ * This class keeps track of the positions of records within all records of the extractor,
+ * while the records pass through a stage that maps each of them to a single element,
+ * such as the transformation. It allows elements that leave the stage to be traced back
+ * to the number of extracted records that were processed, even if the stage processes
+ * records ahead or skips records before they enter it.
+ * The iterators of this class must be consumed by a single thread.
+ *
+ * @author ${authorFullName}
+ */
+public class SourcePositionQueue
+{
+    private final Queue<Long> pendingPositions;
+    private long lastPosition;
+
+
+    /**
+     * Constructor.
+     */
+    public SourcePositionQueue()
+    {
+        this.pendingPositions = new ArrayDeque<>();
+    }
+
+
+    /**
+     * Wraps the records that enter the stage, in order to remember the position of each record.
+     *
+     * @param records the records that enter the stage
+     * @param positionSupplier a function that returns the number of extracted records that were
+     *         processed, up to and including the record that was just retrieved
+     * @param <T> the type of the records
+     *
+     * @return an iterator that remembers the positions of the retrieved records
+     */
+    public <T> Iterator<T> enter(final Iterator<T> records, final LongSupplier positionSupplier)
+    {
+        pendingPositions.clear();
+        lastPosition = 0;
+
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext()
+            {
+                return records.hasNext();
+            }
+
+
+            @Override
+            public T next()
+            {
+                final T record = records.next();
+                pendingPositions.add(positionSupplier.getAsLong());
+                return record;
+            }
+        };
+    }
+
+
+    /**
+     * Wraps the elements that leave the stage, in order to update the position of the
+     * last element that was retrieved.
+     *
+     * @param elements the elements that leave the stage
+     * @param <T> the type of the elements
+     *
+     * @return an iterator that updates the position of the last retrieved element
+     */
+    public <T> Iterator<T> exit(final Iterator<T> elements)
+    {
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext()
+            {
+                return elements.hasNext();
+            }
+
+
+            @Override
+            public T next()
+            {
+                final T element = elements.next();
+                final Long position = pendingPositions.poll();
+
+                if (position != null)
+                    lastPosition = position;
+
+                return element;
+            }
+        };
+    }
+
+
+    /**
+     * Returns the number of extracted records that were processed up to and including
+     * the record of the element that last left the stage. If the stage skips records
+     * without mapping them, the returned position may lag behind, but it never
+     * exceeds the actual position.
+     *
+     * @return the number of extracted records that passed the stage
+     */
+    public long getLastPosition()
+    {
+        return lastPosition;
+    }
+}
@@ -15,9 +15,21 @@
  */
 package de.gerdiproject.harvest.etls;
 
+import java.util.Iterator;
+import java.util.function.Function;
+
+import de.gerdiproject.harvest.config.Configuration;
+import de.gerdiproject.harvest.config.parameters.BooleanParameter;
+import de.gerdiproject.harvest.config.parameters.IntegerParameter;
+import de.gerdiproject.harvest.config.parameters.StringParameter;
+import de.gerdiproject.harvest.config.parameters.constants.ParameterMappingFunctions;
 import de.gerdiproject.harvest.etls.extractors.${providerClassName}Extractor;
 import de.gerdiproject.harvest.etls.extractors.${providerClassName}VO;
 import de.gerdiproject.harvest.etls.transformers.${providerClassName}Transformer;
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}ParameterConstants;
+import de.gerdiproject.harvest.${providerPackageName}.fixtures.HttpFixtureMode;
+import de.gerdiproject.harvest.${providerPackageName}.utils.LoadProgressTracker;
+import de.gerdiproject.harvest.${providerPackageName}.utils.MemoryBudget;
 import de.gerdiproject.json.datacite.DataCiteJson;
 
 
@@ -29,16 +41,601 @@ import de.gerdiproject.json.datacite.DataCiteJson;
  */
 public class ${providerClassName}ETL extends StaticIteratorETL<${providerClassName}VO, DataCiteJson>
 {
+    private IntegerParameter prefetchQueueSizeParameter;
+    private IntegerParameter memoryBudgetParameter;
+    private IntegerParameter transformerParallelismParameter;
+    private BooleanParameter incrementalHarvestParameter;
+    private IntegerParameter checkpointIntervalParameter;
+    private IntegerParameter httpCacheSizeParameter;
+    private IntegerParameter maxRequestsPerSecondParameter;
+    private IntegerParameter maxConcurrentRequestsParameter;
+    private IntegerParameter targetLatencyParameter;
+    private IntegerParameter connectTimeoutParameter;
+    private IntegerParameter readTimeoutParameter;
+    private StringParameter httpFixtureModeParameter;
+    private StringParameter httpFixtureFolderParameter;
+    private IntegerParameter httpFixtureLatencyParameter;
+    private IntegerParameter detailBatchSizeParameter;
+    private BooleanParameter virtualThreadsParameter;
+    private BooleanParameter skipUnchangedDocumentsParameter;
+    private IntegerParameter loaderQueueSizeParameter;
+    private StringParameter fanOutLoadersParameter;
+    private StringParameter bulkLoaderUrlParameter;
+    private IntegerParameter maxBulkSizeParameter;
+    private IntegerParameter bulkTargetLatencyParameter;
+    private IntegerParameter dumpBlockSizeParameter;
+    private BooleanParameter replayDumpParameter;
+    private IntegerParameter traceSampleIntervalParameter;
+
+    private final ${providerClassName}Extractor specificExtractor;
+    private final LoadProgressTracker loadProgress;
+    private final MemoryBudget memoryBudget;
+
+
     /**
      * Constructor
      */
     public ${providerClassName}ETL()
     {
-        super(new ${providerClassName}Extractor(), new ${providerClassName}Transformer());
+        this(new ${providerClassName}Extractor(), new ${providerClassName}Transformer());
+    }
+
+
+    /**
+     * Constructor that keeps a reference to the extractor, in order to
+     * share its state with the transformer.
+     *
+     * @param extractor the extractor of this ETL
+     * @param transformer the transformer of this ETL
+     */
+    private ${providerClassName}ETL(final ${providerClassName}Extractor extractor, final ${providerClassName}Transformer transformer)
+    {
+        super(extractor, transformer);
+        this.specificExtractor = extractor;
+        this.loadProgress = new LoadProgressTracker();
+        this.loadProgress.setProgressListener(extractor::onRecordsLoaded);
+        this.loadProgress.setCompletionListener(() -> {
+            extractor.onLoadingCompleted();
+            transformer.onLoadingCompleted();
+        });
+        this.memoryBudget = new MemoryBudget(0);
+    }
+
+
+    /**
+     * Runs the harvest and marks all documents that were passed to the loader as loaded,
+     * once the loader returned without an error. Loaders that do not acknowledge documents
+     * themselves, such as the loaders of the library, have loaded all of them by then.
+     */
+    @Override
+    protected void harvestInternal() throws Exception // NOPMD - the library allows any exception to be thrown
+    {
+        super.harvestInternal();
+        loadProgress.acknowledgeAll();
+    }
+
+
+    @Override
+    protected void registerParameters()
+    {
+        super.registerParameters();
+
+        this.prefetchQueueSizeParameter = registerUnsignedIntegerParameter(
+                                              ${providerClassName}ParameterConstants.PREFETCH_QUEUE_SIZE_KEY,
+                                              ${providerClassName}ParameterConstants.PREFETCH_QUEUE_SIZE_DEFAULT);
+
+        this.memoryBudgetParameter = registerUnsignedIntegerParameter(
+                                         ${providerClassName}ParameterConstants.MEMORY_BUDGET_KEY,
+                                         ${providerClassName}ParameterConstants.MEMORY_BUDGET_DEFAULT);
+
+        this.transformerParallelismParameter = registerUnsignedIntegerParameter(
+                                                   ${providerClassName}ParameterConstants.TRANSFORMER_PARALLELISM_KEY,
+                                                   ${providerClassName}ParameterConstants.TRANSFORMER_PARALLELISM_DEFAULT);
+
+        this.incrementalHarvestParameter = registerBooleanParameter(
+                                               ${providerClassName}ParameterConstants.INCREMENTAL_HARVEST_KEY,
+                                               ${providerClassName}ParameterConstants.INCREMENTAL_HARVEST_DEFAULT);
+
+        this.checkpointIntervalParameter = registerUnsignedIntegerParameter(
+                                               ${providerClassName}ParameterConstants.CHECKPOINT_INTERVAL_KEY,
+                                               ${providerClassName}ParameterConstants.CHECKPOINT_INTERVAL_DEFAULT);
+
+        this.httpCacheSizeParameter = registerUnsignedIntegerParameter(
+                                          ${providerClassName}ParameterConstants.HTTP_CACHE_SIZE_KEY,
+                                          ${providerClassName}ParameterConstants.HTTP_CACHE_SIZE_DEFAULT);
+
+        this.maxRequestsPerSecondParameter = registerUnsignedIntegerParameter(
+                                                 ${providerClassName}ParameterConstants.MAX_REQUESTS_PER_SECOND_KEY,
+                                                 ${providerClassName}ParameterConstants.MAX_REQUESTS_PER_SECOND_DEFAULT);
+
+        this.maxConcurrentRequestsParameter = registerUnsignedIntegerParameter(
+                                                  ${providerClassName}ParameterConstants.MAX_CONCURRENT_REQUESTS_KEY,
+                                                  ${providerClassName}ParameterConstants.MAX_CONCURRENT_REQUESTS_DEFAULT);
+
+        this.targetLatencyParameter = registerUnsignedIntegerParameter(
+                                          ${providerClassName}ParameterConstants.TARGET_LATENCY_KEY,
+                                          ${providerClassName}ParameterConstants.TARGET_LATENCY_DEFAULT);
+
+        this.connectTimeoutParameter = registerUnsignedIntegerParameter(
+                                           ${providerClassName}ParameterConstants.CONNECT_TIMEOUT_KEY,
+                                           ${providerClassName}ParameterConstants.CONNECT_TIMEOUT_DEFAULT);
+
+        this.readTimeoutParameter = registerUnsignedIntegerParameter(
+                                        ${providerClassName}ParameterConstants.READ_TIMEOUT_KEY,
+                                        ${providerClassName}ParameterConstants.READ_TIMEOUT_DEFAULT);
+
+        this.httpFixtureModeParameter = registerStringParameter(
+                                            ${providerClassName}ParameterConstants.HTTP_FIXTURE_MODE_KEY,
+                                            ${providerClassName}ParameterConstants.HTTP_FIXTURE_MODE_DEFAULT);
+
+        this.httpFixtureFolderParameter = registerStringParameter(
+                                              ${providerClassName}ParameterConstants.HTTP_FIXTURE_FOLDER_KEY,
+                                              ${providerClassName}ParameterConstants.HTTP_FIXTURE_FOLDER_DEFAULT);
+
+        this.httpFixtureLatencyParameter = registerUnsignedIntegerParameter(
+                                               ${providerClassName}ParameterConstants.HTTP_FIXTURE_LATENCY_KEY,
+                                               ${providerClassName}ParameterConstants.HTTP_FIXTURE_LATENCY_DEFAULT);
+
+        this.detailBatchSizeParameter = registerUnsignedIntegerParameter(
+                                            ${providerClassName}ParameterConstants.DETAIL_BATCH_SIZE_KEY,
+                                            ${providerClassName}ParameterConstants.DETAIL_BATCH_SIZE_DEFAULT);
+
+        this.virtualThreadsParameter = registerBooleanParameter(
+                                           ${providerClassName}ParameterConstants.VIRTUAL_THREADS_KEY,
+                                           ${providerClassName}ParameterConstants.VIRTUAL_THREADS_DEFAULT);
+
+        this.skipUnchangedDocumentsParameter = registerBooleanParameter(
+                                                   ${providerClassName}ParameterConstants.SKIP_UNCHANGED_DOCUMENTS_KEY,
+                                                   ${providerClassName}ParameterConstants.SKIP_UNCHANGED_DOCUMENTS_DEFAULT);
+
+        this.loaderQueueSizeParameter = registerUnsignedIntegerParameter(
+                                            ${providerClassName}ParameterConstants.LOADER_QUEUE_SIZE_KEY,
+                                            ${providerClassName}ParameterConstants.LOADER_QUEUE_SIZE_DEFAULT);
+
+        this.fanOutLoadersParameter = registerStringParameter(
+                                          ${providerClassName}ParameterConstants.FAN_OUT_LOADERS_KEY,
+                                          ${providerClassName}ParameterConstants.FAN_OUT_LOADERS_DEFAULT);
+
+        this.bulkLoaderUrlParameter = registerStringParameter(
+                                          ${providerClassName}ParameterConstants.BULK_LOADER_URL_KEY,
+                                          ${providerClassName}ParameterConstants.BULK_LOADER_URL_DEFAULT);
+
+        this.maxBulkSizeParameter = registerUnsignedIntegerParameter(
+                                        ${providerClassName}ParameterConstants.MAX_BULK_SIZE_KEY,
+                                        ${providerClassName}ParameterConstants.MAX_BULK_SIZE_DEFAULT);
+
+        this.bulkTargetLatencyParameter = registerUnsignedIntegerParameter(
+                                              ${providerClassName}ParameterConstants.BULK_TARGET_LATENCY_KEY,
+                                              ${providerClassName}ParameterConstants.BULK_TARGET_LATENCY_DEFAULT);
+
+        this.dumpBlockSizeParameter = registerUnsignedIntegerParameter(
+                                          ${providerClassName}ParameterConstants.DUMP_BLOCK_SIZE_KEY,
+                                          ${providerClassName}ParameterConstants.DUMP_BLOCK_SIZE_DEFAULT);
+
+        this.replayDumpParameter = registerBooleanParameter(
+                                       ${providerClassName}ParameterConstants.REPLAY_DUMP_KEY,
+                                       ${providerClassName}ParameterConstants.REPLAY_DUMP_DEFAULT);
+
+        this.traceSampleIntervalParameter = registerUnsignedIntegerParameter(
+                                                ${providerClassName}ParameterConstants.TRACE_SAMPLE_INTERVAL_KEY,
+                                                ${providerClassName}ParameterConstants.TRACE_SAMPLE_INTERVAL_DEFAULT);
+    }
+
+
+    /**
+     * Returns the maximum number of pages that are fetched from ${providerName}
+     * in advance, while previous pages are still being transformed.
+     *
+     * @return the maximum number of pages that are fetched in advance
+     */
+    public int getPrefetchQueueSize()
+    {
+        return prefetchQueueSizeParameter.getValue();
+    }
+
+
+    /**
+     * Returns the maximum estimated size of data that was retrieved from ${providerName},
+     * but not yet loaded. It covers pages that were fetched in advance, including the page
+     * whose records are currently passed to the transformer, documents that wait in the
+     * queues of the fan-out loader, and batches of the bulk loader until they are acknowledged.
+     * Pages are no longer fetched in advance while this budget is exhausted. Records that
+     * are being transformed are not covered.
+     *
+     * @return the memory budget in megabytes, or 0 if it is not limited
+     */
+    public int getMemoryBudgetSize()
+    {
+        return memoryBudgetParameter.getValue();
+    }
+
+
+    /**
+     * Returns the number of threads that transform ${providerName} records concurrently.
+     *
+     * @return the number of threads that transform records concurrently
+     */
+    public int getTransformerParallelism()
+    {
+        return transformerParallelismParameter.getValue();
+    }
+
+
+    /**
+     * Returns true if only records that changed since the last completed harvest
+     * are to be extracted. A harvest is only completed once the loaders acknowledged
+     * all of its documents.
+     *
+     * @return true if only changed records are to be harvested
+     */
+    public boolean isIncrementalHarvest()
+    {
+        return incrementalHarvestParameter.getValue();
+    }
+
+
+    /**
+     * Returns the number of pages after which the harvest progress is saved,
+     * allowing the harvest to be resumed after a restart of the service.
+     * A checkpoint is only saved once all records of its pages were loaded,
+     * and only if the extractor provides a version string.
+     *
+     * @return the number of pages in between checkpoints, or 0 if no checkpoints are saved
+     */
+    public int getCheckpointInterval()
+    {
+        return checkpointIntervalParameter.getValue();
+    }
+
+
+    /**
+     * Returns the maximum size of HTTP responses that are kept on disk in order
+     * to be re-used by subsequent harvests if they did not change.
+     *
+     * @return the maximum size of the HTTP response cache in megabytes
+     */
+    public int getHttpCacheSize()
+    {
+        return httpCacheSizeParameter.getValue();
+    }
+
+
+    /**
+     * Returns the maximum number of requests that are sent to ${providerName} per second.
+     *
+     * @return the maximum number of requests per second, or 0 if the rate is not limited
+     */
+    public int getMaxRequestsPerSecond()
+    {
+        return maxRequestsPerSecondParameter.getValue();
+    }
+
+
+    /**
+     * Returns the maximum number of requests that may be sent to ${providerName} concurrently.
+     * The actual number of concurrent requests is adapted to the response times.
+     *
+     * @return the maximum number of concurrent requests
+     */
+    public int getMaxConcurrentRequests()
+    {
+        return maxConcurrentRequestsParameter.getValue();
+    }
+
+
+    /**
+     * Returns the response time below which the number of concurrent requests is increased.
+     *
+     * @return the target response time in milliseconds
+     */
+    public int getTargetLatency()
+    {
+        return targetLatencyParameter.getValue();
+    }
+
+
+    /**
+     * Returns the maximum duration of establishing a connection to a server.
+     * Connections that take longer count as a sign that the server is overloaded.
+     *
+     * @return the connect timeout in milliseconds, or 0 if it is unlimited
+     */
+    public int getConnectTimeout()
+    {
+        return connectTimeoutParameter.getValue();
+    }
+
+
+    /**
+     * Returns the maximum duration of waiting for data from a server.
+     * Responses that take longer count as a sign that the server is overloaded.
+     *
+     * @return the read timeout in milliseconds, or 0 if it is unlimited
+     */
+    public int getReadTimeout()
+    {
+        return readTimeoutParameter.getValue();
+    }
+
+
+    /**
+     * Returns the mode that determines if responses of ${providerName} are recorded
+     * to the fixture folder, or replayed from it without sending requests.
+     *
+     * @throws IllegalArgumentException if the configured mode is unknown
+     *
+     * @return the mode in which HTTP connections are opened
+     */
+    public HttpFixtureMode getHttpFixtureMode()
+    {
+        return HttpFixtureMode.fromName(httpFixtureModeParameter.getValue());
+    }
+
+
+    /**
+     * Returns the folder in which responses of ${providerName} are recorded,
+     * e.g. the httpFixtures resource folder of the ${providerClassName}ExtractorTest.
+     *
+     * @return the path of the fixture folder, or an empty string if the folder
+     *          is located in the cache directory
+     */
+    public String getHttpFixtureFolder()
+    {
+        return httpFixtureFolderParameter.getValue();
+    }
+
+
+    /**
+     * Returns the percentage of the recorded response times that is waited
+     * before a recorded response is replayed.
+     *
+     * @return the percentage of the recorded response times, or 0 if responses
+     *          are replayed without delay
+     */
+    public int getHttpFixtureLatency()
+    {
+        return httpFixtureLatencyParameter.getValue();
     }
-    
+
+
+    /**
+     * Returns the number of record detail pages that may be retrieved concurrently.
+     *
+     * @return the number of concurrently retrieved detail pages
+     */
+    public int getDetailBatchSize()
+    {
+        return detailBatchSizeParameter.getValue();
+    }
+
+
+    /**
+     * Returns true if each detail page is to be retrieved on its own virtual thread.
+     * This requires the service to run on Java 21 or later, otherwise a fixed number
+     * of platform threads is used.
+     *
+     * @return true if detail pages are to be retrieved on virtual threads
+     */
+    public boolean isUsingVirtualThreads()
+    {
+        return virtualThreadsParameter.getValue();
+    }
+
+
+    /**
+     * Returns true if documents that did not change since the last completed harvest
+     * are not to be passed to the loaders.
+     *
+     * @return true if unchanged documents are to be skipped
+     */
+    public boolean isSkippingUnchangedDocuments()
+    {
+        return skipUnchangedDocumentsParameter.getValue();
+    }
+
+
+    /**
+     * Returns the maximum number of documents that are kept for each loader of the
+     * ${providerClassName}FanOutLoader, while the loader is busy.
+     *
+     * @return the maximum number of queued documents per loader
+     */
+    public int getLoaderQueueSize()
+    {
+        return loaderQueueSizeParameter.getValue();
+    }
+
+
+    /**
+     * Returns the loaders to which the ${providerClassName}FanOutLoader passes all documents.
+     * Classes of the package de.gerdiproject.harvest.etls.loaders may be referred to by their
+     * simple names, e.g. ElasticSearchLoader,${providerClassName}DumpLoader
+     *
+     * @return a comma-separated list of loader class names
+     */
+    public String getFanOutLoaders()
+    {
+        return fanOutLoadersParameter.getValue();
+    }
+
+
+    /**
+     * Returns the URL of the bulk API to which the ${providerClassName}BulkLoader submits documents,
+     * e.g. http://localhost:9200/index/_bulk
+     *
+     * @return the URL of the bulk API, or an empty string if none is configured
+     */
+    public String getBulkLoaderUrl()
+    {
+        return bulkLoaderUrlParameter.getValue();
+    }
+
+
+    /**
+     * Returns the maximum size of a single bulk request of the ${providerClassName}BulkLoader.
+     *
+     * @return the maximum bulk request size in kilobytes
+     */
+    public int getMaxBulkSize()
+    {
+        return maxBulkSizeParameter.getValue();
+    }
+
+
+    /**
+     * Returns the response time of bulk requests below which the
+     * ${providerClassName}BulkLoader increases the size of bulk requests.
+     *
+     * @return the target response time of bulk requests in milliseconds
+     */
+    public int getBulkTargetLatency()
+    {
+        return bulkTargetLatencyParameter.getValue();
+    }
+
+
+    /**
+     * Returns the number of uncompressed bytes that the ${providerClassName}DumpLoader
+     * compresses together as a single block.
+     *
+     * @return the size of dump blocks in kilobytes
+     */
+    public int getDumpBlockSize()
+    {
+        return dumpBlockSizeParameter.getValue();
+    }
+
+
+    /**
+     * Returns true if the documents that were written by the ${providerClassName}DumpLoader
+     * are to be passed to the loaders again, instead of harvesting ${providerName}.
+     * An interrupted replay is resumed near the document at which it stopped.
+     *
+     * @return true if the documents are to be replayed from the dump
+     */
+    public boolean isReplayingDump()
+    {
+        return replayDumpParameter.getValue();
+    }
+
+
+    /**
+     * Returns how many executions of a harvesting stage, such as the retrieval or
+     * transformation of a record, are traced. On average, one of this many executions
+     * is traced.
+     *
+     * @return the number of executions per traced execution, or 0 if tracing is disabled
+     */
+    public int getTraceSampleInterval()
+    {
+        return traceSampleIntervalParameter.getValue();
+    }
+
+
+    /**
+     * Returns true if the current harvest continues an unfinished harvest,
+     * instead of starting from the first record.
+     *
+     * @return true if the harvest is resumed from a checkpoint
+     */
+    public boolean isResumingHarvest()
+    {
+        return specificExtractor.isResumingHarvest();
+    }
+
+
+    /**
+     * Returns the documents of a previous harvest that are passed to the loaders
+     * again, if the dump of the previous harvest is replayed.
+     *
+     * @return the replayed documents, or null if records are extracted and transformed
+     */
+    public Iterator<DataCiteJson> getReplayedDocuments()
+    {
+        return specificExtractor.getReplayedDocuments();
+    }
+
+
+    /**
+     * Returns the tracker to which the loaders acknowledge the documents they loaded.
+     * The progress of a harvest is only committed once all documents were acknowledged.
+     *
+     * @return the tracker of loaded documents
+     */
+    public LoadProgressTracker getLoadProgress()
+    {
+        return loadProgress;
+    }
+
+
+    /**
+     * Returns the budget that limits the estimated size of data that was retrieved
+     * from ${providerName}, but not yet loaded. Its size is set by the extractor.
+     *
+     * @return the memory budget that is shared by the extractor and the loaders
+     */
+    public MemoryBudget getMemoryBudget()
+    {
+        return memoryBudget;
+    }
+
+
+    /**
+     * Registers an ETL parameter that only accepts unsigned integers and can only
+     * be changed while the ETL is not busy.
+     *
+     * @param key the parameter key
+     * @param defaultValue the value of the parameter if it is not configured
+     *
+     * @return the registered parameter
+     */
+    private IntegerParameter registerUnsignedIntegerParameter(final String key, final int defaultValue)
+    {
+        final Function<String, Integer> unsignedIntegerMapper =
+            ParameterMappingFunctions.createMapperForETL(ParameterMappingFunctions::mapToUnsignedInteger, this);
+
+        return Configuration.registerParameter(new IntegerParameter(key, getName(), defaultValue, unsignedIntegerMapper));
+    }
+
+
+    /**
+     * Registers an ETL parameter that only accepts booleans and can only
+     * be changed while the ETL is not busy.
+     *
+     * @param key the parameter key
+     * @param defaultValue the value of the parameter if it is not configured
+     *
+     * @return the registered parameter
+     */
+    private BooleanParameter registerBooleanParameter(final String key, final boolean defaultValue)
+    {
+        final Function<String, Boolean> booleanMapper =
+            ParameterMappingFunctions.createMapperForETL(ParameterMappingFunctions::mapToBoolean, this);
+
+        return Configuration.registerParameter(new BooleanParameter(key, getName(), defaultValue, booleanMapper));
+    }
+
+
+    /**
+     * Registers an ETL parameter that accepts any string and can only
+     * be changed while the ETL is not busy.
+     *
+     * @param key the parameter key
+     * @param defaultValue the value of the parameter if it is not configured
+     *
+     * @return the registered parameter
+     */
+    private StringParameter registerStringParameter(final String key, final String defaultValue)
+    {
+        final Function<String, String> stringMapper =
+            ParameterMappingFunctions.createMapperForETL(ParameterMappingFunctions::mapToString, this);
+
+        return Configuration.registerParameter(new StringParameter(key, getName(), defaultValue, stringMapper));
+    }
+
+
     // TODO 1. Check if StaticIteratorETL really suits your needs, or exchange it with any other AbstractETL.
     // TODO 2. Exchange ${providerClassName}VO with whatever is extracted from your DataProvider or populate it with fitting data.
-    // TODO 3. Override registerParameters() if you need to register additional ETL parameters.
+    // TODO 3. Extend registerParameters() if you need to register additional ETL parameters.
     // TODO 4. Override any other methods if needed.
 }
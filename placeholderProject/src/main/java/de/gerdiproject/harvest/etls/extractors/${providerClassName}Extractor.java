@@ -15,10 +15,56 @@
  */
 package de.gerdiproject.harvest.etls.extractors;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+import de.gerdiproject.harvest.application.MainContextUtils;
 import de.gerdiproject.harvest.etls.AbstractETL;
-import de.gerdiproject.harvest.utils.data.HttpRequester;
+import de.gerdiproject.harvest.etls.${providerClassName}ETL;
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}CacheConstants;
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}LoggingConstants;
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}MetricConstants;
+import de.gerdiproject.harvest.${providerPackageName}.dump.DumpReplayIterator;
+import de.gerdiproject.harvest.${providerPackageName}.fixtures.HttpFixtureStore;
+import de.gerdiproject.harvest.${providerPackageName}.metrics.CountingIterator;
+import de.gerdiproject.harvest.${providerPackageName}.metrics.HttpMetrics;
+import de.gerdiproject.harvest.${providerPackageName}.metrics.MetricRegistry;
+import de.gerdiproject.harvest.${providerPackageName}.tracing.StageTracer;
+import de.gerdiproject.harvest.${providerPackageName}.tracing.TraceStage;
+import de.gerdiproject.harvest.${providerPackageName}.tracing.TracingIterator;
+import de.gerdiproject.harvest.${providerPackageName}.utils.CheckpointStore;
+import de.gerdiproject.harvest.${providerPackageName}.utils.HarvestCheckpoint;
+import de.gerdiproject.harvest.${providerPackageName}.utils.HighWaterMarkStore;
+import de.gerdiproject.harvest.${providerPackageName}.utils.HttpResponseCache;
+import de.gerdiproject.harvest.${providerPackageName}.utils.JsonArrayIterator;
+import de.gerdiproject.harvest.${providerPackageName}.utils.MemoryBudget;
+import de.gerdiproject.harvest.${providerPackageName}.utils.OrderedParallelIterator;
+import de.gerdiproject.harvest.${providerPackageName}.utils.PersistedValueStore;
+import de.gerdiproject.harvest.${providerPackageName}.utils.PrefetchingPageIterator;
+import de.gerdiproject.harvest.${providerPackageName}.utils.RequestThrottle;
+import de.gerdiproject.json.GsonUtils;
+import de.gerdiproject.json.datacite.DataCiteJson;
 
 /**
  * This {@linkplain AbstractIteratorExtractor} implementation extracts all
@@ -28,11 +74,44 @@ import de.gerdiproject.harvest.utils.data.HttpRequester;
  */
 public class ${providerClassName}Extractor extends AbstractIteratorExtractor<${providerClassName}VO>
 {
-    // protected fields that may be used by the inner iterator class
-    protected final HttpRequester httpRequester;
+    private static final Logger LOGGER = LoggerFactory.getLogger(${providerClassName}Extractor.class);
+
+    // protected fields that may be used when extracting pages
+    protected final Gson gson;
+    protected HttpResponseCache httpResponseCache;
+    protected RequestThrottle requestThrottle;
+    protected final StageTracer tracer;
+
+    // cursors, such as resumption tokens, that lead to pages, mapped by page index
+    protected final Map<Integer, String> pageCursors;
 
     private String version;
     private int sourceDocumentCount = -1;
+    private int prefetchQueueSize;
+    private MemoryBudget memoryBudget;
+    private Charset charset;
+    private int detailBatchSize;
+    private boolean useVirtualThreads;
+    private PrefetchingPageIterator<?> pageIterator;
+    private OrderedParallelIterator<String, ${providerClassName}VO> detailIterator;
+    private JsonArrayIterator<${providerClassName}VO> jsonStreamIterator;
+    private HighWaterMarkStore highWaterMarkStore;
+    private CheckpointStore checkpointStore;
+    private int checkpointInterval;
+    private int extractedCountOffset;
+
+    // checkpoints of completely extracted pages, of which not all records were loaded yet
+    private final Queue<HarvestCheckpoint> pendingCheckpoints;
+
+    // true if the documents of a dump are replayed, so that nothing is extracted
+    private boolean isReplayingDump;
+    private DumpReplayIterator<DataCiteJson> replayIterator;
+
+    // the checkpoint from which the harvest is resumed, or null if it starts from the beginning
+    private HarvestCheckpoint checkpoint;
+
+    // the high-water mark of the previous harvest, or null if all records are to be extracted
+    private String highWaterMark;
 
 
     /**
@@ -41,7 +120,10 @@ public class ${providerClassName}Extractor extends AbstractIteratorExtractor<${p
     public ${providerClassName}Extractor()
     {
         super();
-        this.httpRequester = new HttpRequester();
+        this.gson = GsonUtils.createGerdiDocumentGsonBuilder().create();
+        this.pageCursors = new ConcurrentHashMap<>();
+        this.pendingCheckpoints = new ArrayDeque<>();
+        this.tracer = StageTracer.getInstance();
     }
 
 
@@ -50,12 +132,96 @@ public class ${providerClassName}Extractor extends AbstractIteratorExtractor<${p
     {
         super.init(etl);
 
-        this.httpRequester.setCharset(etl.getCharset());
+        this.charset = etl.getCharset();
+
+        final ${providerClassName}ETL specificEtl = (${providerClassName}ETL) etl;
+        this.prefetchQueueSize = specificEtl.getPrefetchQueueSize();
+        this.memoryBudget = specificEtl.getMemoryBudget();
+        this.memoryBudget.setMaxBytes(specificEtl.getMemoryBudgetSize() * ${providerClassName}CacheConstants.BYTES_PER_MEGABYTE);
+        this.checkpointInterval = specificEtl.getCheckpointInterval();
+        this.detailBatchSize = specificEtl.getDetailBatchSize();
+        this.useVirtualThreads = specificEtl.isUsingVirtualThreads();
+        tracer.reset(specificEtl.getTraceSampleInterval());
+
+        final String cacheDirectory = MainContextUtils.getCacheDirectory(getClass());
+        this.highWaterMarkStore = new HighWaterMarkStore(
+            new File(cacheDirectory, ${providerClassName}CacheConstants.HIGH_WATER_MARK_FILE),
+            charset);
+        this.checkpointStore = new CheckpointStore(
+            new File(cacheDirectory, ${providerClassName}CacheConstants.CHECKPOINT_FILE),
+            gson,
+            charset);
+        this.httpResponseCache = new HttpResponseCache(
+            new File(cacheDirectory, ${providerClassName}CacheConstants.HTTP_RESPONSE_CACHE_FOLDER),
+            specificEtl.getHttpCacheSize() * ${providerClassName}CacheConstants.BYTES_PER_MEGABYTE,
+            charset);
+
+        this.requestThrottle = new RequestThrottle(
+            specificEtl.getMaxRequestsPerSecond(),
+            specificEtl.getMaxConcurrentRequests(),
+            specificEtl.getTargetLatency());
+        this.httpResponseCache.setThrottle(requestThrottle);
+        this.httpResponseCache.setTimeouts(specificEtl.getConnectTimeout(), specificEtl.getReadTimeout());
+
+        final String fixtureFolder = specificEtl.getHttpFixtureFolder();
+        final HttpFixtureStore httpFixtureStore = new HttpFixtureStore(
+            fixtureFolder.isEmpty()
+            ? new File(cacheDirectory, ${providerClassName}CacheConstants.HTTP_FIXTURE_FOLDER)
+            : new File(fixtureFolder),
+            specificEtl.getHttpFixtureMode(),
+            specificEtl.getHttpFixtureLatency());
+        this.httpResponseCache.setFixtureStore(httpFixtureStore);
+
+        this.highWaterMark = specificEtl.isIncrementalHarvest() ? highWaterMarkStore.load() : null;
+        this.isReplayingDump = specificEtl.isReplayingDump();
+
+        this.replayIterator = null;
+
+        registerGauges(MetricRegistry.getInstance());
+
+        // ${providerName} is not contacted while documents are replayed
+        if (isReplayingDump) {
+            this.checkpoint = null;
+            this.replayIterator = openDump(cacheDirectory);
+            this.sourceDocumentCount = (int) (replayIterator.getRecordCount() - replayIterator.getFirstRecordIndex());
+            return;
+        }
+
+        // TODO stage the high-water mark of this harvest, e.g. the current date or the latest cursor of the provider
+        // this.highWaterMarkStore.stage( );
 
         // TODO if possible, extract some metadata in order to determine the size and a version string
-        // final ${providerClassName}ETL specificEtl = (${providerClassName}ETL) etl;
+        // TODO if the highWaterMark is not null, the size must only count records that changed since then
         // this.version = ;
         // this.sourceDocumentCount = ;
+
+        this.checkpoint = checkpointInterval > 0 ? loadCheckpoint() : null;
+    }
+
+
+    /**
+     * Returns true if the current harvest continues an unfinished harvest,
+     * instead of starting from the first record.
+     *
+     * @return true if the harvest is resumed from a checkpoint
+     */
+    public boolean isResumingHarvest()
+    {
+        return checkpoint != null;
+    }
+
+
+    /**
+     * Returns the documents of the dump that was written by the ${providerClassName}DumpLoader,
+     * which are passed to the loaders again instead of extracting and transforming records.
+     * Records of the {@linkplain ${providerClassName}VO} type cannot carry finished documents,
+     * which is why the transformer retrieves them via this method.
+     *
+     * @return an iterator over the replayed documents, or null if no dump is replayed
+     */
+    public Iterator<DataCiteJson> getReplayedDocuments()
+    {
+        return replayIterator;
     }
 
 
@@ -70,44 +236,442 @@ public class ${providerClassName}Extractor extends AbstractIteratorExtractor<${p
     @Override
     public int size()
     {
-        return sourceDocumentCount;
+        if (checkpoint == null || sourceDocumentCount == -1)
+            return sourceDocumentCount;
+
+        return sourceDocumentCount - checkpoint.getExtractedCount();
     }
 
 
     @Override
     protected Iterator<${providerClassName}VO> extractAll() throws ExtractorException
     {
-        return new ${providerClassName}Iterator();
+        // replayed documents are retrieved by the transformer via getReplayedDocuments()
+        if (isReplayingDump)
+            return Collections.emptyIterator();
+
+        // TODO if all records are offered in a single, large JSON response, return extractFromJsonStream() instead
+        // TODO if pages only list record IDs and each record has a detail page, return extractFromDetailPages() instead
+        final PrefetchingPageIterator<${providerClassName}VO> recordIterator = createPageIterator(this::extractPage);
+        this.pageIterator = recordIterator;
+        return countExtractedRecords(recordIterator);
+    }
+
+
+    /**
+     * Retrieves pages of record IDs and requests the detail pages of multiple records
+     * concurrently. The records are returned in the order of their IDs.
+     *
+     * @return an iterator over records that were retrieved from their detail pages
+     */
+    protected Iterator<${providerClassName}VO> extractFromDetailPages()
+    {
+        final PrefetchingPageIterator<String> idIterator = createPageIterator(this::extractIdPage);
+        this.pageIterator = idIterator;
+        this.detailIterator = new OrderedParallelIterator<>(idIterator, this::traceDetailPage, detailBatchSize, useVirtualThreads);
+        return countExtractedRecords(detailIterator);
     }
 
 
     @Override
     public void clear()
     {
-        // TODO close any open streams, if there are none, comment with "// nothing to clean up"
+        if (pageIterator != null)
+            pageIterator.close();
+
+        if (detailIterator != null)
+            detailIterator.close();
+
+        if (jsonStreamIterator != null)
+            jsonStreamIterator.close();
+
+        // the replay iterator is kept, because the loaders may still acknowledge replayed documents
+        if (replayIterator != null) {
+            try {
+                replayIterator.close();
+            } catch (final IOException e) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+        }
+
+        // TODO close any other open streams
     }
 
 
     /**
-     * TODO add a description here
+     * Retrieves a single page of ${providerName} records.
+     * This method is called by a background thread, while previous pages are still
+     * being transformed.
+     *
+     * @param pageIndex the zero-based index of the page
      *
-     * @author ${authorFullName}
+     * @return all records of the page or an empty list, if there are no more pages
      */
-    private class ${providerClassName}Iterator implements Iterator<${providerClassName}VO>
+    private List<${providerClassName}VO> extractPage(final int pageIndex)
     {
-        @Override
-        public boolean hasNext()
-        {
-            // TODO implement and remove exception
-			throw new UnsupportedOperationException();
+        // TODO retrieve the page via getObjectFromUrl(), convert its entries and remove exception
+        // TODO if the page is large, parse it directly from openResponseStream() instead, which supports compression
+        // TODO if the highWaterMark is not null, only retrieve records that changed since then
+        // TODO if pages are linked by cursors, retrieve the page via pageCursors.get(pageIndex)
+        // TODO and add the cursor of the following page via pageCursors.put(pageIndex + 1, nextCursor)
+        throw new UnsupportedOperationException();
+    }
+
+
+    /**
+     * Retrieves a single page of ${providerName} record IDs.
+     * This method is called by a background thread, while previous records are still
+     * being retrieved and transformed.
+     *
+     * @param pageIndex the zero-based index of the page
+     *
+     * @return all record IDs of the page or an empty list, if there are no more pages
+     */
+    private List<String> extractIdPage(final int pageIndex)
+    {
+        // TODO if extractFromDetailPages() is used, retrieve the IDs like records in extractPage(), otherwise remove this method
+        throw new UnsupportedOperationException();
+    }
+
+
+    /**
+     * Retrieves the detail page of a single ${providerName} record.
+     * This method is called by multiple threads at once.
+     *
+     * @param recordId the ID of the record
+     *
+     * @return the record that was retrieved from the detail page
+     */
+    private ${providerClassName}VO extractDetailPage(final String recordId)
+    {
+        // TODO if extractFromDetailPages() is used, retrieve the record via getObjectFromUrl(), otherwise remove this method
+        throw new UnsupportedOperationException();
+    }
+
+
+    /**
+     * Retrieves the detail page of a single ${providerName} record and traces
+     * the retrieval, if tracing is enabled.
+     *
+     * @param recordId the ID of the record
+     *
+     * @return the record that was retrieved from the detail page
+     */
+    private ${providerClassName}VO traceDetailPage(final String recordId)
+    {
+        final long startNanos = tracer.start();
+        final ${providerClassName}VO record = extractDetailPage(recordId);
+        tracer.end(TraceStage.FETCH, startNanos, recordId);
+        return record;
+    }
+
+
+    /**
+     * Creates an iterator that fetches pages in the background, resuming from the
+     * checkpoint of an unfinished harvest if there is one.
+     *
+     * @param pageFetcher a function that retrieves a page by its zero-based index
+     * @param <T> the type of the page elements
+     *
+     * @return an iterator over the elements of all pages
+     */
+    private <T> PrefetchingPageIterator<T> createPageIterator(final IntFunction<Collection<T>> pageFetcher)
+    {
+        final int firstPageIndex = checkpoint == null ? 0 : checkpoint.getNextPageIndex();
+        this.extractedCountOffset = checkpoint == null ? 0 : checkpoint.getExtractedCount();
+
+        pageCursors.clear();
+
+        synchronized (pendingCheckpoints) {
+            pendingCheckpoints.clear();
         }
 
+        if (checkpoint != null && checkpoint.getNextPageCursor() != null)
+            pageCursors.put(firstPageIndex, checkpoint.getNextPageCursor());
+
+        final IntFunction<Collection<T>> tracedPageFetcher = (final int pageIndex) -> {
+            final long startNanos = tracer.start();
+            final Collection<T> page = pageFetcher.apply(pageIndex);
+            tracer.end(TraceStage.FETCH, startNanos, pageIndex);
+            return page;
+        };
+
+        final PrefetchingPageIterator<T> newPageIterator = new PrefetchingPageIterator<>(
+            tracedPageFetcher,
+            prefetchQueueSize,
+            firstPageIndex,
+            memoryBudget,
+            this::estimatePageSize);
+        newPageIterator.setPageCompletionListener(this::onPageCompleted);
+        return newPageIterator;
+    }
+
+
+    /**
+     * Wraps an iterator of extracted records, in order to publish the number
+     * of extracted records as a metric.
+     *
+     * @param records the extracted records
+     *
+     * @return an iterator that counts the extracted records
+     */
+    private Iterator<${providerClassName}VO> countExtractedRecords(final Iterator<${providerClassName}VO> records)
+    {
+        return new CountingIterator<>(records, MetricRegistry.getInstance().getCounter(
+                                          ${providerClassName}MetricConstants.RECORDS_EXTRACTED,
+                                          ${providerClassName}MetricConstants.RECORDS_EXTRACTED_HELP));
+    }
+
 
-        @Override
-        public ${providerClassName}VO next()
-        {
-            // TODO implement and remove exception
-			throw new UnsupportedOperationException();
+    /**
+     * Publishes the sizes of the queues between the extraction threads, and the
+     * number of requests that may currently be sent concurrently, as metrics.
+     *
+     * @param registry the registry of the published metrics
+     */
+    private void registerGauges(final MetricRegistry registry)
+    {
+        registry.registerGauge(
+            ${providerClassName}MetricConstants.PREFETCHED_PAGES,
+            ${providerClassName}MetricConstants.PREFETCHED_PAGES_HELP,
+            () -> pageIterator == null ? 0 : pageIterator.getQueuedPageCount());
+
+        registry.registerGauge(
+            ${providerClassName}MetricConstants.PENDING_DETAIL_PAGES,
+            ${providerClassName}MetricConstants.PENDING_DETAIL_PAGES_HELP,
+            () -> detailIterator == null ? 0 : detailIterator.getPendingElementCount());
+
+        registry.registerGauge(
+            ${providerClassName}MetricConstants.MEMORY_BUDGET_USED,
+            ${providerClassName}MetricConstants.MEMORY_BUDGET_USED_HELP,
+            memoryBudget::getUsedBytes);
+
+        registry.registerGauge(
+            ${providerClassName}MetricConstants.REQUEST_CONCURRENCY_LIMIT,
+            ${providerClassName}MetricConstants.REQUEST_CONCURRENCY_LIMIT_HELP,
+            requestThrottle::getConcurrencyLimit);
+    }
+
+
+    /**
+     * Estimates how many bytes of the memory budget a fetched page occupies
+     * until the transformer retrieves the first record of the next page.
+     *
+     * @param page the elements of a fetched page
+     *
+     * @return the estimated size of the page in bytes
+     */
+    private long estimatePageSize(final Collection<?> page)
+    {
+        // TODO if the size of the response is known, e.g. via the httpResponseCache, return it instead
+        return MemoryBudget.estimateSize(page, gson);
+    }
+
+
+    /**
+     * Loads the checkpoint of an unfinished harvest, if the harvested source
+     * did not change since the checkpoint was saved. Without a version string,
+     * changes of the source cannot be detected, so no checkpoint is loaded.
+     *
+     * @return the checkpoint from which the harvest can be resumed or null,
+     *          if the harvest must start from the beginning
+     */
+    private HarvestCheckpoint loadCheckpoint()
+    {
+        final HarvestCheckpoint savedCheckpoint = checkpointStore.load();
+
+        if (savedCheckpoint == null || version != null && version.equals(savedCheckpoint.getVersionString()))
+            return savedCheckpoint;
+
+        // the source changed or cannot be compared, so the checkpoint is outdated
+        checkpointStore.delete();
+        return null;
+    }
+
+
+    /**
+     * Creates a checkpoint after every n-th page, where n is the checkpoint interval.
+     * This method is called after all records of a page were retrieved. The checkpoint
+     * is only saved once all of these records were loaded, because they may still
+     * be buffered by the transformer and the loaders.
+     *
+     * @param pageIndex the zero-based index of the page that was retrieved
+     */
+    private void onPageCompleted(final int pageIndex)
+    {
+        final int nextPageIndex = pageIndex + 1;
+        pageCursors.remove(pageIndex);
+
+        // without a version string, checkpoints are never loaded
+        if (version == null || checkpointInterval <= 0 || nextPageIndex % checkpointInterval != 0)
+            return;
+
+        final HarvestCheckpoint newCheckpoint = new HarvestCheckpoint(
+            version,
+            nextPageIndex,
+            pageCursors.get(nextPageIndex),
+            extractedCountOffset + pageIterator.getCompletedElementCount());
+
+        synchronized (pendingCheckpoints) {
+            pendingCheckpoints.add(newCheckpoint);
+        }
+    }
+
+
+    /**
+     * Opens the dump that was written by the ${providerClassName}DumpLoader, in order to
+     * pass its documents to the loaders again. If a previous replay was interrupted,
+     * the replay is resumed near the document at which it stopped.
+     *
+     * @param cacheDirectory the directory that contains the dump
+     *
+     * @return an iterator over the documents of the dump
+     */
+    private DumpReplayIterator<DataCiteJson> openDump(final String cacheDirectory)
+    {
+        final Path dumpPath = new File(cacheDirectory, ${providerClassName}CacheConstants.DOCUMENT_DUMP_FILE).toPath();
+        final PersistedValueStore offsetStore = new PersistedValueStore(
+            new File(cacheDirectory, ${providerClassName}CacheConstants.REPLAY_OFFSET_FILE),
+            StandardCharsets.UTF_8);
+
+        try {
+            final DumpReplayIterator<DataCiteJson> newReplayIterator = new DumpReplayIterator<>(
+                dumpPath,
+                offsetStore,
+                (final byte[] record) -> gson.fromJson(new String(record, StandardCharsets.UTF_8), DataCiteJson.class));
+
+            LOGGER.info(String.format(
+                            ${providerClassName}LoggingConstants.REPLAY_STARTED,
+                            newReplayIterator.getFirstRecordIndex(),
+                            newReplayIterator.getRecordCount(),
+                            dumpPath));
+            return newReplayIterator;
+
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+
+    /**
+     * Saves the latest checkpoint that only covers records which were already loaded.
+     * If documents are replayed, the offset of the replay is saved instead.
+     * This method is called whenever the loaders acknowledged the documents of more records.
+     *
+     * @param loadedRecordCount the number of records that were extracted or replayed
+     *         during this harvest, and of which all documents were loaded
+     */
+    public void onRecordsLoaded(final long loadedRecordCount)
+    {
+        if (isReplayingDump) {
+            if (replayIterator != null)
+                replayIterator.onDocumentsLoaded(loadedRecordCount);
+
+            return;
+        }
+
+        synchronized (pendingCheckpoints) {
+            HarvestCheckpoint loadedCheckpoint = null;
+
+            while (!pendingCheckpoints.isEmpty()
+                   && pendingCheckpoints.peek().getExtractedCount() - extractedCountOffset <= loadedRecordCount)
+                loadedCheckpoint = pendingCheckpoints.poll();
+
+            if (loadedCheckpoint != null)
+                checkpointStore.save(loadedCheckpoint);
+        }
+    }
+
+
+    /**
+     * Persists the high-water mark and removes the checkpoint of this harvest, or the offset of a replay.
+     * This method is called after all documents were loaded and acknowledged by the loaders,
+     * so that records of failed harvests are extracted again by the next harvest.
+     */
+    public void onLoadingCompleted()
+    {
+        // replayed documents were not extracted by this harvest
+        if (isReplayingDump) {
+            if (replayIterator != null)
+                replayIterator.onLoadingCompleted();
+
+            return;
+        }
+
+        highWaterMarkStore.commit();
+
+        synchronized (pendingCheckpoints) {
+            pendingCheckpoints.clear();
+            checkpointStore.delete();
+        }
+
+        checkpoint = null;
+    }
+
+
+    /**
+     * Sends an HTTP GET request to ${providerName} via the httpResponseCache and parses the JSON response.
+     * The request is throttled and measured, unchanged responses are read from disk if the
+     * server provides an ETag or a Last-Modified header, and the response can be recorded
+     * and replayed via the ETL parameter 'httpFixtureMode'.
+     *
+     * @param url the URL of the request
+     * @param responseType the type of the parsed response
+     * @param <T> the type of the parsed response
+     *
+     * @throws UncheckedIOException if the response could not be retrieved
+     *
+     * @return the parsed response
+     */
+    protected <T> T getObjectFromUrl(final String url, final Type responseType)
+    {
+        return gson.fromJson(httpResponseCache.getResponse(url), responseType);
+    }
+
+
+    /**
+     * Opens a JSON response of ${providerName} and parses its records one by one
+     * while they are downloaded and decompressed, without reading the whole response into memory.
+     * The request is throttled and measured like all requests of the httpResponseCache,
+     * and its response can be recorded and replayed via the ETL parameter 'httpFixtureMode'.
+     *
+     * @param url the URL of the JSON response
+     * @param arrayPath the names of the JSON object fields that lead to the array of records,
+     *         or nothing if the response itself is the array
+     *
+     * @return an iterator that parses the records of the response
+     */
+    protected Iterator<${providerClassName}VO> extractFromJsonStream(final String url, final String... arrayPath)
+    {
+        try {
+            final InputStreamReader reader = new InputStreamReader(openResponseStream(url), charset);
+            this.jsonStreamIterator = new JsonArrayIterator<>(reader, gson, ${providerClassName}VO.class, arrayPath);
+
+            final String endpoint = HttpMetrics.getEndpoint(url);
+            return countExtractedRecords(
+                       TracingIterator.traceProduction(jsonStreamIterator, TraceStage.PARSE, (final ${providerClassName}VO record) -> endpoint));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
+
+
+    /**
+     * Sends an HTTP GET request to ${providerName} that allows a compressed response,
+     * and returns a stream that decompresses the response body while it is downloaded.
+     * The stream can be passed directly to a JSON or XML parser, and must be closed afterwards.
+     * The request is throttled and measured like all requests of the httpResponseCache,
+     * but the response is never stored.
+     * The response can be recorded and replayed via the ETL parameter 'httpFixtureMode'.
+     *
+     * @param url the URL of the request
+     *
+     * @throws IOException if the request failed or the response is erroneous
+     *
+     * @return a stream of the decompressed response body
+     */
+    protected InputStream openResponseStream(final String url) throws IOException
+    {
+        return httpResponseCache.getResponseStream(url);
+    }
 }
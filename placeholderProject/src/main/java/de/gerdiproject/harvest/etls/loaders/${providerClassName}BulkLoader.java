@@ -0,0 +1,368 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.etls.loaders;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import de.gerdiproject.harvest.etls.AbstractETL;
+import de.gerdiproject.harvest.etls.${providerClassName}ETL;
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}MetricConstants;
+import de.gerdiproject.harvest.${providerPackageName}.metrics.Counter;
+import de.gerdiproject.harvest.${providerPackageName}.metrics.MetricRegistry;
+import de.gerdiproject.harvest.${providerPackageName}.utils.AdaptiveBatchSizer;
+import de.gerdiproject.harvest.${providerPackageName}.utils.MemoryBudget;
+import de.gerdiproject.json.GsonUtils;
+import de.gerdiproject.json.datacite.DataCiteJson;
+
+/**
+ * This loader submits documents in bulk to a search index that supports the
+ * Elasticsearch bulk API. Documents are grouped into batches of an adaptive size:
+ * the size grows while the index responds quickly, and shrinks when the index
+ * responds slowly or rejects documents because it is overloaded.
+ * Documents that were rejected because the index is overloaded, or that were not answered in time,
+ * are submitted again after a delay.
+ * Documents are acknowledged as loaded once their batch was accepted by the index. If the index
+ * fails to store any document of a batch for other reasons, loading fails without acknowledging it.
+ * The size of a batch is reserved in the memory budget of the ETL until the batch is acknowledged,
+ * which slows down the extraction while the index is busy.
+ *
+ * @author ${authorFullName}
+ */
+public class ${providerClassName}BulkLoader implements IAcknowledgingLoader<Iterator<DataCiteJson>>
+{
+    private static final String BULK_ENTRY_FORMAT = "{\"index\":{\"_id\":%s}}\n%s\n";
+    private static final String CONTENT_TYPE_HEADER = "Content-Type";
+    private static final String BULK_CONTENT_TYPE = "application/x-ndjson";
+    private static final String POST_METHOD = "POST";
+    private static final String ERRORS_FIELD = "errors";
+    private static final String ITEMS_FIELD = "items";
+    private static final String STATUS_FIELD = "status";
+    private static final String ERROR_FIELD = "error";
+    private static final String NO_URL_ERROR = "Cannot load documents, because no bulk URL is configured!";
+    private static final String HTTP_ERROR = "Received HTTP status %d from: %s";
+    private static final String REJECTED_ERROR = "%d documents were rejected repeatedly by: %s";
+    private static final String FAILED_ERROR = "%d documents could not be stored by %s, e.g. because of: %s";
+    private static final String INTERRUPTED_ERROR = "Loading was interrupted!";
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int MAX_RETRIES = 5;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final long MIN_BATCH_BYTES = 64L * 1024L;
+    private static final long BYTES_PER_KILOBYTE = 1024L;
+
+    private final Gson gson;
+    private String bulkUrl;
+    private int connectTimeoutMillis;
+    private int readTimeoutMillis;
+    private long retryDelayMillis;
+    private AdaptiveBatchSizer batchSizer;
+    private MemoryBudget memoryBudget;
+    private Counter loadedDocumentCounter;
+    private LongConsumer acknowledger;
+
+
+    /**
+     * Simple constructor.
+     */
+    public ${providerClassName}BulkLoader()
+    {
+        this.gson = GsonUtils.createGerdiDocumentGsonBuilder().create();
+        this.memoryBudget = new MemoryBudget(0);
+        this.retryDelayMillis = RETRY_DELAY_MILLIS;
+    }
+
+
+    /**
+     * Constructor that submits documents without an ETL, which is used by unit tests.
+     *
+     * @param bulkUrl the URL of the bulk API of the search index
+     * @param readTimeoutMillis the maximum duration of waiting for a response, in milliseconds
+     * @param retryDelayMillis the delay before rejected documents are submitted again for the first time
+     * @param acknowledger a function that accepts the number of loaded documents
+     */
+    ${providerClassName}BulkLoader(final String bulkUrl, final int readTimeoutMillis, final long retryDelayMillis, final LongConsumer acknowledger)
+    {
+        this();
+        this.bulkUrl = bulkUrl;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.retryDelayMillis = retryDelayMillis;
+        this.acknowledger = acknowledger;
+        this.batchSizer = new AdaptiveBatchSizer(MIN_BATCH_BYTES, MIN_BATCH_BYTES, 0);
+        this.loadedDocumentCounter = MetricRegistry.getInstance().getCounter(
+                                         ${providerClassName}MetricConstants.RECORDS_LOADED,
+                                         ${providerClassName}MetricConstants.RECORDS_LOADED_HELP);
+    }
+
+
+    @Override
+    public void init(final AbstractETL<?, ?> etl)
+    {
+        final ${providerClassName}ETL specificEtl = (${providerClassName}ETL) etl;
+        this.bulkUrl = specificEtl.getBulkLoaderUrl();
+        this.connectTimeoutMillis = specificEtl.getConnectTimeout();
+        this.readTimeoutMillis = specificEtl.getReadTimeout();
+        this.acknowledger = specificEtl.getLoadProgress()::acknowledge;
+        this.memoryBudget = specificEtl.getMemoryBudget();
+        this.batchSizer = new AdaptiveBatchSizer(
+            MIN_BATCH_BYTES,
+            specificEtl.getMaxBulkSize() * BYTES_PER_KILOBYTE,
+            specificEtl.getBulkTargetLatency());
+
+        final MetricRegistry registry = MetricRegistry.getInstance();
+        this.loadedDocumentCounter = registry.getCounter(
+                                         ${providerClassName}MetricConstants.RECORDS_LOADED,
+                                         ${providerClassName}MetricConstants.RECORDS_LOADED_HELP);
+        registry.registerGauge(
+            ${providerClassName}MetricConstants.BULK_BATCH_SIZE,
+            ${providerClassName}MetricConstants.BULK_BATCH_SIZE_HELP,
+            batchSizer::getBatchBytes);
+    }
+
+
+    @Override
+    public void setAcknowledger(final LongConsumer acknowledger)
+    {
+        this.acknowledger = acknowledger;
+    }
+
+
+    @Override
+    public void load(final Iterator<DataCiteJson> documents) throws LoaderException
+    {
+        if (bulkUrl == null || bulkUrl.isEmpty())
+            throw new LoaderException(NO_URL_ERROR);
+
+        final List<byte[]> batch = new ArrayList<>();
+        long batchBytes = 0;
+
+        try {
+            while (documents.hasNext()) {
+                final byte[] entry = createBulkEntry(documents.next());
+
+                if (!batch.isEmpty() && batchBytes + entry.length > batchSizer.getBatchBytes()) {
+                    submit(batch);
+                    batch.clear();
+                    memoryBudget.releaseReserved(batchBytes);
+                    batchBytes = 0;
+                }
+
+                batch.add(entry);
+                batchBytes += entry.length;
+                memoryBudget.reserve(entry.length);
+            }
+
+            if (!batch.isEmpty())
+                submit(batch);
+
+        } finally {
+            memoryBudget.releaseReserved(batchBytes);
+        }
+    }
+
+
+    @Override
+    public void clear()
+    {
+        // nothing to clean up
+    }
+
+
+    /**
+     * Submits a batch of documents, repeating the submission of rejected documents
+     * after a delay, and acknowledges the documents once they were all stored.
+     *
+     * @param entries the UTF-8 encoded bulk entries of the documents
+     *
+     * @throws LoaderException if the submission failed, documents were rejected too often,
+     *         or the index failed to store some documents
+     */
+    private void submit(final List<byte[]> entries) throws LoaderException
+    {
+        final List<String> failures = new ArrayList<>();
+        List<byte[]> pendingEntries = entries;
+
+        for (int retries = 0; !pendingEntries.isEmpty(); retries++) {
+            if (retries > MAX_RETRIES)
+                throw new LoaderException(String.format(REJECTED_ERROR, pendingEntries.size(), bulkUrl));
+
+            if (retries > 0)
+                waitBeforeRetry(retries);
+
+            try {
+                pendingEntries = post(pendingEntries, failures);
+            } catch (final SocketTimeoutException e) {
+                // the index is overloaded, and storing the same documents again is harmless
+                batchSizer.onRejection();
+            } catch (final IOException e) {
+                throw new LoaderException(e.getMessage());
+            }
+        }
+
+        if (!failures.isEmpty())
+            throw new LoaderException(String.format(FAILED_ERROR, failures.size(), bulkUrl, failures.get(0)));
+
+        acknowledger.accept(entries.size());
+    }
+
+
+    /**
+     * Sends a single bulk request and adapts the batch size to the response.
+     *
+     * @param entries the UTF-8 encoded bulk entries of the documents
+     * @param failures a list to which the errors of documents that could not be stored are added
+     *
+     * @throws IOException if the request failed or the response is erroneous
+     *
+     * @return the entries that were rejected, because the index is overloaded
+     */
+    private List<byte[]> post(final List<byte[]> entries, final List<String> failures) throws IOException
+    {
+        final long startNanos = System.nanoTime();
+        final HttpURLConnection connection = (HttpURLConnection) new URL(bulkUrl).openConnection();
+        connection.setRequestMethod(POST_METHOD);
+        connection.setRequestProperty(CONTENT_TYPE_HEADER, BULK_CONTENT_TYPE);
+        connection.setConnectTimeout(connectTimeoutMillis);
+        connection.setReadTimeout(readTimeoutMillis);
+        connection.setDoOutput(true);
+
+        try
+            (OutputStream requestStream = connection.getOutputStream()) {
+            for (final byte[] entry : entries)
+                requestStream.write(entry);
+        }
+
+        final int statusCode = connection.getResponseCode();
+        final long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        if (statusCode == HTTP_TOO_MANY_REQUESTS || statusCode == HttpURLConnection.HTTP_UNAVAILABLE) {
+            connection.disconnect();
+            batchSizer.onRejection();
+            return entries;
+        }
+
+        if (statusCode != HttpURLConnection.HTTP_OK) {
+            connection.disconnect();
+            throw new IOException(String.format(HTTP_ERROR, statusCode, bulkUrl));
+        }
+
+        final JsonObject response;
+
+        try
+            (Reader responseReader = new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)) {
+            response = gson.fromJson(responseReader, JsonObject.class);
+        }
+
+        final List<byte[]> rejectedEntries = getRejectedEntries(entries, response, failures);
+
+        if (rejectedEntries.isEmpty())
+            batchSizer.onSuccess(latencyMillis);
+        else
+            batchSizer.onRejection();
+
+        return rejectedEntries;
+    }
+
+
+    /**
+     * Determines which documents of a bulk request were rejected, because the index
+     * is overloaded. The errors of documents that failed for other reasons are collected.
+     *
+     * @param entries the bulk entries of the request
+     * @param response the parsed bulk response
+     * @param failures a list to which the errors of documents that could not be stored are added
+     *
+     * @return the entries that are to be submitted again
+     */
+    private List<byte[]> getRejectedEntries(final List<byte[]> entries, final JsonObject response, final List<String> failures)
+    {
+        final JsonElement hasErrors = response.get(ERRORS_FIELD);
+        final JsonArray items = response.getAsJsonArray(ITEMS_FIELD);
+
+        if (hasErrors == null || !hasErrors.getAsBoolean() || items == null) {
+            loadedDocumentCounter.add(entries.size());
+            return new ArrayList<>(0);
+        }
+
+        final List<byte[]> rejectedEntries = new ArrayList<>();
+        int failedCount = 0;
+
+        for (int i = 0; i < items.size() && i < entries.size(); i++) {
+            // each item contains a single field that is named after the bulk action
+            final JsonObject result = items.get(i).getAsJsonObject().entrySet().iterator().next().getValue().getAsJsonObject();
+            final int itemStatus = result.get(STATUS_FIELD).getAsInt();
+
+            if (itemStatus == HTTP_TOO_MANY_REQUESTS)
+                rejectedEntries.add(entries.get(i));
+
+            else if (itemStatus >= HttpURLConnection.HTTP_MULT_CHOICE) {
+                final JsonElement error = result.get(ERROR_FIELD);
+                failures.add(error == null ? String.valueOf(itemStatus) : error.toString());
+                failedCount++;
+            }
+        }
+
+        loadedDocumentCounter.add(entries.size() - rejectedEntries.size() - failedCount);
+        return rejectedEntries;
+    }
+
+
+    /**
+     * Pauses before documents are submitted again. The delay grows with each retry.
+     *
+     * @param retries the number of times the documents were rejected
+     *
+     * @throws LoaderException if the thread was interrupted while waiting
+     */
+    private void waitBeforeRetry(final int retries) throws LoaderException
+    {
+        try {
+            Thread.sleep(retryDelayMillis * retries);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoaderException(INTERRUPTED_ERROR);
+        }
+    }
+
+
+    /**
+     * Creates the lines of a bulk request that index a single document.
+     *
+     * @param document the document that is to be indexed
+     *
+     * @return the UTF-8 encoded bulk action and document, each followed by a line break
+     */
+    private byte[] createBulkEntry(final DataCiteJson document)
+    {
+        return String.format(BULK_ENTRY_FORMAT, gson.toJson(document.getSourceId()), gson.toJson(document))
+               .getBytes(StandardCharsets.UTF_8);
+    }
+}
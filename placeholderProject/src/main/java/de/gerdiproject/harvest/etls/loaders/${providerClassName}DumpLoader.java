@@ -0,0 +1,131 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.etls.loaders;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+import de.gerdiproject.harvest.application.MainContextUtils;
+import de.gerdiproject.harvest.etls.AbstractETL;
+import de.gerdiproject.harvest.etls.${providerClassName}ETL;
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}CacheConstants;
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}LoggingConstants;
+import de.gerdiproject.harvest.${providerPackageName}.dump.DumpIndex;
+import de.gerdiproject.harvest.${providerPackageName}.dump.DumpWriter;
+import de.gerdiproject.harvest.${providerPackageName}.utils.CacheFileUtils;
+import de.gerdiproject.json.GsonUtils;
+import de.gerdiproject.json.datacite.DataCiteJson;
+
+/**
+ * This loader writes documents to a compact binary dump in the cache directory,
+ * from which they can be read again much faster than from JSON files.
+ * The documents are stored as compact JSON in compressed blocks, see {@linkplain DumpWriter}.
+ * The dump is written to a temporary file first and only replaces the previous dump
+ * when all documents were written, which is also when the documents are acknowledged
+ * as loaded. The documents of the dump can be passed to the
+ * loaders again by enabling the ETL parameter 'replayDump'.
+ *
+ * @author ${authorFullName}
+ */
+public class ${providerClassName}DumpLoader implements IAcknowledgingLoader<Iterator<DataCiteJson>>
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(${providerClassName}DumpLoader.class);
+
+    private static final long BYTES_PER_KILOBYTE = 1024L;
+
+    private final Gson gson;
+    private Path dumpPath;
+    private Path replayOffsetPath;
+    private int blockSize;
+    private LongConsumer acknowledger;
+
+
+    /**
+     * Simple constructor.
+     */
+    public ${providerClassName}DumpLoader()
+    {
+        this.gson = GsonUtils.createGerdiDocumentGsonBuilder().create();
+    }
+
+
+    @Override
+    public void init(final AbstractETL<?, ?> etl)
+    {
+        final ${providerClassName}ETL specificEtl = (${providerClassName}ETL) etl;
+        final String cacheDirectory = MainContextUtils.getCacheDirectory(getClass());
+        this.dumpPath = new File(cacheDirectory, ${providerClassName}CacheConstants.DOCUMENT_DUMP_FILE).toPath();
+        this.replayOffsetPath = new File(cacheDirectory, ${providerClassName}CacheConstants.REPLAY_OFFSET_FILE).toPath();
+        this.blockSize = (int) Math.min(
+                             Integer.MAX_VALUE,
+                             specificEtl.getDumpBlockSize() * BYTES_PER_KILOBYTE);
+        this.acknowledger = specificEtl.getLoadProgress()::acknowledge;
+    }
+
+
+    @Override
+    public void setAcknowledger(final LongConsumer acknowledger)
+    {
+        this.acknowledger = acknowledger;
+    }
+
+
+    @Override
+    public void load(final Iterator<DataCiteJson> documents) throws LoaderException
+    {
+        try {
+            final Path tempPath = CacheFileUtils.getTemporaryPath(dumpPath);
+            final long documentCount;
+
+            try
+                (DumpWriter writer = new DumpWriter(tempPath, blockSize)) {
+                while (documents.hasNext())
+                    writer.write(gson.toJson(documents.next()).getBytes(StandardCharsets.UTF_8));
+
+                documentCount = writer.getRecordCount();
+            }
+
+            // readers reject a dump whose size does not match its index while it is being replaced
+            CacheFileUtils.replaceAtomically(DumpIndex.getIndexPath(tempPath), DumpIndex.getIndexPath(dumpPath));
+            CacheFileUtils.replaceAtomically(tempPath, dumpPath);
+
+            // the offset of an interrupted replay does not apply to the new dump
+            CacheFileUtils.delete(replayOffsetPath);
+
+            LOGGER.info(String.format(${providerClassName}LoggingConstants.DOCUMENTS_DUMPED, documentCount, dumpPath));
+            acknowledger.accept(documentCount);
+
+        } catch (final IOException e) {
+            throw new LoaderException(e.getMessage());
+        }
+    }
+
+
+    @Override
+    public void clear()
+    {
+        // nothing to clean up
+    }
+}
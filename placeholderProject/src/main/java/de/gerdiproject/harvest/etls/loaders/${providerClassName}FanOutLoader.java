@@ -0,0 +1,342 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.etls.loaders;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongConsumer;
+import java.util.function.ToLongFunction;
+
+import de.gerdiproject.harvest.etls.AbstractETL;
+import de.gerdiproject.harvest.etls.${providerClassName}ETL;
+import de.gerdiproject.harvest.${providerPackageName}.metrics.Counter;
+import de.gerdiproject.harvest.${providerPackageName}.metrics.CountingIterator;
+import de.gerdiproject.harvest.${providerPackageName}.utils.FanOutDispatcher;
+import de.gerdiproject.harvest.${providerPackageName}.utils.MemoryBudget;
+import de.gerdiproject.json.GsonUtils;
+import de.gerdiproject.json.datacite.DataCiteJson;
+
+/**
+ * This loader passes the documents of a single harvest to multiple loaders,
+ * so that documents can be loaded into several targets without extracting
+ * them from ${providerName} more than once. Each loader runs on its own thread and
+ * reads from its own bounded queue, so a slow loader only delays the others
+ * once its queue is full. The estimated size of queued documents is reserved in the
+ * memory budget of the ETL, which slows down the extraction while the queues are full.
+ * The loaders are configured via the ETL parameter 'fanOutLoaders'.
+ * A document is acknowledged as loaded once all loaders loaded it. Loaders that do not
+ * acknowledge documents themselves have loaded all of their documents when they return.
+ *
+ * @author ${authorFullName}
+ */
+public class ${providerClassName}FanOutLoader implements IAcknowledgingLoader<Iterator<DataCiteJson>>
+{
+    private static final String LOADER_FAILED_ERROR = "A loader failed: %s";
+    private static final String INTERRUPTED_ERROR = "Loading was interrupted!";
+    private static final String UNKNOWN_LOADER_ERROR = "Cannot create the loader '%s': %s";
+    private static final String INVALID_LOADER_ERROR = "The class '%s' is not a loader of DataCite documents!";
+    private static final String LOADER_PACKAGE = ILoader.class.getPackage().getName();
+    private static final String LOADER_SEPARATOR = ",";
+
+    private List<ILoader<Iterator<DataCiteJson>>> loaders;
+    private int queueSize;
+    private MemoryBudget memoryBudget;
+    private LongConsumer acknowledger;
+
+    // the number of documents that were acknowledged by each loader, and by all of them
+    private long[] loaderAcknowledgedCounts;
+    private long acknowledgedCount;
+
+
+    /**
+     * Simple constructor.
+     */
+    public ${providerClassName}FanOutLoader()
+    {
+        this.loaders = Collections.emptyList();
+        this.memoryBudget = new MemoryBudget(0);
+    }
+
+
+    /**
+     * Constructor that creates the loaders without an ETL, which is used by unit tests.
+     * The created loaders are not initialized.
+     *
+     * @param loaderClassNames a comma-separated list of loader class names
+     * @param queueSize the maximum number of documents that are kept for each loader while it is busy
+     *
+     * @throws IllegalArgumentException if a class is not a loader of DataCite documents,
+     *         or could not be instantiated
+     */
+    ${providerClassName}FanOutLoader(final String loaderClassNames, final int queueSize)
+    {
+        this.loaders = createLoaders(loaderClassNames);
+        this.queueSize = queueSize;
+        this.memoryBudget = new MemoryBudget(0);
+    }
+
+
+    @Override
+    public void init(final AbstractETL<?, ?> etl)
+    {
+        final ${providerClassName}ETL specificEtl = (${providerClassName}ETL) etl;
+        this.queueSize = specificEtl.getLoaderQueueSize();
+        this.memoryBudget = specificEtl.getMemoryBudget();
+        this.acknowledger = specificEtl.getLoadProgress()::acknowledge;
+        this.loaders = createLoaders(specificEtl.getFanOutLoaders());
+
+        for (final ILoader<?> loader : loaders)
+            loader.init(etl);
+    }
+
+
+    @Override
+    public void setAcknowledger(final LongConsumer acknowledger)
+    {
+        this.acknowledger = acknowledger;
+    }
+
+
+    @Override
+    public void load(final Iterator<DataCiteJson> documents) throws LoaderException
+    {
+        final List<FanOutDispatcher.Sink<DataCiteJson>> sinks = new ArrayList<>(loaders.size());
+
+        synchronized (this) {
+            this.loaderAcknowledgedCounts = new long[loaders.size()];
+            this.acknowledgedCount = 0;
+        }
+
+        for (int i = 0; i < loaders.size(); i++)
+            sinks.add(createSink(loaders.get(i), i));
+
+        try {
+            final ToLongFunction<DataCiteJson> sizeEstimator =
+                MemoryBudget.createSizeEstimator(GsonUtils.createGerdiDocumentGsonBuilder().create());
+            new FanOutDispatcher<>(queueSize, memoryBudget, sizeEstimator).dispatch(documents, sinks);
+
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof LoaderException)
+                throw (LoaderException) cause;
+
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+
+            throw new LoaderException(String.format(LOADER_FAILED_ERROR, cause));
+
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoaderException(INTERRUPTED_ERROR);
+        }
+    }
+
+
+    @Override
+    public void clear()
+    {
+        for (final ILoader<?> loader : loaders)
+            loader.clear();
+    }
+
+
+    /**
+     * Creates the loaders to which documents are passed.
+     *
+     * @param loaderClassNames a comma-separated list of loader class names, which are
+     *         resolved in the package of the {@linkplain ILoader} if they are not qualified
+     *
+     * @throws IllegalArgumentException if a class is not a loader of DataCite documents,
+     *         or could not be instantiated
+     *
+     * @return the created loaders
+     */
+    private List<ILoader<Iterator<DataCiteJson>>> createLoaders(final String loaderClassNames)
+    {
+        final List<ILoader<Iterator<DataCiteJson>>> createdLoaders = new ArrayList<>();
+
+        for (final String loaderClassName : loaderClassNames.split(LOADER_SEPARATOR)) {
+            final String trimmedName = loaderClassName.trim();
+
+            if (!trimmedName.isEmpty())
+                createdLoaders.add(createLoader(trimmedName.contains(".") ? trimmedName : LOADER_PACKAGE + '.' + trimmedName));
+        }
+
+        return createdLoaders;
+    }
+
+
+    /**
+     * Creates a loader via its no-argument constructor, after verifying that
+     * it loads DataCite documents.
+     *
+     * @param loaderClassName the fully qualified name of the loader class
+     *
+     * @throws IllegalArgumentException if the class is not a loader of DataCite documents,
+     *         or could not be instantiated
+     *
+     * @return the created loader
+     */
+    @SuppressWarnings("unchecked") // the type arguments are verified by isDocumentLoader()
+    private ILoader<Iterator<DataCiteJson>> createLoader(final String loaderClassName)
+    {
+        final Class<?> loaderClass;
+
+        try {
+            loaderClass = Class.forName(loaderClassName);
+        } catch (final ClassNotFoundException e) {
+            throw new IllegalArgumentException(String.format(UNKNOWN_LOADER_ERROR, loaderClassName, e), e);
+        }
+
+        // a fan-out loader that contains itself would never finish
+        if (loaderClass == getClass() || !isDocumentLoader(loaderClass, Collections.emptyMap()))
+            throw new IllegalArgumentException(String.format(INVALID_LOADER_ERROR, loaderClassName));
+
+        try {
+            return (ILoader<Iterator<DataCiteJson>>) loaderClass.getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalArgumentException(String.format(UNKNOWN_LOADER_ERROR, loaderClassName, e), e);
+        }
+    }
+
+
+    /**
+     * Creates a sink that passes documents to a loader and keeps track of the
+     * documents that the loader acknowledged.
+     *
+     * @param loader the loader that receives the documents
+     * @param loaderIndex the index of the loader
+     *
+     * @return a sink that passes documents to the loader
+     */
+    private FanOutDispatcher.Sink<DataCiteJson> createSink(final ILoader<Iterator<DataCiteJson>> loader, final int loaderIndex)
+    {
+        if (loader instanceof IAcknowledgingLoader) {
+            ((IAcknowledgingLoader<?>) loader).setAcknowledger((final long count) -> acknowledge(loaderIndex, count));
+            return loader::load;
+        }
+
+        // loaders that do not acknowledge documents have loaded all of them when they return
+        return (final Iterator<DataCiteJson> loaderDocuments) -> {
+            final Counter receivedCounter = new Counter();
+            loader.load(new CountingIterator<>(loaderDocuments, receivedCounter));
+            acknowledge(loaderIndex, receivedCounter.get());
+        };
+    }
+
+
+    /**
+     * Marks documents as loaded by a single loader, and acknowledges all documents
+     * that were loaded by every loader. The acknowledger is called without holding
+     * the lock, so that slow listeners do not block the other loaders.
+     *
+     * @param loaderIndex the index of the loader
+     * @param count the number of documents that the loader loaded since its last acknowledgement
+     */
+    private void acknowledge(final int loaderIndex, final long count)
+    {
+        final long newlyAcknowledgedCount;
+
+        synchronized (this) {
+            loaderAcknowledgedCounts[loaderIndex] += count;
+
+            long minCount = Long.MAX_VALUE;
+
+            for (final long loaderCount : loaderAcknowledgedCounts)
+                minCount = Math.min(minCount, loaderCount);
+
+            newlyAcknowledgedCount = Math.max(0, minCount - acknowledgedCount);
+            acknowledgedCount += newlyAcknowledgedCount;
+        }
+
+        if (newlyAcknowledgedCount > 0)
+            acknowledger.accept(newlyAcknowledgedCount);
+    }
+
+
+    /**
+     * Checks if a type or one of its supertypes implements an {@linkplain ILoader}
+     * of DataCite document iterators.
+     *
+     * @param type a class or a parameterized type
+     * @param typeArguments the type arguments of the subtype, by which type variables are resolved
+     *
+     * @return true if the type loads iterators of DataCite documents
+     */
+    private static boolean isDocumentLoader(final Type type, final Map<TypeVariable<?>, Type> typeArguments)
+    {
+        final Class<?> rawClass;
+        final Map<TypeVariable<?>, Type> resolvedTypeArguments = new HashMap<>();
+
+        if (type instanceof ParameterizedType) {
+            final ParameterizedType parameterizedType = (ParameterizedType) type;
+            rawClass = (Class<?>) parameterizedType.getRawType();
+
+            final TypeVariable<?>[] typeVariables = rawClass.getTypeParameters();
+            final Type[] actualTypes = parameterizedType.getActualTypeArguments();
+
+            for (int i = 0; i < typeVariables.length; i++)
+                resolvedTypeArguments.put(typeVariables[i], typeArguments.getOrDefault(actualTypes[i], actualTypes[i]));
+
+            if (rawClass == ILoader.class)
+                return isDocumentIterator(actualTypes[0], typeArguments);
+
+        } else if (type instanceof Class)
+            rawClass = (Class<?>) type;
+        else
+            return false;
+
+        for (final Type interfaceType : rawClass.getGenericInterfaces()) {
+            if (isDocumentLoader(interfaceType, resolvedTypeArguments))
+                return true;
+        }
+
+        final Type superType = rawClass.getGenericSuperclass();
+        return superType != null && isDocumentLoader(superType, resolvedTypeArguments);
+    }
+
+
+    /**
+     * Checks if a type is an iterator of DataCite documents.
+     *
+     * @param type the type that is to be checked
+     * @param typeArguments the type arguments by which type variables are resolved
+     *
+     * @return true if the type is Iterator&lt;DataCiteJson&gt;
+     */
+    private static boolean isDocumentIterator(final Type type, final Map<TypeVariable<?>, Type> typeArguments)
+    {
+        final Type resolvedType = typeArguments.getOrDefault(type, type);
+
+        if (!(resolvedType instanceof ParameterizedType))
+            return false;
+
+        final ParameterizedType parameterizedType = (ParameterizedType) resolvedType;
+        final Type elementType = parameterizedType.getActualTypeArguments()[0];
+
+        return parameterizedType.getRawType() == Iterator.class
+               && typeArguments.getOrDefault(elementType, elementType) == DataCiteJson.class;
+    }
+}
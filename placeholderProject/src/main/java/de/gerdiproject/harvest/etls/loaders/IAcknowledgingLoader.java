@@ -0,0 +1,39 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.etls.loaders;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A loader that reports how many of the documents it received were loaded,
+ * such that they cannot be lost anymore. The progress of a harvest, such as
+ * its high-water mark, is only committed once all documents were acknowledged.
+ *
+ * @param <T> the type of the loaded documents
+ *
+ * @author ${authorFullName}
+ */
+public interface IAcknowledgingLoader<T> extends ILoader<T>
+{
+    /**
+     * Sets the function that is called with the number of documents that were loaded
+     * since its last call, in the order in which the documents were received.
+     * By default, the documents are acknowledged to the ETL.
+     *
+     * @param acknowledger a function that accepts the number of loaded documents
+     */
+    void setAcknowledger(LongConsumer acknowledger);
+}
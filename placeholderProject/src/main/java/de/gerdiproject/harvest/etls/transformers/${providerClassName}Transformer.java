@@ -15,8 +15,45 @@
  */
 package de.gerdiproject.harvest.etls.transformers;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+import de.gerdiproject.harvest.application.MainContextUtils;
 import de.gerdiproject.harvest.etls.AbstractETL;
+import de.gerdiproject.harvest.etls.${providerClassName}ETL;
 import de.gerdiproject.harvest.etls.extractors.${providerClassName}VO;
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}CacheConstants;
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}LoggingConstants;
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}MetricConstants;
+import de.gerdiproject.harvest.${providerPackageName}.metrics.Counter;
+import de.gerdiproject.harvest.${providerPackageName}.metrics.CountingIterator;
+import de.gerdiproject.harvest.${providerPackageName}.metrics.MetricRegistry;
+import de.gerdiproject.harvest.${providerPackageName}.tracing.StageTracer;
+import de.gerdiproject.harvest.${providerPackageName}.tracing.TraceStage;
+import de.gerdiproject.harvest.${providerPackageName}.tracing.TracingIterator;
+import de.gerdiproject.harvest.${providerPackageName}.utils.CacheFileUtils;
+import de.gerdiproject.harvest.${providerPackageName}.utils.ChangedElementIterator;
+import de.gerdiproject.harvest.${providerPackageName}.utils.DistinctIterator;
+import de.gerdiproject.harvest.${providerPackageName}.utils.DocumentHashStore;
+import de.gerdiproject.harvest.${providerPackageName}.utils.InstanceCache;
+import de.gerdiproject.harvest.${providerPackageName}.utils.LoadProgressTracker;
+import de.gerdiproject.harvest.${providerPackageName}.utils.OrderedParallelIterator;
+import de.gerdiproject.harvest.${providerPackageName}.utils.SourcePositionQueue;
+import de.gerdiproject.json.GsonUtils;
 import de.gerdiproject.json.datacite.DataCiteJson;
 
 /**
@@ -27,25 +64,265 @@ import de.gerdiproject.json.datacite.DataCiteJson;
  */
 public class ${providerClassName}Transformer extends AbstractIteratorTransformer<${providerClassName}VO, DataCiteJson>
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger(${providerClassName}Transformer.class);
+
+    private final Gson gson;
+    private final StageTracer tracer;
+
+    // the positions of the records that are being transformed, within all extracted records
+    private final SourcePositionQueue sourcePositions;
+
+    // interns strings that recur in many records, such as controlled vocabularies: the parser
+    // has already allocated each string, so this saves no allocation, but all documents share
+    // one instance and the duplicates become garbage before the documents are loaded
+    private final InstanceCache<String, String> vocabularyCache;
+    private int parallelism;
+    private DistinctIterator<${providerClassName}VO> distinctIterator;
+    private volatile long completedDuplicateCount;
+    private OrderedParallelIterator<${providerClassName}VO, DataCiteJson> parallelIterator;
+    private ChangedElementIterator<DataCiteJson> changedDocumentIterator;
+    private LoadProgressTracker loadProgress;
+
+    // true if the documents are read from a dump instead of being transformed
+    private boolean isReplayingDump;
+    private Iterator<DataCiteJson> replayedDocuments;
+
+    // the content hashes of the last harvest, or null if unchanged documents are not skipped
+    private DocumentHashStore documentHashStore;
+
+    // true if the harvest covers all documents, so that missing documents were removed by the provider
+    private boolean isFullHarvest;
+    private Set<String> removedIdentifiers = Collections.emptySet();
+
+
+    /**
+     * Simple constructor.
+     */
+    public ${providerClassName}Transformer()
+    {
+        super();
+        this.gson = GsonUtils.createGerdiDocumentGsonBuilder().create();
+        this.vocabularyCache = new InstanceCache<>(Function.identity());
+        this.tracer = StageTracer.getInstance();
+        this.sourcePositions = new SourcePositionQueue();
+
+        // TODO add InstanceCaches for metadata objects that recur in many records, e.g. new InstanceCache<>(Subject::new)
+    }
+
+
     @Override
     public void init(final AbstractETL<?, ?> etl)
     {
-        // TODO retrieve parameter values from the ETL, if needed
+        final ${providerClassName}ETL specificEtl = (${providerClassName}ETL) etl;
+        this.parallelism = specificEtl.getTransformerParallelism();
+        this.isFullHarvest = !specificEtl.isIncrementalHarvest() && !specificEtl.isResumingHarvest();
+        this.removedIdentifiers = Collections.emptySet();
+        this.isReplayingDump = specificEtl.isReplayingDump();
+        this.replayedDocuments = specificEtl.getReplayedDocuments();
+        this.loadProgress = specificEtl.getLoadProgress();
+
+        // the journal of an earlier harvest that was never completed is discarded
+        if (documentHashStore != null)
+            documentHashStore.close();
+
+        // replayed documents were already compared to their previous versions when they were dumped
+        if (specificEtl.isSkippingUnchangedDocuments() && !isReplayingDump) {
+            this.documentHashStore = new DocumentHashStore(
+                new File(MainContextUtils.getCacheDirectory(getClass()), ${providerClassName}CacheConstants.DOCUMENT_HASH_FILE));
+            documentHashStore.load();
+        } else
+            this.documentHashStore = null;
+
+        // keep the duplicates of earlier harvests, because counters must not decrease
+        this.completedDuplicateCount += getDuplicateCount();
+        this.distinctIterator = null;
+        MetricRegistry.getInstance().registerCounter(
+            ${providerClassName}MetricConstants.DUPLICATE_RECORDS,
+            ${providerClassName}MetricConstants.DUPLICATE_RECORDS_HELP,
+            () -> completedDuplicateCount + getDuplicateCount());
+
+        // TODO retrieve other parameter values from the ETL, if needed
+    }
+
+
+    @Override
+    public Iterator<DataCiteJson> transform(final Iterator<${providerClassName}VO> elements) throws TransformerException
+    {
+        // pass the documents of a previous harvest to the loaders again, instead of transforming records
+        if (isReplayingDump) {
+            final Counter replayedDocumentCounter = new Counter();
+            return instrumentDocuments(
+                       new CountingIterator<>(replayedDocuments, replayedDocumentCounter),
+                       MetricRegistry.getInstance().getCounter(
+                           ${providerClassName}MetricConstants.RECORDS_REPLAYED,
+                           ${providerClassName}MetricConstants.RECORDS_REPLAYED_HELP),
+                       replayedDocumentCounter::get);
+        }
+
+        // skip records that were already transformed, in case the provider lists them more than once
+        this.distinctIterator = new DistinctIterator<>(elements, this::createIdentifier);
+
+        // remember which extracted records were transformed, so that checkpoints are only saved once they were loaded
+        final Iterator<${providerClassName}VO> records = sourcePositions.enter(
+                                                             distinctIterator,
+                                                             () -> distinctIterator.getDistinctCount() + distinctIterator.getDuplicateCount());
+        final Iterator<DataCiteJson> documents;
+
+        if (parallelism <= 1)
+            documents = sourcePositions.exit(super.transform(records));
+        else {
+            this.parallelIterator = new OrderedParallelIterator<>(records, this::transformElement, parallelism);
+            documents = sourcePositions.exit(parallelIterator);
+        }
+
+        final Counter transformedDocumentCounter = MetricRegistry.getInstance().getCounter(
+                                                       ${providerClassName}MetricConstants.RECORDS_TRANSFORMED,
+                                                       ${providerClassName}MetricConstants.RECORDS_TRANSFORMED_HELP);
+
+        if (documentHashStore == null)
+            return instrumentDocuments(documents, transformedDocumentCounter, sourcePositions::getLastPosition);
+
+        // skip documents that did not change since the last harvest
+        this.changedDocumentIterator = new ChangedElementIterator<>(
+            documents,
+            DataCiteJson::getSourceId,
+            gson::toJson,
+            documentHashStore);
+        return instrumentDocuments(changedDocumentIterator, transformedDocumentCounter, sourcePositions::getLastPosition);
     }
 
 
     @Override
     protected DataCiteJson transformElement(final ${providerClassName}VO source)
     {
+        final long startNanos = tracer.start();
+
         // create the document
         final DataCiteJson document = new DataCiteJson(createIdentifier(source));
 
         // TODO add all possible metadata to the document
+        // TODO retrieve recurring values via the InstanceCaches, e.g. document.setLanguage(vocabularyCache.get(source.getLanguage()))
+        // TODO convert dates via DateFormatUtils and create lists with the exact number of elements they will contain
+        // TODO keep this method free of side effects, because it may be called by multiple threads at once
 
+        tracer.end(TraceStage.TRANSFORM, startNanos, document.getSourceId());
         return document;
     }
 
-    
+
+    /**
+     * Returns the number of records that were skipped during the current or last
+     * transformation, because a record with the same identifier was transformed before.
+     *
+     * @return the number of skipped duplicate records
+     */
+    public int getDuplicateCount()
+    {
+        return distinctIterator == null ? 0 : distinctIterator.getDuplicateCount();
+    }
+
+
+    /**
+     * Returns the identifiers of all documents that were harvested before, but were
+     * removed from ${providerName} since then. Removed documents can only be detected
+     * if unchanged documents are skipped, and if the last harvest covered all documents.
+     *
+     * @return the identifiers of removed documents
+     */
+    public Set<String> getRemovedIdentifiers()
+    {
+        return removedIdentifiers;
+    }
+
+
+    /**
+     * Wraps an iterator of transformed documents, in order to publish the number
+     * of documents that are passed to the loaders as a metric, to track which of them
+     * were acknowledged by the loaders, and to trace how long the loaders take to
+     * process each document, if tracing is enabled.
+     *
+     * @param documents the transformed documents
+     * @param counter the metric that counts the documents
+     * @param sourcePosition a function that returns the number of extracted records that were
+     *         transformed, up to and including the record of the last retrieved document
+     *
+     * @return an iterator that counts and traces the transformed documents
+     */
+    private Iterator<DataCiteJson> instrumentDocuments(
+        final Iterator<DataCiteJson> documents,
+        final Counter counter,
+        final LongSupplier sourcePosition)
+    {
+        final Iterator<DataCiteJson> trackedIterator = loadProgress.track(new CountingIterator<>(documents, counter), sourcePosition);
+
+        // the loaders process a document until they request the next one
+        return tracer.isEnabled()
+               ? TracingIterator.traceConsumption(trackedIterator, TraceStage.LOAD, DataCiteJson::getSourceId)
+               : trackedIterator;
+    }
+
+
+    /**
+     * Persists the content hashes of all transformed documents and determines which
+     * documents were removed from ${providerName}. This method is called after all
+     * documents were loaded and acknowledged by the loaders, so that documents of
+     * failed harvests are not skipped as unchanged by the next harvest.
+     */
+    public void onLoadingCompleted()
+    {
+        commitDocumentHashes();
+    }
+
+
+    /**
+     * Persists the content hashes of all transformed documents, if all documents were
+     * transformed, and determines which documents were removed from ${providerName}.
+     */
+    private void commitDocumentHashes()
+    {
+        if (documentHashStore == null || changedDocumentIterator == null || !changedDocumentIterator.isExhausted())
+            return;
+
+        LOGGER.info(String.format(
+                        ${providerClassName}LoggingConstants.UNCHANGED_DOCUMENTS_SKIPPED,
+                        changedDocumentIterator.getUnchangedCount()));
+
+        if (isFullHarvest) {
+            this.removedIdentifiers = documentHashStore.getUnseenIdentifiers();
+
+            if (!removedIdentifiers.isEmpty())
+                LOGGER.info(String.format(${providerClassName}LoggingConstants.DOCUMENTS_REMOVED, removedIdentifiers.size()));
+
+            // TODO remove the documents from your search index, if your loaders do not replace the whole index
+        }
+
+        documentHashStore.commit(isFullHarvest);
+        changedDocumentIterator = null;
+    }
+
+
+    /**
+     * Writes the spans that were traced during the harvest to the cache directory,
+     * in the collapsed stack format of flame graph tools.
+     */
+    private void writeTraces()
+    {
+        final Path traceFile = new File(
+            MainContextUtils.getCacheDirectory(getClass()),
+            ${providerClassName}CacheConstants.TRACE_FILE).toPath();
+
+        try {
+            final StringWriter writer = new StringWriter();
+            tracer.writeCollapsed(writer);
+            CacheFileUtils.writeStringAtomically(traceFile, writer.toString(), StandardCharsets.UTF_8);
+            LOGGER.info(String.format(${providerClassName}LoggingConstants.TRACES_WRITTEN, traceFile));
+
+        } catch (final IOException | UncheckedIOException e) {
+            LOGGER.warn(e.getMessage(), e);
+        }
+    }
+
+
     /**
      * Creates a unique identifier for a document from ${providerClassName}.
      *
@@ -56,13 +333,34 @@ public class ${providerClassName}Transformer extends AbstractIteratorTransformer
     private String createIdentifier(final ${providerClassName}VO source)
     {
         // TODO retrieve a unique identifier from the source and remove exception
-		throw new UnsupportedOperationException();
+        throw new UnsupportedOperationException();
     }
 
 
     @Override
     public void clear()
     {
-        // TODO close any open streams, if there are none, comment with "// nothing to clean up"        
+        if (parallelIterator != null)
+            parallelIterator.close();
+
+        replayedDocuments = null;
+
+        if (distinctIterator != null && distinctIterator.getDuplicateCount() > 0)
+            LOGGER.info(String.format(
+                            ${providerClassName}LoggingConstants.DUPLICATES_DROPPED,
+                            distinctIterator.getDuplicateCount(),
+                            distinctIterator.getDistinctCount()));
+
+        if (loadProgress != null && loadProgress.isSourceExhausted() && !loadProgress.isCompleted())
+            LOGGER.warn(String.format(
+                            ${providerClassName}LoggingConstants.DOCUMENTS_UNACKNOWLEDGED,
+                            loadProgress.getUnacknowledgedCount()));
+
+        if (tracer.isEnabled())
+            writeTraces();
+
+        vocabularyCache.clear();
+
+        // TODO close any other open streams
     }
 }
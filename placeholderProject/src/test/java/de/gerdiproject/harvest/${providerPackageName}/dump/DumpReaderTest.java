@@ -0,0 +1,216 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.dump;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain DumpWriter} and the {@linkplain DumpReader}.
+ *
+ * @author ${authorFullName}
+ */
+public class DumpReaderTest
+{
+    private static final int RECORD_COUNT = 100;
+    private static final int BLOCK_SIZE = 256;
+    private static final String RECORD_FORMAT = "{\"id\":\"record %d äöü\"}";
+
+    private Path dumpPath;
+
+
+    /**
+     * Creates a new dump file location.
+     *
+     * @throws IOException if the temporary directory could not be created
+     */
+    @Before
+    public void before() throws IOException
+    {
+        dumpPath = Files.createTempDirectory(getClass().getSimpleName()).resolve("documents.dump");
+    }
+
+
+    /**
+     * Tests if all records are read in the order in which they were written,
+     * if they span multiple blocks.
+     *
+     * @throws IOException if the dump could not be written or read
+     */
+    @Test
+    public void testRoundTrip() throws IOException
+    {
+        writeRecords(RECORD_COUNT);
+        assertTrue(DumpIndex.load(dumpPath).getBlockCount() > 1);
+
+        try
+            (DumpReader reader = new DumpReader(dumpPath)) {
+            assertEquals(RECORD_COUNT, reader.getRecordCount());
+            assertEquals(createRecords(0, RECORD_COUNT), readRecords(reader));
+        }
+    }
+
+
+    /**
+     * Tests if the iteration can be started from any record, including the
+     * first record of a block and records that are out of bounds.
+     *
+     * @throws IOException if the dump could not be written or read
+     */
+    @Test
+    public void testStartFromRecord() throws IOException
+    {
+        writeRecords(RECORD_COUNT);
+        final DumpIndex index = DumpIndex.load(dumpPath);
+        final int secondBlockStart = (int) index.getFirstRecordIndex(1);
+
+        for (final int firstRecord : new int[] {secondBlockStart, secondBlockStart + 1, RECORD_COUNT - 1}) {
+            try
+                (DumpReader reader = new DumpReader(dumpPath, firstRecord)) {
+                assertEquals(firstRecord, reader.getNextRecordIndex());
+                assertEquals(createRecords(firstRecord, RECORD_COUNT), readRecords(reader));
+                assertEquals(RECORD_COUNT, reader.getNextRecordIndex());
+            }
+        }
+
+        try
+            (DumpReader reader = new DumpReader(dumpPath, RECORD_COUNT + 1)) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+
+    /**
+     * Tests if all records are read if the dump is mapped in segments that are
+     * smaller than a block, or that contain only some of the blocks.
+     *
+     * @throws IOException if the dump could not be written or read
+     */
+    @Test
+    public void testMappedSegments() throws IOException
+    {
+        writeRecords(RECORD_COUNT);
+
+        for (final int segmentSize : new int[] {1, BLOCK_SIZE * 2}) {
+            try
+                (DumpReader reader = new DumpReader(dumpPath, 0, segmentSize)) {
+                assertEquals(createRecords(0, RECORD_COUNT), readRecords(reader));
+            }
+        }
+    }
+
+
+    /**
+     * Tests if a dump without records can be read.
+     *
+     * @throws IOException if the dump could not be written or read
+     */
+    @Test
+    public void testEmptyDump() throws IOException
+    {
+        writeRecords(0);
+
+        try
+            (DumpReader reader = new DumpReader(dumpPath)) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+
+    /**
+     * Tests if a dump that was not written completely is rejected.
+     *
+     * @throws IOException if the dump does not match its index
+     */
+    @Test(expected = IOException.class)
+    public void testIncompleteDump() throws IOException
+    {
+        writeRecords(RECORD_COUNT);
+
+        try
+            (RandomAccessFile dumpFile = new RandomAccessFile(dumpPath.toFile(), "rw")) {
+            dumpFile.setLength(dumpFile.length() - 1);
+        }
+
+        new DumpReader(dumpPath).close();
+    }
+
+
+    /**
+     * Writes test records to the dump.
+     *
+     * @param recordCount the number of records
+     *
+     * @throws IOException if the dump could not be written
+     */
+    private void writeRecords(final int recordCount) throws IOException
+    {
+        try
+            (DumpWriter writer = new DumpWriter(dumpPath, BLOCK_SIZE)) {
+            for (final String record : createRecords(0, recordCount))
+                writer.write(record.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+
+    /**
+     * Reads all remaining records of a dump.
+     *
+     * @param reader the reader of the dump
+     *
+     * @return the remaining records
+     */
+    private static List<String> readRecords(final DumpReader reader)
+    {
+        final List<String> records = new ArrayList<>();
+
+        while (reader.hasNext())
+            records.add(new String(reader.next(), StandardCharsets.UTF_8));
+
+        return records;
+    }
+
+
+    /**
+     * Creates a range of test records.
+     *
+     * @param fromIndex the index of the first record
+     * @param toIndex the index after the last record
+     *
+     * @return the test records
+     */
+    private static List<String> createRecords(final int fromIndex, final int toIndex)
+    {
+        final List<String> records = new ArrayList<>();
+
+        for (int i = fromIndex; i < toIndex; i++)
+            records.add(String.format(RECORD_FORMAT, i));
+
+        return records;
+    }
+}
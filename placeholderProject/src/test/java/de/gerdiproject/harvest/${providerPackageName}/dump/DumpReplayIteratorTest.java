@@ -0,0 +1,191 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.dump;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.gerdiproject.harvest.${providerPackageName}.utils.PersistedValueStore;
+
+/**
+ * This class provides Unit Tests for the {@linkplain DumpReplayIterator}.
+ *
+ * @author ${authorFullName}
+ */
+public class DumpReplayIteratorTest
+{
+    private static final int RECORD_COUNT = 100;
+    private static final int BLOCK_SIZE = 64;
+
+    private Path dumpPath;
+    private PersistedValueStore offsetStore;
+
+
+    /**
+     * Writes a dump of numbered records.
+     *
+     * @throws IOException if the dump could not be written
+     */
+    @Before
+    public void before() throws IOException
+    {
+        final Path directory = Files.createTempDirectory(getClass().getSimpleName());
+        dumpPath = directory.resolve("documents.dump");
+        offsetStore = new PersistedValueStore(new File(directory.toFile(), "replayOffset.txt"), StandardCharsets.UTF_8);
+
+        try
+            (DumpWriter writer = new DumpWriter(dumpPath, BLOCK_SIZE)) {
+            for (int i = 0; i < RECORD_COUNT; i++)
+                writer.write(Integer.toString(i).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+
+    /**
+     * Tests if an interrupted replay is resumed at the first document that was
+     * not acknowledged by the loaders, without replaying the whole dump again.
+     *
+     * @throws IOException if the dump could not be read
+     */
+    @Test
+    public void testResume() throws IOException
+    {
+        final int interruptedRecord = RECORD_COUNT / 2;
+        final int loadedRecordCount = interruptedRecord - 10;
+
+        try
+            (DumpReplayIterator<Integer> replay = createReplay()) {
+            for (int i = 0; i < interruptedRecord; i++)
+                replay.next();
+
+            replay.onDocumentsLoaded(loadedRecordCount);
+        }
+
+        final List<Integer> resumedRecords = new ArrayList<>();
+
+        try
+            (DumpReplayIterator<Integer> replay = createReplay()) {
+            assertEquals(loadedRecordCount, replay.getFirstRecordIndex());
+            replay.forEachRemaining(resumedRecords::add);
+        }
+
+        assertEquals(loadedRecordCount, (int) resumedRecords.get(0));
+        assertEquals(RECORD_COUNT - loadedRecordCount, resumedRecords.size());
+        assertEquals(RECORD_COUNT - 1, (int) resumedRecords.get(resumedRecords.size() - 1));
+    }
+
+
+    /**
+     * Tests if the acknowledged documents of a resumed replay are added to the offset
+     * at which the replay was resumed.
+     *
+     * @throws IOException if the dump could not be read
+     */
+    @Test
+    public void testResumeTwice() throws IOException
+    {
+        try
+            (DumpReplayIterator<Integer> replay = createReplay()) {
+            replay.onDocumentsLoaded(30);
+        }
+
+        try
+            (DumpReplayIterator<Integer> replay = createReplay()) {
+            replay.onDocumentsLoaded(20);
+        }
+
+        try
+            (DumpReplayIterator<Integer> replay = createReplay()) {
+            assertEquals(50, replay.getFirstRecordIndex());
+            assertEquals(50, (int) replay.next());
+        }
+    }
+
+
+    /**
+     * Tests if the saved offset is kept when all documents were replayed,
+     * but not yet acknowledged by the loaders.
+     *
+     * @throws IOException if the dump could not be read
+     */
+    @Test
+    public void testUnacknowledgedReplay() throws IOException
+    {
+        try
+            (DumpReplayIterator<Integer> replay = createReplay()) {
+            replay.onDocumentsLoaded(RECORD_COUNT / 2);
+            replay.forEachRemaining((final Integer record) -> {});
+            assertFalse(replay.hasNext());
+        }
+
+        assertEquals(Integer.toString(RECORD_COUNT / 2), offsetStore.load());
+    }
+
+
+    /**
+     * Tests if the saved offset is removed when all replayed documents were acknowledged,
+     * so that the next replay starts from the first document.
+     *
+     * @throws IOException if the dump could not be read
+     */
+    @Test
+    public void testCompletedReplay() throws IOException
+    {
+        try
+            (DumpReplayIterator<Integer> replay = createReplay()) {
+            replay.forEachRemaining((final Integer record) -> {});
+            replay.onDocumentsLoaded(RECORD_COUNT);
+            replay.onLoadingCompleted();
+            replay.onDocumentsLoaded(RECORD_COUNT);
+        }
+
+        assertNull(offsetStore.load());
+
+        try
+            (DumpReplayIterator<Integer> replay = createReplay()) {
+            assertEquals(0, replay.getFirstRecordIndex());
+            assertEquals(0, (int) replay.next());
+        }
+    }
+
+
+    /**
+     * Creates a replay of the test dump that parses the numbered records.
+     *
+     * @return a replay of the test dump
+     *
+     * @throws IOException if the dump could not be read
+     */
+    private DumpReplayIterator<Integer> createReplay() throws IOException
+    {
+        return new DumpReplayIterator<>(
+                   dumpPath,
+                   offsetStore,
+                   (final byte[] record) -> Integer.valueOf(new String(record, StandardCharsets.UTF_8)));
+    }
+}
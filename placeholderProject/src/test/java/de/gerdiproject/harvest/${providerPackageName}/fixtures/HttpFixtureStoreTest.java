@@ -0,0 +1,258 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.fixtures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import de.gerdiproject.harvest.${providerPackageName}.utils.ContentEncodingUtils;
+
+/**
+ * This class provides Unit Tests for the {@linkplain HttpFixtureStore}.
+ *
+ * @author ${authorFullName}
+ */
+public class HttpFixtureStoreTest
+{
+    private static final String BODY = "{\"records\": []}";
+    private static final String COMPRESSED_PATH = "/compressed";
+    private static final String UNCHANGED_PATH = "/unchanged";
+    private static final String SLOW_PATH = "/slow";
+    private static final long SLOW_RESPONSE_MILLIS = 100;
+    private static final int FULL_LATENCY = 100;
+
+    private final AtomicInteger receivedRequestCount = new AtomicInteger();
+    private HttpServer server;
+    private File fixtureFolder;
+
+
+    /**
+     * Starts a local HTTP server.
+     *
+     * @throws IOException if the server or the fixture folder could not be created
+     */
+    @Before
+    public void before() throws IOException
+    {
+        fixtureFolder = new File(Files.createTempDirectory(getClass().getSimpleName()).toFile(), "fixtures");
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::respond);
+        server.start();
+    }
+
+
+    /**
+     * Stops the local HTTP server.
+     */
+    @After
+    public void after()
+    {
+        server.stop(0);
+    }
+
+
+    /**
+     * Tests if a compressed response is replayed with its headers and its
+     * compressed body, without sending another request.
+     *
+     * @throws IOException if the response could not be recorded or replayed
+     */
+    @Test
+    public void testRecordAndReplay() throws IOException
+    {
+        final String url = getUrl(COMPRESSED_PATH);
+        final String recordedBody = readBody(new HttpFixtureStore(fixtureFolder, HttpFixtureMode.RECORD, 0).openConnection(url));
+
+        final HttpURLConnection replayedConnection = new HttpFixtureStore(fixtureFolder, HttpFixtureMode.REPLAY, 0).openConnection(url);
+
+        assertEquals(BODY, recordedBody);
+        assertEquals(HttpURLConnection.HTTP_OK, replayedConnection.getResponseCode());
+        assertEquals("gzip", replayedConnection.getHeaderField("Content-Encoding"));
+        assertEquals(BODY, readBody(replayedConnection));
+        assertEquals(1, receivedRequestCount.get());
+    }
+
+
+    /**
+     * Tests if the whole body is recorded, even if the body stream is closed
+     * before it was read completely.
+     *
+     * @throws IOException if the response could not be recorded or replayed
+     */
+    @Test
+    public void testUnreadBody() throws IOException
+    {
+        final String url = getUrl("/page/1");
+        final HttpURLConnection recordingConnection = new HttpFixtureStore(fixtureFolder, HttpFixtureMode.RECORD, 0).openConnection(url);
+        recordingConnection.getInputStream().close();
+
+        final HttpURLConnection replayedConnection = new HttpFixtureStore(fixtureFolder, HttpFixtureMode.REPLAY, 0).openConnection(url);
+        assertEquals(BODY, readBody(replayedConnection));
+    }
+
+
+    /**
+     * Tests if a response without a body is recorded when the connection is closed.
+     *
+     * @throws IOException if the response could not be recorded or replayed
+     */
+    @Test
+    public void testBodilessResponse() throws IOException
+    {
+        final String url = getUrl(UNCHANGED_PATH);
+        final HttpURLConnection recordingConnection = new HttpFixtureStore(fixtureFolder, HttpFixtureMode.RECORD, 0).openConnection(url);
+        assertEquals(HttpURLConnection.HTTP_NOT_MODIFIED, recordingConnection.getResponseCode());
+        recordingConnection.disconnect();
+
+        final HttpURLConnection replayedConnection = new HttpFixtureStore(fixtureFolder, HttpFixtureMode.REPLAY, 0).openConnection(url);
+        assertEquals(HttpURLConnection.HTTP_NOT_MODIFIED, replayedConnection.getResponseCode());
+    }
+
+
+    /**
+     * Tests if replaying a response that was never recorded fails.
+     *
+     * @throws IOException if no response was recorded
+     */
+    @Test(expected = FileNotFoundException.class)
+    public void testMissingFixture() throws IOException
+    {
+        new HttpFixtureStore(fixtureFolder, HttpFixtureMode.REPLAY, 0).openConnection(getUrl("/page/1")).getResponseCode();
+    }
+
+
+    /**
+     * Tests if a replayed response is delayed by the time it took to receive
+     * the recorded response.
+     *
+     * @throws IOException if the response could not be recorded or replayed
+     */
+    @Test
+    public void testLatency() throws IOException
+    {
+        final String url = getUrl(SLOW_PATH);
+        readBody(new HttpFixtureStore(fixtureFolder, HttpFixtureMode.RECORD, 0).openConnection(url));
+
+        final long startNanos = System.nanoTime();
+        new HttpFixtureStore(fixtureFolder, HttpFixtureMode.REPLAY, FULL_LATENCY).openConnection(url).getResponseCode();
+        final long replayMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        assertTrue(replayMillis >= SLOW_RESPONSE_MILLIS);
+    }
+
+
+    /**
+     * Reads the whole response body of a connection and decompresses it.
+     *
+     * @param connection the connection of which the body is read
+     *
+     * @throws IOException if the body could not be read
+     *
+     * @return the decompressed body
+     */
+    private static String readBody(final HttpURLConnection connection) throws IOException
+    {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[BODY.length()];
+
+        try
+            (InputStream bodyStream = ContentEncodingUtils.decode(connection.getInputStream(), connection.getHeaderField("Content-Encoding"))) {
+            for (int readBytes = bodyStream.read(buffer); readBytes != -1; readBytes = bodyStream.read(buffer))
+                body.write(buffer, 0, readBytes);
+        }
+
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Responds to a request with an unchanging body. Requests of the compressed path
+     * are answered with a gzip-encoded body, requests of the slow path are answered
+     * after a delay, and requests of the unchanged path are answered without a body.
+     *
+     * @param exchange the request and response
+     *
+     * @throws IOException if the response could not be sent
+     */
+    private void respond(final HttpExchange exchange) throws IOException
+    {
+        receivedRequestCount.incrementAndGet();
+        final String path = exchange.getRequestURI().getPath();
+
+        if (path.equals(UNCHANGED_PATH)) {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+            exchange.close();
+            return;
+        }
+
+        if (path.equals(SLOW_PATH)) {
+            try {
+                Thread.sleep(SLOW_RESPONSE_MILLIS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        final boolean isCompressed = path.equals(COMPRESSED_PATH);
+
+        if (isCompressed)
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+
+        try
+            (OutputStream responseStream = isCompressed
+                                           ? new GZIPOutputStream(exchange.getResponseBody())
+                                           : exchange.getResponseBody()) {
+            responseStream.write(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+
+    /**
+     * Returns a URL of the local HTTP server.
+     *
+     * @param path the path of the URL
+     *
+     * @return a URL of the local HTTP server
+     */
+    private String getUrl(final String path)
+    {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain MetricRegistry}.
+ *
+ * @author ${authorFullName}
+ */
+public class MetricRegistryTest
+{
+    private static final String METRIC_NAME = "test_metric";
+    private static final String METRIC_HELP = "A test metric.";
+    private static final String LABEL_NAME = "endpoint";
+
+
+    /**
+     * Tests if a counter is created once and then reused for the same name.
+     */
+    @Test
+    public void testCounterReuse()
+    {
+        final MetricRegistry registry = new MetricRegistry();
+        final Counter counter = registry.getCounter(METRIC_NAME, METRIC_HELP);
+        counter.add(3);
+
+        assertSame(counter, registry.getCounter(METRIC_NAME, METRIC_HELP));
+        assertEquals(3, registry.getCounter(METRIC_NAME, METRIC_HELP).get());
+    }
+
+
+    /**
+     * Tests if retrieving a metric with the name of a metric of another type fails.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testTypeConflict()
+    {
+        final MetricRegistry registry = new MetricRegistry();
+        registry.getCounter(METRIC_NAME, METRIC_HELP);
+        registry.registerGauge(METRIC_NAME, METRIC_HELP, () -> 1);
+    }
+
+
+    /**
+     * Tests if counters and gauges are written in the Prometheus text exposition format.
+     *
+     * @throws IOException thrown if the metrics could not be written
+     */
+    @Test
+    public void testWriteCounterAndGauge() throws IOException
+    {
+        final MetricRegistry registry = new MetricRegistry();
+        registry.getCounter(METRIC_NAME, METRIC_HELP, LABEL_NAME, "a").increment();
+        registry.registerGauge("test_gauge", METRIC_HELP, () -> 0.5);
+
+        final String text = write(registry);
+
+        assertTrue(text.contains("# TYPE test_metric counter\n"));
+        assertTrue(text.contains("test_metric{endpoint=\"a\"} 1\n"));
+        assertTrue(text.contains("# TYPE test_gauge gauge\n"));
+        assertTrue(text.contains("test_gauge 0.5\n"));
+    }
+
+
+    /**
+     * Tests if counters whose values are retrieved from a function are written as counters.
+     *
+     * @throws IOException thrown if the metrics could not be written
+     */
+    @Test
+    public void testWriteRegisteredCounter() throws IOException
+    {
+        final MetricRegistry registry = new MetricRegistry();
+        registry.registerCounter(METRIC_NAME, METRIC_HELP, () -> 2);
+
+        final String text = write(registry);
+
+        assertTrue(text.contains("# TYPE test_metric counter\n"));
+        assertTrue(text.contains("test_metric 2\n"));
+    }
+
+
+    /**
+     * Tests if histograms are written with cumulative bucket counts.
+     *
+     * @throws IOException thrown if the metrics could not be written
+     */
+    @Test
+    public void testWriteHistogram() throws IOException
+    {
+        final MetricRegistry registry = new MetricRegistry();
+        final Histogram histogram = registry.getHistogram(METRIC_NAME, METRIC_HELP, new double[] {1, 2}, LABEL_NAME, "a");
+        histogram.observe(0.5);
+        histogram.observe(1.5);
+        histogram.observe(5);
+
+        final String text = write(registry);
+
+        assertTrue(text.contains("test_metric_bucket{endpoint=\"a\",le=\"1\"} 1\n"));
+        assertTrue(text.contains("test_metric_bucket{endpoint=\"a\",le=\"2\"} 2\n"));
+        assertTrue(text.contains("test_metric_bucket{endpoint=\"a\",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("test_metric_count{endpoint=\"a\"} 3\n"));
+        assertTrue(text.contains("test_metric_sum{endpoint=\"a\"} 7\n"));
+    }
+
+
+    /**
+     * Writes all metrics of a registry to a string.
+     *
+     * @param registry the registry of which the metrics are written
+     *
+     * @return the metrics in the Prometheus text exposition format
+     *
+     * @throws IOException thrown if the metrics could not be written
+     */
+    private static String write(final MetricRegistry registry) throws IOException
+    {
+        final StringWriter writer = new StringWriter();
+        registry.write(writer);
+        return writer.toString();
+    }
+}
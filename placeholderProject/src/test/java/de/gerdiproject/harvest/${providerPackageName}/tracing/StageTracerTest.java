@@ -0,0 +1,92 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.tracing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain StageTracer}.
+ *
+ * @author ${authorFullName}
+ */
+public class StageTracerTest
+{
+    private static final int CAPACITY = 4;
+
+
+    /**
+     * Tests if no spans are recorded while tracing is disabled.
+     */
+    @Test
+    public void testDisabled()
+    {
+        final StageTracer tracer = new StageTracer(CAPACITY);
+        final long startNanos = tracer.start();
+        tracer.end(TraceStage.FETCH, startNanos, "a");
+
+        assertEquals(StageTracer.NOT_SAMPLED, startNanos);
+        assertTrue(tracer.getSpans().isEmpty());
+    }
+
+
+    /**
+     * Tests if the oldest spans are overwritten when the ring buffer is full.
+     */
+    @Test
+    public void testRingBuffer()
+    {
+        final StageTracer tracer = new StageTracer(CAPACITY);
+        tracer.reset(1);
+
+        for (int i = 0; i < CAPACITY + 2; i++)
+            tracer.end(TraceStage.TRANSFORM, tracer.start(), i);
+
+        final List<Span> spans = tracer.getSpans();
+        assertEquals(CAPACITY, spans.size());
+        assertTrue(spans.stream().noneMatch((final Span s) -> s.getLabel().equals("0") || s.getLabel().equals("1")));
+    }
+
+
+    /**
+     * Tests if spans with the same stage and label are summed up in the collapsed stack format.
+     *
+     * @throws IOException thrown if the spans could not be written
+     */
+    @Test
+    public void testWriteCollapsed() throws IOException
+    {
+        final StageTracer tracer = new StageTracer(CAPACITY);
+        tracer.reset(1);
+        tracer.end(TraceStage.FETCH, tracer.start(), "page 1");
+        tracer.end(TraceStage.FETCH, tracer.start(), "page 1");
+        tracer.end(TraceStage.LOAD, tracer.start(), "a;b");
+
+        final StringWriter writer = new StringWriter();
+        tracer.writeCollapsed(writer);
+        final String[] lines = writer.toString().split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].matches("fetch;page_1 \\d+"));
+        assertTrue(lines[1].matches("load;a_b \\d+"));
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain AdaptiveBatchSizer}.
+ *
+ * @author ${authorFullName}
+ */
+public class AdaptiveBatchSizerTest
+{
+    private static final long MIN_BYTES = 1000;
+    private static final long MAX_BYTES = 11000;
+    private static final long TARGET_LATENCY = 100;
+
+
+    /**
+     * Tests if the batch size grows while the sink responds fast, up to the maximum size.
+     */
+    @Test
+    public void testIncrease()
+    {
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(MIN_BYTES, MAX_BYTES, TARGET_LATENCY);
+        assertEquals(MIN_BYTES, sizer.getBatchBytes());
+
+        sizer.onSuccess(TARGET_LATENCY);
+        assertEquals(MIN_BYTES + 1000, sizer.getBatchBytes());
+
+        for (int i = 0; i < 20; i++)
+            sizer.onSuccess(0);
+
+        assertEquals(MAX_BYTES, sizer.getBatchBytes());
+    }
+
+
+    /**
+     * Tests if the batch size is halved after slow responses and rejections,
+     * down to the minimum size.
+     */
+    @Test
+    public void testDecrease()
+    {
+        final AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(MIN_BYTES, MAX_BYTES, TARGET_LATENCY);
+
+        for (int i = 0; i < 10; i++)
+            sizer.onSuccess(0);
+
+        sizer.onSuccess(TARGET_LATENCY + 1);
+        assertEquals(MAX_BYTES / 2, sizer.getBatchBytes());
+
+        sizer.onRejection();
+        assertEquals(MAX_BYTES / 4, sizer.getBatchBytes());
+
+        for (int i = 0; i < 10; i++)
+            sizer.onRejection();
+
+        assertEquals(MIN_BYTES, sizer.getBatchBytes());
+    }
+}
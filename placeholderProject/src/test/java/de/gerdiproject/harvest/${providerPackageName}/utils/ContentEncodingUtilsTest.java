@@ -0,0 +1,159 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ContentEncodingUtils}.
+ *
+ * @author ${authorFullName}
+ */
+public class ContentEncodingUtilsTest
+{
+    private static final String BODY = "{\"records\": [{\"id\": 1}, {\"id\": 2}, {\"id\": 3}]}";
+
+
+    /**
+     * Tests if a gzip-encoded body is decompressed.
+     *
+     * @throws IOException thrown if the body could not be encoded or decoded
+     */
+    @Test
+    public void testGzip() throws IOException
+    {
+        final ByteArrayOutputStream encodedBody = new ByteArrayOutputStream();
+
+        try
+            (OutputStream encodingStream = new GZIPOutputStream(encodedBody)) {
+            encodingStream.write(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(BODY, decode(encodedBody.toByteArray(), "gzip"));
+    }
+
+
+    /**
+     * Tests if a deflate-encoded body in the zlib format is decompressed.
+     *
+     * @throws IOException thrown if the body could not be encoded or decoded
+     */
+    @Test
+    public void testZlibDeflate() throws IOException
+    {
+        assertEquals(BODY, decode(deflate(false), "deflate"));
+    }
+
+
+    /**
+     * Tests if a deflate-encoded body without zlib header is decompressed.
+     *
+     * @throws IOException thrown if the body could not be encoded or decoded
+     */
+    @Test
+    public void testRawDeflate() throws IOException
+    {
+        assertEquals(BODY, decode(deflate(true), "Deflate"));
+    }
+
+
+    /**
+     * Tests if an uncompressed body is returned unchanged.
+     *
+     * @throws IOException thrown if the body could not be decoded
+     */
+    @Test
+    public void testIdentity() throws IOException
+    {
+        assertEquals(BODY, decode(BODY.getBytes(StandardCharsets.UTF_8), null));
+    }
+
+
+    /**
+     * Tests if an unsupported encoding causes an exception.
+     *
+     * @throws IOException thrown because the encoding is not supported
+     */
+    @Test(expected = IOException.class)
+    public void testUnsupportedEncoding() throws IOException
+    {
+        decode(BODY.getBytes(StandardCharsets.UTF_8), "br");
+    }
+
+
+    /**
+     * Compresses the test body with the deflate algorithm.
+     *
+     * @param isRaw if true, the zlib header and checksum are omitted
+     *
+     * @throws IOException thrown if the body could not be compressed
+     *
+     * @return the compressed body
+     */
+    private static byte[] deflate(final boolean isRaw) throws IOException
+    {
+        final ByteArrayOutputStream encodedBody = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, isRaw);
+
+        try
+            (OutputStream encodingStream = new DeflaterOutputStream(encodedBody, deflater)) {
+            encodingStream.write(BODY.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            deflater.end();
+        }
+
+        return encodedBody.toByteArray();
+    }
+
+
+    /**
+     * Decodes a body and converts it to a string.
+     *
+     * @param encodedBody the encoded body
+     * @param contentEncoding the encoding of the body
+     *
+     * @throws IOException thrown if the body could not be decoded
+     *
+     * @return the decoded body
+     */
+    private static String decode(final byte[] encodedBody, final String contentEncoding) throws IOException
+    {
+        final ByteArrayOutputStream decodedBody = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[256];
+
+        try
+            (InputStream decodingStream = ContentEncodingUtils.decode(new ByteArrayInputStream(encodedBody), contentEncoding)) {
+            int readBytes;
+
+            while ((readBytes = decodingStream.read(buffer)) != -1)
+                decodedBody.write(buffer, 0, readBytes);
+        }
+
+        return new String(decodedBody.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain DateFormatUtils}.
+ *
+ * @author ${authorFullName}
+ */
+public class DateFormatUtilsTest
+{
+    /**
+     * Tests if dates are converted to the ISO-8601 format.
+     */
+    @Test
+    public void testIsoDate()
+    {
+        assertEquals("2018-03-07", DateFormatUtils.toIsoDate("07.03.2018", "dd.MM.yyyy"));
+        assertEquals("2018-03-07", DateFormatUtils.toIsoDate("Mar 7, 2018", "MMM d, yyyy"));
+    }
+
+
+    /**
+     * Tests if the year of a date is retrieved.
+     */
+    @Test
+    public void testYear()
+    {
+        assertEquals(Integer.valueOf(2018), DateFormatUtils.toYear("07.03.2018", "dd.MM.yyyy"));
+        assertEquals(Integer.valueOf(1999), DateFormatUtils.toYear("1999", "yyyy"));
+    }
+
+
+    /**
+     * Tests if dates that are missing or do not match the pattern are converted to null.
+     */
+    @Test
+    public void testInvalidDates()
+    {
+        assertNull(DateFormatUtils.toIsoDate(null, "dd.MM.yyyy"));
+        assertNull(DateFormatUtils.toIsoDate("2018-03-07", "dd.MM.yyyy"));
+        assertNull(DateFormatUtils.toYear("unknown", "yyyy"));
+    }
+
+
+    /**
+     * Tests if each pattern is compiled only once.
+     */
+    @Test
+    public void testSharedFormatters()
+    {
+        assertSame(DateFormatUtils.getFormatter("dd.MM.yyyy"), DateFormatUtils.getFormatter("dd.MM.yyyy"));
+    }
+}
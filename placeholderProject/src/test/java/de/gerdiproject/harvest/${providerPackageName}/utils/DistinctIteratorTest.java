@@ -0,0 +1,77 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain DistinctIterator}.
+ *
+ * @author ${authorFullName}
+ */
+public class DistinctIteratorTest
+{
+    private static final int LARGE_ELEMENT_COUNT = 100000;
+
+
+    /**
+     * Tests if duplicate elements are skipped and counted, while the order
+     * of the remaining elements is retained.
+     */
+    @Test
+    public void testDuplicates()
+    {
+        final List<String> elements = Arrays.asList("a", "b", "a", "c", "b", "a", "");
+        final DistinctIterator<String> iter = new DistinctIterator<>(elements.iterator(), (final String s) -> s);
+
+        final List<String> distinctElements = new ArrayList<>();
+        iter.forEachRemaining(distinctElements::add);
+
+        assertEquals(Arrays.asList("a", "b", "c", ""), distinctElements);
+        assertEquals(3, iter.getDuplicateCount());
+        assertEquals(4, iter.getDistinctCount());
+    }
+
+
+    /**
+     * Tests if no distinct elements are lost when the underlying set grows.
+     */
+    @Test
+    public void testManyElements()
+    {
+        final List<Integer> elements = IntStream.range(0, LARGE_ELEMENT_COUNT).boxed().collect(Collectors.toList());
+        elements.addAll(elements.subList(0, LARGE_ELEMENT_COUNT / 2));
+
+        final DistinctIterator<Integer> iter = new DistinctIterator<>(elements.iterator(), String::valueOf);
+        int count = 0;
+
+        while (iter.hasNext()) {
+            iter.next();
+            count++;
+        }
+
+        assertEquals(LARGE_ELEMENT_COUNT, count);
+        assertEquals(LARGE_ELEMENT_COUNT / 2, iter.getDuplicateCount());
+    }
+}
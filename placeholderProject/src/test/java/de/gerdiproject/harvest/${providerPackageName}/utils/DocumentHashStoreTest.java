@@ -0,0 +1,148 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain DocumentHashStore}.
+ *
+ * @author ${authorFullName}
+ */
+public class DocumentHashStoreTest
+{
+    private static final String FIRST_ID = "first";
+    private static final String SECOND_ID = "zweites Dokument äöü";
+    private static final int MANY_DOCUMENTS = 10000;
+
+    private File storeFile;
+
+
+    /**
+     * Creates a new store file location.
+     *
+     * @throws IOException if the temporary directory could not be created
+     */
+    @Before
+    public void before() throws IOException
+    {
+        storeFile = new File(Files.createTempDirectory(getClass().getSimpleName()).toFile(), "hashes.bin");
+    }
+
+
+    /**
+     * Tests if documents are only reported as changed if their hash differs
+     * from the one of the last committed harvest.
+     */
+    @Test
+    public void testChangedDocuments()
+    {
+        final DocumentHashStore firstHarvest = new DocumentHashStore(storeFile);
+        firstHarvest.load();
+        assertTrue(firstHarvest.update(FIRST_ID, 1L));
+        assertTrue(firstHarvest.update(SECOND_ID, 2L));
+        firstHarvest.commit(true);
+
+        final DocumentHashStore secondHarvest = new DocumentHashStore(storeFile);
+        secondHarvest.load();
+        assertFalse(secondHarvest.update(FIRST_ID, 1L));
+        assertTrue(secondHarvest.update(SECOND_ID, 3L));
+    }
+
+
+    /**
+     * Tests if documents that are missing in a harvest are reported and
+     * only removed from the store if requested.
+     */
+    @Test
+    public void testUnseenDocuments()
+    {
+        final DocumentHashStore store = new DocumentHashStore(storeFile);
+        store.load();
+        store.update(FIRST_ID, 1L);
+        store.update(SECOND_ID, 2L);
+        store.commit(true);
+
+        store.load();
+        store.update(FIRST_ID, 1L);
+        assertEquals(Collections.singleton(SECOND_ID), store.getUnseenIdentifiers());
+        store.commit(false);
+
+        store.load();
+        store.update(FIRST_ID, 1L);
+        assertEquals(Collections.singleton(SECOND_ID), store.getUnseenIdentifiers());
+        store.commit(true);
+
+        store.load();
+        assertEquals(Collections.singleton(FIRST_ID), store.getUnseenIdentifiers());
+    }
+
+
+    /**
+     * Tests if the hashes of many documents can be looked up after they were committed.
+     */
+    @Test
+    public void testManyDocuments()
+    {
+        final DocumentHashStore store = new DocumentHashStore(storeFile);
+        store.load();
+
+        for (int i = 0; i < MANY_DOCUMENTS; i++)
+            store.update(String.valueOf(i), i);
+
+        store.commit(true);
+        store.load();
+
+        int changedCount = 0;
+
+        for (int i = 0; i < MANY_DOCUMENTS; i++) {
+            if (store.update(String.valueOf(i), i % 2 == 0 ? i : -i))
+                changedCount++;
+        }
+
+        assertEquals(MANY_DOCUMENTS / 2, changedCount);
+        assertTrue(store.getUnseenIdentifiers().isEmpty());
+    }
+
+
+    /**
+     * Tests if a file that was not written by the store is ignored,
+     * causing all documents to be treated as new.
+     *
+     * @throws IOException if the file could not be written
+     */
+    @Test
+    public void testIncompatibleFile() throws IOException
+    {
+        Files.write(storeFile.toPath(), new byte[] {0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 1});
+
+        final DocumentHashStore store = new DocumentHashStore(storeFile);
+        store.load();
+
+        assertTrue(store.update(FIRST_ID, 1L));
+        assertTrue(store.getUnseenIdentifiers().isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ExecutorUtils}.
+ *
+ * @author ${authorFullName}
+ */
+public class ExecutorUtilsTest
+{
+    private static final String THREAD_NAME = "TestThread";
+
+
+    /**
+     * Tests if tasks of platform thread executors run on named daemon threads.
+     *
+     * @throws ExecutionException thrown if the task fails
+     * @throws InterruptedException thrown if the test is interrupted
+     */
+    @Test
+    public void testPlatformThreads() throws InterruptedException, ExecutionException
+    {
+        final ExecutorService executor = ExecutorUtils.createExecutor(1, THREAD_NAME, false);
+
+        try {
+            final Thread taskThread = executor.submit(Thread::currentThread).get();
+            assertEquals(THREAD_NAME, taskThread.getName());
+            assertTrue(taskThread.isDaemon());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Tests if tasks of virtual thread executors are executed, regardless of
+     * whether the Java runtime supports virtual threads.
+     *
+     * @throws ExecutionException thrown if the task fails
+     * @throws InterruptedException thrown if the test is interrupted
+     */
+    @Test
+    public void testVirtualThreads() throws InterruptedException, ExecutionException
+    {
+        final ExecutorService executor = ExecutorUtils.createExecutor(1, THREAD_NAME, true);
+
+        try {
+            final Thread taskThread = executor.submit(Thread::currentThread).get();
+            assertTrue(taskThread.isDaemon());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
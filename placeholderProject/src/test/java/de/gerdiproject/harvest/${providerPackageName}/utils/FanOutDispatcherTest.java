@@ -0,0 +1,209 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain FanOutDispatcher}.
+ *
+ * @author ${authorFullName}
+ */
+public class FanOutDispatcherTest
+{
+    private static final List<Integer> ELEMENTS = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8);
+    private static final long WAIT_SECONDS = 5;
+
+
+    /**
+     * Tests if every sink receives all elements in their original order.
+     *
+     * @throws Exception thrown if the dispatching failed
+     */
+    @Test
+    public void testAllSinksReceiveAllElements() throws Exception
+    {
+        final List<Integer> firstSinkElements = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> secondSinkElements = Collections.synchronizedList(new ArrayList<>());
+
+        new FanOutDispatcher<Integer>(2).dispatch(
+            ELEMENTS.iterator(),
+            Arrays.asList(
+                (final Iterator<Integer> elements) -> elements.forEachRemaining(firstSinkElements::add),
+                (final Iterator<Integer> elements) -> elements.forEachRemaining(secondSinkElements::add)));
+
+        assertEquals(ELEMENTS, firstSinkElements);
+        assertEquals(ELEMENTS, secondSinkElements);
+    }
+
+
+    /**
+     * Tests if the size of queued elements is reserved until the sink took them,
+     * and if elements that the sink left in its queue are released as well.
+     *
+     * @throws Exception thrown if the dispatching failed
+     */
+    @Test
+    public void testMemoryBudget() throws Exception
+    {
+        final MemoryBudget budget = new MemoryBudget(0);
+        final List<Long> usedBytes = Collections.synchronizedList(new ArrayList<>());
+
+        new FanOutDispatcher<Integer>(ELEMENTS.size(), budget, (final Integer element) -> 1L).dispatch(
+            ELEMENTS.iterator(),
+            Collections.singletonList((final Iterator<Integer> elements) -> {
+                // wait until all elements were queued, then stop after the first one
+                final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(WAIT_SECONDS);
+
+                while (budget.getUsedBytes() < ELEMENTS.size() && System.currentTimeMillis() < deadline)
+                    Thread.sleep(10);
+
+                usedBytes.add(budget.getUsedBytes());
+                elements.next();
+                usedBytes.add(budget.getUsedBytes());
+            }));
+
+        assertEquals(Arrays.asList((long) ELEMENTS.size(), (long) ELEMENTS.size() - 1), usedBytes);
+        assertEquals(0, budget.getUsedBytes());
+    }
+
+
+    /**
+     * Tests if a fast sink receives all elements while a slow sink is still busy,
+     * as long as the queue of the slow sink is not full.
+     *
+     * @throws Exception thrown if the dispatching failed
+     */
+    @Test
+    public void testSlowSinkDoesNotStallFastSink() throws Exception
+    {
+        final CountDownLatch fastSinkFinished = new CountDownLatch(1);
+        final List<Integer> slowSinkElements = new ArrayList<>();
+
+        new FanOutDispatcher<Integer>(ELEMENTS.size()).dispatch(
+            ELEMENTS.iterator(),
+            Arrays.asList(
+                (final Iterator<Integer> elements) -> {
+                    elements.forEachRemaining((final Integer e) -> { });
+                    fastSinkFinished.countDown();
+                },
+                (final Iterator<Integer> elements) -> {
+                    // only start consuming once the fast sink has received all elements
+                    assertTrue(fastSinkFinished.await(WAIT_SECONDS, TimeUnit.SECONDS));
+                    elements.forEachRemaining(slowSinkElements::add);
+                }));
+
+        assertEquals(ELEMENTS, slowSinkElements);
+    }
+
+
+    /**
+     * Tests if no more elements are read from the source after a sink failed,
+     * if the other sinks are cancelled, and if the exception is passed on.
+     *
+     * @throws InterruptedException thrown if the test was interrupted
+     */
+    @Test
+    public void testFailingSink() throws InterruptedException
+    {
+        final AtomicInteger readCount = new AtomicInteger();
+        final Iterator<Integer> sourceIterator = new CountingIterator(ELEMENTS.iterator(), readCount);
+        final CountDownLatch intactSinkStarted = new CountDownLatch(1);
+        final CountDownLatch intactSinkCancelled = new CountDownLatch(1);
+        final IllegalStateException sinkError = new IllegalStateException();
+
+        try {
+            new FanOutDispatcher<Integer>(1).dispatch(
+                sourceIterator,
+                Arrays.asList(
+                    (final Iterator<Integer> elements) -> {
+                        // a sink that is cancelled before it started is never interrupted
+                        intactSinkStarted.await();
+                        throw sinkError;
+                    },
+                    (final Iterator<Integer> elements) -> {
+                        intactSinkStarted.countDown();
+
+                        // never consume, so that the dispatcher waits for the queue of this sink
+                        try {
+                            new CountDownLatch(1).await();
+                        } catch (final InterruptedException e) {
+                            intactSinkCancelled.countDown();
+                            throw e;
+                        }
+                    }));
+
+            fail();
+        } catch (final ExecutionException e) {
+            assertEquals(sinkError, e.getCause());
+        }
+
+        assertTrue(intactSinkCancelled.await(WAIT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(readCount.get() < ELEMENTS.size());
+    }
+
+
+    /**
+     * An iterator that counts the elements that were retrieved from another iterator.
+     */
+    private static class CountingIterator implements Iterator<Integer>
+    {
+        private final Iterator<Integer> sourceIterator;
+        private final AtomicInteger readCount;
+
+
+        /**
+         * Constructor.
+         *
+         * @param sourceIterator the iterator of which the retrieved elements are counted
+         * @param readCount the number of retrieved elements
+         */
+        CountingIterator(final Iterator<Integer> sourceIterator, final AtomicInteger readCount)
+        {
+            this.sourceIterator = sourceIterator;
+            this.readCount = readCount;
+        }
+
+
+        @Override
+        public boolean hasNext()
+        {
+            return sourceIterator.hasNext();
+        }
+
+
+        @Override
+        public Integer next()
+        {
+            readCount.incrementAndGet();
+            return sourceIterator.next();
+        }
+    }
+}
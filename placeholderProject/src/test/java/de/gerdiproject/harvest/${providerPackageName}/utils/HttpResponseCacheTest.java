@@ -0,0 +1,322 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * This class provides Unit Tests for the {@linkplain HttpResponseCache}.
+ *
+ * @author ${authorFullName}
+ */
+public class HttpResponseCacheTest
+{
+    private static final String BODY = "{\"records\": []}";
+    private static final String ETAG = "\"v1\"";
+    private static final long CACHE_SIZE = 1024;
+    private static final String COMPRESSED_PATH = "/compressed";
+    private static final String OVERLOADED_PATH = "/overloaded";
+    private static final String SLOW_PATH = "/slow";
+    private static final int READ_TIMEOUT = 200;
+    private static final long TEST_TIMEOUT = 10000;
+
+    private final AtomicInteger sentBodyCount = new AtomicInteger();
+    private final AtomicInteger sentCompressedBodyCount = new AtomicInteger();
+    private final AtomicInteger overloadedPathRequestCount = new AtomicInteger();
+    private final AtomicInteger slowPathRequestCount = new AtomicInteger();
+    private HttpServer server;
+    private File cacheDirectory;
+
+
+    /**
+     * Starts a local HTTP server that supports ETags.
+     *
+     * @throws IOException if the server or the cache directory could not be created
+     */
+    @Before
+    public void before() throws IOException
+    {
+        cacheDirectory = Files.createTempDirectory(getClass().getSimpleName()).toFile();
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::respond);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+
+    /**
+     * Stops the local HTTP server.
+     */
+    @After
+    public void after()
+    {
+        server.stop(0);
+    }
+
+
+    /**
+     * Tests if a response that did not change is read from disk by a new cache
+     * instance, as it would be in a subsequent harvest.
+     */
+    @Test
+    public void testUnchangedResponse()
+    {
+        final String url = getUrl("/page/1");
+
+        final String firstBody = new HttpResponseCache(cacheDirectory, CACHE_SIZE, StandardCharsets.UTF_8).getResponse(url);
+        final String secondBody = new HttpResponseCache(cacheDirectory, CACHE_SIZE, StandardCharsets.UTF_8).getResponse(url);
+
+        assertEquals(BODY, firstBody);
+        assertEquals(BODY, secondBody);
+        assertEquals(1, sentBodyCount.get());
+    }
+
+
+    /**
+     * Tests if the least recently used response is removed when the cache size is exceeded.
+     */
+    @Test
+    public void testEviction()
+    {
+        final HttpResponseCache cache = new HttpResponseCache(cacheDirectory, BODY.length() * 2, StandardCharsets.UTF_8);
+
+        cache.getResponse(getUrl("/page/1"));
+        cache.getResponse(getUrl("/page/2"));
+        cache.getResponse(getUrl("/page/1"));
+        cache.getResponse(getUrl("/page/3"));
+        assertEquals(3, sentBodyCount.get());
+
+        // page 1 was used more recently than page 2, so only page 2 was removed
+        cache.getResponse(getUrl("/page/1"));
+        assertEquals(3, sentBodyCount.get());
+
+        cache.getResponse(getUrl("/page/2"));
+        assertEquals(4, sentBodyCount.get());
+    }
+
+
+    /**
+     * Tests if a response is requested with compression and decompressed.
+     */
+    @Test
+    public void testCompressedResponse()
+    {
+        final HttpResponseCache cache = new HttpResponseCache(cacheDirectory, CACHE_SIZE, StandardCharsets.UTF_8);
+
+        assertEquals(BODY, cache.getResponse(getUrl(COMPRESSED_PATH)));
+        assertEquals(1, sentCompressedBodyCount.get());
+    }
+
+
+    /**
+     * Tests if no response is stored if the maximum cache size is zero.
+     */
+    @Test
+    public void testDisabledCache()
+    {
+        final HttpResponseCache cache = new HttpResponseCache(cacheDirectory, 0, StandardCharsets.UTF_8);
+
+        cache.getResponse(getUrl("/page/1"));
+        cache.getResponse(getUrl("/page/1"));
+
+        assertEquals(2, sentBodyCount.get());
+    }
+
+
+    /**
+     * Tests if a request is repeated after the server reported to be overloaded,
+     * even if requests are not throttled.
+     */
+    @Test(timeout = TEST_TIMEOUT)
+    public void testOverloadedServer()
+    {
+        final HttpResponseCache cache = new HttpResponseCache(cacheDirectory, CACHE_SIZE, StandardCharsets.UTF_8);
+
+        assertEquals(BODY, cache.getResponse(getUrl(OVERLOADED_PATH)));
+        assertEquals(2, overloadedPathRequestCount.get());
+        assertEquals(1, sentBodyCount.get());
+    }
+
+
+    /**
+     * Tests if a request that times out is repeated, and if the timeout reduces
+     * the number of concurrent requests like an overloaded response does.
+     */
+    @Test(timeout = TEST_TIMEOUT)
+    public void testTimedOutRequest()
+    {
+        final HttpResponseCache cache = new HttpResponseCache(cacheDirectory, CACHE_SIZE, StandardCharsets.UTF_8);
+        final RequestThrottle throttle = new RequestThrottle(0, 4, TEST_TIMEOUT);
+        cache.setThrottle(throttle);
+        cache.setTimeouts(READ_TIMEOUT, READ_TIMEOUT);
+
+        // fast responses raise the concurrency limit to its maximum
+        for (int i = 0; throttle.getConcurrencyLimit() < 4; i++)
+            cache.getResponse(getUrl("/page/" + i));
+
+        assertEquals(BODY, cache.getResponse(getUrl(SLOW_PATH)));
+        assertEquals(2, slowPathRequestCount.get());
+        assertEquals(2, throttle.getConcurrencyLimit());
+    }
+
+
+    /**
+     * Tests if a request that fails before it is sent still frees its slot of the throttle,
+     * so that following requests are not blocked.
+     */
+    @Test(timeout = TEST_TIMEOUT)
+    public void testThrottleAfterFailedConnection()
+    {
+        final HttpResponseCache cache = new HttpResponseCache(cacheDirectory, CACHE_SIZE, StandardCharsets.UTF_8);
+        cache.setThrottle(new RequestThrottle(0, 1, 0));
+
+        try {
+            cache.getResponse("invalid URL");
+            fail();
+        } catch (final UncheckedIOException e) {
+            assertEquals(MalformedURLException.class, e.getCause().getClass());
+        }
+
+        assertEquals(BODY, cache.getResponse(getUrl("/page/1")));
+    }
+
+
+    /**
+     * Tests if a streamed response is decompressed, and if it frees its slot of the throttle
+     * when it is closed, so that following requests are not blocked.
+     *
+     * @throws IOException if the response could not be read
+     */
+    @Test(timeout = TEST_TIMEOUT)
+    public void testStreamedResponse() throws IOException
+    {
+        final HttpResponseCache cache = new HttpResponseCache(cacheDirectory, CACHE_SIZE, StandardCharsets.UTF_8);
+        cache.setThrottle(new RequestThrottle(0, 1, 0));
+
+        final ByteArrayOutputStream streamedBody = new ByteArrayOutputStream();
+
+        try
+            (InputStream responseStream = cache.getResponseStream(getUrl(COMPRESSED_PATH))) {
+            final byte[] buffer = new byte[BODY.length()];
+            int readBytes;
+
+            while ((readBytes = responseStream.read(buffer)) != -1)
+                streamedBody.write(buffer, 0, readBytes);
+        }
+
+        assertEquals(BODY, new String(streamedBody.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(1, sentCompressedBodyCount.get());
+        assertEquals(BODY, cache.getResponse(getUrl("/page/1")));
+    }
+
+
+    /**
+     * Responds to a request with an unchanging body and ETag.
+     * Requests of the compressed path are answered with a gzip-encoded body, if the
+     * request allows it. The first request of the overloaded path is answered with
+     * status 429. The first request of the slow path is answered after the read timeout.
+     *
+     * @param exchange the request and response
+     *
+     * @throws IOException if the response could not be sent
+     */
+    private void respond(final HttpExchange exchange) throws IOException
+    {
+        if (exchange.getRequestURI().getPath().equals(OVERLOADED_PATH) && overloadedPathRequestCount.getAndIncrement() == 0) {
+            exchange.getResponseHeaders().add("Retry-After", "0");
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+            return;
+        }
+
+        if (exchange.getRequestURI().getPath().equals(SLOW_PATH) && slowPathRequestCount.getAndIncrement() == 0) {
+            try {
+                Thread.sleep(READ_TIMEOUT * 2);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            exchange.close();
+            return;
+        }
+
+        exchange.getResponseHeaders().add("ETag", ETAG);
+
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        sentBodyCount.incrementAndGet();
+
+        final byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+        final String acceptedEncodings = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        final boolean isCompressed = exchange.getRequestURI().getPath().equals(COMPRESSED_PATH)
+                                     && acceptedEncodings != null
+                                     && acceptedEncodings.contains("gzip");
+
+        if (isCompressed) {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            sentCompressedBodyCount.incrementAndGet();
+        }
+
+        exchange.sendResponseHeaders(200, 0);
+
+        try
+            (OutputStream responseStream = isCompressed
+                                           ? new GZIPOutputStream(exchange.getResponseBody())
+                                           : exchange.getResponseBody()) {
+            responseStream.write(body);
+        }
+    }
+
+
+    /**
+     * Returns a URL of the local HTTP server.
+     *
+     * @param path the path of the URL
+     *
+     * @return a URL of the local HTTP server
+     */
+    private String getUrl(final String path)
+    {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain InstanceCache}.
+ *
+ * @author ${authorFullName}
+ */
+public class InstanceCacheTest
+{
+    /**
+     * Tests if equal values are mapped to the same instance.
+     */
+    @Test
+    public void testSharedInstances()
+    {
+        final InstanceCache<String, StringBuilder> cache = new InstanceCache<>(StringBuilder::new);
+
+        assertSame(cache.get("a"), cache.get(new String("a")));
+        assertNotSame(cache.get("a"), cache.get("b"));
+        assertNull(cache.get(null));
+        assertEquals(2, cache.size());
+    }
+
+
+    /**
+     * Tests if no more instances are cached once the maximum size is reached.
+     */
+    @Test
+    public void testMaxSize()
+    {
+        final InstanceCache<String, StringBuilder> cache = new InstanceCache<>(StringBuilder::new, 1);
+
+        assertSame(cache.get("a"), cache.get("a"));
+        assertNotSame(cache.get("b"), cache.get("b"));
+        assertEquals(1, cache.size());
+    }
+}
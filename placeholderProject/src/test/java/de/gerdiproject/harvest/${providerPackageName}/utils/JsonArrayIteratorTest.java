@@ -0,0 +1,93 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+/**
+ * This class provides Unit Tests for the {@linkplain JsonArrayIterator}.
+ *
+ * @author ${authorFullName}
+ */
+public class JsonArrayIteratorTest
+{
+    private static final String NESTED_JSON = "{\"total\": 3, \"meta\": {\"a\": [0]}, \"data\": {\"records\": [1, 2, 3], \"next\": null}}";
+    private static final String ROOT_ARRAY_JSON = "[4, 5]";
+
+    private final Gson gson = new Gson();
+
+
+    /**
+     * Tests if the elements of a nested array are iterated, while other
+     * fields are skipped.
+     */
+    @Test
+    public void testNestedArray()
+    {
+        assertEquals(Arrays.asList(1, 2, 3), iterate(NESTED_JSON, "data", "records"));
+    }
+
+
+    /**
+     * Tests if the elements of an array that is the root of the JSON document are iterated.
+     */
+    @Test
+    public void testRootArray()
+    {
+        assertEquals(Arrays.asList(4, 5), iterate(ROOT_ARRAY_JSON));
+    }
+
+
+    /**
+     * Tests if an exception is thrown when the path to the array does not exist.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void testMissingArray()
+    {
+        iterate(NESTED_JSON, "missing");
+    }
+
+
+    /**
+     * Iterates all elements of a JSON array and collects them in a list.
+     *
+     * @param json the JSON document that contains the array
+     * @param arrayPath the names of the fields that lead to the array
+     *
+     * @return a list of all array elements
+     */
+    private List<Integer> iterate(final String json, final String... arrayPath)
+    {
+        final List<Integer> elements = new ArrayList<>();
+
+        try
+            (JsonArrayIterator<Integer> iter = new JsonArrayIterator<>(new StringReader(json), gson, Integer.class, arrayPath)) {
+            iter.forEachRemaining(elements::add);
+        }
+
+        return elements;
+    }
+}
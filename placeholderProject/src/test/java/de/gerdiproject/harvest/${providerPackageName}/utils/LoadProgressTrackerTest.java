@@ -0,0 +1,210 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+/**
+ * This class provides Unit Tests for the {@linkplain LoadProgressTracker}.
+ *
+ * @author ${authorFullName}
+ */
+public class LoadProgressTrackerTest
+{
+    private final AtomicInteger completionCount = new AtomicInteger();
+    private final List<Long> loadedSourcePositions = new ArrayList<>();
+    private LoadProgressTracker tracker;
+
+
+    /**
+     * Creates a tracker that counts how often it completes.
+     */
+    @Before
+    public void before()
+    {
+        tracker = new LoadProgressTracker();
+        tracker.setCompletionListener(completionCount::incrementAndGet);
+        tracker.setProgressListener(loadedSourcePositions::add);
+    }
+
+
+    /**
+     * Tests if a harvest is only completed once all documents were passed to the
+     * loaders and acknowledged.
+     */
+    @Test
+    public void testCompletion()
+    {
+        final Iterator<String> documents = tracker.track(Arrays.asList("a", "b", "c").iterator(), () -> 0);
+
+        documents.next();
+        documents.next();
+        tracker.acknowledge(2);
+        assertFalse(tracker.isCompleted());
+
+        documents.next();
+        assertFalse(documents.hasNext());
+        assertFalse(tracker.isCompleted());
+        assertEquals(1, tracker.getUnacknowledgedCount());
+
+        tracker.acknowledge(1);
+        assertTrue(tracker.isCompleted());
+        assertEquals(1, completionCount.get());
+    }
+
+
+    /**
+     * Tests if the progress listener is notified of the positions of the extracted records
+     * of which all documents were acknowledged.
+     */
+    @Test
+    public void testProgress()
+    {
+        final Iterator<Long> sourcePositions = Arrays.asList(2L, 3L, 5L).iterator();
+        final Iterator<String> documents = tracker.track(Arrays.asList("a", "b", "c").iterator(), sourcePositions::next);
+        documents.forEachRemaining((final String document) -> { });
+
+        tracker.acknowledge(1);
+        tracker.acknowledge(0);
+        tracker.acknowledge(2);
+
+        assertEquals(Arrays.asList(2L, 5L), loadedSourcePositions);
+    }
+
+
+    /**
+     * Tests if the progress listener is called without locking the tracker, so that
+     * other threads can pass documents to the loaders while the listener is busy.
+     */
+    @Test(timeout = 10000)
+    public void testUnlockedProgressListener()
+    {
+        final AtomicBoolean isTrackerAccessible = new AtomicBoolean();
+        tracker.setProgressListener((final long loadedRecordCount) -> {
+            final Thread otherThread = new Thread(() -> isTrackerAccessible.set(tracker.getUnacknowledgedCount() == 0));
+            otherThread.start();
+
+            try {
+                otherThread.join(1000);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        final Iterator<String> documents = tracker.track(Collections.singletonList("a").iterator(), () -> 1);
+        documents.next();
+        tracker.acknowledge(1);
+
+        assertTrue(isTrackerAccessible.get());
+    }
+
+
+    /**
+     * Tests if a harvest that was not acknowledged completely is never completed.
+     */
+    @Test
+    public void testUnacknowledgedDocuments()
+    {
+        final Iterator<String> documents = tracker.track(Arrays.asList("a", "b").iterator(), () -> 0);
+        documents.forEachRemaining((final String document) -> tracker.acknowledge(0));
+
+        assertTrue(tracker.isSourceExhausted());
+        assertFalse(tracker.isCompleted());
+        assertEquals(0, completionCount.get());
+    }
+
+
+    /**
+     * Tests if the high-water mark and a checkpoint are committed, if the documents
+     * are loaded by a loader that does not acknowledge them, once the loader returned.
+     *
+     * @throws IOException if the temporary store files could not be created
+     */
+    @Test
+    public void testNonAcknowledgingLoader() throws IOException
+    {
+        final File directory = Files.createTempDirectory(getClass().getSimpleName()).toFile();
+        final HighWaterMarkStore highWaterMarkStore = new HighWaterMarkStore(new File(directory, "highWaterMark.txt"), StandardCharsets.UTF_8);
+        final CheckpointStore checkpointStore = new CheckpointStore(new File(directory, "checkpoint.json"), new Gson(), StandardCharsets.UTF_8);
+
+        // wired like the ETL, which saves checkpoints while loading and commits the mark afterwards
+        tracker.setProgressListener((final long loadedRecordCount) ->
+                                    checkpointStore.save(new HarvestCheckpoint("v1", 1, null, (int) loadedRecordCount)));
+        tracker.setCompletionListener(highWaterMarkStore::commit);
+        highWaterMarkStore.stage("2026-10-18");
+
+        final List<String> loadedDocuments = new ArrayList<>();
+        final Iterator<Long> sourcePositions = Arrays.asList(1L, 2L, 3L).iterator();
+        tracker.track(Arrays.asList("a", "b", "c").iterator(), sourcePositions::next).forEachRemaining(loadedDocuments::add);
+
+        assertEquals(3, loadedDocuments.size());
+        assertNull(highWaterMarkStore.load());
+        assertNull(checkpointStore.load());
+
+        tracker.acknowledgeAll();
+
+        assertTrue(tracker.isCompleted());
+        assertEquals("2026-10-18", highWaterMarkStore.load());
+        assertEquals(3, checkpointStore.load().getExtractedCount());
+    }
+
+
+    /**
+     * Tests if a harvest without documents is completed as soon as
+     * the documents are exhausted.
+     */
+    @Test
+    public void testNoDocuments()
+    {
+        assertFalse(tracker.track(Collections.emptyIterator(), () -> 0).hasNext());
+        assertTrue(tracker.isCompleted());
+        assertEquals(1, completionCount.get());
+    }
+
+
+    /**
+     * Tests if tracking a new harvest forgets the documents of the previous one.
+     */
+    @Test
+    public void testNewHarvest()
+    {
+        tracker.track(Arrays.asList("a", "b").iterator(), () -> 0).next();
+        tracker.track(Collections.emptyIterator(), () -> 0);
+
+        assertEquals(0, tracker.getUnacknowledgedCount());
+        assertFalse(tracker.isCompleted());
+    }
+}
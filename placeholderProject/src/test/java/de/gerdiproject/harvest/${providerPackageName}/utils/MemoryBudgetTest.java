@@ -0,0 +1,188 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+/**
+ * This class provides Unit Tests for the {@linkplain MemoryBudget}.
+ *
+ * @author ${authorFullName}
+ */
+public class MemoryBudgetTest
+{
+    private static final long MAX_BYTES = 100;
+    private static final long WAIT_MILLIS = 200;
+    private static final int LARGE_COLLECTION_SIZE = 1000;
+
+
+    /**
+     * Tests if a reservation waits until enough bytes were released.
+     *
+     * @throws InterruptedException thrown if the test was interrupted
+     */
+    @Test
+    public void testBackpressure() throws InterruptedException
+    {
+        final MemoryBudget budget = new MemoryBudget(MAX_BYTES);
+        budget.acquire(MAX_BYTES - 10);
+
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final Thread producer = new Thread(() -> {
+            try {
+                budget.acquire(20);
+                acquired.countDown();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertFalse(acquired.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+
+        budget.release(MAX_BYTES - 10);
+
+        assertTrue(acquired.await(WAIT_MILLIS * 10, TimeUnit.MILLISECONDS));
+        assertEquals(20, budget.getUsedBytes());
+    }
+
+
+    /**
+     * Tests if a reservation that exceeds the budget is granted if nothing else is reserved.
+     *
+     * @throws InterruptedException thrown if the test was interrupted
+     */
+    @Test
+    public void testOversizedReservation() throws InterruptedException
+    {
+        final MemoryBudget budget = new MemoryBudget(MAX_BYTES);
+        budget.acquire(MAX_BYTES * 2);
+
+        assertEquals(MAX_BYTES * 2, budget.getUsedBytes());
+    }
+
+
+    /**
+     * Tests if buffers reserve bytes without waiting, and if their reservations delay
+     * the retrieval of more data until they are released.
+     *
+     * @throws InterruptedException thrown if the test was interrupted
+     */
+    @Test
+    public void testReservation() throws InterruptedException
+    {
+        final MemoryBudget budget = new MemoryBudget(MAX_BYTES);
+        budget.acquire(10);
+        budget.reserve(MAX_BYTES);
+        assertEquals(MAX_BYTES + 10, budget.getUsedBytes());
+
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final Thread producer = new Thread(() -> {
+            try {
+                budget.acquire(10);
+                acquired.countDown();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertFalse(acquired.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+
+        budget.releaseReserved(MAX_BYTES);
+
+        assertTrue(acquired.await(WAIT_MILLIS * 10, TimeUnit.MILLISECONDS));
+        assertEquals(20, budget.getUsedBytes());
+    }
+
+
+    /**
+     * Tests if data is retrieved while only buffers hold reservations, even if they exceed
+     * the budget, because the buffers cannot be emptied without more data.
+     *
+     * @throws InterruptedException thrown if the test was interrupted
+     */
+    @Test
+    public void testAcquireWithFullBuffers() throws InterruptedException
+    {
+        final MemoryBudget budget = new MemoryBudget(MAX_BYTES);
+        budget.reserve(MAX_BYTES * 2);
+        budget.acquire(10);
+
+        assertEquals(MAX_BYTES * 2 + 10, budget.getUsedBytes());
+    }
+
+
+    /**
+     * Tests if an estimated reservation is replaced by the actual size.
+     *
+     * @throws InterruptedException thrown if the test was interrupted
+     */
+    @Test
+    public void testAdjust() throws InterruptedException
+    {
+        final MemoryBudget budget = new MemoryBudget(MAX_BYTES);
+        budget.acquire(10);
+        budget.adjust(10, 30);
+        assertEquals(30, budget.getUsedBytes());
+
+        budget.release(30);
+        assertEquals(0, budget.getUsedBytes());
+    }
+
+
+    /**
+     * Tests if the size of a collection is extrapolated from the JSON size of its elements.
+     */
+    @Test
+    public void testEstimateSize()
+    {
+        // each element is serialized to two characters, e.g. "10", which occupy six bytes
+        final long estimatedSize = MemoryBudget.estimateSize(Arrays.asList(10, 20, 30, 40, 50, 60), new Gson());
+
+        assertEquals(6 * 6, estimatedSize);
+    }
+
+
+    /**
+     * Tests if the size of a large collection is estimated from elements of all of its parts.
+     */
+    @Test
+    public void testEstimateSizeOfLargeCollection()
+    {
+        // the first half is serialized to one character per element, the second half to three
+        final List<Integer> elements = new ArrayList<>();
+        elements.addAll(Collections.nCopies(LARGE_COLLECTION_SIZE / 2, 1));
+        elements.addAll(Collections.nCopies(LARGE_COLLECTION_SIZE / 2, 100));
+
+        final long estimatedSize = MemoryBudget.estimateSize(elements, new Gson());
+
+        assertEquals(LARGE_COLLECTION_SIZE * 2 * 3, estimatedSize);
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain OrderedParallelIterator}.
+ *
+ * @author ${authorFullName}
+ */
+public class OrderedParallelIteratorTest
+{
+    private static final int ELEMENT_COUNT = 100;
+    private static final int PARALLELISM = 4;
+
+
+    /**
+     * Tests if the mapped elements are returned in the order of the source elements,
+     * even if later elements are mapped faster than earlier ones.
+     */
+    @Test
+    public void testOrder()
+    {
+        final List<Integer> sourceElements = new ArrayList<>();
+        final List<String> expectedElements = new ArrayList<>();
+
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            sourceElements.add(i);
+            expectedElements.add(String.valueOf(i));
+        }
+
+        final List<String> mappedElements = new ArrayList<>();
+
+        try
+            (OrderedParallelIterator<Integer, String> iter = new OrderedParallelIterator<>(
+                                                                 sourceElements.iterator(),
+                                                                 OrderedParallelIteratorTest::slowToString,
+                                                                 PARALLELISM)) {
+            iter.forEachRemaining(mappedElements::add);
+        }
+
+        assertEquals(expectedElements, mappedElements);
+    }
+
+
+    /**
+     * Tests if an exception that is thrown by the mapping function is
+     * re-thrown by the iterator.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMappingError()
+    {
+        final List<Integer> sourceElements = new ArrayList<>();
+        sourceElements.add(1);
+
+        try
+            (OrderedParallelIterator<Integer, String> iter = new OrderedParallelIterator<>(
+                                                                 sourceElements.iterator(),
+                                                                 (final Integer i) -> {
+            throw new IllegalArgumentException();
+        },
+        PARALLELISM)) {
+            iter.next();
+        }
+    }
+
+
+    /**
+     * Converts a number to a string, taking longer for even numbers.
+     *
+     * @param number the number that is to be converted
+     *
+     * @return the number as string
+     */
+    private static String slowToString(final Integer number)
+    {
+        if (number % 2 == 0) {
+            try {
+                Thread.sleep(1);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        return String.valueOf(number);
+    }
+}
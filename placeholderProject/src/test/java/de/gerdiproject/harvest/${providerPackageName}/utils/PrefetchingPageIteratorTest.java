@@ -0,0 +1,261 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain PrefetchingPageIterator}.
+ *
+ * @author ${authorFullName}
+ */
+public class PrefetchingPageIteratorTest
+{
+    private static final List<List<Integer>> PAGES = Arrays.asList(
+                                                         Arrays.asList(1, 2, 3),
+                                                         Arrays.asList(4, 5),
+                                                         Arrays.asList(6));
+    private static final long WAIT_MILLIS = 1000;
+
+
+    /**
+     * Tests if all elements of all pages are iterated in the order of the pages.
+     */
+    @Test
+    public void testIterationOrder()
+    {
+        final List<Integer> iteratedElements = new ArrayList<>();
+
+        try
+            (PrefetchingPageIterator<Integer> iter = new PrefetchingPageIterator<>(PrefetchingPageIteratorTest::getPage, 1)) {
+            iter.forEachRemaining(iteratedElements::add);
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), iteratedElements);
+    }
+
+
+    /**
+     * Tests if the iteration can be started from a page other than the first one,
+     * and if completely iterated pages are reported.
+     */
+    @Test
+    public void testResumeFromPage()
+    {
+        final List<Integer> iteratedElements = new ArrayList<>();
+        final List<Integer> completedPages = new ArrayList<>();
+        final int completedElementCount;
+
+        try
+            (PrefetchingPageIterator<Integer> iter = new PrefetchingPageIterator<>(PrefetchingPageIteratorTest::getPage, 1, 1)) {
+            iter.setPageCompletionListener(completedPages::add);
+            iter.forEachRemaining(iteratedElements::add);
+            completedElementCount = iter.getCompletedElementCount();
+        }
+
+        assertEquals(Arrays.asList(4, 5, 6), iteratedElements);
+        assertEquals(Arrays.asList(1, 2), completedPages);
+        assertEquals(3, completedElementCount);
+    }
+
+
+    /**
+     * Tests if all pages are iterated if the memory budget is smaller than a page,
+     * and if all reserved bytes are released afterwards.
+     */
+    @Test
+    public void testMemoryBudget()
+    {
+        final List<Integer> iteratedElements = new ArrayList<>();
+        final MemoryBudget budget = new MemoryBudget(1);
+
+        try
+            (PrefetchingPageIterator<Integer> iter = new PrefetchingPageIterator<>(
+                                                         PrefetchingPageIteratorTest::getPage,
+                                                         PAGES.size(),
+                                                         0,
+                                                         budget,
+                                                         (final Collection<Integer> page) -> (long) page.size())) {
+            iter.forEachRemaining(iteratedElements::add);
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), iteratedElements);
+        assertEquals(0, budget.getUsedBytes());
+    }
+
+
+    /**
+     * Tests if no page is fetched while the size of the previous page does not fit into
+     * the memory budget, so that the budget is not exceeded by a page that waits to be queued.
+     *
+     * @throws InterruptedException thrown if the test was interrupted
+     */
+    @Test
+    public void testReservationBeforeFetch() throws InterruptedException
+    {
+        final AtomicInteger fetchCount = new AtomicInteger();
+        final MemoryBudget budget = new MemoryBudget(PAGES.get(0).size());
+
+        try
+            (PrefetchingPageIterator<Integer> iter = new PrefetchingPageIterator<>(
+                                                         (final int pageIndex) -> {
+                                                             fetchCount.incrementAndGet();
+                                                             return getPage(pageIndex);
+                                                         },
+                                                         PAGES.size(),
+                                                         0,
+                                                         budget,
+                                                         (final Collection<Integer> page) -> (long) page.size())) {
+            Thread.sleep(WAIT_MILLIS / 5);
+            assertEquals(1, fetchCount.get());
+            assertEquals(PAGES.get(0).size(), budget.getUsedBytes());
+
+            final List<Integer> iteratedElements = new ArrayList<>();
+            iter.forEachRemaining(iteratedElements::add);
+            assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), iteratedElements);
+        }
+
+        assertEquals(0, budget.getUsedBytes());
+    }
+
+
+    /**
+     * Tests if the reserved bytes of a page are released, if the page is added to the queue
+     * after the iterator was closed, because the page fetcher ignored the interruption.
+     *
+     * @throws InterruptedException thrown if the test was interrupted
+     */
+    @Test
+    public void testMemoryBudgetAfterClose() throws InterruptedException
+    {
+        final MemoryBudget budget = new MemoryBudget(0);
+        final CountDownLatch fetchStarted = new CountDownLatch(1);
+        final CountDownLatch iteratorClosed = new CountDownLatch(1);
+
+        final PrefetchingPageIterator<Integer> iter = new PrefetchingPageIterator<>(
+            (final int pageIndex) -> {
+                if (pageIndex > 0) {
+                    fetchStarted.countDown();
+
+                    // wait for the iterator to be closed, swallowing its interruption
+                    while (iteratorClosed.getCount() > 0) {
+                        try {
+                            iteratorClosed.await();
+                        } catch (final InterruptedException e) {
+                            // ignored on purpose, like a page fetcher that clears the interrupted flag
+                        }
+                    }
+                }
+
+                return getPage(pageIndex);
+            },
+            1,
+            0,
+            budget,
+            (final Collection<Integer> page) -> (long) page.size());
+
+        iter.next();
+        fetchStarted.await();
+        iter.close();
+        iteratorClosed.countDown();
+
+        final long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+        while (budget.getUsedBytes() > 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(1);
+
+        assertEquals(0, budget.getUsedBytes());
+    }
+
+
+    /**
+     * Tests if an iterator over zero pages has no elements.
+     */
+    @Test
+    public void testNoPages()
+    {
+        try
+            (PrefetchingPageIterator<Integer> iter = new PrefetchingPageIterator<>((final int i) -> null, 1)) {
+            assertFalse(iter.hasNext());
+        }
+    }
+
+
+    /**
+     * Tests if an exception that is thrown while fetching a page is
+     * re-thrown by the iterator.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testFetchError()
+    {
+        try
+            (PrefetchingPageIterator<Integer> iter = new PrefetchingPageIterator<>((final int i) -> {
+            throw new IllegalStateException();
+        }, 1)) {
+            iter.hasNext();
+        }
+    }
+
+
+    /**
+     * Tests if an interruption while waiting for the next page aborts the
+     * iteration with an exception, instead of ending it as if there were no more pages.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testInterruptedIteration()
+    {
+        final CountDownLatch neverFetched = new CountDownLatch(1);
+
+        try
+            (PrefetchingPageIterator<Integer> iter = new PrefetchingPageIterator<>((final int i) -> {
+            try {
+                neverFetched.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }, 1)) {
+            Thread.currentThread().interrupt();
+            iter.hasNext();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+
+    /**
+     * Returns one of the test pages.
+     *
+     * @param pageIndex the index of the page
+     *
+     * @return the page or an empty list if the index is out of bounds
+     */
+    private static Collection<Integer> getPage(final int pageIndex)
+    {
+        return pageIndex < PAGES.size() ? PAGES.get(pageIndex) : Collections.emptyList();
+    }
+}
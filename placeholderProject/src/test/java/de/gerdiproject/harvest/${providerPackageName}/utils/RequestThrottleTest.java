@@ -0,0 +1,129 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain RequestThrottle}.
+ *
+ * @author ${authorFullName}
+ */
+public class RequestThrottleTest
+{
+    private static final int MAX_CONCURRENCY = 4;
+    private static final long TARGET_LATENCY = 100;
+    private static final long RETRY_AFTER = 200;
+
+
+    /**
+     * Tests if the concurrency limit increases while responses are fast,
+     * but never exceeds the maximum concurrency.
+     */
+    @Test
+    public void testIncrease()
+    {
+        final RequestThrottle throttle = new RequestThrottle(0, MAX_CONCURRENCY, TARGET_LATENCY);
+
+        for (int i = 0; i < 100; i++) {
+            throttle.acquire();
+            throttle.release(TARGET_LATENCY);
+        }
+
+        assertEquals(MAX_CONCURRENCY, throttle.getConcurrencyLimit());
+    }
+
+
+    /**
+     * Tests if the concurrency limit does not increase while responses are slow.
+     */
+    @Test
+    public void testSlowResponses()
+    {
+        final RequestThrottle throttle = new RequestThrottle(0, MAX_CONCURRENCY, TARGET_LATENCY);
+
+        for (int i = 0; i < 100; i++) {
+            throttle.acquire();
+            throttle.release(TARGET_LATENCY + 1);
+        }
+
+        assertEquals(1, throttle.getConcurrencyLimit());
+    }
+
+
+    /**
+     * Tests if failed requests neither increase nor decrease the concurrency limit.
+     */
+    @Test
+    public void testFailedRequests()
+    {
+        final RequestThrottle throttle = new RequestThrottle(0, MAX_CONCURRENCY, TARGET_LATENCY);
+
+        for (int i = 0; i < 100; i++) {
+            throttle.acquire();
+            throttle.releaseFailed();
+        }
+
+        assertEquals(1, throttle.getConcurrencyLimit());
+    }
+
+
+    /**
+     * Tests if requests are paused after the host reported to be overloaded.
+     */
+    @Test
+    public void testRetryAfter()
+    {
+        final RequestThrottle throttle = new RequestThrottle(0, MAX_CONCURRENCY, TARGET_LATENCY);
+
+        throttle.acquire();
+        throttle.releaseOverloaded(RETRY_AFTER);
+
+        final long startNanos = System.nanoTime();
+        throttle.acquire();
+        final long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        throttle.release(TARGET_LATENCY);
+
+        assertTrue(waitedMillis >= RETRY_AFTER - 10);
+    }
+
+
+    /**
+     * Tests if the number of started requests per second is limited.
+     */
+    @Test
+    public void testRateLimit()
+    {
+        final int requestsPerSecond = 20;
+        final RequestThrottle throttle = new RequestThrottle(requestsPerSecond, MAX_CONCURRENCY, TARGET_LATENCY);
+
+        final long startNanos = System.nanoTime();
+
+        // the first second worth of requests is available immediately
+        for (int i = 0; i < requestsPerSecond * 2; i++) {
+            throttle.acquire();
+            throttle.release(TARGET_LATENCY);
+        }
+
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        assertTrue(elapsedMillis >= 900);
+    }
+}
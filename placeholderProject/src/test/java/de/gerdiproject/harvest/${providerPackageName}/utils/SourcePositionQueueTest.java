@@ -0,0 +1,77 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.${providerPackageName}.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * This class provides Unit Tests for the {@linkplain SourcePositionQueue}.
+ *
+ * @author ${authorFullName}
+ */
+public class SourcePositionQueueTest
+{
+    /**
+     * Tests if the position of an element that left the stage is the position
+     * of its record, even if the stage retrieved more records in advance.
+     */
+    @Test
+    public void testReadAhead()
+    {
+        final SourcePositionQueue queue = new SourcePositionQueue();
+        final AtomicLong retrievedCount = new AtomicLong();
+        final Iterator<String> records = queue.enter(Arrays.asList("a", "b", "c").iterator(), retrievedCount::incrementAndGet);
+        final Iterator<String> elements = queue.exit(Arrays.asList("A", "B", "C").iterator());
+
+        // the stage retrieves two records before the first element leaves it
+        records.next();
+        records.next();
+        elements.next();
+        assertEquals(1, queue.getLastPosition());
+
+        records.next();
+        elements.next();
+        assertEquals(2, queue.getLastPosition());
+
+        elements.next();
+        assertEquals(3, queue.getLastPosition());
+    }
+
+
+    /**
+     * Tests if records that were skipped before entering the stage are included
+     * in the position of the following element.
+     */
+    @Test
+    public void testSkippedRecords()
+    {
+        final SourcePositionQueue queue = new SourcePositionQueue();
+        final Iterator<Long> positions = Arrays.asList(3L, 4L).iterator();
+        final Iterator<String> elements = queue.exit(queue.enter(Arrays.asList("c", "d").iterator(), positions::next));
+
+        elements.next();
+        assertEquals(3, queue.getLastPosition());
+
+        elements.next();
+        assertEquals(4, queue.getLastPosition());
+    }
+}
@@ -20,23 +20,46 @@ import java.nio.charset.StandardCharsets;
 
 import de.gerdiproject.harvest.${providerClassName}ContextListener;
 import de.gerdiproject.harvest.application.ContextListener;
+import de.gerdiproject.harvest.application.MainContextUtils;
 import de.gerdiproject.harvest.etls.AbstractIteratorETL;
 import de.gerdiproject.harvest.etls.${providerClassName}ETL;
+import de.gerdiproject.harvest.${providerPackageName}.constants.${providerClassName}CacheConstants;
 import de.gerdiproject.harvest.utils.data.DiskIO;
+import de.gerdiproject.harvest.utils.file.FileUtils;
 import de.gerdiproject.json.GsonUtils;
 import de.gerdiproject.json.datacite.DataCiteJson;
 
 /**
  * This class provides Unit Tests for the {@linkplain ${providerClassName}Extractor}.
+ * If HTTP fixtures were recorded, the extractor replays them instead of contacting ${providerName}.
  *
  * @author ${authorFullName}
  */
 public class ${providerClassName}ExtractorTest extends AbstractIteratorExtractorTest<${providerClassName}VO>
 {
+    private static final String HTTP_FIXTURE_FOLDER = "httpFixtures";
+    private static final String HTTP_FIXTURE_SUFFIX = ".properties";
+
     final DiskIO diskReader = new DiskIO(GsonUtils.createGerdiDocumentGsonBuilder().create(), StandardCharsets.UTF_8);
 
 	// TODO if the extractor does not generate ${providerClassName}VOs, replace all occurrences in the unit tests accordingly
 
+    @Override
+    protected AbstractIteratorExtractor<${providerClassName}VO> setUpTestObjects()
+    {
+        // copy recorded HTTP responses to the folder from which the extractor replays them
+        if (hasHttpFixtures()) {
+            final File httpFixtureFolder = new File(
+                MainContextUtils.getCacheDirectory(getClass()),
+                ${providerClassName}CacheConstants.HTTP_FIXTURE_FOLDER);
+
+            FileUtils.copyFile(getResource(HTTP_FIXTURE_FOLDER), httpFixtureFolder);
+        }
+
+        return super.setUpTestObjects();
+    }
+
+
     @Override
     protected ContextListener getContextListener()
     {
@@ -56,7 +79,7 @@ public class ${providerClassName}ExtractorTest extends AbstractIteratorExtractor
     {
 		// TODO check out the src\test\resources\de\gerdiproject\harvest\etls\extractors\${providerClassName}ExtractorTest\config.json
 		// TODO to define all parameters required for testing
-        return getResource("config.json");
+        return hasHttpFixtures() ? getResource("httpFixtureConfig.json") : getResource("config.json");
     }
     
 
@@ -77,4 +100,18 @@ public class ${providerClassName}ExtractorTest extends AbstractIteratorExtractor
         final File resource = getResource("output.json");
         return diskReader.getObject(resource, ${providerClassName}VO.class);
     }
+
+
+    /**
+     * Checks if HTTP responses of ${providerName} were recorded, in which case
+     * they are replayed instead of the mocked HTTP responses.
+     *
+     * @return true if the httpFixtures folder contains recorded responses
+     */
+    private boolean hasHttpFixtures()
+    {
+        final File[] recordings = getResource(HTTP_FIXTURE_FOLDER).listFiles(
+                                      (final File folder, final String fileName) -> fileName.endsWith(HTTP_FIXTURE_SUFFIX));
+        return recordings != null && recordings.length > 0;
+    }
 }
@@ -0,0 +1,282 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.etls.loaders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import de.gerdiproject.json.datacite.DataCiteJson;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ${providerClassName}BulkLoader},
+ * which submits documents to a local HTTP server that imitates the bulk API of a search index.
+ *
+ * @author ${authorFullName}
+ */
+public class ${providerClassName}BulkLoaderTest
+{
+    private static final List<DataCiteJson> DOCUMENTS = Arrays.asList(
+                                                            new DataCiteJson("a"),
+                                                            new DataCiteJson("b"),
+                                                            new DataCiteJson("c"));
+    private static final String ACCEPTED_RESPONSE = "{\"errors\": false, \"items\": []}";
+    private static final String ITEM_FORMAT = "{\"index\": {\"status\": %d}}";
+    private static final String FAILED_ITEM = "{\"index\": {\"status\": 400, \"error\": {\"type\": \"mapper_parsing_exception\"}}}";
+    private static final int READ_TIMEOUT = 200;
+    private static final long RETRY_DELAY = 1;
+    private static final int MAX_RETRIES = 5;
+    private static final long TEST_TIMEOUT = 10000;
+
+    private final Queue<HttpHandler> responses = new ConcurrentLinkedQueue<>();
+    private final List<String> requestBodies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong acknowledgedCount = new AtomicLong();
+    private HttpServer server;
+    private ${providerClassName}BulkLoader loader;
+
+
+    /**
+     * Starts a local HTTP server that answers each request with the next queued response,
+     * and creates a loader that submits documents to it.
+     *
+     * @throws IOException if the server could not be started
+     */
+    @Before
+    public void before() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::respond);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        loader = new ${providerClassName}BulkLoader(
+            "http://localhost:" + server.getAddress().getPort() + "/_bulk",
+            READ_TIMEOUT,
+            RETRY_DELAY,
+            acknowledgedCount::addAndGet);
+    }
+
+
+    /**
+     * Stops the local HTTP server.
+     */
+    @After
+    public void after()
+    {
+        server.stop(0);
+    }
+
+
+    /**
+     * Tests if all documents are acknowledged, if the index reports no errors.
+     *
+     * @throws LoaderException thrown if the documents could not be loaded
+     */
+    @Test(timeout = TEST_TIMEOUT)
+    public void testAcceptedBatch() throws LoaderException
+    {
+        responses.add(createResponse(200, ACCEPTED_RESPONSE));
+
+        loader.load(DOCUMENTS.iterator());
+
+        assertEquals(1, requestBodies.size());
+        assertEquals(DOCUMENTS.size(), acknowledgedCount.get());
+    }
+
+
+    /**
+     * Tests if only the documents that were rejected with status 429 are submitted again,
+     * and if the batch is acknowledged once all of them were stored.
+     *
+     * @throws LoaderException thrown if the documents could not be loaded
+     */
+    @Test(timeout = TEST_TIMEOUT)
+    public void testRejectedItems() throws LoaderException
+    {
+        responses.add(createResponse(200, createItemResponse(
+                                         String.format(ITEM_FORMAT, 201),
+                                         String.format(ITEM_FORMAT, 429),
+                                         String.format(ITEM_FORMAT, 201))));
+        responses.add(createResponse(200, ACCEPTED_RESPONSE));
+
+        loader.load(DOCUMENTS.iterator());
+
+        assertEquals(2, requestBodies.size());
+        assertEquals(2, requestBodies.get(1).split("\n").length);
+        assertTrue(requestBodies.get(1).contains("\"_id\":\"b\""));
+        assertEquals(DOCUMENTS.size(), acknowledgedCount.get());
+    }
+
+
+    /**
+     * Tests if loading fails without acknowledging the batch, if the index failed to
+     * store a document for a reason other than being overloaded.
+     */
+    @Test(timeout = TEST_TIMEOUT)
+    public void testFailedItems()
+    {
+        responses.add(createResponse(200, createItemResponse(
+                                         String.format(ITEM_FORMAT, 201),
+                                         FAILED_ITEM,
+                                         String.format(ITEM_FORMAT, 201))));
+
+        try {
+            loader.load(DOCUMENTS.iterator());
+            fail();
+        } catch (final LoaderException e) {
+            assertTrue(e.getMessage().contains("mapper_parsing_exception"));
+        }
+
+        assertEquals(1, requestBodies.size());
+        assertEquals(0, acknowledgedCount.get());
+    }
+
+
+    /**
+     * Tests if loading fails without acknowledging the batch, if the index rejects it
+     * more often than the loader retries.
+     */
+    @Test(timeout = TEST_TIMEOUT)
+    public void testRetryExhaustion()
+    {
+        for (int i = 0; i <= MAX_RETRIES; i++)
+            responses.add(createResponse(429, ""));
+
+        try {
+            loader.load(DOCUMENTS.iterator());
+            fail();
+        } catch (final LoaderException e) {
+            assertEquals(MAX_RETRIES + 1, requestBodies.size());
+        }
+
+        assertEquals(0, acknowledgedCount.get());
+    }
+
+
+    /**
+     * Tests if a batch is submitted again, if the index does not respond in time.
+     *
+     * @throws LoaderException thrown if the documents could not be loaded
+     */
+    @Test(timeout = TEST_TIMEOUT)
+    public void testTimeout() throws LoaderException
+    {
+        responses.add((final HttpExchange exchange) -> {
+            try {
+                Thread.sleep(READ_TIMEOUT * 2);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            exchange.close();
+        });
+        responses.add(createResponse(200, ACCEPTED_RESPONSE));
+
+        loader.load(DOCUMENTS.iterator());
+
+        assertEquals(2, requestBodies.size());
+        assertEquals(DOCUMENTS.size(), acknowledgedCount.get());
+    }
+
+
+    /**
+     * Records the body of a request and answers it with the next queued response.
+     *
+     * @param exchange the request and response
+     *
+     * @throws IOException if the request could not be read or the response could not be sent
+     */
+    private void respond(final HttpExchange exchange) throws IOException
+    {
+        final ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+
+        try
+            (InputStream requestStream = exchange.getRequestBody()) {
+            final byte[] buffer = new byte[1024];
+            int readBytes;
+
+            while ((readBytes = requestStream.read(buffer)) != -1)
+                requestBody.write(buffer, 0, readBytes);
+        }
+
+        requestBodies.add(new String(requestBody.toByteArray(), StandardCharsets.UTF_8));
+
+        final HttpHandler response = responses.poll();
+
+        if (response == null)
+            createResponse(500, "").handle(exchange);
+        else
+            response.handle(exchange);
+    }
+
+
+    /**
+     * Creates a handler that answers a request with a status code and a body.
+     *
+     * @param statusCode the HTTP status code of the response
+     * @param body the body of the response
+     *
+     * @return a handler that sends the response
+     */
+    private static HttpHandler createResponse(final int statusCode, final String body)
+    {
+        return (final HttpExchange exchange) -> {
+            final byte[] responseBody = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(statusCode, responseBody.length == 0 ? -1 : responseBody.length);
+
+            try
+                (OutputStream responseStream = exchange.getResponseBody()) {
+                responseStream.write(responseBody);
+            }
+        };
+    }
+
+
+    /**
+     * Creates the body of a bulk response that reports errors.
+     *
+     * @param items the results of the bulk entries
+     *
+     * @return the body of the bulk response
+     */
+    private static String createItemResponse(final String... items)
+    {
+        return "{\"errors\": true, \"items\": [" + String.join(",", items) + "]}";
+    }
+}
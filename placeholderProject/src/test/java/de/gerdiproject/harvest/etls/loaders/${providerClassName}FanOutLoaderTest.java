@@ -0,0 +1,273 @@
+/**
+ * Copyright © ${creationYear} ${authorFullName} (http://www.gerdi-project.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.gerdiproject.harvest.etls.loaders;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.gerdiproject.harvest.etls.AbstractETL;
+import de.gerdiproject.json.datacite.DataCiteJson;
+
+/**
+ * This class provides Unit Tests for the {@linkplain ${providerClassName}FanOutLoader}.
+ *
+ * @author ${authorFullName}
+ */
+public class ${providerClassName}FanOutLoaderTest
+{
+    private static final List<DataCiteJson> DOCUMENTS = Arrays.asList(
+                                                            new DataCiteJson("a"),
+                                                            new DataCiteJson("b"),
+                                                            new DataCiteJson("c"));
+
+    // the loaders are instantiated via reflection, so they report to static fields
+    private static final AtomicLong ACKNOWLEDGED_COUNT = new AtomicLong();
+    private static final AtomicLong ACKNOWLEDGED_COUNT_BEFORE_RETURN = new AtomicLong();
+
+
+    /**
+     * Resets the counters of the test loaders.
+     */
+    @Before
+    public void before()
+    {
+        ACKNOWLEDGED_COUNT.set(0);
+        ACKNOWLEDGED_COUNT_BEFORE_RETURN.set(-1);
+    }
+
+
+    /**
+     * Tests if only the documents that were acknowledged by every loader are acknowledged.
+     *
+     * @throws LoaderException thrown if the documents could not be loaded
+     */
+    @Test
+    public void testMinimumAcknowledgement() throws LoaderException
+    {
+        load(AcknowledgingLoader.class, PartiallyAcknowledgingLoader.class);
+
+        assertEquals(DOCUMENTS.size() - 1, ACKNOWLEDGED_COUNT.get());
+    }
+
+
+    /**
+     * Tests if the documents of a loader that does not acknowledge them are
+     * acknowledged once the loader returned, and not before.
+     *
+     * @throws LoaderException thrown if the documents could not be loaded
+     */
+    @Test
+    public void testNonAcknowledgingLoader() throws LoaderException
+    {
+        load(AcknowledgingLoader.class, NonAcknowledgingLoader.class);
+
+        assertEquals(0, ACKNOWLEDGED_COUNT_BEFORE_RETURN.get());
+        assertEquals(DOCUMENTS.size(), ACKNOWLEDGED_COUNT.get());
+    }
+
+
+    /**
+     * Tests if a loader is accepted if it loads DataCite documents via the type argument
+     * of a generic superclass.
+     *
+     * @throws LoaderException thrown if the documents could not be loaded
+     */
+    @Test
+    public void testInheritedDocumentLoader() throws LoaderException
+    {
+        load(InheritedDocumentLoader.class);
+
+        assertEquals(DOCUMENTS.size(), ACKNOWLEDGED_COUNT.get());
+    }
+
+
+    /**
+     * Tests if a loader that does not load DataCite documents is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectedLoader()
+    {
+        new ${providerClassName}FanOutLoader(StringLoader.class.getName(), 1);
+    }
+
+
+    /**
+     * Tests if the fan-out loader is rejected as one of its own loaders.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRecursiveLoader()
+    {
+        new ${providerClassName}FanOutLoader(${providerClassName}FanOutLoader.class.getName(), 1);
+    }
+
+
+    /**
+     * Passes all documents to a fan-out loader of specified loaders, and counts the
+     * documents that it acknowledges.
+     *
+     * @param loaderClasses the classes of the loaders to which the documents are passed
+     *
+     * @throws LoaderException thrown if the documents could not be loaded
+     */
+    private static void load(final Class<?>... loaderClasses) throws LoaderException
+    {
+        final StringBuilder loaderClassNames = new StringBuilder();
+
+        for (final Class<?> loaderClass : loaderClasses)
+            loaderClassNames.append(loaderClass.getName()).append(',');
+
+        final ${providerClassName}FanOutLoader fanOutLoader = new ${providerClassName}FanOutLoader(loaderClassNames.toString(), 1);
+        fanOutLoader.setAcknowledger(ACKNOWLEDGED_COUNT::addAndGet);
+        fanOutLoader.load(DOCUMENTS.iterator());
+    }
+
+
+    /**
+     * A loader that consumes all documents and acknowledges each of them.
+     */
+    public static class AcknowledgingLoader implements IAcknowledgingLoader<Iterator<DataCiteJson>>
+    {
+        protected LongConsumer acknowledger;
+
+
+        @Override
+        public void init(final AbstractETL<?, ?> etl)
+        {
+            // nothing to initialize
+        }
+
+
+        @Override
+        public void setAcknowledger(final LongConsumer acknowledger)
+        {
+            this.acknowledger = acknowledger;
+        }
+
+
+        @Override
+        public void load(final Iterator<DataCiteJson> documents)
+        {
+            documents.forEachRemaining((final DataCiteJson document) -> acknowledger.accept(1));
+        }
+
+
+        @Override
+        public void clear()
+        {
+            // nothing to clean up
+        }
+    }
+
+
+    /**
+     * A loader that consumes all documents, but does not acknowledge the last one.
+     */
+    public static class PartiallyAcknowledgingLoader extends AcknowledgingLoader
+    {
+        @Override
+        public void load(final Iterator<DataCiteJson> documents)
+        {
+            long documentCount = 0;
+
+            for (; documents.hasNext(); documentCount++)
+                documents.next();
+
+            acknowledger.accept(documentCount - 1);
+        }
+    }
+
+
+    /**
+     * A loader that consumes all documents without acknowledging them, and records
+     * how many documents were acknowledged right before it returns.
+     */
+    public static class NonAcknowledgingLoader implements ILoader<Iterator<DataCiteJson>>
+    {
+        @Override
+        public void init(final AbstractETL<?, ?> etl)
+        {
+            // nothing to initialize
+        }
+
+
+        @Override
+        public void load(final Iterator<DataCiteJson> documents)
+        {
+            documents.forEachRemaining((final DataCiteJson document) -> { });
+            ACKNOWLEDGED_COUNT_BEFORE_RETURN.set(ACKNOWLEDGED_COUNT.get());
+        }
+
+
+        @Override
+        public void clear()
+        {
+            // nothing to clean up
+        }
+    }
+
+
+    /**
+     * A loader of any kind of documents.
+     *
+     * @param <T> the type of the loaded documents
+     */
+    public static class GenericLoader<T> implements ILoader<Iterator<T>>
+    {
+        @Override
+        public void init(final AbstractETL<?, ?> etl)
+        {
+            // nothing to initialize
+        }
+
+
+        @Override
+        public void load(final Iterator<T> documents)
+        {
+            documents.forEachRemaining((final T document) -> { });
+        }
+
+
+        @Override
+        public void clear()
+        {
+            // nothing to clean up
+        }
+    }
+
+
+    /**
+     * A loader of DataCite documents, which only declares its document type via its superclass.
+     */
+    public static class InheritedDocumentLoader extends GenericLoader<DataCiteJson>
+    {
+    }
+
+
+    /**
+     * A loader of strings, which must not be passed DataCite documents.
+     */
+    public static class StringLoader extends GenericLoader<String>
+    {
+    }
+}
@@ -23,6 +23,7 @@
 #  2 the OAI-PMH base URL without any query parameters
 #  3 the metadata prefix that is used to retrieve records
 #  4 the version of the OAI-PMH harvester Docker image
+#  5 the directory in which the placeholders are replaced (default: current directory)
 
 # treat unset variables as an error when substituting
 set -u
@@ -25,6 +25,16 @@
 #  3 if "true", the latest nightly version of the OAI-PMH harvester is used
 #    otherwise, the latest released version is chosen (default: false)
 #  4 parent directory of the project directory (default: current directory)
+#  5 if "true", each OAI-PMH record is parsed by a streaming StAX reader as it arrives,
+#    otherwise the whole ListRecords page is parsed as a DOM (default: false)
+#  6 a comma-separated list of setSpecs by which the harvest is partitioned, or "all" to
+#    use all sets of the repository (default: empty, one sequential harvest of all records)
+#  7 the number of set partitions that are harvested concurrently (default: 1)
+#
+# The streaming record reader and the set partitions are only configured by this script.
+# They are implemented by the OaiPmhETL of the OAI-PMH harvester Docker image. Their
+# parameters are only added to the config.json if they were requested, after checking
+# that the chosen version of the OAI-PMH harvester defines them.
 
 # treat unset variables as an error when substituting
 set -u
@@ -114,6 +124,42 @@ GetRepositoryName() {
 }
 
 
+# Retrieves a comma-separated list of all setSpecs of an OAI-PMH repository.
+# The ListSets responses are retrieved until the resumptionToken is empty.
+# 
+# Arguments:
+#  1 - the OAI-PMH base URL without any query parameters
+#
+GetSetSpecs() {
+  local oaiPmhBaseUrl="$1"
+  
+  local setSpecs=""
+  local response
+  response=$(curl -sG "$oaiPmhBaseUrl" --data "verb=ListSets")
+  
+  while true; do
+    setSpecs="$setSpecs"$(echo "$response" | grep -oP "(?<=\<setSpec>).+?(?=\</setSpec>)")$'\n'
+    
+    # an empty or self-closing resumptionToken marks the last page
+    local resumptionToken
+    resumptionToken=$(echo "$response" \
+                      | grep -oP "<resumptionToken(\s[^>]*[^/])?>\K[^<]+" \
+                      | sed -e "s~^\s*~~" -e "s~\s*$~~")
+    
+    if [ -z "$resumptionToken" ]; then
+      break
+    fi
+    
+    response=$(curl -sG "$oaiPmhBaseUrl" --data "verb=ListSets" --data-urlencode "resumptionToken=$resumptionToken")
+  done
+  
+  echo "$setSpecs" \
+    | grep -v "^$" \
+    | tr '\n' ',' \
+    | sed -e "s~,$~~"
+}
+
+
 # Retrieves a simplified name of an OAI-PMH repository from its URL.
 # 
 # Arguments:
@@ -183,6 +229,61 @@ GetLatestOaiPmhTag() {
 }
 
 
+# Checks if the OAI-PMH harvester of a specified version defines an ETL parameter, by
+# searching its key in the constant classes of the tagged sources. Exits if the sources
+# cannot be retrieved or if the key is not defined, because a parameter that the harvester
+# does not define would have no effect.
+#
+# Arguments:
+#  1 - the version of the OAI-PMH harvester
+#  2 - the key of the ETL parameter
+#
+ExitIfParameterIsNotSupported() {
+  local oaiPmhHarvesterVersion="$1"
+  local parameterKey="$2"
+  
+  local repositoryUrl="https://code.gerdi-project.de/rest/api/1.0/projects/har/repos/oai-pmh"
+  local sourcePaths
+  sourcePaths=$(curl -sfX GET "$repositoryUrl/files/src/main/java?at=refs/tags/$oaiPmhHarvesterVersion&limit=1000" \
+                | grep -oP '(?<=")[^"]+Constants\.java(?=")')
+  
+  if [ -z "$sourcePaths" ]; then
+    echo "Could not retrieve the sources of the OAI-PMH harvester $oaiPmhHarvesterVersion to check the parameter '$parameterKey'!">&2
+    exit 1
+  fi
+  
+  local sourcePath
+  for sourcePath in $sourcePaths; do
+    if curl -sfX GET "$repositoryUrl/raw/src/main/java/$sourcePath?at=refs/tags/$oaiPmhHarvesterVersion" \
+       | grep -qF "\"$parameterKey\""; then
+      return 0
+    fi
+  done
+  
+  echo "The OAI-PMH harvester $oaiPmhHarvesterVersion does not define the parameter '$parameterKey'!">&2
+  exit 1
+}
+
+
+# Adds a parameter to the OaiPmhETL section of a config.json file.
+#
+# Arguments:
+#  1 - the path of the config.json file
+#  2 - the key of the parameter
+#  3 - the value of the parameter
+#  4 - the type of the parameter, e.g. StringParameter
+#
+AddEtlParameter() {
+  local configFile="$1"
+  local key="$2"
+  local value
+  value=$(echo "$3" | sed -e 's~[\\&~]~\\&~g')
+  local type="$4"
+  
+  sed --in-place -e "s~\"parameters\" : \[~&\n         {\n            \"key\" : \"$key\",\n            \"value\" : \"$value\",\n            \"type\" : \"$type\"\n         },~" "$configFile"
+}
+
+
 # This is the main function to be called when the script is executed.
 #
 Main() {
@@ -190,6 +291,9 @@ Main() {
   local metadataPrefix="$2"
   local useNightly="${3:-false}"
   local parentDir="${4:-.}"
+  local streamingRecordReader="${5:-false}"
+  local sets="${6:-}"
+  local parallelSets="${7:-1}"
   
   # remove potential query parameters
   local oaiPmhBaseUrl="${oaiPmhUrl%%\?*}"
@@ -197,6 +301,11 @@ Main() {
   # check if the metadata prefix is valid
   ExitIfMetadataPrefixIsNotSupported "$oaiPmhBaseUrl" "$metadataPrefix"
   
+  # retrieve all sets of the repository if requested
+  if [ "$sets" = "all" ]; then
+    sets=$(GetSetSpecs "$oaiPmhBaseUrl")
+  fi
+  
   # retrieve a simplified name of the OAI-PMH repository
   local providerName
   providerName=$(GetSimplifiedRepositoryName "$oaiPmhBaseUrl")
@@ -209,6 +318,16 @@ Main() {
   local oaiPmhHarvesterVersion
   oaiPmhHarvesterVersion=$(GetLatestOaiPmhTag "$useNightly")
   
+  # check if the requested optional parameters are supported before creating any files
+  if [ "$streamingRecordReader" = "true" ]; then
+    ExitIfParameterIsNotSupported "$oaiPmhHarvesterVersion" "streamingRecordReader"
+  fi
+  
+  if [ -n "$sets" ]; then
+    ExitIfParameterIsNotSupported "$oaiPmhHarvesterVersion" "sets"
+    ExitIfParameterIsNotSupported "$oaiPmhHarvesterVersion" "parallelSets"
+  fi
+  
   # create project directory
   local projectDir
   projectDir=$(CreateProjectDirectory "$parentDir" "$providerName")
@@ -232,6 +351,16 @@ Main() {
     "$metadataPrefix"\
     "$oaiPmhHarvesterVersion"\
     "$projectDir" >&2
+  
+  # add optional parameters that are not supported by all versions of the OAI-PMH harvester
+  if [ "$streamingRecordReader" = "true" ]; then
+    AddEtlParameter "$projectDir/config.json" "streamingRecordReader" "true" "BooleanParameter"
+  fi
+  
+  if [ -n "$sets" ]; then
+    AddEtlParameter "$projectDir/config.json" "parallelSets" "$parallelSets" "IntegerParameter"
+    AddEtlParameter "$projectDir/config.json" "sets" "$sets" "StringParameter"
+  fi
 }
 
 